@@ -41,6 +41,7 @@ import megamek.common.net.events.DisconnectedEvent;
 import megamek.common.net.events.PacketReceivedEvent;
 import megamek.common.net.factories.ConnectionFactory;
 import megamek.common.net.listeners.ConnectionListener;
+import megamek.common.net.marshalling.PacketMarshallerFactory;
 import megamek.common.net.packets.Packet;
 import megamek.common.options.GameOptions;
 import megamek.common.options.IBasicOption;
@@ -90,7 +91,6 @@ public class Client implements IClientCommandHandler {
     // here's some game phase stuff
     private MapSettings mapSettings;
     public String phaseReport;
-    public String roundReport;
 
     // random generatorsI
     private AbstractSkillGenerator skillGenerator;
@@ -1038,6 +1038,17 @@ public class Client implements IClientCommandHandler {
         game.setEntity(eindex, entity, movePath);
     }
     
+    /**
+     * Applies a delta update from the server, asking for the full entity if the local copy does
+     * not match the state the delta was computed against.
+     */
+    protected void receiveEntityDeltaUpdate(Packet c) {
+        EntityDelta delta = (EntityDelta) c.getObject(0);
+        if (!game.applyEntityDelta(delta)) {
+            send(new Packet(PacketCommand.ENTITY_FULL_UPDATE_REQUEST, delta.getEntityId()));
+        }
+    }
+
     /**
      * Update multiple entities from the server. Used only in the lobby phase. 
      */
@@ -1354,10 +1365,15 @@ public class Client implements IClientCommandHandler {
                 break;
             case SERVER_VERSION_CHECK:
                 send(new Packet(PacketCommand.CLIENT_VERSIONS, MMConstants.VERSION,
-                        MegaMek.getMegaMekSHA256()));
+                        MegaMek.getMegaMekSHA256(),
+                        PacketMarshallerFactory.getInstance().getSupportedMarshallingTypes()));
                 break;
             case SERVER_GREETING:
                 connected = true;
+                if (c.getObject(0) instanceof Integer) {
+                    // The server has selected the marshalling for the rest of the session
+                    connection.setMarshallingType(c.getIntValue(0));
+                }
                 send(new Packet(PacketCommand.CLIENT_NAME, name, isBot()));
                 if (this instanceof Princess) {
                     ((Princess) this).sendPrincessSettings();
@@ -1419,6 +1435,9 @@ public class Client implements IClientCommandHandler {
             case ENTITY_UPDATE:
                 receiveEntityUpdate(c);
                 break;
+            case ENTITY_DELTA_UPDATE:
+                receiveEntityDeltaUpdate(c);
+                break;
             case ENTITY_MULTIUPDATE:
                 receiveEntitiesUpdate(c);
                 break;
@@ -1503,9 +1522,9 @@ public class Client implements IClientCommandHandler {
                     }
                 }
                 game.addReports((Vector<Report>) c.getObject(0));
-                roundReport = receiveReport(game.getReports(game.getRoundCount()));
                 if (c.getCommand().isSendingReportsTacticalGenius()) {
-                    game.processGameEvent(new GameReportEvent(this, roundReport));
+                    game.processGameEvent(new GameReportEvent(this,
+                            receiveReport(game.getReports(game.getRoundCount()))));
                 }
                 break;
             case SENDING_REPORTS_SPECIAL:
@@ -1523,11 +1542,10 @@ public class Client implements IClientCommandHandler {
                         }
                     }
                 }
-                roundReport = receiveReport(game.getReports(game.getRoundCount()));
                 // We don't really have a copy of the phase report at
                 // this point, so I guess we'll just use the round report
                 // until the next phase actually completes.
-                phaseReport = roundReport;
+                phaseReport = receiveReport(game.getReports(game.getRoundCount()));
                 break;
             case ENTITY_ATTACK:
                 receiveAttack(c);
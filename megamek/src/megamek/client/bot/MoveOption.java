@@ -297,7 +297,7 @@ public class MoveOption extends MovePath {
     // it would be nice to have a stand still move...
     public void setState() {
         setEntity(centity.entity);
-        if (getStepVector().isEmpty()) {
+        if (length() == 0) {
             getEntity().setPosition(pos);
             getEntity().setFacing(facing);
             getEntity().setSecondaryFacing(facing);
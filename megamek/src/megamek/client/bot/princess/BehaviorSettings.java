@@ -111,6 +111,8 @@ public class BehaviorSettings implements Serializable {
     private final Set<Integer> priorityUnitTargets = new HashSet<>(); // What units do I especially want to blow up?
     private int herdMentalityIndex = 5; // How close do I want to stick to my teammates?
     private int braveryIndex = 5; // How quickly will I try to escape once damaged?
+    private int pathRankingThreads = 1; // On how many threads do I rank my paths? 0 for one per processor.
+    private int turnTimeBudget = 0; // How many seconds may I think about a unit's move or fire? 0 for no limit.
     
     private final Set<Integer> ignoredUnitTargets = new HashSet<>();
     //endregion Variable Declarations
@@ -135,6 +137,8 @@ public class BehaviorSettings implements Serializable {
         copy.setHerdMentalityIndex(getHerdMentalityIndex());
         copy.setHyperAggressionIndex(getHyperAggressionIndex());
         copy.setSelfPreservationIndex(getSelfPreservationIndex());
+        copy.setPathRankingThreads(getPathRankingThreads());
+        copy.setTurnTimeBudget(getTurnTimeBudget());
         for (final String t : getStrategicBuildingTargets()) {
             copy.addStrategicTarget(t);
         }
@@ -477,6 +481,81 @@ public class BehaviorSettings implements Serializable {
         }
     }
 
+    /**
+     * On how many threads do I rank my paths? The ranked paths are the same for any number.
+     *
+     * @return The number of threads, or 0 for one per available processor.
+     */
+    public int getPathRankingThreads() {
+        return pathRankingThreads;
+    }
+
+    /**
+     * On how many threads do I rank my paths?
+     *
+     * @return The number of threads to use, which is at least 1.
+     */
+    public int getPathRankingThreadCount() {
+        return (0 == pathRankingThreads) ? Runtime.getRuntime().availableProcessors() : pathRankingThreads;
+    }
+
+    /**
+     * On how many threads do I rank my paths?
+     *
+     * @param pathRankingThreads The number of threads, 1 to rank on the bot's own thread or 0 for
+     *                           one per available processor.
+     */
+    public void setPathRankingThreads(final int pathRankingThreads) {
+        this.pathRankingThreads = Math.max(0, pathRankingThreads);
+    }
+
+    /**
+     * On how many threads do I rank my paths?
+     *
+     * @param pathRankingThreads The number of threads, "1" to rank on the bot's own thread or "0"
+     *                           for one per available processor.
+     */
+    public void setPathRankingThreads(final String pathRankingThreads) throws PrincessException {
+        try {
+            setPathRankingThreads(Integer.parseInt(pathRankingThreads.trim()));
+        } catch (final NumberFormatException ex) {
+            throw new PrincessException(ex);
+        }
+    }
+
+    /**
+     * How long may I think about the move or the fire of a single unit? When the budget runs out,
+     * I go with the best path or firing plan I have found so far, looking at the most promising
+     * ones first.
+     *
+     * @return The budget in seconds, or 0 to always consider everything.
+     */
+    public int getTurnTimeBudget() {
+        return turnTimeBudget;
+    }
+
+    /**
+     * How long may I think about the move or the fire of a single unit?
+     *
+     * @param turnTimeBudget The budget in seconds, or 0 to always consider everything.
+     */
+    public void setTurnTimeBudget(final int turnTimeBudget) {
+        this.turnTimeBudget = Math.max(0, turnTimeBudget);
+    }
+
+    /**
+     * How long may I think about the move or the fire of a single unit?
+     *
+     * @param turnTimeBudget The budget in seconds, or "0" to always consider everything.
+     */
+    public void setTurnTimeBudget(final String turnTimeBudget) throws PrincessException {
+        try {
+            setTurnTimeBudget(Integer.parseInt(turnTimeBudget.trim()));
+        } catch (final NumberFormatException ex) {
+            throw new PrincessException(ex);
+        }
+    }
+
     /**
      * Princess's home edge.
      *
@@ -701,6 +780,10 @@ public class BehaviorSettings implements Serializable {
                 setHerdMentalityIndex(child.getTextContent());
             } else if ("braveryIndex".equalsIgnoreCase(child.getNodeName())) {
                 setBraveryIndex(child.getTextContent());
+            } else if ("pathRankingThreads".equalsIgnoreCase(child.getNodeName())) {
+                setPathRankingThreads(child.getTextContent());
+            } else if ("turnTimeBudget".equalsIgnoreCase(child.getNodeName())) {
+                setTurnTimeBudget(child.getTextContent());
             } else if ("strategicTargets".equalsIgnoreCase(child.getNodeName())) {
                 final NodeList targets = child.getChildNodes();
                 for (int j = 0; j < targets.getLength(); j++) {
@@ -778,6 +861,14 @@ public class BehaviorSettings implements Serializable {
             braveryNode.setTextContent("" + getBraveryIndex());
             behavior.appendChild(braveryNode);
 
+            final Element pathRankingThreadsNode = doc.createElement("pathRankingThreads");
+            pathRankingThreadsNode.setTextContent("" + getPathRankingThreads());
+            behavior.appendChild(pathRankingThreadsNode);
+
+            final Element turnTimeBudgetNode = doc.createElement("turnTimeBudget");
+            turnTimeBudgetNode.setTextContent("" + getTurnTimeBudget());
+            behavior.appendChild(turnTimeBudgetNode);
+
             final Element targetsNode = doc.createElement("strategicBuildingTargets");
             if (includeTargets) {
                 for (final String t : getStrategicBuildingTargets()) {
@@ -819,6 +910,8 @@ public class BehaviorSettings implements Serializable {
         out.append("\n\tFall Shame: ").append(getFallShameIndex());
         out.append("\n\tBravery: ").append(getBraveryIndex());
         out.append("\n\tHerd Mentality: ").append(getHerdMentalityIndex());
+        out.append("\n\tPath Ranking Threads: ").append(getPathRankingThreads());
+        out.append("\n\tTurn Time Budget: ").append(getTurnTimeBudget());
         out.append("\n\tTargets:");
         out.append("\n\t\tCoords: ");
         for (final String t : getStrategicBuildingTargets()) {
@@ -848,6 +941,10 @@ public class BehaviorSettings implements Serializable {
             return false;
         } else if (braveryIndex != that.braveryIndex) {
             return false;
+        } else if (pathRankingThreads != that.pathRankingThreads) {
+            return false;
+        } else if (turnTimeBudget != that.turnTimeBudget) {
+            return false;
         } else if (fallShameIndex != that.fallShameIndex) {
             return false;
         } else if (forcedWithdrawal != that.forcedWithdrawal) {
@@ -893,6 +990,8 @@ public class BehaviorSettings implements Serializable {
         result = 31 * result + ignoredUnitTargets.hashCode();
         result = 31 * result + herdMentalityIndex;
         result = 31 * result + braveryIndex;
+        result = 31 * result + pathRankingThreads;
+        result = 31 * result + turnTimeBudget;
         return result;
     }
 }
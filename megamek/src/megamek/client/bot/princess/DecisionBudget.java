@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.client.bot.princess;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time Princess may spend on deciding the move or the fire of a single unit, as set by
+ * {@link BehaviorSettings#getTurnTimeBudget()}. The path ranking and the firing plan search look
+ * at their most promising candidates first and stop with the best one found so far once the budget
+ * has expired. Budgets are immutable and may be checked from several threads.
+ */
+public final class DecisionBudget {
+    /** A budget that never expires */
+    public static final DecisionBudget UNLIMITED = new DecisionBudget(0);
+
+    private final long startNanos;
+    private final long budgetNanos;
+
+    private DecisionBudget(long budgetNanos) {
+        this.startNanos = System.nanoTime();
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Starts a budget now.
+     *
+     * @param seconds The length of the budget, or 0 for a budget that never expires
+     */
+    public static DecisionBudget start(int seconds) {
+        return (seconds <= 0) ? UNLIMITED : new DecisionBudget(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    /**
+     * @return True if this budget may expire at all
+     */
+    public boolean isLimited() {
+        return budgetNanos > 0;
+    }
+
+    /**
+     * @return True if this budget is limited and has run out
+     */
+    public boolean isExpired() {
+        return isLimited() && ((System.nanoTime() - startNanos) >= budgetNanos);
+    }
+
+    /**
+     * @return The milliseconds since this budget was started
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return The length of this budget in milliseconds, 0 if it is not limited
+     */
+    public long getBudgetMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(budgetNanos);
+    }
+}
@@ -13,6 +13,7 @@
  */
 package megamek.client.bot.princess;
 
+import megamek.client.bot.princess.FiringPlanCalculationParameters.FiringPlanCalculationType;
 import megamek.common.*;
 import megamek.common.actions.*;
 import megamek.common.annotations.Nullable;
@@ -543,7 +544,16 @@ public class FireControl {
                              final @Nullable Targetable target,
                              final @Nullable Coords shooterPosition,
                              final @Nullable Coords targetPosition, final boolean spotting) {
-        return LosEffects.calculateLOS(game, shooter, target, shooterPosition, targetPosition, spotting);
+        return LosEffects.calculateLOS(game, shooter, target, shooterPosition, targetPosition, spotting,
+                getLosCache());
+    }
+
+    /**
+     * @return the LOS cache of the owner, or null if it has no fire control state
+     */
+    private @Nullable TerrainLosCache getLosCache() {
+        final FireControlState fireControlState = owner.getFireControlState();
+        return (fireControlState == null) ? null : fireControlState.getLosCache();
     }
 
     /**
@@ -2093,6 +2103,12 @@ public class FireControl {
             return noTwistPlan;
         }
 
+        // A guess for a given shooter state takes the facing from that state, so twisting the
+        // shooter itself can't improve on it.
+        if ((params.getCalculationType() == FiringPlanCalculationType.GUESS) && (shooterState != null)) {
+            return noTwistPlan;
+        }
+
         // Keep track of our original facing so we can go back to it.
         final int originalFacing = shooter.getSecondaryFacing();
 
@@ -2102,16 +2118,27 @@ public class FireControl {
         // than what we currently have as the best plan then use that. Start with "no twist" as default.
         FiringPlan bestFiringPlan = noTwistPlan;
         for (final int currentTwist : validFacingChanges) {
-            shooter.setSecondaryFacing(correctFacing(originalFacing + currentTwist), false);
+            // Only the firing turn itself stops at the end of the time budget. The guesses made
+            // while ranking paths must not depend on how much time is left.
+            if ((params.getCalculationType() == FiringPlanCalculationType.GET)
+                    && owner.getDecisionBudget().isExpired()) {
+                break;
+            }
+            final int twistedFacing = correctFacing(originalFacing + currentTwist);
 
             FiringPlan twistPlan = null;
             switch (params.getCalculationType()) {
                 case GET:
+                    shooter.setSecondaryFacing(twistedFacing, false);
                     twistPlan = getBestFiringPlan(shooter, target, owner.getGame(), ammoConservation);
                     break;
                 case GUESS:
+                    // Guesses may run on several threads, which must not change the facing of a
+                    // shooter that the others are looking at, so the twist goes into a state
+                    final EntityState twistedState = new EntityState(shooter);
+                    twistedState.setSecondaryFacing(twistedFacing);
                     twistPlan = guessBestFiringPlanUnderHeat(shooter,
-                                                             shooterState,
+                                                             twistedState,
                                                              target,
                                                              targetState,
                                                              maxHeat,
@@ -2125,7 +2152,9 @@ public class FireControl {
         }
 
         // Back to where we started.
-        shooter.setSecondaryFacing(originalFacing, false);
+        if (params.getCalculationType() == FiringPlanCalculationType.GET) {
+            shooter.setSecondaryFacing(originalFacing, false);
+        }
 
         return bestFiringPlan;
     }
@@ -2192,7 +2221,8 @@ public class FireControl {
                 continue;
             }
 
-            LosEffects effects = LosEffects.calculateLOS(spotter.getGame(), spotter, target);
+            LosEffects effects = LosEffects.calculateLOS(spotter.getGame(), spotter, target, false,
+                    fireControlState.getLosCache());
             
             // if we're in LOS
             if (effects.canSee()) {
@@ -2236,7 +2266,8 @@ public class FireControl {
 
             // If they are my enemy and we can either see them or have IDF capability
             if (entity.isTargetable()) {
-                final LosEffects effects = LosEffects.calculateLOS(game, shooter, entity);
+                final LosEffects effects = LosEffects.calculateLOS(game, shooter, entity, false,
+                        fireControlState.getLosCache());
                 
                 // if we're in LOS or we have IDF capability
                 if (effects.canSee() || shooterHasIDF) {
@@ -2297,8 +2328,20 @@ public class FireControl {
         // Get a list of potential targets.
         final List<Targetable> enemies = getTargetableEnemyEntities(shooter, game, owner.getFireControlState());
 
+        // Within a time budget, look at the closest targets first, as they are the easiest to hit.
+        final DecisionBudget budget = owner.getDecisionBudget();
+        if (budget.isLimited() && (shooter.getPosition() != null)) {
+            enemies.sort(Comparator.comparingInt(enemy -> (enemy.getPosition() == null) ? Integer.MAX_VALUE
+                    : shooter.getPosition().distance(enemy.getPosition())));
+        }
+        int considered = 0;
+
         // Loop through each enemy and find the best plan for attacking them.
         for (final Targetable enemy : enemies) {
+            if ((null != bestPlan) && budget.isExpired()) {
+                break;
+            }
+            considered++;
 
             if (owner.getBehaviorSettings().getIgnoredUnitTargets().contains(enemy.getTargetId())) {
                 LogManager.getLogger().info(enemy.getDisplayName() + " is being explicitly ignored");
@@ -2327,6 +2370,12 @@ public class FireControl {
                 bestPlan = plan;
             }
         }
+
+        if (budget.isLimited()) {
+            LogManager.getLogger().info(String.format("Considered %d of %d targets for %s in %d ms of a %d ms budget.",
+                    considered, enemies.size(), shooter.getDisplayName(), budget.getElapsedMillis(),
+                    budget.getBudgetMillis()));
+        }
         
         // Return the best overall plan.
         return bestPlan;
@@ -1,17 +1,19 @@
 package megamek.client.bot.princess;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import megamek.common.Entity;
 import megamek.common.Targetable;
+import megamek.common.TerrainLosCache;
 
 /**
  * This class is a data structure meant to hold Fire Control related
  * state, to keep the FireControl class relatively stateless.
+ * The caches are concurrent, as paths may be ranked on several threads at once.
  */
 public class FireControlState {
     private List<Targetable> additionalTargets;
@@ -21,15 +23,16 @@ public class FireControlState {
     private Map<Integer, Integer> airborneTargetWeaponRanges;
     private Map<Integer, Boolean> isCommander;
     private Map<Integer, Boolean> isSubCommander;
+    private final TerrainLosCache losCache = new TerrainLosCache();
     
     public FireControlState() {
         additionalTargets = new ArrayList<>();
-        entityIDFStates = new HashMap<>();
+        entityIDFStates = new ConcurrentHashMap<>();
         orderedFiringEntities = new LinkedList<>();
-        weaponRanges = new HashMap<>();
-        airborneTargetWeaponRanges = new HashMap<>();
-        isCommander = new HashMap<>();
-        isSubCommander = new HashMap<>();
+        weaponRanges = new ConcurrentHashMap<>();
+        airborneTargetWeaponRanges = new ConcurrentHashMap<>();
+        isCommander = new ConcurrentHashMap<>();
+        isSubCommander = new ConcurrentHashMap<>();
     }
     
     /**
@@ -96,6 +99,14 @@ public class FireControlState {
     public void setCommander(Entity entity, boolean value) {
         isCommander.put(entity.getId(), value);                
     }
+
+    /**
+     * The LOS between positions on the board. It stays valid from phase to phase until the board
+     * changes, so it is not cleared with the transient data.
+     */
+    public TerrainLosCache getLosCache() {
+        return losCache;
+    }
     
     /**
      * Clears data that shouldn't persist phase-to-phase
@@ -71,9 +71,22 @@ public class MultiTargetFireControl extends FireControl {
         // check all valid secondary facings (turret rotations/torso twists) and arm/flip combination
         // to see if there's a better firing plan
         List<Integer> facingChanges = getValidFacingChanges(shooter);
-        facingChanges.add(0); // "no facing change"
+        
+        // within a time budget, start with "no facing change" and stop with the best plan so far
+        // once the budget runs out
+        final DecisionBudget budget = owner.getDecisionBudget();
+        if (budget.isLimited()) {
+            facingChanges.add(0, 0);
+        } else {
+            facingChanges.add(0); // "no facing change"
+        }
         
         for (int currentTwist : facingChanges) {
+            if ((bestPlan.getUtility() > 0) && budget.isExpired()) {
+                LogManager.getLogger().info(shooter.getDisplayName() + " ran out of time after considering "
+                        + facingChanges.indexOf(currentTwist) + " of " + facingChanges.size() + " facings.");
+                break;
+            }
             shooter.setSecondaryFacing(correctFacing(originalFacing + currentTwist), false);
             
             FiringPlan currentPlan = calculateFiringPlan(shooter, weaponList);
@@ -72,7 +72,7 @@ public class NewtonianAerospacePathRanker extends BasicPathRanker implements IPa
 
         // If I don't have LoS, I can't do damage. We're on a space map so this probably is unnecessary.
         LosEffects losEffects = LosEffects.calculateLOS(game, me, enemy, path.getFinalCoords(),
-                enemy.getPosition(), false);
+                enemy.getPosition(), false, getLosCache());
         if (!losEffects.canSee()) {
             return 0;
         }
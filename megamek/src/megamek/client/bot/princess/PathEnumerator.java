@@ -37,13 +37,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class PathEnumerator {
 
     private final Princess owner;
-    private final Game game;
+    private volatile Game game;
     private final Map<Integer, List<MovePath>> unitPaths = new ConcurrentHashMap<>();
     private final Map<Integer, List<BulldozerMovePath>> longRangePaths = new ConcurrentHashMap<>();
     private final Map<Integer, ConvexBoardArea> unitMovableAreas = new ConcurrentHashMap<>();
     private final Map<Integer, Set<CoordFacingCombo>> unitPotentialLocations = new ConcurrentHashMap<>();
     private final Map<Integer, CoordFacingCombo> lastKnownLocations = new ConcurrentHashMap<>();
 
+    /** Held while the paths of a unit are recalculated, so that other units can be done at the same time */
+    private final Map<Integer, Object> unitLocks = new ConcurrentHashMap<>();
+
     private AtomicBoolean mapHasBridges = null;
     private final Object BRIDGE_LOCK = new Object();
 
@@ -117,25 +120,30 @@ public class PathEnumerator {
 
     /**
      * Calculate what to do on my turn.
-     * Has a retry mechanism for when the turn calculation fails due to concurrency issues
+     * Has a retry mechanism for when the turn calculation fails due to concurrency issues.
+     * The paths of different units may be recalculated by several threads at once; the
+     * paths of any one unit are only recalculated by one thread at a time.
      */
-    public synchronized void recalculateMovesFor(final Entity mover) {
-        int retryCount = 0;
-        boolean success = false;
-        
-        while ((retryCount < BotClient.BOT_TURN_RETRY_COUNT) && !success) {
-            success = recalculateMovesForWorker(mover);
-            
-            if (!success) {
-                // if we fail, take a nap for 500-1500 milliseconds, then try again
-                // as it may be due to some kind of thread-related issue
-                // limit number of retries so we're not endlessly spinning
-                // if we can't recover from the error
-                retryCount++;
-                try {
-                    Thread.sleep(Compute.randomInt(1000) + 500);
-                } catch (InterruptedException e) {
-                    LogManager.getLogger().error("", e);
+    public void recalculateMovesFor(final Entity mover) {
+        synchronized (unitLocks.computeIfAbsent(mover.getId(), id -> new Object())) {
+            int retryCount = 0;
+            boolean success = false;
+
+            while ((retryCount < BotClient.BOT_TURN_RETRY_COUNT) && !success) {
+                success = recalculateMovesForWorker(mover);
+
+                if (!success) {
+                    // if we fail, take a nap for 500-1500 milliseconds, then try again
+                    // as it may be due to some kind of thread-related issue
+                    // limit number of retries so we're not endlessly spinning
+                    // if we can't recover from the error
+                    retryCount++;
+                    try {
+                        Thread.sleep(Compute.randomInt(1000) + 500);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
                 }
             }
         }
@@ -145,6 +153,7 @@ public class PathEnumerator {
      * calculates all moves for a given unit, keeping the shortest (or longest, depending) path to each facing/pair
      */
     private boolean recalculateMovesForWorker(final Entity mover) {
+        final Game game = getGame();
         try {
             // Record it's current position.
             getLastKnownLocations().put(
@@ -158,7 +167,7 @@ public class PathEnumerator {
             
             // if the entity does not exist in the game for any reason, let's cut out safely
             // otherwise, we'll run into problems calculating paths
-            if (getGame().getEntity(mover.getId()) == null) {
+            if (game.getEntity(mover.getId()) == null) {
                 // clean up orphaned entries in local storage
                 getUnitMovableAreas().remove(mover.getId());
                 getUnitPotentialLocations().remove(mover.getId());
@@ -172,8 +181,8 @@ public class PathEnumerator {
             // Aero movement on atmospheric ground maps
             // currently only applies to a) conventional aircraft, b) aerotech units, c) lams in air mode
             if (mover.isAirborneAeroOnGroundMap() && !((IAero) mover).isSpheroid()) {
-                AeroGroundPathFinder apf = AeroGroundPathFinder.getInstance(getGame());
-                MovePath startPath = new MovePath(getGame(), mover);
+                AeroGroundPathFinder apf = AeroGroundPathFinder.getInstance(game);
+                MovePath startPath = new MovePath(game, mover);
                 apf.run(startPath);
                 paths.addAll(apf.getAllComputedPathsUncategorized());
                 
@@ -203,17 +212,17 @@ public class PathEnumerator {
                 // logAllPaths(paths);
             // this handles the case of the mover being an aerospace unit and "advances space flight" rules being on
             } else if (mover.isAero() && game.useVectorMove()) {
-                NewtonianAerospacePathFinder npf = NewtonianAerospacePathFinder.getInstance(getGame());
+                NewtonianAerospacePathFinder npf = NewtonianAerospacePathFinder.getInstance(game);
                 npf.run(new MovePath(game, mover));
                 paths.addAll(npf.getAllComputedPathsUncategorized());
             // this handles the case of the mover being an aerospace unit on a space map
             } else if (mover.isAero() && game.getBoard().inSpace()) {
-                AeroSpacePathFinder apf = AeroSpacePathFinder.getInstance(getGame());
+                AeroSpacePathFinder apf = AeroSpacePathFinder.getInstance(game);
                 apf.run(new MovePath(game, mover));
                 paths.addAll(apf.getAllComputedPathsUncategorized());
             // this handles the case of the mover being a winged aerospace unit on a low-atmo map
             } else if (mover.isAero() && game.getBoard().inAtmosphere() && !Compute.useSpheroidAtmosphere(game, mover)) {
-                AeroLowAltitudePathFinder apf = AeroLowAltitudePathFinder.getInstance(getGame());
+                AeroLowAltitudePathFinder apf = AeroLowAltitudePathFinder.getInstance(game);
                 apf.run(new MovePath(game, mover));
                 paths.addAll(apf.getAllComputedPathsUncategorized());
             // this handles the case of the mover acting like a spheroid aerospace unit in an atmosphere
@@ -223,7 +232,7 @@ public class PathEnumerator {
                 paths.addAll(spf.getAllComputedPathsUncategorized());
             // this handles the case of the mover being an infantry unit of some kind, that's not airborne.
             } else if (mover.hasETypeFlag(Entity.ETYPE_INFANTRY) && !mover.isAirborne()) {
-                InfantryPathFinder ipf = InfantryPathFinder.getInstance(getGame());
+                InfantryPathFinder ipf = InfantryPathFinder.getInstance(game);
                 ipf.run(new MovePath(game, mover));
                 paths.addAll(ipf.getAllComputedPathsUncategorized());
                 
@@ -237,28 +246,28 @@ public class PathEnumerator {
                 // TODO: Will this cause Princess to never use MASC?
                 LongestPathFinder lpf = LongestPathFinder
                         .newInstanceOfLongestPath(mover.getRunMPwithoutMASC(),
-                                MoveStepType.FORWARDS, getGame());
+                                MoveStepType.FORWARDS, game);
                 lpf.setComparator(new MovePathMinefieldAvoidanceMinMPMaxDistanceComparator());
                 lpf.run(new MovePath(game, mover));
                 paths.addAll(lpf.getLongestComputedPaths());
 
                 // add walking moves
                 lpf = LongestPathFinder.newInstanceOfLongestPath(
-                        mover.getWalkMP(), MoveStepType.BACKWARDS, getGame());
+                        mover.getWalkMP(), MoveStepType.BACKWARDS, game);
                 lpf.setComparator(new MovePathMinefieldAvoidanceMinMPMaxDistanceComparator());
-                lpf.run(new MovePath(getGame(), mover));
+                lpf.run(new MovePath(game, mover));
                 paths.addAll(lpf.getLongestComputedPaths());
 
                 // add all moves that involve the entity remaining prone 
                 PronePathFinder ppf = new PronePathFinder();
-                ppf.run(new MovePath(getGame(), mover));
+                ppf.run(new MovePath(game, mover));
                 paths.addAll(ppf.getPronePaths());
                 
                 // add jumping moves
                 if (mover.getJumpMP() > 0) {
                     ShortestPathFinder spf = ShortestPathFinder
                             .newInstanceOfOneToAll(mover.getJumpMP(),
-                                    MoveStepType.FORWARDS, getGame());
+                                    MoveStepType.FORWARDS, game);
                     spf.setComparator(new MovePathMinefieldAvoidanceMinMPMaxDistanceComparator());
                     spf.run((new MovePath(game, mover))
                             .addStep(MoveStepType.START_JUMP));
@@ -279,7 +288,7 @@ public class PathEnumerator {
                     @Override
                     public boolean shouldStay(MovePath movePath) {
                         return movePath.isMoveLegal()
-                                && (Compute.stackingViolation(getGame(), mover.getId(), movePath.getFinalCoords()) == null);
+                                && (Compute.stackingViolation(game, mover.getId(), movePath.getFinalCoords()) == null);
                     }
                 };
                 paths = new ArrayList<>(filter.doFilter(paths));
@@ -481,6 +490,14 @@ public class PathEnumerator {
         return game;
     }
 
+    /**
+     * Sets the game whose units' paths are calculated from now on, such as a newer snapshot of
+     * the same game.
+     */
+    void setGame(Game game) {
+        this.game = game;
+    }
+
     private boolean worryAboutBridges() {
         if (mapHasBridges != null) {
             return mapHasBridges.get();
@@ -22,14 +22,18 @@ import megamek.common.options.OptionsConstants;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 
-import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 public abstract class PathRanker implements IPathRanker {
     // TODO: Introduce PathRankerCacheHelper class that contains "global" path ranker state
@@ -46,6 +50,12 @@ public abstract class PathRanker implements IPathRanker {
         NewtonianAerospace
     }
     
+    /** How often the progress of ranking on several threads is reported */
+    private static final long PROGRESS_REPORT_MILLIS = 250;
+
+    /** How many paths per thread are ranked between checks of the turn time budget */
+    private static final int BUDGET_BATCH_PER_THREAD = 4;
+
     private Princess owner;
 
     public PathRanker(Princess princess) {
@@ -74,31 +84,13 @@ public abstract class PathRanker implements IPathRanker {
 
         Coords allyCenter = calcAllyCenter(movePaths.get(0).getEntity().getId(), friends, game);
 
-        ArrayList<RankedPath> returnPaths = new ArrayList<>(validPaths.size());
-        final BigDecimal numberPaths = new BigDecimal(validPaths.size());
-        BigDecimal count = BigDecimal.ZERO;
-        BigDecimal interval = new BigDecimal(5);
+        final ArrayList<RankedPath> returnPaths = rankValidPaths(validPaths, game, maxRange, fallTolerance,
+                enemies, allyCenter);
         
+        // we want to keep track of if any of the paths we've considered have some kind of damage potential
         boolean pathsHaveExpectedDamage = false;
-        
-        for (MovePath path : validPaths) {
-            count = count.add(BigDecimal.ONE);
-            
-            RankedPath rankedPath = rankPath(path, game, maxRange, fallTolerance, enemies, allyCenter);
-            
-            returnPaths.add(rankedPath);
-            
-            // we want to keep track of if any of the paths we've considered have some kind of damage potential
+        for (RankedPath rankedPath : returnPaths) {
             pathsHaveExpectedDamage |= (rankedPath.getExpectedDamage() > 0);
-            
-            BigDecimal percent = count.divide(numberPaths, 2, RoundingMode.DOWN).multiply(new BigDecimal(100))
-                    .round(new MathContext(0, RoundingMode.DOWN));
-            if (percent.compareTo(interval) >= 0) {
-                if (LogManager.getLogger().getLevel().isLessSpecificThan(Level.INFO)) {
-                    getOwner().sendChat("... " + percent.intValue() + "% complete.");
-                }
-                interval = percent.add(new BigDecimal(5));
-            }
         }
         
         Entity mover = movePaths.get(0).getEntity();
@@ -118,6 +110,199 @@ public abstract class PathRanker implements IPathRanker {
         return returnPaths;
     }
 
+    /**
+     * Ranks the given paths, in parallel on the owner's path ranking pool if there is one. Each
+     * path gets the same rank as it would on a single thread, so the best path does not depend on
+     * the number of threads.
+     * <p>
+     * Without a turn time budget, all paths are ranked and returned in the order of the given
+     * paths. Within a budget, the most promising paths are ranked first, as ordered by
+     * {@link #orderForBudget(List, Game, int)}, until the budget runs out. At least one path is
+     * always ranked.
+     */
+    ArrayList<RankedPath> rankValidPaths(List<MovePath> validPaths, Game game, int maxRange,
+                                         double fallTolerance, List<Entity> enemies,
+                                         Coords allyCenter) {
+        final DecisionBudget budget = getOwner().getDecisionBudget();
+        final List<MovePath> paths = budget.isLimited() ? orderForBudget(validPaths, game, maxRange) : validPaths;
+        final RankingProgress progress = new RankingProgress(paths.size());
+        final ForkJoinPool pool = getOwner().getPathRankingPool();
+        final ArrayList<RankedPath> returnPaths = new ArrayList<>(paths.size());
+        if ((pool == null) || (paths.size() < 2)) {
+            for (MovePath path : paths) {
+                if (!returnPaths.isEmpty() && budget.isExpired()) {
+                    break;
+                }
+                returnPaths.add(rankPath(path, game, maxRange, fallTolerance, enemies, allyCenter));
+                progress.pathRanked();
+                progress.report();
+            }
+        } else {
+            // Within a budget the paths are ranked in batches, so that the ranking can stop between them
+            final int batchSize = budget.isLimited() ? (pool.getParallelism() * BUDGET_BATCH_PER_THREAD)
+                    : paths.size();
+            for (int start = 0; (start < paths.size()) && (returnPaths.isEmpty() || !budget.isExpired());
+                    start += batchSize) {
+                final List<MovePath> batch = paths.subList(start, Math.min(paths.size(), start + batchSize));
+                if (!rankBatch(pool, batch, game, maxRange, fallTolerance, enemies, allyCenter, progress,
+                        returnPaths)) {
+                    return new ArrayList<>();
+                }
+            }
+        }
+
+        if (budget.isLimited()) {
+            logBudgetedRanking(returnPaths, paths.size(), budget);
+        }
+        return returnPaths;
+    }
+
+    /**
+     * Ranks a batch of paths on the given pool and adds them to the ranked paths in the order of
+     * the batch.
+     *
+     * @return False if the bot was interrupted while waiting for the ranking threads
+     */
+    private boolean rankBatch(ForkJoinPool pool, List<MovePath> batch, Game game, int maxRange,
+                              double fallTolerance, List<Entity> enemies, Coords allyCenter,
+                              RankingProgress progress, List<RankedPath> rankedPaths) {
+        // The success probabilities are cached by path key, and two paths may share a key. Fill the
+        // cache in path order so that the ranking threads find the same values as a single thread.
+        for (MovePath path : batch) {
+            getMovePathSuccessProbability(path, new StringBuilder());
+        }
+
+        final ForkJoinTask<List<RankedPath>> task = pool.submit(() -> batch.parallelStream()
+                .map(path -> {
+                    RankedPath rankedPath = rankPath(path, game, maxRange, fallTolerance, enemies, allyCenter);
+                    progress.pathRanked();
+                    return rankedPath;
+                })
+                .collect(Collectors.toList()));
+        try {
+            while (true) {
+                try {
+                    rankedPaths.addAll(task.get(PROGRESS_REPORT_MILLIS, TimeUnit.MILLISECONDS));
+                    progress.report();
+                    return true;
+                } catch (TimeoutException ignored) {
+                    progress.report();
+                }
+            }
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            LogManager.getLogger().warn("Interrupted while ranking paths.");
+            return false;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Path ranking failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Orders the paths so that the ones most likely to rank well come first when they are ranked
+     * within a turn time budget. Only the final hex of a path is looked at: a unit that wants to
+     * fall back prefers the hexes farthest from the closest enemy, any other unit prefers the
+     * hexes from which it can reach the closest enemy with its weapons, then the closer ones.
+     * Every destination gets its first path before any destination gets its second, and the paths
+     * to the same hex are ordered by the hexes moved, so that a short budget still sees as many
+     * destinations as possible with their best defensive moves.
+     *
+     * @param paths    The paths to order, which are not changed
+     * @param game     The current {@link Game}
+     * @param maxRange The range of the moving unit's longest reaching weapon
+     * @return The ordered paths
+     */
+    protected List<MovePath> orderForBudget(List<MovePath> paths, Game game, int maxRange) {
+        if (paths.size() < 2) {
+            return paths;
+        }
+
+        final Entity mover = paths.get(0).getEntity();
+        final boolean fallingBack = getOwner().wantsToFallBack(mover);
+        final Map<Coords, List<MovePath>> destinations = new LinkedHashMap<>();
+        for (MovePath path : paths) {
+            destinations.computeIfAbsent(path.getFinalCoords(), c -> new ArrayList<>()).add(path);
+        }
+
+        final Map<Coords, Integer> penalties = new HashMap<>();
+        for (Coords destination : destinations.keySet()) {
+            final Targetable closest = findClosestEnemy(mover, destination, game);
+            int penalty = 0;
+            if ((closest != null) && (closest.getPosition() != null)) {
+                final int distance = destination.distance(closest.getPosition());
+                penalty = fallingBack ? -distance : Math.max(0, distance - maxRange);
+            }
+            penalties.put(destination, penalty);
+        }
+
+        final List<List<MovePath>> ordered = new ArrayList<>(destinations.values());
+        ordered.sort(Comparator.comparingInt(list -> penalties.get(list.get(0).getFinalCoords())));
+        for (List<MovePath> list : ordered) {
+            list.sort(Comparator.comparingInt(MovePath::getHexesMoved).reversed());
+        }
+
+        final List<MovePath> result = new ArrayList<>(paths.size());
+        for (int round = 0; result.size() < paths.size(); round++) {
+            for (List<MovePath> list : ordered) {
+                if (round < list.size()) {
+                    result.add(list.get(round));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Logs how much of a turn time budget the ranking took and how many paths it got to, along
+     * with how early in the ranking order the best path was found, which hints at how much a
+     * larger budget might improve on it.
+     */
+    private void logBudgetedRanking(List<RankedPath> rankedPaths, int numberPaths, DecisionBudget budget) {
+        final RankedPath best = getBestPath(rankedPaths);
+        if (best == null) {
+            return;
+        }
+        LogManager.getLogger().info(String.format("Ranked %d of %d paths for %s in %d ms of a %d ms budget. "
+                        + "The best path, ranked %s, was number %d.",
+                rankedPaths.size(), numberPaths, best.getPath().getEntity().getDisplayName(),
+                budget.getElapsedMillis(), budget.getBudgetMillis(),
+                NumberFormat.getInstance().format(best.getRank()), rankedPaths.indexOf(best) + 1));
+    }
+
+    /**
+     * Counts the ranked paths, which the ranking threads may do concurrently, and reports the
+     * progress in 5% steps. Only the thread that ranks the paths for the bot sends the reports.
+     */
+    private class RankingProgress {
+        private static final int INTERVAL = 5;
+
+        private final int numberPaths;
+        private final AtomicInteger count = new AtomicInteger();
+        private int nextReport = INTERVAL;
+
+        RankingProgress(int numberPaths) {
+            this.numberPaths = numberPaths;
+        }
+
+        void pathRanked() {
+            count.incrementAndGet();
+        }
+
+        void report() {
+            int percent = (int) ((count.get() * 100L) / numberPaths);
+            if (percent >= nextReport) {
+                if (LogManager.getLogger().getLevel().isLessSpecificThan(Level.INFO)) {
+                    getOwner().sendChat("... " + percent + "% complete.");
+                }
+                nextReport = percent + INTERVAL;
+            }
+        }
+    }
+
     private List<MovePath> validatePaths(List<MovePath> startingPathList, Game game, int maxRange,
                                          double fallTolerance) {
         if (startingPathList.isEmpty()) {
@@ -513,4 +698,12 @@ public abstract class PathRanker implements IPathRanker {
     protected PathRankerState getPathRankerState() {
         return owner.getPathRankerState();
     }
+
+    /**
+     * @return the owner's cache of the LOS between positions, or null if it has no fire control state
+     */
+    protected @Nullable TerrainLosCache getLosCache() {
+        final FireControlState fireControlState = owner.getFireControlState();
+        return (fireControlState == null) ? null : fireControlState.getLosCache();
+    }
 }
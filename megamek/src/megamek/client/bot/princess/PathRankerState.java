@@ -1,7 +1,7 @@
 package megamek.client.bot.princess;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import megamek.common.Coords;
 import megamek.common.MovePath;
@@ -9,11 +9,11 @@ import megamek.common.MovePath;
 /**
  * This class handles state information for Princess' path ranking algorithms, as the pathranker and its 
  * subclasses are intended to be basically stateless.
- *
+ * The maps are concurrent, as paths may be ranked on several threads at once.
  */
 public class PathRankerState {
-    private Map<MovePath.Key, Double> pathSuccessProbabilities = new HashMap<>();
-    private Map<Coords, Double> incomingFriendlyArtilleryDamage = new HashMap<>();
+    private Map<MovePath.Key, Double> pathSuccessProbabilities = new ConcurrentHashMap<>();
+    private Map<Coords, Double> incomingFriendlyArtilleryDamage = new ConcurrentHashMap<>();
     
     /**
      * The map of success probabilities for given move paths.
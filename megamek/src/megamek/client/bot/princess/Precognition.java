@@ -16,19 +16,11 @@ package megamek.client.bot.princess;
 
 import megamek.client.bot.princess.BotGeometry.CoordFacingCombo;
 import megamek.common.*;
-import megamek.common.actions.*;
-import megamek.common.annotations.Nullable;
-import megamek.common.enums.GamePhase;
 import megamek.common.event.*;
-import megamek.common.net.packets.Packet;
-import megamek.common.net.enums.PacketCommand;
-import megamek.common.options.GameOptions;
-import megamek.server.SmokeCloud;
 import org.apache.logging.log4j.LogManager;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -43,12 +35,11 @@ public class Precognition implements Runnable {
     private final Princess owner;
     
     /**
-     * Precognition's version of the game, which should mirror the game in
-     * Princess, but should not be the same reference. If Precognition and
-     * Princess share the same game reference, then this will cause concurrency
-     * issues.
+     * A snapshot of the game of Princess, see {@link #getGame()}. Precognition must not use the
+     * game of Princess itself, as it is updated on another thread.
      */
-    private Game game;
+    private volatile Game game;
+    private volatile boolean gameChanged = false;
     private final ReentrantLock GAME_LOCK = new ReentrantLock();
 
     /**
@@ -68,24 +59,25 @@ public class Precognition implements Runnable {
     // events that may affect which units are dirty
     private final ConcurrentLinkedQueue<GameEvent> eventsToProcess = new ConcurrentLinkedQueue<>();
 
+    // events of the game of Princess during the update that is running, see updateGame
+    private final ConcurrentLinkedQueue<GameEvent> unpublishedEvents = new ConcurrentLinkedQueue<>();
+
     private final AtomicBoolean waitWhenDone = new AtomicBoolean(false); // used for pausing
     private final AtomicBoolean waiting = new AtomicBoolean(false);
     private final AtomicBoolean done = new AtomicBoolean(false);
 
     public Precognition(Princess owner) {
         this.owner = owner;
-        this.game = new Game();
-        getGame().addGameListener(new GameListenerAdapter() {
+        this.game = owner.getGame().snapshot();
+        owner.getGame().addGameListener(new GameListenerAdapter() {
             @Override
             public void gameEntityChange(GameEntityChangeEvent changeEvent) {
-                getEventsToProcess().add(changeEvent);
-                wakeUp();
+                unpublishedEvents.add(changeEvent);
             }
 
             @Override
             public void gamePhaseChange(GamePhaseChangeEvent changeEvent) {
-                getEventsToProcess().add(changeEvent);
-                wakeUp();
+                unpublishedEvents.add(changeEvent);
             }
         });
         setPathEnumerator(new PathEnumerator(owner, getGame()));
@@ -95,185 +87,27 @@ public class Precognition implements Runnable {
     }
     
     /**
-     * Pared down version of Client.handlePacket; essentially it's only looking
-     * for packets that update Game.  This ensures that Precognition's Game
-     * instance stays up-to-date with Princess's instance of Game.
-     * @param c The packet to be handled.
+     * Runs an update of the game of Princess, such as handling a packet, so that no snapshot of
+     * her game is taken while it is being updated. The events of the update are then passed to the
+     * precognition thread, which sees them together with a snapshot that includes the update.
+     *
+     * @param update The update of the game of Princess.
      */
-    @SuppressWarnings("unchecked")
-    void handlePacket(Packet c) {
-        if (c == null) {
-            LogManager.getLogger().warn("Client: got null packet");
-            return;
-        }
-        // Game isn't thread safe; other threads shouldn't use  game while
-        // it may be being updated
+    void updateGame(Runnable update) {
         GAME_LOCK.lock();
         try {
-            switch (c.getCommand()) {
-                case PLAYER_UPDATE:
-                    receivePlayerInfo(c);
-                    break;
-                case PLAYER_READY:
-                    final Player player = getPlayer(c.getIntValue(0));
-                    if (player != null) {
-                        player.setDone(c.getBooleanValue(1));
-                    }
-                    break;
-                case PLAYER_ADD:
-                    receivePlayerInfo(c);
-                    break;
-                case PLAYER_REMOVE:
-                    getGame().removePlayer(c.getIntValue(0));
-                    break;
-                case CHAT:
-                    getGame().processGameEvent(new GamePlayerChatEvent(this, null,
-                            (String) c.getObject(0)));
-                    break;
-                case ENTITY_ADD:
-                    receiveEntityAdd(c);
-                    break;
-                case ENTITY_UPDATE:
-                    receiveEntityUpdate(c);
-                    break;
-                case ENTITY_REMOVE:
-                    receiveEntityRemove(c);
-                    break;
-                case ENTITY_VISIBILITY_INDICATOR:
-                    receiveEntityVisibilityIndicator(c);
-                    break;
-                case SENDING_MINEFIELDS:
-                    receiveSendingMinefields(c);
-                    break;
-                case SENDING_ILLUM_HEXES:
-                    receiveIlluminatedHexes(c);
-                    break;
-                case CLEAR_ILLUM_HEXES:
-                    getGame().clearIlluminatedPositions();
-                    break;
-                case UPDATE_MINEFIELDS:
-                    receiveUpdateMinefields(c);
-                    break;
-                case DEPLOY_MINEFIELDS:
-                    receiveDeployMinefields(c);
-                    break;
-                case REVEAL_MINEFIELD:
-                    receiveRevealMinefield(c);
-                    break;
-                case REMOVE_MINEFIELD:
-                    receiveRemoveMinefield(c);
-                    break;
-                case ADD_SMOKE_CLOUD:
-                    SmokeCloud cloud = (SmokeCloud) c.getObject(0);
-                    getGame().addSmokeCloud(cloud);
-                    break;
-                case CHANGE_HEX:
-                    getGame().getBoard().setHex((Coords) c.getObject(0), (Hex) c.getObject(1));
-                    break;
-                case CHANGE_HEXES:
-                    List<Coords> coords = new ArrayList<>((Set<Coords>) c.getObject(0));
-                    List<Hex> hexes = new ArrayList<>((Set<Hex>) c.getObject(1));
-                    getGame().getBoard().setHexes(coords, hexes);
-                    break;
-                case BLDG_UPDATE:
-                    receiveBuildingUpdate(c);
-                    break;
-                case BLDG_COLLAPSE:
-                    receiveBuildingCollapse(c);
-                    break;
-                case PHASE_CHANGE:
-                    getGame().setPhase((GamePhase) c.getObject(0));
-                    break;
-                case TURN:
-                    getGame().setTurnIndex(c.getIntValue(0), c.getIntValue(1));
-                    break;
-                case ROUND_UPDATE:
-                    getGame().setRoundCount(c.getIntValue(0));
-                    break;
-                case SENDING_TURNS:
-                    receiveTurns(c);
-                    break;
-                case SENDING_BOARD:
-                    receiveBoard(c);
-                    break;
-                case SENDING_ENTITIES:
-                    receiveEntities(c);
-                    break;
-                case SENDING_REPORTS:
-                case SENDING_REPORTS_TACTICAL_GENIUS:
-                    getGame().addReports((Vector<Report>) c.getObject(0));
-                    break;
-                case SENDING_REPORTS_ALL:
-                    Vector<Vector<Report>> allReports = (Vector<Vector<Report>>) c.getObject(0);
-                    getGame().setAllReports(allReports);
-                    break;
-                case ENTITY_ATTACK:
-                    receiveAttack(c);
-                    break;
-                case SENDING_GAME_SETTINGS:
-                    getGame().setOptions((GameOptions) c.getObject(0));
-                    break;
-                case SENDING_PLANETARY_CONDITIONS:
-                    getGame().setPlanetaryConditions((PlanetaryConditions) c.getObject(0));
-                    getGame().processGameEvent(new GameSettingsChangeEvent(this));
-                    break;
-                case SENDING_TAG_INFO:
-                    Vector<TagInfo> vti = (Vector<TagInfo>) c.getObject(0);
-                    for (TagInfo ti : vti) {
-                        getGame().addTagInfo(ti);
-                    }
-                    break;
-                case RESET_TAG_INFO:
-                    getGame().resetTagInfo();
-                    break;
-                case SENDING_ARTILLERY_ATTACKS:
-                    Vector<ArtilleryAttackAction> v = (Vector<ArtilleryAttackAction>) c.getObject(0);
-                    getGame().setArtilleryVector(v);
-                    break;
-                case SENDING_FLARES:
-                    Vector<Flare> v2 = (Vector<Flare>) c.getObject(0);
-                    getGame().setFlares(v2);
-                    break;
-                case SENDING_SPECIAL_HEX_DISPLAY:
-                    getGame().getBoard().setSpecialHexDisplayTable(
-                            (Hashtable<Coords, Collection<SpecialHexDisplay>>) c.getObject(0));
-                    getGame().processGameEvent(new GameBoardChangeEvent(this));
-                    break;
-                case ENTITY_NOVA_NETWORK_CHANGE:
-                    receiveEntityNovaNetworkModeChange(c);
-                    break;
-                case CLIENT_FEEDBACK_REQUEST:
-                    final PacketCommand cfrType = (PacketCommand) c.getData()[0];
-                    GameCFREvent cfrEvt = new GameCFREvent(this, cfrType);
-                    switch (cfrType) {
-                        case CFR_DOMINO_EFFECT:
-                            cfrEvt.setEntityId((int) c.getData()[1]);
-                            break;
-                        case CFR_AMS_ASSIGN:
-                            cfrEvt.setEntityId((int) c.getData()[1]);
-                            cfrEvt.setAmsEquipNum((int) c.getData()[2]);
-                            cfrEvt.setWAAs((List<WeaponAttackAction>) c.getData()[3]);
-                            break;
-                        case CFR_APDS_ASSIGN:
-                            cfrEvt.setEntityId((int) c.getData()[1]);
-                            cfrEvt.setApdsDists((List<Integer>) c.getData()[2]);
-                            cfrEvt.setWAAs((List<WeaponAttackAction>) c.getData()[3]);
-                            break;
-                        default:
-                            break;
-                    }
-                    getGame().processGameEvent(cfrEvt);
-                    break;
-                case GAME_VICTORY_EVENT:
-                    GameVictoryEvent gve = new GameVictoryEvent(this, getGame());
-                    getGame().processGameEvent(gve);
-                    break;
-                default:
-                    break;
-            }
+            update.run();
         } finally {
+            gameChanged = true;
             GAME_LOCK.unlock();
         }
+        if (!unpublishedEvents.isEmpty()) {
+            GameEvent event;
+            while ((event = unpublishedEvents.poll()) != null) {
+                getEventsToProcess().add(event);
+            }
+            wakeUp();
+        }
     }
 
     private void pause() {
@@ -309,6 +143,7 @@ public class Precognition implements Runnable {
      * locations call this right before making a move. automatically pauses.
      */
     void ensureUpToDate() {
+        final long start = System.nanoTime();
         try {
             pause();
             for (Entity entity : getGame().getEntitiesVector()) {
@@ -325,20 +160,9 @@ public class Precognition implements Runnable {
                     dirtifyUnit(entity.getId());
                 }
             }
-            while (!getDirtyUnits().isEmpty()) {
-                // If Precog is done, just exit
-                if (getDone().get()) {
-                    return;
-                }
-                
-                Integer entityId = getDirtyUnits().pollFirst();
-                Entity entity = getGame().getEntity(entityId);
-                if (entity != null) {
-                    LogManager.getLogger().debug("recalculating paths for " + entity.getDisplayName());
-                    getPathEnumerator().recalculateMovesFor(entity);
-                    LogManager.getLogger().debug("finished recalculating paths for " + entity.getDisplayName());
-                }
-            }
+            final int units = recalculateDirtyUnits(false);
+            LogManager.getLogger().debug(String.format("Brought the paths of %s up to date in %d ms, %d units recalculated",
+                    getOwner().getName(), (System.nanoTime() - start) / 1_000_000, units));
         } catch (Exception ignored) {
 
         }
@@ -354,12 +178,11 @@ public class Precognition implements Runnable {
                     ecmInfo = ComputeECM.computeAllEntitiesECMInfo(
                             getGame().getEntitiesVector());
                 } else if (!getDirtyUnits().isEmpty()) {
-                    Entity entity = getGame().getEntity(getDirtyUnits().pollFirst());
-                    if ((entity != null) && isEntityOnMap(entity)) {
-                        unPause();
-                        LogManager.getLogger().debug("recalculating paths for " + entity.getDisplayName());
-                        getPathEnumerator().recalculateMovesFor(entity);
-                        LogManager.getLogger().debug("finished recalculating paths for " + entity.getDisplayName());
+                    final long start = System.nanoTime();
+                    final int units = recalculateDirtyUnits(true);
+                    if (units > 0) {
+                        LogManager.getLogger().debug(String.format("Recalculated the paths of %d units in %d ms",
+                                units, (System.nanoTime() - start) / 1_000_000));
                     }
                 } else if (getWaitWhenDone().get()) {
                     waitForUnpause(); // paused for a reason
@@ -371,6 +194,60 @@ public class Precognition implements Runnable {
         }
     }
 
+    /**
+     * Recalculates the paths of the dirty units in the latest snapshot of the game until there
+     * are none left, several units at a time on the path ranking pool of the bot if it has one,
+     * and returns when all of them are done.
+     *
+     * @param onMapOnly true to leave out the units that are not on the board
+     * @return the number of units whose paths were recalculated
+     */
+    private int recalculateDirtyUnits(boolean onMapOnly) throws InterruptedException {
+        final Game game = getGame();
+        getPathEnumerator().setGame(game);
+        final ForkJoinPool pool = getOwner().getPathRankingPool();
+        final List<Future<?>> pending = new ArrayList<>();
+        int units = 0;
+        Integer entityId;
+        while (!getDone().get() && ((entityId = getDirtyUnits().pollFirst()) != null)) {
+            final Entity entity = game.getEntity(entityId);
+            if ((entity == null) || (onMapOnly && !isEntityOnMap(entity))) {
+                continue;
+            }
+            if (onMapOnly) {
+                unPause();
+            }
+            units++;
+            try {
+                if (pool != null) {
+                    pending.add(pool.submit(() -> recalculateMovesFor(entity)));
+                    continue;
+                }
+            } catch (RejectedExecutionException ignored) {
+                // the pool was shut down because the number of threads changed
+            }
+            recalculateMovesFor(entity);
+        }
+        for (Future<?> result : pending) {
+            try {
+                result.get();
+            } catch (ExecutionException ex) {
+                LogManager.getLogger().error("", ex.getCause());
+            }
+        }
+        return units;
+    }
+
+    private void recalculateMovesFor(Entity entity) {
+        if (getDone().get()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        getPathEnumerator().recalculateMovesFor(entity);
+        LogManager.getLogger().debug(String.format("Recalculated paths for %s in %d ms",
+                entity.getDisplayName(), (System.nanoTime() - start) / 1_000_000));
+    }
+
     void signalDone() {
         getDone().set(true);
     }
@@ -406,69 +283,64 @@ public class Precognition implements Runnable {
      * if a unit has moved, my precaculated paths are no longer valid
      */
     private void processGameEvents() {
-        // We don't want Game to change while this is happening
-        GAME_LOCK.lock();
-        try {
-            LinkedList<GameEvent> eventsToProcessIterator = new LinkedList<>(getEventsToProcess());
-            int numEvents = eventsToProcessIterator.size();
-            for (int count = 0; count < numEvents; count++) {
-                LogManager.getLogger().debug("Processing event " + (count + 1) + " out of " + numEvents);
-                GameEvent event = eventsToProcessIterator.get(count);
-                if (event == null) {
+        final Game game = getGame();
+        LinkedList<GameEvent> eventsToProcessIterator = new LinkedList<>(getEventsToProcess());
+        int numEvents = eventsToProcessIterator.size();
+        for (int count = 0; count < numEvents; count++) {
+            LogManager.getLogger().debug("Processing event " + (count + 1) + " out of " + numEvents);
+            GameEvent event = eventsToProcessIterator.get(count);
+            if (event == null) {
+                continue;
+            }
+            LogManager.getLogger().debug("Processing " + event);
+            getEventsToProcess().remove(event);
+            if (event instanceof GameEntityChangeEvent) {
+                // Ignore entity changes that don't happen during movement
+                if (!game.getPhase().isMovement()) {
                     continue;
                 }
-                LogManager.getLogger().debug("Processing " + event);
-                getEventsToProcess().remove(event);
-                if (event instanceof GameEntityChangeEvent) {
-                    // Ignore entity changes that don't happen during movement
-                    if (!getGame().getPhase().isMovement()) {
-                        continue;
-                    }
-                    GameEntityChangeEvent changeEvent = (GameEntityChangeEvent) event;
-                    if (changeEvent.getEntity() == null) {
-                        continue; // just to be safe
-                    }
-                    Entity entity = getGame().getEntity(changeEvent.getEntity().getId());
-                    if (entity == null) {
-                        continue; // not sure how this can happen, but just to be
-                        // safe
-                    }
+                GameEntityChangeEvent changeEvent = (GameEntityChangeEvent) event;
+                if (changeEvent.getEntity() == null) {
+                    continue; // just to be safe
+                }
+                Entity entity = game.getEntity(changeEvent.getEntity().getId());
+                if (entity == null) {
+                    continue; // not sure how this can happen, but just to be
+                    // safe
+                }
 
-                    // a lot of odd entity changes are sent during the firing phase,
-                    // none of which are relevant
-                    if (getGame().getPhase().isFiring()) {
-                        continue;
-                    }
-                    Coords position = entity.getPosition();
-                    if (position == null) {
-                        continue;
-                    }
-                    if (position.equals(getPathEnumerator().getLastKnownCoords(entity.getId()))) {
-                        continue; // no sense in updating a unit if it hasn't moved
-                    }
-                    LogManager.getLogger().debug("Received entity change event for "
-                                    + changeEvent.getEntity().getDisplayName()
-                                    + " (ID " + entity.getId() + ")");
-                    dirtifyUnit(changeEvent.getEntity().getId());
-                } else if (event instanceof GamePhaseChangeEvent) {
-                    GamePhaseChangeEvent phaseChange = (GamePhaseChangeEvent) event;
-                    LogManager.getLogger().debug("Phase change detected: " + phaseChange.getNewPhase().name());
-                    // this marks when I can all I can start recalculating paths.
-                    // All units are dirty
-                    if (phaseChange.getNewPhase().isMovement()) {
-                        getPathEnumerator().clear();
-                        for (Entity entity : getGame().getEntitiesVector()) {
-                            if (entity.isActive() && entity.isDeployed() && entity.getPosition() != null) {
-                                getDirtyUnits().add(entity.getId());
-                            }
+                // a lot of odd entity changes are sent during the firing phase,
+                // none of which are relevant
+                if (game.getPhase().isFiring()) {
+                    continue;
+                }
+                Coords position = entity.getPosition();
+                if (position == null) {
+                    continue;
+                }
+                if (position.equals(getPathEnumerator().getLastKnownCoords(entity.getId()))) {
+                    continue; // no sense in updating a unit if it hasn't moved
+                }
+                LogManager.getLogger().debug("Received entity change event for "
+                                + changeEvent.getEntity().getDisplayName()
+                                + " (ID " + entity.getId() + ")");
+                dirtifyUnit(changeEvent.getEntity().getId());
+            } else if (event instanceof GamePhaseChangeEvent) {
+                GamePhaseChangeEvent phaseChange = (GamePhaseChangeEvent) event;
+                LogManager.getLogger().debug("Phase change detected: " + phaseChange.getNewPhase().name());
+                // this marks when I can all I can start recalculating paths.
+                // All units are dirty
+                if (phaseChange.getNewPhase().isMovement()) {
+                    getPathEnumerator().clear();
+                    for (Entity entity : game.getEntitiesVector()) {
+                        if (entity.isActive() && entity.isDeployed() && entity.getPosition() != null) {
+                            getDirtyUnits().add(entity.getId());
                         }
                     }
                 }
             }
-            LogManager.getLogger().debug("Events still to process: " + getEventsToProcess().size());
-        } finally {
-            GAME_LOCK.unlock();
         }
+        LogManager.getLogger().debug("Events still to process: " + getEventsToProcess().size());
     }
 
     /**
@@ -476,78 +348,73 @@ public class Precognition implements Runnable {
      * as any units who's moves contain that unit
      */
     private void dirtifyUnit(int id) {
-        // Prevent Game from changing while processing
-        GAME_LOCK.lock();
-        try {
-            // first of all, if a unit has been removed, remove it from the list and
-            // stop
-            if (getGame().getEntity(id) == null) {
-                getPathEnumerator().getLastKnownLocations().remove(id);
-                getPathEnumerator().getUnitMovableAreas().remove(id);
-                getPathEnumerator().getUnitPaths().remove(id);
-                getPathEnumerator().getUnitPotentialLocations().remove(id);
-                return;
-            }
-            // if a unit has moved or deployed, then it becomes dirty, and any units
-            // with its initial or final position
-            // in their list become dirty
-            if (!getGame().getEntity(id).isAero()) {
-                TreeSet<Integer> toDirty = new TreeSet<>(
-                        getPathEnumerator().getEntitiesWithLocation(
-                                getGame().getEntity(id).getPosition(), true));
-                if (getPathEnumerator().getLastKnownLocations()
-                        .containsKey(id)) {
-                    if ((getGame().getEntity(id) != null)
-                            && getGame().getEntity(id).isSelectableThisTurn()) {
-                        toDirty.addAll(getPathEnumerator()
-                                .getEntitiesWithLocation(getPathEnumerator()
-                                        .getLastKnownLocations().get(id)
-                                        .getCoords(), true));
-                    }
+        final Game game = getGame();
+        // first of all, if a unit has been removed, remove it from the list and
+        // stop
+        if (game.getEntity(id) == null) {
+            getPathEnumerator().getLastKnownLocations().remove(id);
+            getPathEnumerator().getUnitMovableAreas().remove(id);
+            getPathEnumerator().getUnitPaths().remove(id);
+            getPathEnumerator().getUnitPotentialLocations().remove(id);
+            return;
+        }
+        // if a unit has moved or deployed, then it becomes dirty, and any units
+        // with its initial or final position
+        // in their list become dirty
+        if (!game.getEntity(id).isAero()) {
+            TreeSet<Integer> toDirty = new TreeSet<>(
+                    getPathEnumerator().getEntitiesWithLocation(
+                            game.getEntity(id).getPosition(), true));
+            if (getPathEnumerator().getLastKnownLocations()
+                    .containsKey(id)) {
+                if ((game.getEntity(id) != null)
+                        && game.getEntity(id).isSelectableThisTurn()) {
+                    toDirty.addAll(getPathEnumerator()
+                            .getEntitiesWithLocation(getPathEnumerator()
+                                    .getLastKnownLocations().get(id)
+                                    .getCoords(), true));
                 }
-                // no need to dirty units that aren't selectable this turn
-                List<Integer> toRemove = new ArrayList<>();
-                for (Integer index : toDirty) {
-                    if ((getGame().getEntity(index) == null)
-                            || (!getGame().getEntity(index).isSelectableThisTurn()
-                                    && getGame().getPhase().isMovement())) {
-                        toRemove.add(index);
-                    }
+            }
+            // no need to dirty units that aren't selectable this turn
+            List<Integer> toRemove = new ArrayList<>();
+            for (Integer index : toDirty) {
+                if ((game.getEntity(index) == null)
+                        || (!game.getEntity(index).isSelectableThisTurn()
+                                && game.getPhase().isMovement())) {
+                    toRemove.add(index);
                 }
+            }
 
-                for (Integer i : toRemove) {
-                    toDirty.remove(i);
-                }
+            for (Integer i : toRemove) {
+                toDirty.remove(i);
+            }
 
-                if (!toDirty.isEmpty()) {
-                    StringBuilder msg = new StringBuilder("The following units have become dirty");
-                    if (getGame().getEntity(id) != null) {
-                        msg.append(" as a result of a nearby move of ")
-                                .append(getGame().getEntity(id).getDisplayName());
-                    }
+            if (!toDirty.isEmpty()) {
+                StringBuilder msg = new StringBuilder("The following units have become dirty");
+                if (game.getEntity(id) != null) {
+                    msg.append(" as a result of a nearby move of ")
+                            .append(game.getEntity(id).getDisplayName());
+                }
 
-                    Iterator<Integer> dirtyIterator = toDirty.descendingIterator();
-                    while (dirtyIterator.hasNext()) {
-                        Integer i = dirtyIterator.next();
-                        Entity e = getGame().getEntity(i);
-                        if (e != null) {
-                            msg.append("\n  ").append(e.getDisplayName());
-                        }
+                Iterator<Integer> dirtyIterator = toDirty.descendingIterator();
+                while (dirtyIterator.hasNext()) {
+                    Integer i = dirtyIterator.next();
+                    Entity e = game.getEntity(i);
+                    if (e != null) {
+                        msg.append("\n  ").append(e.getDisplayName());
                     }
-                    LogManager.getLogger().debug(msg.toString());
                 }
-                getDirtyUnits().addAll(toDirty);
+                LogManager.getLogger().debug(msg.toString());
             }
-            Entity entity = getGame().getEntity(id);
-            if (((entity != null) && entity.isSelectableThisTurn())
-                    || !getGame().getPhase().isMovement()) {
-                getDirtyUnits().add(id);
-            } else if (entity != null) {
-                getPathEnumerator().getLastKnownLocations().put(id,
-                        CoordFacingCombo.createCoordFacingCombo(entity));
-            }
-        } finally {
-            GAME_LOCK.unlock();
+            getDirtyUnits().addAll(toDirty);
+        }
+        Entity entity = game.getEntity(id);
+        if (((entity != null) && entity.isSelectableThisTurn())
+                || !game.getPhase().isMovement()) {
+            getDirtyUnits().add(id);
+        } else if (entity != null) {
+            getPathEnumerator().getLastKnownLocations().put(id,
+                    CoordFacingCombo.createCoordFacingCombo(entity));
         }
     }
 
@@ -601,235 +468,25 @@ public class Precognition implements Runnable {
         return owner;
     }
 
-    void resetGame() {
-        GAME_LOCK.lock();
-        try {
-            LogManager.getLogger().debug("GAME_LOCK write locked.");
-            game.reset();
-        } finally {
-            GAME_LOCK.unlock();
-            LogManager.getLogger().debug("GAME_LOCK write unlocked.");
-        }
-    }
-
-    private Game getGame() {
-        GAME_LOCK.lock();
-        try {
-            LogManager.getLogger().debug("GAME_LOCK read locked.");
-            return game;
-        } finally {
-            GAME_LOCK.unlock();
-            LogManager.getLogger().debug("GAME_LOCK read unlocked.");
-        }
-    }
-   
-    /**
-     * Returns the individual player assigned the index parameter.
-     */
-    protected @Nullable Player getPlayer(final int idx) {
-        return getGame().getPlayer(idx);
-    }
-
-    /**
-     * Receives player information from the message packet.
-     */
-    private void receivePlayerInfo(Packet c) {
-        int pindex = c.getIntValue(0);
-        Player newPlayer = (Player) c.getObject(1);
-        if (getPlayer(newPlayer.getId()) == null) {
-            getGame().addPlayer(pindex, newPlayer);
-        } else {
-            getGame().setPlayer(pindex, newPlayer);
-        }
-    }
-
-    /**
-     * Loads the turn list from the data in the packet
-     */
-    @SuppressWarnings("unchecked")
-    private void receiveTurns(Packet packet) {
-        getGame().setTurnVector((List<GameTurn>) packet.getObject(0));
-    }
-
-    /**
-     * Loads the board from the data in the net command.
-     */
-    private void receiveBoard(Packet c) {
-        Board newBoard = (Board) c.getObject(0);
-        getGame().setBoard(newBoard);
-    }
-
-    /**
-     * Loads the entities from the data in the net command.
-     */
-    @SuppressWarnings("unchecked")
-    private void receiveEntities(Packet c) {
-        List<Entity> newEntities = (List<Entity>) c.getObject(0);
-        List<Entity> newOutOfGame = (List<Entity>) c.getObject(1);
-
-        // Replace the entities in the game.
-        getGame().setEntitiesVector(newEntities);
-        if (newOutOfGame != null) {
-            getGame().setOutOfGameEntitiesVector(newOutOfGame);
-        }
-    }
-
-    /**
-     * Loads entity update data from the data in the net command.
-     */
-    @SuppressWarnings("unchecked")
-    private void receiveEntityUpdate(Packet c) {
-        int eindex = c.getIntValue(0);
-        Entity entity = (Entity) c.getObject(1);
-        Vector<UnitLocation> movePath = (Vector<UnitLocation>) c.getObject(2);
-        // Replace this entity in the game.
-        getGame().setEntity(eindex, entity, movePath);
-    }
-
-    private void receiveEntityAdd(Packet packet) {
-        @SuppressWarnings("unchecked")
-        List<Integer> entityIds = (List<Integer>) packet.getObject(0);
-        @SuppressWarnings("unchecked")
-        List<Entity> entities = (List<Entity>) packet.getObject(1);
-
-        assert (entityIds.size() == entities.size());
-        for (int i = 0; i < entityIds.size(); i++) {
-            assert (entityIds.get(i) == entities.get(i).getId());
-        }
-        getGame().addEntities(entities);
-    }
-
-    private void receiveEntityRemove(Packet packet) {
-        @SuppressWarnings("unchecked")
-        List<Integer> entityIds = (List<Integer>) packet.getObject(0);
-        int condition = packet.getIntValue(1);
-        // Move the unit to its final resting place.
-        getGame().removeEntities(entityIds, condition);
-    }
-
-    @SuppressWarnings("unchecked")
-    private void receiveEntityVisibilityIndicator(Packet packet) {
-        Entity e = getGame().getEntity(packet.getIntValue(0));
-        if (e != null) { // we may not have this entity due to double blind
-            e.setEverSeenByEnemy(packet.getBooleanValue(1));
-            e.setVisibleToEnemy(packet.getBooleanValue(2));
-            e.setDetectedByEnemy(packet.getBooleanValue(3));
-            e.setWhoCanSee((Vector<Player>) packet.getObject(4));
-            e.setWhoCanDetect((Vector<Player>) packet.getObject(5));
-            // this next call is only needed sometimes, but we'll just
-            // call it everytime
-            getGame().processGameEvent(new GameEntityChangeEvent(this, e));
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private void receiveDeployMinefields(Packet packet) {
-        getGame().addMinefields((Vector<Minefield>) packet.getObject(0));
-    }
-
-    @SuppressWarnings("unchecked")
-    private void receiveSendingMinefields(Packet packet) {
-        getGame().setMinefields((Vector<Minefield>) packet.getObject(0));
-    }
-
-    @SuppressWarnings("unchecked")
-    private void receiveIlluminatedHexes(Packet p) {
-        getGame().setIlluminatedPositions((HashSet<Coords>) p.getObject(0));
-    }
-
-    private void receiveRevealMinefield(Packet packet) {
-        getGame().addMinefield((Minefield) packet.getObject(0));
-    }
-
-    private void receiveRemoveMinefield(Packet packet) {
-        getGame().removeMinefield((Minefield) packet.getObject(0));
-    }
-
-    @SuppressWarnings("unchecked")
-    private void receiveUpdateMinefields(Packet packet) {
-        // only update information if you know about the minefield
-        Vector<Minefield> newMines = new Vector<>();
-        for (Minefield mf : (Vector<Minefield>) packet.getObject(0)) {
-            if (getOwner().getLocalPlayer().containsMinefield(mf)) {
-                newMines.add(mf);
-            }
-        }
-
-        if (!newMines.isEmpty()) {
-            getGame().resetMinefieldDensity(newMines);
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private void receiveBuildingUpdate(Packet packet) {
-        getGame().getBoard().updateBuildings((Vector<Building>) packet.getObject(0));
-    }
-
-    @SuppressWarnings("unchecked")
-    private void receiveBuildingCollapse(Packet packet) {
-        getGame().getBoard().collapseBuilding((Vector<Coords>) packet.getObject(0));
-    }
-
     /**
-     * Loads entity firing data from the data in the net command
-     */
-    @SuppressWarnings("unchecked")
-    private void receiveAttack(Packet c) {
-        List<EntityAction> vector = (List<EntityAction>) c.getObject(0);
-        int charge = c.getIntValue(1);
-        boolean addAction = true;
-        for (EntityAction ea : vector) {
-            int entityId = ea.getEntityId();
-            if ((ea instanceof TorsoTwistAction) && getGame().hasEntity(entityId)) {
-                TorsoTwistAction tta = (TorsoTwistAction) ea;
-                Entity entity = getGame().getEntity(entityId);
-                entity.setSecondaryFacing(tta.getFacing());
-            } else if ((ea instanceof FlipArmsAction)
-                    && getGame().hasEntity(entityId)) {
-                FlipArmsAction faa = (FlipArmsAction) ea;
-                Entity entity = getGame().getEntity(entityId);
-                entity.setArmsFlipped(faa.getIsFlipped());
-            } else if ((ea instanceof DodgeAction) && getGame().hasEntity(entityId)) {
-                Entity entity = getGame().getEntity(entityId);
-                entity.dodging = true;
-                addAction = false;
-            } else if (ea instanceof AttackAction) {
-                // The equipment type of a club needs to be restored.
-                if (ea instanceof ClubAttackAction) {
-                    ClubAttackAction caa = (ClubAttackAction) ea;
-                    Mounted club = caa.getClub();
-                    club.restore();
-                }
-            }
-
-            if (addAction) {
-                // track in the appropriate list
-                if (charge == 0) {
-                    getGame().addAction(ea);
-                } else if ((charge == 1) && (ea instanceof AttackAction)) {
-                    getGame().addCharge((AttackAction) ea);
-                }
-            }
-        }
-    }
-    
-    /**
-     * receive and process an entity nova network mode change packet
+     * Returns a snapshot of the game of Princess, taken after her last update of the game. Instead
+     * of replaying every packet on a copy of the game, the snapshot is only taken when this is
+     * called after the game has changed; it shares the board and the entities with her game.
      *
-     * @param c The packet containing the change.
+     * @return The snapshot, which must not be changed.
      */
-    private void receiveEntityNovaNetworkModeChange(Packet c) {
-        try {
-            int entityId = c.getIntValue(0);
-            String networkID = c.getObject(1).toString();
-            Entity e = getGame().getEntity(entityId);
-            if (e != null) {
-                e.setNewRoundNovaNetworkString(networkID);
+    private Game getGame() {
+        if (gameChanged) {
+            GAME_LOCK.lock();
+            try {
+                if (gameChanged) {
+                    game = getOwner().getGame().snapshot();
+                    gameChanged = false;
+                }
+            } finally {
+                GAME_LOCK.unlock();
             }
-        } catch (Exception ex) {
-            LogManager.getLogger().error("", ex);
         }
-
+        return game;
     }
-
 }
@@ -45,11 +45,11 @@ import megamek.common.weapons.AmmoWeapon;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 
-import java.io.File;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 public class Princess extends BotClient {
     private static final char PLUS = '+';
@@ -73,6 +73,8 @@ public class Princess extends BotClient {
     private double moveEvaluationTimeEstimate = 0;
     private final Precognition precognition;
     private final Thread precogThread;
+    private ForkJoinPool pathRankingPool;
+    private volatile DecisionBudget decisionBudget = DecisionBudget.UNLIMITED;
     /**
      * Mapping to hold the damage allocated to each targetable, stored by ID.
      * Used to allocate damage more intelligently and avoid overkill.
@@ -232,6 +234,39 @@ public class Princess extends BotClient {
     Precognition getPrecognition() {
         return precognition;
     }
+
+    /**
+     * Returns the pool on which paths are ranked and the paths of several units are enumerated at
+     * once, with as many threads as the behavior settings ask for.
+     *
+     * @return The pool, or null if paths should be ranked on the calling thread.
+     */
+    synchronized @Nullable ForkJoinPool getPathRankingPool() {
+        final int threads = getBehaviorSettings().getPathRankingThreadCount();
+        if ((pathRankingPool != null) && (pathRankingPool.getParallelism() != threads)) {
+            pathRankingPool.shutdown();
+            pathRankingPool = null;
+        }
+        if ((pathRankingPool == null) && (threads > 1)) {
+            pathRankingPool = new ForkJoinPool(threads);
+        }
+        return pathRankingPool;
+    }
+
+    /**
+     * Returns the time budget of the unit whose move or fire is being decided, which is unlimited
+     * unless the behavior settings set a turn time budget.
+     */
+    DecisionBudget getDecisionBudget() {
+        return decisionBudget;
+    }
+
+    /**
+     * Starts the time budget for deciding the move or the fire of a unit.
+     */
+    void startDecisionBudget() {
+        decisionBudget = DecisionBudget.start(getBehaviorSettings().getTurnTimeBudget());
+    }
     
     public int getMaxWeaponRange(Entity entity) {
         return getMaxWeaponRange(entity, false);
@@ -552,6 +587,8 @@ public class Princess extends BotClient {
     @Override
     protected void calculateFiringTurn() {
         try {
+            startDecisionBudget();
+
             // get the first entity that can act this turn make sure weapons 
             // are loaded
             final Entity shooter = getEntityToFire(fireControlState);
@@ -767,6 +804,7 @@ public class Princess extends BotClient {
             return new Vector<>();
         }
 
+        startDecisionBudget();
         final FiringPlanCalculationParameters fccp = new Builder().buildExact(shooter, target, calcAmmoConservation(shooter));
         FiringPlan plan = getFireControl(shooter).determineBestFiringPlan(fccp); 
         getFireControl(shooter).loadAmmo(shooter, plan);
@@ -1174,6 +1212,7 @@ public class Princess extends BotClient {
             // moves this entity during movement phase
             LogManager.getLogger().debug("Moving " + entity.getDisplayName() + " (ID " + entity.getId() + ")");
             getPrecognition().ensureUpToDate();
+            startDecisionBudget();
 
             if (isFallingBack(entity)) {
                 String msg = entity.getDisplayName();
@@ -1384,7 +1423,8 @@ public class Princess extends BotClient {
                     prunedPath.clipToPossible();
 
                     if (levelingTarget != null) {
-                        LosEffects los = LosEffects.calculateLOS(game, mover, levelingTarget, prunedPath.getFinalCoords(), levelingTarget.getPosition(), false);
+                        LosEffects los = LosEffects.calculateLOS(game, mover, levelingTarget, prunedPath.getFinalCoords(),
+                                levelingTarget.getPosition(), false, getFireControlState().getLosCache());
 
                         // break out of this loop, we can get to the thing we're trying to level this turn, so let's
                         // use normal movement routines to move into optimal position to blow it up
@@ -1689,6 +1729,10 @@ public class Princess extends BotClient {
             precognition.signalDone();
             precogThread.interrupt();
         }
+        if (null != pathRankingPool) {
+            pathRankingPool.shutdownNow();
+            pathRankingPool = null;
+        }
     }
 
     @Override
@@ -1779,23 +1823,13 @@ public class Princess extends BotClient {
     protected void handlePacket(final Packet c) {
         final StringBuilder msg = new StringBuilder("Received packet, cmd: " + c.getCommand());
         try {
-            super.handlePacket(c);
-            getPrecognition().handlePacket(c);
+            getPrecognition().updateGame(() -> super.handlePacket(c));
         }
         finally {
             LogManager.getLogger().trace(msg.toString());
         }
     }
     
-    /**
-     * sends a load game file to the server
-     */
-    @Override
-    public void sendLoadGame(final File f) {
-        precognition.resetGame();
-        super.sendLoadGame(f);
-    }
-    
     public void sendPrincessSettings() {
         send(new Packet(PacketCommand.PRINCESS_SETTINGS, behaviorSettings));
     }
@@ -2035,4 +2069,14 @@ public class Princess extends BotClient {
         super.receiveEntityUpdate(packet);
         updateEntityState((Entity) packet.getObject(1));
     }
+
+    /**
+     * Override for the 'receive entity delta update' handler
+     * Updates internal state in addition to base client functionality
+     */
+    @Override
+    protected void receiveEntityDeltaUpdate(final Packet packet) {
+        super.receiveEntityDeltaUpdate(packet);
+        updateEntityState(getGame().getEntity(((EntityDelta) packet.getObject(0)).getEntityId()));
+    }
 }
@@ -1,7 +1,7 @@
 package megamek.client.bot.princess;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import megamek.common.Entity;
 
@@ -23,7 +23,7 @@ public class UnitBehavior {
         NoPathToDestination
     }
     
-    private Map<Integer, BehaviorType> entityBehaviors = new HashMap<>();
+    private Map<Integer, BehaviorType> entityBehaviors = new ConcurrentHashMap<>();
     
     /**
      * Worker function that calculates a unit's desired behavior
@@ -57,11 +57,7 @@ public class UnitBehavior {
      * Gets (and calculates, if necessary), the behavior type for the given entity.
      */
     public BehaviorType getBehaviorType(Entity entity, Princess owner) {
-        if (!entityBehaviors.containsKey(entity.getId())) {
-            entityBehaviors.put(entity.getId(), calculateUnitBehavior(entity, owner));
-        }
-        
-        return entityBehaviors.get(entity.getId());
+        return entityBehaviors.computeIfAbsent(entity.getId(), id -> calculateUnitBehavior(entity, owner));
     }
     
     public void overrideBehaviorType(Entity entity, BehaviorType behaviorType) {
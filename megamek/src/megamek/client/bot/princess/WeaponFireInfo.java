@@ -551,20 +551,32 @@ public class WeaponFireInfo {
         }
 
         // now that we've calculated hit odds, if we're shooting
-        // a weapon capable of rapid fire, it's time to decide whether we're going to spin it up
-        String currentFireMode = getWeapon().curMode().getName();
-        int spinMode = Compute.spinUpCannon(getGame(), getAction(), owner.getSpinupThreshold());
-        if (!currentFireMode.equals(getWeapon().curMode().getName())) {
-            setUpdatedFiringMode(spinMode);
-        }
-        
-        setHeat(computeHeat(weapon));
-        
-        if (debugging) {
-            msg.append("\n\tHeat: ").append(getHeat());
-        }
+        // a weapon capable of rapid fire, it's time to decide whether we're going to spin it up.
+        // Spinning up sets the mode of the weapon, which the damage depends on, and other
+        // paths may be ranked on other threads at the same time. A guess only puts the weapon in
+        // the mode for its estimate and puts the old mode back, without touching the entity, so
+        // that no other guess sees the weapon spun up.
+        synchronized (getWeapon()) {
+            final int mode = getWeapon().getModeNumber();
+            final int pendingMode = getWeapon().getPendingModeNumber();
+            String currentFireMode = getWeapon().curMode().getName();
+            int spinMode = Compute.spinUpCannon(getGame(), getAction(), owner.getSpinupThreshold(), guess);
+            if (!currentFireMode.equals(getWeapon().curMode().getName())) {
+                setUpdatedFiringMode(spinMode);
+            }
+
+            setHeat(computeHeat(weapon));
 
-        setExpectedDamageOnHit(computeExpectedDamage());
+            if (debugging) {
+                msg.append("\n\tHeat: ").append(getHeat());
+            }
+
+            setExpectedDamageOnHit(computeExpectedDamage());
+
+            if (guess) {
+                getWeapon().restoreMode(mode, pendingMode);
+            }
+        }
         setMaxDamage(getExpectedDamageOnHit());
         
         if (debugging) {
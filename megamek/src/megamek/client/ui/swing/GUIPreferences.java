@@ -78,6 +78,7 @@ public class GUIPreferences extends PreferenceStoreProxy {
     public static final String ADVANCED_KEY_REPEAT_DELAY = "AdvancedKeyRepeatDelay";
     public static final String ADVANCED_KEY_REPEAT_RATE = "AdvancedKeyRepeatRate";
     public static final String ADVANCED_SHOW_FPS = "AdvancedShowFPS";
+    public static final String ADVANCED_IMAGE_CACHE_BUDGET = "AdvancedImageCacheBudget";
     public static final String ADVANCED_BUTTONS_PER_ROW = "AdvancedButtonsPerRow";
     public static final String ADVANCED_ARMORMINI_UNITS_PER_BLOCK = "AdvancedArmorMiniUnitsPerBlock";
     public static final String ADVANCED_ARMORMINI_ARMOR_CHAR = "AdvancedArmorMiniArmorChar";
@@ -310,6 +311,7 @@ public class GUIPreferences extends PreferenceStoreProxy {
         store.setDefault(ADVANCED_KEY_REPEAT_DELAY, 0);
         store.setDefault(ADVANCED_KEY_REPEAT_RATE, 20);
         store.setDefault(ADVANCED_SHOW_FPS, false);
+        store.setDefault(ADVANCED_IMAGE_CACHE_BUDGET, 128);
         store.setDefault(SHOW_COORDS, true);
         store.setDefault(ADVANCED_BUTTONS_PER_ROW, 5);
         store.setDefault(ADVANCED_ROUND_REPORT_SPRITES, true);
@@ -476,6 +478,13 @@ public class GUIPreferences extends PreferenceStoreProxy {
         return store.getAdvancedProperties();
     }
 
+    /**
+     * @return the number of bytes that each of the board image caches may use
+     */
+    public long getImageCacheBudget() {
+        return Math.max(store.getInt(ADVANCED_IMAGE_CACHE_BUDGET), 1) * 1048576L;
+    }
+
     public boolean getAntiAliasing() {
         return store.getBoolean(ANTIALIASING);
     }
@@ -15,7 +15,6 @@ package megamek.client.ui.swing;
 
 import megamek.client.Client;
 import megamek.client.ui.Messages;
-import megamek.client.ui.swing.util.BASE64ToolKit;
 
 import javax.swing.*;
 import javax.swing.text.html.HTMLEditorKit;
@@ -74,32 +73,21 @@ public class MiniReportDisplay extends JDialog implements ActionListener {
 
     private void setupReportTabs(Client c) {
         JTabbedPane tabs = new JTabbedPane();
+        // only the round that is shown is rendered, which keeps opening the report quick
+        // however many rounds the game has had
+        tabs.setTabLayoutPolicy(JTabbedPane.SCROLL_TAB_LAYOUT);
 
         int numRounds = c.getGame().getRoundCount();
         for (int round = 1; round < numRounds; round++) {
-            String text = c.receiveReport(c.getGame().getReports(round));
-            JTextPane ta = new JTextPane();
-            setupStylesheet(ta);
-            BASE64ToolKit toolKit = new BASE64ToolKit();
-            ta.setEditorKit(toolKit);
-            ta.setText("<pre>" + text + "</pre>");
-            ta.setEditable(false);
-            ta.setOpaque(false);
-            tabs.add("Round " + round, new JScrollPane(ta));
+            tabs.add("Round " + round, new RoundReportPane(c, round, MiniReportDisplay::setupStylesheet));
         }
 
         // add the new current phase tab
-        JTextPane ta = new JTextPane();
-        setupStylesheet(ta);
-        BASE64ToolKit toolKit = new BASE64ToolKit();
-        ta.setEditorKit(toolKit);
-        ta.setText("<pre>" + c.roundReport + "</pre>");
-        ta.setEditable(false);
-        ta.setOpaque(false);
-
-        JScrollPane sp = new JScrollPane(ta);
+        RoundReportPane sp = new RoundReportPane(c, numRounds, MiniReportDisplay::setupStylesheet);
         tabs.add("Phase", sp);
         tabs.setSelectedComponent(sp);
+        sp.refresh();
+        tabs.addChangeListener(e -> RoundReportPane.showSelectedRound(tabs));
         
         getContentPane().add(BorderLayout.CENTER, tabs);
     }
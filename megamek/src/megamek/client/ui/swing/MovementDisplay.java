@@ -37,6 +37,7 @@ import megamek.common.actions.DfaAttackAction;
 import megamek.common.actions.RamAttackAction;
 import megamek.common.annotations.Nullable;
 import megamek.common.enums.GamePhase;
+import megamek.common.event.GameBoardChangeEvent;
 import megamek.common.event.GamePhaseChangeEvent;
 import megamek.common.event.GameTurnChangeEvent;
 import megamek.common.options.AbstractOptions;
@@ -53,8 +54,10 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseEvent;
+import java.io.*;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -279,6 +282,25 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
      */
     private List<Entity> towedUnits = null;
 
+    /** The number of movement envelopes that are kept for when a unit or gear is selected again */
+    private static final int MAX_CACHED_ENVELOPES = 32;
+
+    /**
+     * The movement envelopes computed lately, by the unit state, gear and game state they were
+     * computed for.
+     */
+    private final Map<EnvelopeKey, Map<Coords, Integer>> envelopeCache = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 4473206212462542537L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<EnvelopeKey, Map<Coords, Integer>> eldest) {
+            return size() > MAX_CACHED_ENVELOPES;
+        }
+    };
+
+    /** The movement envelope being computed in the background, if any */
+    private MovementEnvelopeTask envelopeTask;
+
     public static final int GEAR_LAND = 0;
     public static final int GEAR_BACKUP = 1;
     public static final int GEAR_JUMP = 2;
@@ -1064,7 +1086,7 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
         // clear board cursors
         clientgui.getBoardView().select(null);
         clientgui.getBoardView().cursor(null);
-        clientgui.getBoardView().clearMovementEnvelope();
+        clearMovementEnvelope();
 
         if (ce == null) {
             return;
@@ -1484,7 +1506,7 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
 
         disableButtons();
         clientgui.getBoardView().clearMovementData();
-        clientgui.getBoardView().clearMovementEnvelope();
+        clearMovementEnvelope();
         if (ce().hasUMU()) {
             clientgui.getClient().sendUpdateEntity(ce());
         }
@@ -4157,12 +4179,22 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
         }
     }
     
+    @Override
+    public void gameBoardChanged(GameBoardChangeEvent e) {
+        // the remembered movement envelopes may cross changed terrain
+        SwingUtilities.invokeLater(envelopeCache::clear);
+    }
+
     /**
      * Computes all of the possible moves for an Entity in a particular gear. The Entity can either
      * be a suggested Entity or the currently selected one. If there is a selected entity (which
      * implies it's the current players turn), then the current gear is used (which is set by the
      * user). If there is no selected entity, then the current gear is invalid, and it defaults to
      * GEAR_LAND (standard "walk forward").
+     * <p>
+     * The envelope is computed in the background and shown as it grows. A computation that is
+     * still running when the envelope is requested again is cancelled. Envelopes are remembered
+     * for the unit position, gear and game state they were computed for.
      * 
      * @param suggestion The suggested Entity to use to compute the movement envelope. If used, the
      *                   gear will be set to GEAR_LAND. This takes precendence over the currently
@@ -4173,9 +4205,10 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
         // do nothing if deactivated in the settings
         if (!GUIPreferences.getInstance()
                 .getBoolean(GUIPreferences.MOVE_ENVELOPE)) {
-            clientgui.getBoardView().clearMovementEnvelope();
+            clearMovementEnvelope();
             return;
         }
+        cancelMovementEnvelope();
         
         Entity en = ce();
         int mvMode = gear;
@@ -4190,9 +4223,6 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
         if (en.isDone()) {
             return;
         }
-        
-        Map<Coords, MovePath> mvEnvData = new HashMap<>();
-        MovePath mp = new MovePath(clientgui.getClient().getGame(), en);
 
         int maxMP;
         if (mvMode == GEAR_JUMP || mvMode == GEAR_DFA) {
@@ -4213,19 +4243,202 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
         }
         MoveStepType stepType = (mvMode == GEAR_BACKUP) ? MoveStepType.BACKWARDS
                 : MoveStepType.FORWARDS;
+
+        EnvelopeKey key = new EnvelopeKey(en, mvMode, maxMP);
+        Map<Coords, Integer> mvEnvMP = envelopeCache.get(key);
+        if (mvEnvMP != null) {
+            clientgui.getBoardView().setMovementEnvelope(mvEnvMP, en.getWalkMP(), en
+                    .getRunMP(), en.getJumpMP(), mvMode);
+            return;
+        }
+        clientgui.getBoardView().clearMovementEnvelope();
+
+        // The client updates its game while the envelope is computed, so the background thread
+        // gets a snapshot of the game and its own copy of the unit. Entity updates hold the lock
+        // of the game.
+        final Game game = clientgui.getClient().getGame();
+        final Game snapshot;
+        final Entity copy;
+        synchronized (game) {
+            copy = copyOf(en);
+            if (copy == null) {
+                return;
+            }
+            snapshot = game.snapshot(copy);
+        }
+        MovePath mp = new MovePath(snapshot, copy);
         if (mvMode == GEAR_JUMP || mvMode == GEAR_DFA) {
             mp.addStep(MoveStepType.START_JUMP);
         }
+        envelopeTask = new MovementEnvelopeTask(key, copy, mp, maxMP, stepType, mvMode);
+        envelopeTask.execute();
+    }
+
+    /**
+     * @return A copy of the unit, made by serializing it, or null if it cannot be copied
+     */
+    private static @Nullable Entity copyOf(Entity entity) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(entity);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                return (Entity) in.readObject();
+            }
+        } catch (IOException | ClassNotFoundException ex) {
+            LogManager.getLogger().error("Cannot copy " + entity.getShortName(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Cancels the computation of the movement envelope, if any, and removes the envelope from
+     * the board.
+     */
+    private void clearMovementEnvelope() {
+        cancelMovementEnvelope();
+        clientgui.getBoardView().clearMovementEnvelope();
+    }
+
+    private void cancelMovementEnvelope() {
+        if (envelopeTask != null) {
+            envelopeTask.cancel(false);
+            envelopeTask = null;
+        }
+    }
+
+    /**
+     * Identifies a movement envelope: the unit and its position, the gear and MP, and the state
+     * of the game, which changes whenever any unit is updated.
+     */
+    private static final class EnvelopeKey {
+        private final int entityId;
+        private final Coords position;
+        private final int facing;
+        private final int elevation;
+        private final int gear;
+        private final int maxMP;
+        private final Board board;
+        private final int round;
+        private final int gameVersion;
+
+        private EnvelopeKey(Entity entity, int gear, int maxMP) {
+            entityId = entity.getId();
+            position = entity.getPosition();
+            facing = entity.getFacing();
+            elevation = entity.getElevation();
+            this.gear = gear;
+            this.maxMP = maxMP;
+            board = entity.getGame().getBoard();
+            round = entity.getGame().getRoundCount();
+            gameVersion = entity.getGame().getEntityChangeCount();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof EnvelopeKey)) {
+                return false;
+            }
+            EnvelopeKey other = (EnvelopeKey) obj;
+            return (entityId == other.entityId) && Objects.equals(position, other.position)
+                    && (facing == other.facing) && (elevation == other.elevation) && (gear == other.gear)
+                    && (maxMP == other.maxMP) && (board == other.board) && (round == other.round)
+                    && (gameVersion == other.gameVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityId, position, facing, elevation, gear, maxMP, round, gameVersion);
+        }
+    }
+
+    /**
+     * Computes a movement envelope on a background thread. While the path finder runs, the
+     * hexes reached so far are shown every {@link #PUBLISH_INTERVAL} ms.
+     */
+    private class MovementEnvelopeTask extends SwingWorker<Map<Coords, Integer>, Map<Coords, Integer>> {
+        private static final long PUBLISH_INTERVAL = 100;
+
+        private final EnvelopeKey key;
+        private final Entity entity;
+        private final MovePath start;
+        private final int maxMP;
+        private final MoveStepType stepType;
+        private final int mvMode;
+
+        MovementEnvelopeTask(EnvelopeKey key, Entity entity, MovePath start, int maxMP,
+                             MoveStepType stepType, int mvMode) {
+            this.key = key;
+            this.entity = entity;
+            this.start = start;
+            this.maxMP = maxMP;
+            this.stepType = stepType;
+            this.mvMode = mvMode;
+        }
+
+        @Override
+        protected Map<Coords, Integer> doInBackground() {
+            final ShortestPathFinder pf = ShortestPathFinder.newInstanceOfOneToAll(maxMP, stepType,
+                    entity.getGame());
+            pf.addStopCondition(new AbstractPathFinder.StopCondition<>() {
+                private long nextPublish = System.currentTimeMillis() + PUBLISH_INTERVAL;
+
+                @Override
+                public boolean shouldStop(MovePath e) {
+                    if (isCancelled()) {
+                        return true;
+                    }
+                    if (System.currentTimeMillis() > nextPublish) {
+                        publish(envelopeOf(pf));
+                        nextPublish = System.currentTimeMillis() + PUBLISH_INTERVAL;
+                    }
+                    return false;
+                }
+            });
+            pf.run(start);
+            return envelopeOf(pf);
+        }
+
+        private Map<Coords, Integer> envelopeOf(ShortestPathFinder pf) {
+            Map<Coords, MovePath> mvEnvData = pf.getAllComputedPaths();
+            Map<Coords, Integer> mvEnvMP = new HashMap<>((int) ((mvEnvData.size() * 1.25) + 1));
+            for (Coords c : mvEnvData.keySet()) {
+                mvEnvMP.put(c, mvEnvData.get(c).countMp(mvMode == GEAR_JUMP));
+            }
+            return mvEnvMP;
+        }
+
+        @Override
+        protected void process(List<Map<Coords, Integer>> chunks) {
+            if ((envelopeTask == this) && !isCancelled()) {
+                showEnvelope(chunks.get(chunks.size() - 1));
+            }
+        }
+
+        @Override
+        protected void done() {
+            if ((envelopeTask != this) || isCancelled()) {
+                return;
+            }
+            envelopeTask = null;
+            try {
+                Map<Coords, Integer> mvEnvMP = Collections.unmodifiableMap(get());
+                envelopeCache.put(key, mvEnvMP);
+                showEnvelope(mvEnvMP);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                LogManager.getLogger().error("", ex);
+            }
+        }
 
-        ShortestPathFinder pf = ShortestPathFinder.newInstanceOfOneToAll(maxMP, stepType, en.getGame());
-        pf.run(mp);
-        mvEnvData = pf.getAllComputedPaths();
-        Map<Coords, Integer> mvEnvMP = new HashMap<>((int) ((mvEnvData.size() * 1.25) + 1));
-        for (Coords c : mvEnvData.keySet()) {
-            mvEnvMP.put(c, mvEnvData.get(c).countMp(mvMode == GEAR_JUMP));
+        private void showEnvelope(Map<Coords, Integer> mvEnvMP) {
+            clientgui.getBoardView().setMovementEnvelope(mvEnvMP, entity.getWalkMP(), entity
+                    .getRunMP(), entity.getJumpMP(), mvMode);
         }
-        clientgui.getBoardView().setMovementEnvelope(mvEnvMP, en.getWalkMP(), en
-                .getRunMP(), en.getJumpMP(), mvMode);
     }
 
     public void computeModifierEnvelope() {
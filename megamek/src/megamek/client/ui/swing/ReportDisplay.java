@@ -74,6 +74,9 @@ public class ReportDisplay extends AbstractPhaseDisplay implements
         Font tabPanelFont = new Font("Dialog", Font.BOLD,
                 GUIPreferences.getInstance().getInt("AdvancedChatLoungeTabFontSize"));
         tabs.setFont(tabPanelFont);
+        // A long game has hundreds of rounds, of which only the one shown is rendered
+        tabs.setTabLayoutPolicy(JTabbedPane.SCROLL_TAB_LAYOUT);
+        tabs.addChangeListener(e -> RoundReportPane.showSelectedRound(tabs));
 
         resetTabs();
 
@@ -152,7 +155,7 @@ public class ReportDisplay extends AbstractPhaseDisplay implements
         rerollInitiativeB.setEnabled(true);
     }
 
-    public void setReportTab(int round, String roundText, String phaseText) {
+    public void setReportTab(int round, String phaseText) {
         if (round == 0) {
             // The deployment reports (round 0) are combined with round one's
             // report.
@@ -166,59 +169,43 @@ public class ReportDisplay extends AbstractPhaseDisplay implements
             if (phaseTab >= 0) {
                 tabs.removeTabAt(phaseTab);
             }
-            if (phaseTab == -1) {
-                phaseTab += 1; // special handling for round 0
-            }
 
-            // add as many round tabs as necessary to catch us up
-            JTextPane ta;
+            // add as many round tabs as necessary to catch us up; their
+            // reports are rendered when they are shown
             // TODO: we should remove the use of client
             final Client client = clientgui.getClient();
-            for (int catchup = phaseTab + 1; catchup <= round; catchup++) {
-                if (tabs.indexOfTab("Round " + catchup) != -1) {
-                    ((JTextPane) ((JScrollPane) tabs.getComponentAt(tabs
-                            .indexOfTab("Round " + catchup))).getViewport()
-                            .getView()).setText("<pre>"
-                            + client.receiveReport(client.getGame().getReports(
-                                    catchup)) + "</pre>");
-                    continue;
-                }
-                String text = roundText;
-                if (catchup != round) {
-                    text = client.receiveReport(client.getGame().getReports(catchup));
-                }
-                ta = new JTextPane();
-                ta.addHyperlinkListener(this);
-                setupStylesheet(ta);
-                BASE64ToolKit toolKit = new BASE64ToolKit();
-                ta.setEditorKit(toolKit);
-                ta.setText("<pre>" + text + "</pre>");
-                ta.setEditable(false);
-                ta.setOpaque(false);
-                tabs.add("Round " + catchup, new JScrollPane(ta));
+            for (int catchup = tabs.getTabCount() + 1; catchup <= round; catchup++) {
+                tabs.add("Round " + catchup, new RoundReportPane(client, catchup, this::setupReportPane));
             }
 
             // add the new current phase tab
-            ta = new JTextPane();
-            ta.addHyperlinkListener(this);
-            setupStylesheet(ta);
+            JTextPane ta = new JTextPane();
+            setupReportPane(ta);
             BASE64ToolKit toolKit = new BASE64ToolKit();
             ta.setEditorKit(toolKit);
             ta.setText("<pre>" + phaseText + "</pre>");
             ta.setEditable(false);
             ta.setOpaque(false);
 
-
             JScrollPane sp = new JScrollPane(ta);
             tabs.add("Phase", sp);
             tabs.setSelectedComponent(sp);
         } else {
             // Update the existing round tab and the phase tab.
-            ((JTextPane) ((JScrollPane) tabs.getComponentAt(tabs.indexOfTab("Round " + round))).getViewport().getView()).setText("<pre>" + roundText + "</pre>");
-            ((JTextPane) ((JScrollPane) tabs.getComponentAt(tabs.indexOfTab("Phase"))).getViewport().getView()).setText("<pre>" + phaseText + "</pre>");
+            ((RoundReportPane) tabs.getComponentAt(tabs.indexOfTab("Round " + round))).update();
+            phasePane(tabs.indexOfTab("Phase")).setText("<pre>" + phaseText + "</pre>");
         }
     }
 
+    private void setupReportPane(JTextPane pane) {
+        pane.addHyperlinkListener(this);
+        setupStylesheet(pane);
+    }
+
+    private JTextPane phasePane(int phaseTab) {
+        return (JTextPane) ((JScrollPane) tabs.getComponentAt(phaseTab)).getViewport().getView();
+    }
+
     public static void setupStylesheet(JTextPane pane) {
         pane.setContentType("text/html");
         Font font = UIManager.getFont("Label.font");
@@ -230,15 +217,10 @@ public class ReportDisplay extends AbstractPhaseDisplay implements
     public void appendReportTab(String additionalText) {
         int phaseTab = tabs.indexOfTab("Phase");
         if (phaseTab > 0) {
-            JTextPane pane = ((JTextPane) ((JScrollPane) tabs.getComponentAt(phaseTab - 1)).getViewport().getView());
-            BASE64ToolKit toolKit = new BASE64ToolKit();
-            pane.setEditorKit(toolKit);
-            pane.setText(pane.getText() + "<pre>"+additionalText+"</pre>");
+            // the reports were added to the round, so only they are appended
+            ((RoundReportPane) tabs.getComponentAt(phaseTab - 1)).update();
         }
-        JTextPane pane = ((JTextPane) ((JScrollPane) tabs.getComponentAt(phaseTab)).getViewport().getView());
-        BASE64ToolKit toolKit = new BASE64ToolKit();
-        pane.setEditorKit(toolKit);
-        pane.setText(pane.getText() + "<pre>"+additionalText+"</pre>");
+        RoundReportPane.append(phasePane(phaseTab), additionalText);
     }
 
     public void resetTabs() {
@@ -263,7 +245,7 @@ public class ReportDisplay extends AbstractPhaseDisplay implements
             return;
         }
 
-        setReportTab(clientgui.getClient().getGame().getRoundCount(), clientgui.getClient().roundReport, clientgui.getClient().phaseReport);
+        setReportTab(clientgui.getClient().getGame().getRoundCount(), clientgui.getClient().phaseReport);
         resetButtons();
         rerolled = false;
 
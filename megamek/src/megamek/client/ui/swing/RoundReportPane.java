@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.client.ui.swing;
+
+import megamek.client.Client;
+import megamek.client.ui.swing.util.BASE64ToolKit;
+import megamek.common.Report;
+import org.apache.logging.log4j.LogManager;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.html.HTML;
+import javax.swing.text.html.HTMLDocument;
+import java.io.IOException;
+import java.util.List;
+import java.util.Vector;
+import java.util.function.Consumer;
+
+/**
+ * Shows the reports of one round of the game in a tab of the {@link ReportDisplay} or the
+ * {@link MiniReportDisplay}. The reports are only rendered once the tab is shown, and the reports
+ * that are added to the round later are appended to the rendered document rather than rendering
+ * the whole round again. The rounds that are over never change, so their documents are released
+ * while other tabs are shown, and the report displays hold the documents of only the rounds that
+ * are looked at, however long the game runs.
+ */
+class RoundReportPane extends JScrollPane {
+    private static final long serialVersionUID = 2863171093587532718L;
+
+    private final Client client;
+    private final int round;
+    private final Consumer<JTextPane> setup;
+    private JTextPane textPane;
+    private int renderedReports;
+
+    /**
+     * @param client The client whose game holds the reports
+     * @param round  The round, where the deployment reports of round 0 are shown with round 1
+     * @param setup  Sets up the stylesheet and the listeners of the text pane once it is created
+     */
+    RoundReportPane(Client client, int round, Consumer<JTextPane> setup) {
+        this.client = client;
+        this.round = Math.max(1, round);
+        this.setup = setup;
+    }
+
+    int getRound() {
+        return round;
+    }
+
+    boolean isRendered() {
+        return textPane != null;
+    }
+
+    /**
+     * Renders the reports of the round if they are not rendered yet, or appends the reports that
+     * were added to the round since they were.
+     */
+    void refresh() {
+        final List<Report> reports = getReports();
+        if (textPane == null) {
+            textPane = new JTextPane();
+            setup.accept(textPane);
+            textPane.setEditorKit(new BASE64ToolKit());
+            textPane.setText("<pre>" + client.receiveReport(new Vector<>(reports)) + "</pre>");
+            textPane.setEditable(false);
+            textPane.setOpaque(false);
+            renderedReports = reports.size();
+            setViewportView(textPane);
+        } else if (reports.size() > renderedReports) {
+            append(textPane, client.receiveReport(new Vector<>(reports.subList(renderedReports, reports.size()))));
+            renderedReports = reports.size();
+        }
+    }
+
+    /**
+     * Appends the reports that were added to the round since they were rendered, if they are.
+     */
+    void update() {
+        if (textPane != null) {
+            refresh();
+        }
+    }
+
+    /**
+     * Drops the rendered document. It is rendered again when the round is next shown.
+     */
+    void release() {
+        if (textPane != null) {
+            textPane = null;
+            renderedReports = 0;
+            setViewportView(null);
+        }
+    }
+
+    private List<Report> getReports() {
+        final Vector<Vector<Report>> allReports = client.getGame().getAllReports();
+        return (round <= allReports.size()) ? allReports.get(round - 1) : new Vector<>();
+    }
+
+    /**
+     * Appends report text to the end of the document of the given pane, without parsing the text
+     * that is already there again.
+     *
+     * @param pane The pane, which must show an HTML document
+     * @param text The report text to append, which is shown preformatted
+     */
+    static void append(JTextPane pane, String text) {
+        final HTMLDocument document = (HTMLDocument) pane.getDocument();
+        final Element body = document.getElement(document.getDefaultRootElement(),
+                StyleConstants.NameAttribute, HTML.Tag.BODY);
+        try {
+            if (body == null) {
+                pane.setText(pane.getText() + "<pre>" + text + "</pre>");
+            } else {
+                document.insertBeforeEnd(body, "<pre>" + text + "</pre>");
+            }
+        } catch (BadLocationException | IOException e) {
+            LogManager.getLogger().error("Failed to append to the report", e);
+        }
+    }
+
+    /**
+     * Renders the round report of the selected tab, and releases the round reports of all other
+     * tabs except the one of the latest round, which keeps getting reports appended.
+     *
+     * @param tabs The tabs, of which the round reports are {@link RoundReportPane}s
+     */
+    static void showSelectedRound(JTabbedPane tabs) {
+        int latestRound = 0;
+        for (int i = 0; i < tabs.getTabCount(); i++) {
+            if (tabs.getComponentAt(i) instanceof RoundReportPane) {
+                latestRound = Math.max(latestRound, ((RoundReportPane) tabs.getComponentAt(i)).getRound());
+            }
+        }
+
+        for (int i = 0; i < tabs.getTabCount(); i++) {
+            if (tabs.getComponentAt(i) instanceof RoundReportPane) {
+                final RoundReportPane pane = (RoundReportPane) tabs.getComponentAt(i);
+                if (i == tabs.getSelectedIndex()) {
+                    pane.refresh();
+                } else if (pane.getRound() < latestRound) {
+                    pane.release();
+                }
+            }
+        }
+    }
+}
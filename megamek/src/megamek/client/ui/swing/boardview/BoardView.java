@@ -420,7 +420,7 @@ public class BoardView extends JPanel implements Scrollable, BoardListener, Mous
         this.game = game;
         this.clientgui = clientgui;
 
-        hexImageCache = new ImageCache<>();
+        hexImageCache = new ImageCache<>(entry -> ImageCache.imageBytes(entry.hexImage));
 
         tileManager = new TilesetManager(this);
         ToolTipManager.sharedInstance().registerComponent(this);
@@ -1218,6 +1218,8 @@ public class BoardView extends JPanel implements Scrollable, BoardListener, Mous
             g.setFont(fpsFont);
             g.setColor(Color.YELLOW);
             g.drawString(s, -getX() + 5, -getY() + 20);
+            g.drawString("Hexes: " + hexImageCache.getStatistics(), -getX() + 5, -getY() + 40);
+            g.drawString("Scaled: " + scaledImageCache.getStatistics(), -getX() + 5, -getY() + 60);
         }
 
         // debugging method that renders the bounding box of a unit's movement envelope.
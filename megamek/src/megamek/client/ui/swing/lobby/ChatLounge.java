@@ -929,9 +929,10 @@ public class ChatLounge extends AbstractPhaseDisplay implements
     
     private void refreshBoardTags() {
         boardTags.clear();
+        BoardCatalog boardCatalog = BoardCatalog.getInstance();
         for (String boardName : mapSettings.getBoardsAvailableVector()) {
             File boardFile = new MegaMekFile(Configuration.boardsDir(), boardName + ".board").getFile();
-            Set<String> tags = Board.getTags(boardFile);
+            Set<String> tags = boardCatalog.getTags(boardFile);
             boardTags.put(boardName, String.join("||", tags).toLowerCase());
         }
     }
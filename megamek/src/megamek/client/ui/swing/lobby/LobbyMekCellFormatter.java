@@ -725,7 +725,7 @@ class LobbyMekCellFormatter {
         List<Entity> fullEntities = lobby.game().getForces().getFullEntities(force);
         result.append(guiScaledFontHTML(color, size));
         result.append(DOT_SPACER);
-        int totalBv = fullEntities.stream().filter(e -> !e.isPartOfFighterSquadron()).mapToInt(Entity::calculateBattleValue).sum();
+        int totalBv = fullEntities.stream().filter(e -> !e.isPartOfFighterSquadron()).mapToInt(Entity::getCachedBattleValue).sum();
         if (totalBv > 0) {
             result.append("BV ").append(String.format("%,d", totalBv));
             // Unit Type
@@ -173,7 +173,7 @@ public class MekTableModel extends AbstractTableModel {
      * the display content will be added as a new last table row. 
      */  
     private void addCellData(Entity entity) {
-        bv.add(entity.calculateBattleValue());
+        bv.add(entity.getCachedBattleValue());
         playerCells.add(playerCellContent(entity));
 
         Player owner = ownerOf(entity);
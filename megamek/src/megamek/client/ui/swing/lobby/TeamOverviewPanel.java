@@ -211,13 +211,16 @@ public class TeamOverviewPanel extends JPanel {
                 for (Player teamMember: team.getPlayersVector()) {
                     // Get the "real" player object, as the team's may be wrong
                     Player player = game.getPlayer(teamMember.getId());
-                    bv += player.getBV();
+                    // Same as player.getBV(), but without recalculating unchanged units
+                    bv += game.getPlayerEntities(player, true).stream()
+                            .filter(entity -> !entity.isDestroyed() && !entity.isTrapped())
+                            .mapToInt(Entity::getCachedBattleValue).sum();
                     for (Entity entity: game.getPlayerEntities(player, false)) {
                         // Avoid counting fighters in squadrons twice 
                         if (entity instanceof FighterSquadron) {
                             continue;
                         }
-                        cost += (long) entity.getCost(false);
+                        cost += (long) entity.getCachedCost(false);
                         ton += entity.getWeight();
                         unitCounts[classIndex(entity)]++;
                         int mapType = clientGui.getClient().getMapSettings().getMedium();
@@ -233,7 +236,7 @@ public class TeamOverviewPanel extends JPanel {
                             unitWarnings[classIndex(entity)] = true;
                         }
                         if (entity.isHidden()) {
-                            hiddenBv += entity.calculateBattleValue();
+                            hiddenBv += entity.getCachedBattleValue();
                         }
                     }
                 }
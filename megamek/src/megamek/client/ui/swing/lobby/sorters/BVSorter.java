@@ -35,8 +35,8 @@ public class BVSorter implements MekTableSorter {
 
     @Override
     public int compare(final Entity a, final Entity b) {
-        int aBV = a.calculateBattleValue();
-        int bBV = b.calculateBattleValue();
+        int aBV = a.getCachedBattleValue();
+        int bBV = b.getCachedBattleValue();
         if (bBV > aBV) {
             return smaller(direction);
         } else if (bBV < aBV) {
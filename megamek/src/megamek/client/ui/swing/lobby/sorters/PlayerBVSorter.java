@@ -55,8 +55,8 @@ public class PlayerBVSorter implements MekTableSorter {
         } else if (!p_a.equals(p_b)) {
             return p_a.getName().compareTo(p_b.getName());
         } else {
-            int aBV = a.calculateBattleValue();
-            int bBV = b.calculateBattleValue();
+            int aBV = a.getCachedBattleValue();
+            int bBV = b.getCachedBattleValue();
             if (bBV > aBV) {
                 return smaller(direction);
             } else if (bBV < aBV) {
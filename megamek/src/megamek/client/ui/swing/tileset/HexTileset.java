@@ -16,6 +16,7 @@ package megamek.client.ui.swing.tileset;
 
 import megamek.client.ui.swing.util.ImageCache;
 import megamek.common.*;
+import megamek.common.annotations.Nullable;
 import megamek.common.event.*;
 import megamek.common.util.ImageUtil;
 import megamek.common.util.StringUtil;
@@ -52,9 +53,20 @@ public class HexTileset implements BoardListener {
     private ArrayList<HexEntry> supers = new ArrayList<>();
     private ArrayList<HexEntry> orthos = new ArrayList<>();
     private Set<String> themes = new TreeSet<>();
-    private ImageCache<Hex, Image> basesCache = new ImageCache<>();
-    private ImageCache<Hex, List<Image>> supersCache = new ImageCache<>();
-    private ImageCache<Hex, List<Image>> orthosCache = new ImageCache<>();
+    private ImageCache<Hex, Image> basesCache = newHexCache();
+    private ImageCache<Hex, List<Image>> supersCache = newHexCache();
+    private ImageCache<Hex, List<Image>> orthosCache = newHexCache();
+
+    /** The indexes of the tileset entries, built on first use after loading */
+    private HexEntryIndex basesIndex;
+    private HexEntryIndex supersIndex;
+    private HexEntryIndex orthosIndex;
+
+    /** The matching entries for each hex signature, see {@link #signature(Hex)} */
+    private final Map<String, HexMatch> matchCache = new HashMap<>();
+
+    /** The number of signatures after which the match cache is started anew */
+    private static final int MAX_CACHED_MATCHES = 10000;
 
     /**
      * Creates new HexTileset
@@ -74,9 +86,18 @@ public class HexTileset implements BoardListener {
 
     /** Clears the image cache for all hexes. */
     public synchronized void clearAllHexes() {
-        basesCache = new ImageCache<>();
-        supersCache = new ImageCache<>();
-        orthosCache = new ImageCache<>();
+        basesCache = newHexCache();
+        supersCache = newHexCache();
+        orthosCache = newHexCache();
+    }
+
+    /**
+     * @return A cache of the tileset images chosen for each hex. The images belong to the tileset
+     *         and are shared by many hexes, so the entries weigh nothing and are never evicted;
+     *         the hexes of the board bound the cache.
+     */
+    private static <V> ImageCache<Hex, V> newHexCache() {
+        return new ImageCache<>(images -> 0);
     }
     
     /**
@@ -91,10 +112,28 @@ public class HexTileset implements BoardListener {
      * match can be any value, and the first, best image is used.
      */
     public synchronized Object[] assignMatch(Hex hex, Component comp) {
-        Hex hexCopy = hex.duplicate();
-        List<Image> ortho = orthoFor(hexCopy, comp);
-        List<Image> supers = supersFor(hexCopy, comp);
-        Image base = baseFor(hexCopy, comp);
+        final String signature = signature(hex);
+        HexMatch match = matchCache.get(signature);
+        if (match == null) {
+            if (basesIndex == null) {
+                basesIndex = new HexEntryIndex(bases, false);
+                supersIndex = new HexEntryIndex(supers, true);
+                orthosIndex = new HexEntryIndex(orthos, true);
+            }
+            if (matchCache.size() >= MAX_CACHED_MATCHES) {
+                matchCache.clear();
+            }
+            Hex hexCopy = hex.duplicate();
+            List<HexEntry> orthoEntries = orthoFor(hexCopy);
+            List<HexEntry> superEntries = supersFor(hexCopy);
+            match = new HexMatch(baseFor(hexCopy), superEntries, orthoEntries);
+            matchCache.put(signature, match);
+        }
+
+        final int seed = hex.getCoords().hashCode();
+        List<Image> ortho = imagesFor(match.orthos, comp, seed);
+        List<Image> supers = imagesFor(match.supers, comp, seed);
+        Image base = imageFor(match.base, comp, seed);
         Object[] pair = new Object[] { base, supers, ortho };
         basesCache.put(hex, base);
         supersCache.put(hex, supers);
@@ -137,18 +176,15 @@ public class HexTileset implements BoardListener {
      * elements from the tileset hex are removed from the hex. Thus you want to pass
      * a copy of the original to this function.
      */
-    private List<Image> orthoFor(Hex hex, Component comp) {
-        ArrayList<Image> matches = new ArrayList<>();
+    private List<HexEntry> orthoFor(Hex hex) {
+        ArrayList<HexEntry> matches = new ArrayList<>();
 
         // find orthographic image matches
-        for (HexEntry entry : orthos) {
+        final BitSet candidates = orthosIndex.candidates(hex);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            HexEntry entry = orthos.get(i);
             if (orthoMatch(hex, entry.getHex()) >= 1.0) {
-                Image img = entry.getImage(comp, hex.getCoords().hashCode());
-                if (img != null) {
-                    matches.add(img);
-                } else {
-                    matches.add(ImageUtil.createAcceleratedImage(HEX_W, HEX_H));
-                }
+                matches.add(entry);
                 // remove involved terrain from consideration
                 for (int terr : entry.getHex().getTerrainTypes()) {
                     if (entry.getHex().containsTerrain(terr)) {
@@ -166,18 +202,15 @@ public class HexTileset implements BoardListener {
      * from the tileset hex are removed from the hex. Thus you want to pass a copy
      * of the original to this function.
      */
-    private List<Image> supersFor(Hex hex, Component comp) {
-        ArrayList<Image> matches = new ArrayList<>();
+    private List<HexEntry> supersFor(Hex hex) {
+        ArrayList<HexEntry> matches = new ArrayList<>();
 
         // find superimposed image matches
-        for (HexEntry entry : supers) {
+        final BitSet candidates = supersIndex.candidates(hex);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            HexEntry entry = supers.get(i);
             if (superMatch(hex, entry.getHex()) >= 1.0) {
-                Image img = entry.getImage(comp, hex.getCoords().hashCode());
-                if (img != null) {
-                    matches.add(img);
-                } else {
-                    matches.add(ImageUtil.createAcceleratedImage(HEX_W, HEX_H));
-                }
+                matches.add(entry);
                 // remove involved terrain from consideration
                 for (int terr : entry.getHex().getTerrainTypes()) {
                     if (entry.getHex().containsTerrain(terr)) {
@@ -192,13 +225,18 @@ public class HexTileset implements BoardListener {
     /**
      * Returns the best matching base image for this hex. This works best if any
      * terrain with a "super" image is removed.
+     * <p>
+     * Only the entries that share a terrain with the hex, or have no terrain, can match it better
+     * than 0, so only those are scored. If none does, the first entry is the best match.
      */
-    private Image baseFor(Hex hex, Component comp) {
-        HexEntry bestMatch = null;
-        double match = -1;
+    private HexEntry baseFor(Hex hex) {
+        HexEntry bestMatch = bases.get(0);
+        double match = 0;
 
         // match a base image to the hex
-        for (HexEntry entry : bases) {
+        final BitSet candidates = basesIndex.candidates(hex);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            HexEntry entry = bases.get(i);
 
             // Metal deposits don't count for visual
             if (entry.getHex().containsTerrain(Terrains.METAL_CONTENT)) {
@@ -217,14 +255,43 @@ public class HexTileset implements BoardListener {
                 match = thisMatch;
             }
         }
+        return bestMatch;
+    }
+
+    private List<Image> imagesFor(List<HexEntry> entries, Component comp, int seed) {
+        ArrayList<Image> images = new ArrayList<>(entries.size());
+        for (HexEntry entry : entries) {
+            images.add(imageFor(entry, comp, seed));
+        }
+        return images;
+    }
 
-        Image img = bestMatch.getImage(comp, hex.getCoords().hashCode());
+    private Image imageFor(HexEntry entry, Component comp, int seed) {
+        Image img = entry.getImage(comp, seed);
         if (img == null) {
             img = ImageUtil.createAcceleratedImage(HEX_W, HEX_H);
         }
         return img;
     }
 
+    /**
+     * Returns a key that is equal for hexes that match the same tileset entries: their level,
+     * theme and the level and exits of each terrain. The coordinates only select among the images
+     * of an entry and are not part of it.
+     */
+    private static String signature(Hex hex) {
+        final int[] terrainTypes = hex.getTerrainTypes();
+        Arrays.sort(terrainTypes);
+        final StringBuilder signature = new StringBuilder(16 + 12 * terrainTypes.length);
+        signature.append(hex.getLevel()).append('|').append(hex.getTheme());
+        for (int type : terrainTypes) {
+            final Terrain terrain = hex.getTerrain(type);
+            signature.append('|').append(type).append(':').append(terrain.getLevel())
+                    .append(':').append(terrain.getExits());
+        }
+        return signature.toString();
+    }
+
     // perfect match
     // all but theme
     // all but elevation
@@ -273,6 +340,8 @@ public class HexTileset implements BoardListener {
                 themes.add(theme);
                 st.nextToken();
                 imageName = st.sval;
+                basesIndex = null;
+                matchCache.clear();
                 // add to list
                 if (bas) {
                     bases.add(new HexEntry(new Hex(elevation, terrain, theme), imageName));
@@ -534,6 +603,89 @@ public class HexTileset implements BoardListener {
         return elevation * terrain * theme;
     }
 
+    /** The tileset entries that were matched to a hex signature */
+    private static class HexMatch {
+        private final HexEntry base;
+        private final List<HexEntry> supers;
+        private final List<HexEntry> orthos;
+
+        private HexMatch(HexEntry base, List<HexEntry> supers, List<HexEntry> orthos) {
+            this.base = base;
+            this.supers = supers;
+            this.orthos = orthos;
+        }
+    }
+
+    /**
+     * An index of the positions of tileset entries by the terrain types of their hexes and,
+     * optionally, by their theme. Entries without terrain are listed under {@link Terrains#SIZE}.
+     * The candidates for a hex are the entries that have one of its terrain types or no terrain,
+     * in the order of the tileset, so that scanning them finds the same matches as scanning all
+     * entries.
+     */
+    private static class HexEntryIndex {
+        private static final String NO_THEME = "";
+
+        private final boolean byTheme;
+        private final Map<String, BitSet[]> positions = new HashMap<>();
+
+        private HexEntryIndex(List<HexEntry> entries, boolean byTheme) {
+            this.byTheme = byTheme;
+            for (int i = 0; i < entries.size(); i++) {
+                final Hex hex = entries.get(i).getHex();
+                final BitSet[] byTerrain = positions.computeIfAbsent(themeKey(hex.getTheme()),
+                        k -> new BitSet[Terrains.SIZE + 1]);
+                final int[] terrainTypes = hex.getTerrainTypes();
+                if (terrainTypes.length == 0) {
+                    add(byTerrain, Terrains.SIZE, i);
+                }
+                for (int type : terrainTypes) {
+                    add(byTerrain, type, i);
+                }
+            }
+        }
+
+        private static void add(BitSet[] byTerrain, int type, int position) {
+            if (byTerrain[type] == null) {
+                byTerrain[type] = new BitSet();
+            }
+            byTerrain[type].set(position);
+        }
+
+        /**
+         * An unthemed entry may match any hex, a themed entry only a hex of the same theme. When
+         * the index is not by theme, all entries are unthemed.
+         */
+        private String themeKey(String theme) {
+            return (!byTheme || (theme == null)) ? NO_THEME : theme.toLowerCase(Locale.ROOT);
+        }
+
+        private BitSet candidates(Hex hex) {
+            final BitSet result = new BitSet();
+            final int[] terrainTypes = hex.getTerrainTypes();
+            addCandidates(result, positions.get(NO_THEME), terrainTypes);
+            final String theme = themeKey(hex.getTheme());
+            if (!theme.equals(NO_THEME)) {
+                addCandidates(result, positions.get(theme), terrainTypes);
+            }
+            return result;
+        }
+
+        private static void addCandidates(BitSet result, @Nullable BitSet[] byTerrain, int[] terrainTypes) {
+            if (byTerrain == null) {
+                return;
+            }
+            if (byTerrain[Terrains.SIZE] != null) {
+                result.or(byTerrain[Terrains.SIZE]);
+            }
+            for (int type : terrainTypes) {
+                if (byTerrain[type] != null) {
+                    result.or(byTerrain[type]);
+                }
+            }
+        }
+    }
+
     private class HexEntry {
         private Hex hex;
         private Image image;
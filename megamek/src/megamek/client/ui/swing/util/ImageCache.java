@@ -14,13 +14,22 @@
  */
 package megamek.client.ui.swing.util;
 
+import megamek.client.ui.swing.GUIPreferences;
 import megamek.common.annotations.Nullable;
 
-import java.util.Hashtable;
+import java.awt.*;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
 
 /**
- * An ImageCache that keeps a Hashtable of mapped keys and values.
- * 
+ * An ImageCache that maps keys to images and keeps the approximate memory use of the images
+ * within a byte budget and, if given, the number of entries within a maximum. When an added image
+ * exceeds either, the least recently used entries are evicted. The size of an image is estimated as width x height x 4 bytes. The cache counts its
+ * hits, misses and evictions so that they can be shown on the client.
+ *
  * @author Arlith
  */
 public class ImageCache<K, V> {
@@ -28,54 +37,185 @@ public class ImageCache<K, V> {
      * Default maximum size
      */
     public static int MAX_SIZE = 30000;
-    
+
+    /** The size assumed for an image whose dimensions are not yet known, that of a hex image */
+    private static final long UNKNOWN_IMAGE_BYTES = 84 * 72 * 4;
 
     /**
-     * The cache of Key/Value pairs.
+     * The cache of Key/Value pairs in the order of their last access.
      */
-    private Hashtable<K, V> cache;
-        
+    private final LinkedHashMap<K, Entry<V>> cache;
+
+    private final ToLongFunction<? super V> weigher;
+    private final long budget;
+    private final int maxEntries;
+
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private static class Entry<V> {
+        private final V value;
+        private final long bytes;
+
+        private Entry(V value, long bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+
     /**
-     * Create a cache with the default maximum size.
+     * Create a cache with the byte budget set in the client settings.
      */
     public ImageCache() {
-        cache = new Hashtable<>(MAX_SIZE * 5 / 4, .75f);
+        this(GUIPreferences.getInstance().getImageCacheBudget(), ImageCache::estimateBytes);
     }
 
-    
+    /**
+     * Create a cache with the byte budget set in the client settings that estimates the size of
+     * its values with the given function.
+     */
+    public ImageCache(ToLongFunction<? super V> weigher) {
+        this(GUIPreferences.getInstance().getImageCacheBudget(), weigher);
+    }
+
+    /**
+     * Create a cache of at most the given number of entries, whatever the size of their images.
+     */
     public ImageCache(int max) {
-        cache = new Hashtable<>(max * 5 / 4, .75f);
+        this(Long.MAX_VALUE, ImageCache::estimateBytes, max);
+    }
+
+    /**
+     * @param budget the approximate number of bytes the values of the cache may use
+     * @param weigher the function that estimates the size of a value in bytes
+     */
+    public ImageCache(long budget, ToLongFunction<? super V> weigher) {
+        this(budget, weigher, Integer.MAX_VALUE);
+    }
+
+    private ImageCache(long budget, ToLongFunction<? super V> weigher, int maxEntries) {
+        this.budget = budget;
+        this.weigher = weigher;
+        this.maxEntries = maxEntries;
+        cache = new LinkedHashMap<>(256, .75f, true);
     }
 
     /**
-     * Adds a new key/value pair into the cache.
-     * 
+     * Adds a new key/value pair into the cache. If this takes the cache over its budget or maximum
+     * number of entries, the least recently used entries other than the new one are evicted.
+     *
      * @param key
      * @param value
-     * @return
+     * @return the value, or null if key or value are null
      */
     public synchronized @Nullable V put(@Nullable K key, @Nullable V value) {
         if ((key == null) || (value == null)) {
             return null;
         }
-      
-        cache.put(key, value);
+
+        final Entry<V> entry = new Entry<>(value, Math.max(weigher.applyAsLong(value), 0));
+        final Entry<V> previous = cache.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.bytes;
+        }
+        bytes += entry.bytes;
+
+        final Iterator<Map.Entry<K, Entry<V>>> eldest = cache.entrySet().iterator();
+        while (((bytes > budget) || (cache.size() > maxEntries)) && (cache.size() > 1)) {
+            bytes -= eldest.next().getValue().bytes;
+            eldest.remove();
+            evictions++;
+        }
         return value;
     }
 
     public synchronized @Nullable V get(K key) {
-        return cache.getOrDefault(key, null);
+        final Entry<V> entry = cache.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
     }
 
-    public void remove(Object key) {
-        cache.remove(key);
+    public synchronized void remove(Object key) {
+        final Entry<V> entry = cache.remove(key);
+        if (entry != null) {
+            bytes -= entry.bytes;
+        }
     }
-    
-    public int size() {
+
+    public synchronized int size() {
         return cache.size();
     }
-    
-    public void clear() {
+
+    public synchronized void clear() {
         cache.clear();
+        bytes = 0;
+    }
+
+    /**
+     * @return the estimated number of bytes used by the cached values
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return a short summary of the size, budget and counters of this cache for display
+     */
+    public synchronized String getStatistics() {
+        final long lookups = hits + misses;
+        return String.format("%d images, %.1f/%d MB, %d hits (%.0f%%), %d misses, %d evictions",
+                cache.size(), bytes / 1048576d, budget / 1048576, hits,
+                (lookups == 0) ? 0d : (100d * hits / lookups), misses, evictions);
+    }
+
+    /**
+     * @return the approximate size of the image in memory, assuming 4 bytes per pixel
+     */
+    public static long imageBytes(@Nullable Image image) {
+        if (image == null) {
+            return 0;
+        }
+        final int width = image.getWidth(null);
+        final int height = image.getHeight(null);
+        return ((width < 0) || (height < 0)) ? UNKNOWN_IMAGE_BYTES : 4L * width * height;
+    }
+
+    /**
+     * The default size estimate of cached values: the size of an image, the sum of the sizes of
+     * the elements of a collection of images and 0 for anything else.
+     */
+    public static long estimateBytes(@Nullable Object value) {
+        if (value instanceof Image) {
+            return imageBytes((Image) value);
+        } else if (value instanceof Collection<?>) {
+            long result = 0;
+            for (Object element : (Collection<?>) value) {
+                result += estimateBytes(element);
+            }
+            return result;
+        }
+        return 0;
     }
 }
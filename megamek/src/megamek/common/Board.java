@@ -109,6 +109,12 @@ public class Board implements Serializable {
 
     protected transient Vector<BoardListener> boardListeners = new Vector<>();
 
+    /**
+     * Counts the board events of this board, so that values computed from its hexes can be
+     * recognized as outdated without listening to the board.
+     */
+    private transient volatile int changeCount;
+
     /**
      * Record the infernos placed on the board.
      */
@@ -752,55 +758,62 @@ public class Board implements Serializable {
      * @return A {@link BoardDimensions} object containing the dimension.
      */
     public static BoardDimensions getSize(final File filepath) {
-        int boardx = 0;
-        int boardy = 0;
+        BoardDimensions size;
         try (Reader r = new BufferedReader(new FileReader(filepath))) {
-            // read board, looking for "size"
-            StreamTokenizer st = new StreamTokenizer(r);
-            st.eolIsSignificant(true);
-            st.commentChar('#');
-            st.quoteChar('"');
-            st.wordChars('_', '_');
-            while (st.nextToken() != StreamTokenizer.TT_EOF) {
-                if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("size")) {
-                    st.nextToken();
-                    boardx = (int) st.nval;
-                    st.nextToken();
-                    boardy = (int) st.nval;
-                    break;
-                }
-            }
+            size = readSizeAndTags(r, null);
         } catch (IOException ex) {
             return null;
         }
-        return new BoardDimensions(boardx, boardy);
+        return (size == null) ? new BoardDimensions(0, 0) : size;
     }
     
     /** Inspects the given board file and returns a set of its tags. */
     public static Set<String> getTags(final File filepath) {
         var result = new HashSet<String>();
         try (Reader r = new BufferedReader(new FileReader(filepath))) {
-            // read board, looking for "size"
-            StreamTokenizer st = new StreamTokenizer(r);
-            st.eolIsSignificant(true);
-            st.commentChar('#');
-            st.quoteChar('"');
-            st.wordChars('_', '_');
-            while (st.nextToken() != StreamTokenizer.TT_EOF) {
-                if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("tag")) {
-                    st.nextToken();
-                    if (st.ttype == '"') {
-                        result.add(st.sval);
-                    }
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("end")) {
-                    break;
-                }
-            }
+            readSizeAndTags(r, result);
         } catch (IOException ex) {
             // return the empty Set
         }
         return result;
     }
+
+    /**
+     * Reads the size and the tags of a board from the given reader. Reading stops at the end of
+     * the board, or right after the size if the tags are not wanted.
+     *
+     * @param r the reader of the board file
+     * @param tags the set to add the tags of the board to, or null to read only the size
+     * @return the size of the board, or null if it has none
+     */
+    static @Nullable BoardDimensions readSizeAndTags(Reader r, @Nullable Set<String> tags) throws IOException {
+        BoardDimensions size = null;
+        StreamTokenizer st = new StreamTokenizer(r);
+        st.eolIsSignificant(true);
+        st.commentChar('#');
+        st.quoteChar('"');
+        st.wordChars('_', '_');
+        while (st.nextToken() != StreamTokenizer.TT_EOF) {
+            if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("size") && (size == null)) {
+                st.nextToken();
+                int boardx = (int) st.nval;
+                st.nextToken();
+                int boardy = (int) st.nval;
+                size = new BoardDimensions(boardx, boardy);
+                if (tags == null) {
+                    break;
+                }
+            } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("tag")) {
+                st.nextToken();
+                if ((st.ttype == '"') && (tags != null)) {
+                    tags.add(st.sval);
+                }
+            } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("end")) {
+                break;
+            }
+        }
+        return size;
+    }
     
     public static boolean isValid(String board) {
         Board tempBoard = new Board(16, 17);
@@ -922,104 +935,226 @@ public class Board implements Serializable {
         load(is, null, false);
     }
 
+    /**
+     * Loads this board from an InputStream. The hex lines of the board file, which make up
+     * nearly all of it, are read directly from the line; all other lines, including hex lines
+     * with escapes or numbers the direct reading does not handle, are tokenized.
+     */
     public void load(InputStream is, StringBuffer errBuff, boolean continueLoadOnError) {
-        int nw = 0, nh = 0, di = 0;
-        Hex[] nd = new Hex[0];
-        int index = 0;
         resetStoredElevation();
-        try (Reader r = new BufferedReader(new InputStreamReader(is))) {
-            StreamTokenizer st = new StreamTokenizer(r);
-            st.eolIsSignificant(true);
-            st.commentChar('#');
-            st.quoteChar('"');
-            st.wordChars('_', '_');
-            while (st.nextToken() != StreamTokenizer.TT_EOF) {
-                if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("size")) {
-                    // read rest of line
-                    String[] args = { "0", "0" };
-                    int i = 0;
-                    while ((st.nextToken() == StreamTokenizer.TT_WORD) || (st.ttype == '"')
-                            || (st.ttype == StreamTokenizer.TT_NUMBER)) {
-                        args[i++] = st.ttype == StreamTokenizer.TT_NUMBER ? (int) st.nval + "" : st.sval;
-                    }
-                    nw = Integer.parseInt(args[0]);
-                    nh = Integer.parseInt(args[1]);
-                    nd = new Hex[nw * nh];
-                    di = 0;
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("option")) {
-                    // read rest of line
-                    String[] args = { "", "" };
-                    int i = 0;
-                    while ((st.nextToken() == StreamTokenizer.TT_WORD) || (st.ttype == '"')
-                            || (st.ttype == StreamTokenizer.TT_NUMBER)) {
-                        args[i++] = st.ttype == StreamTokenizer.TT_NUMBER ? (int) st.nval + "" : st.sval;
-                    }
-                    // Only expect certain options.
-                    if (args[0].equalsIgnoreCase("exit_roads_to_pavement")) {
-                        roadsAutoExit = !args[1].equalsIgnoreCase("false");
-                    }
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("hex")) {
-                    // read rest of line
-                    String[] args = { "", "0", "", "" };
-                    int i = 0;
-                    while ((st.nextToken() == StreamTokenizer.TT_WORD) || (st.ttype == '"')
-                            || (st.ttype == StreamTokenizer.TT_NUMBER)) {
-                        args[i++] = st.ttype == StreamTokenizer.TT_NUMBER ? (int) st.nval + "" : st.sval;
-                    }
-                    int elevation = Integer.parseInt(args[1]);
-                    // The coordinates in the .board file are ignored!
-                    nd[index] = new Hex(elevation, args[2], args[3], new Coords(index % nw, index / nw));
-                    index++;
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("background")) {
-                    st.nextToken();
-                    File bgFile = new MegaMekFile(Configuration.boardBackgroundsDir(),
-                            st.sval).getFile();
-                    if (bgFile.exists()) {
-                        backgroundPaths.add(bgFile.getPath());
+        LoadState state = new LoadState();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(is))) {
+            String line;
+            while (!state.ended && ((line = r.readLine()) != null)) {
+                if (!readHexLine(line, state)) {
+                    readDirectives(new StringReader(line), state);
+                }
+            }
+        } catch (IOException ex) {
+            LogManager.getLogger().error("I/O Error: " + ex);
+        }
+        finishLoading(state, errBuff, continueLoadOnError);
+    }
+
+    /** The board data read so far while loading a board file */
+    private static final class LoadState {
+        private int width;
+        private int height;
+        private Hex[] hexes = new Hex[0];
+        private int index;
+        private boolean ended;
+        /** The terrains parsed from each terrain string of the file */
+        private final Map<String, Terrain[]> terrains = new HashMap<>();
+
+        /**
+         * @return new terrains equal to those of the given terrain string, which is only parsed
+         * the first time it is seen
+         */
+        private Terrain[] copyTerrains(String terrain) {
+            Terrain[] parsed = terrains.computeIfAbsent(terrain, t -> {
+                List<Terrain> result = new ArrayList<>();
+                for (StringTokenizer st = new StringTokenizer(t, ";", false); st.hasMoreTokens();) {
+                    result.add(new Terrain(st.nextToken()));
+                }
+                return result.toArray(new Terrain[0]);
+            });
+            Terrain[] copy = new Terrain[parsed.length];
+            for (int i = 0; i < parsed.length; i++) {
+                copy[i] = new Terrain(parsed[i]);
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Reads the given line if it is a plain hex line of a number for the coordinates, a number for
+     * the elevation and up to two quoted strings for the terrain and theme, without escapes or
+     * other tokens. Other lines are left to the tokenizer.
+     *
+     * @return true if the line was a plain hex line and has been read
+     */
+    private boolean readHexLine(String line, LoadState state) {
+        final int length = line.length();
+        int pos = skipWhitespace(line, 0);
+        if (!line.regionMatches(true, pos, "hex", 0, 3) || (pos + 3 >= length) || (line.charAt(pos + 3) > ' ')) {
+            return false;
+        }
+        pos = skipWhitespace(line, pos + 3);
+
+        // the coordinates in the .board file are ignored, but must be a number
+        int end = skipInteger(line, pos);
+        if (end == pos) {
+            return false;
+        }
+        pos = skipWhitespace(line, end);
+        end = skipInteger(line, pos);
+        // longer numbers are left to the tokenizer
+        if ((end == pos) || (end - pos > 9)) {
+            return false;
+        }
+        final int elevation = Integer.parseInt(line, pos, end, 10);
+        pos = skipWhitespace(line, end);
+
+        final String[] strings = { "", "" };
+        for (int i = 0; (i < strings.length) && (pos < length) && (line.charAt(pos) == '"'); i++) {
+            end = line.indexOf('"', pos + 1);
+            if ((end == -1) || (line.indexOf('\\', pos + 1) != -1) && (line.indexOf('\\', pos + 1) < end)) {
+                return false;
+            }
+            strings[i] = line.substring(pos + 1, end);
+            pos = skipWhitespace(line, end + 1);
+        }
+        if ((pos < length) && (line.charAt(pos) != '#')) {
+            return false;
+        }
+
+        // The coordinates in the .board file are ignored!
+        state.hexes[state.index] = new Hex(elevation, state.copyTerrains(strings[0]), strings[1],
+                new Coords(state.index % state.width, state.index / state.width));
+        state.index++;
+        return true;
+    }
+
+    private static int skipWhitespace(String line, int pos) {
+        while ((pos < line.length()) && (line.charAt(pos) <= ' ')) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * @return the position after the optionally negative integer at the given position, which must
+     * be followed by whitespace or the end of the line, or the given position if there is none
+     */
+    private static int skipInteger(String line, int pos) {
+        int end = ((pos < line.length()) && (line.charAt(pos) == '-')) ? pos + 1 : pos;
+        final int digits = end;
+        while ((end < line.length()) && Character.isDigit(line.charAt(end)) && (line.charAt(end) < 128)) {
+            end++;
+        }
+        if ((end == digits) || ((end < line.length()) && (line.charAt(end) > ' '))) {
+            return pos;
+        }
+        return end;
+    }
+
+    private void readDirectives(Reader r, LoadState state) throws IOException {
+        StreamTokenizer st = new StreamTokenizer(r);
+        st.eolIsSignificant(true);
+        st.commentChar('#');
+        st.quoteChar('"');
+        st.wordChars('_', '_');
+        while (st.nextToken() != StreamTokenizer.TT_EOF) {
+            if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("size")) {
+                // read rest of line
+                String[] args = { "0", "0" };
+                int i = 0;
+                while ((st.nextToken() == StreamTokenizer.TT_WORD) || (st.ttype == '"')
+                        || (st.ttype == StreamTokenizer.TT_NUMBER)) {
+                    args[i++] = st.ttype == StreamTokenizer.TT_NUMBER ? (int) st.nval + "" : st.sval;
+                }
+                state.width = Integer.parseInt(args[0]);
+                state.height = Integer.parseInt(args[1]);
+                state.hexes = new Hex[state.width * state.height];
+            } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("option")) {
+                // read rest of line
+                String[] args = { "", "" };
+                int i = 0;
+                while ((st.nextToken() == StreamTokenizer.TT_WORD) || (st.ttype == '"')
+                        || (st.ttype == StreamTokenizer.TT_NUMBER)) {
+                    args[i++] = st.ttype == StreamTokenizer.TT_NUMBER ? (int) st.nval + "" : st.sval;
+                }
+                // Only expect certain options.
+                if (args[0].equalsIgnoreCase("exit_roads_to_pavement")) {
+                    roadsAutoExit = !args[1].equalsIgnoreCase("false");
+                }
+            } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("hex")) {
+                // read rest of line
+                String[] args = { "", "0", "", "" };
+                int i = 0;
+                while ((st.nextToken() == StreamTokenizer.TT_WORD) || (st.ttype == '"')
+                        || (st.ttype == StreamTokenizer.TT_NUMBER)) {
+                    args[i++] = st.ttype == StreamTokenizer.TT_NUMBER ? (int) st.nval + "" : st.sval;
+                }
+                int elevation = Integer.parseInt(args[1]);
+                // The coordinates in the .board file are ignored!
+                state.hexes[state.index] = new Hex(elevation, args[2], args[3],
+                        new Coords(state.index % state.width, state.index / state.width));
+                state.index++;
+            } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("background")) {
+                st.nextToken();
+                File bgFile = new MegaMekFile(Configuration.boardBackgroundsDir(),
+                        st.sval).getFile();
+                if (bgFile.exists()) {
+                    backgroundPaths.add(bgFile.getPath());
+                } else {
+                    LogManager.getLogger().error("Board specified background image, but path couldn't be found! Path: " + bgFile.getPath());
+                }
+            } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("description")) {
+                st.nextToken();
+                if (st.ttype == '"') {
+                    String d = getDescription();
+                    if (null == d) {
+                        setDescription(st.sval);
                     } else {
-                        LogManager.getLogger().error("Board specified background image, but path couldn't be found! Path: " + bgFile.getPath());
+                        setDescription(d + "\n\n" + st.sval);
                     }
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("description")) {
-                    st.nextToken();
-                    if (st.ttype == '"') {
-                        String d = getDescription();
-                        if (null == d) {
-                            setDescription(st.sval);
-                        } else {
-                            setDescription(d + "\n\n" + st.sval);
-                        }
-                    }
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("note")) {
-                    st.nextToken();
-                    if (st.ttype == StreamTokenizer.TT_NUMBER) {
-                        int x, y, coordWidth = 100;
-                        int coords = (int) st.nval;
-                        if (coords > 9999) {
-                            coordWidth = 1000;
-                        }
-                        y = coords % coordWidth;
-                        coords /= coordWidth;
-                        x = coords;
-                        st.nextToken();
-                        Coords c = new Coords(x, y);
-                        if (st.ttype == '"') {
-                            Collection<String> a = new ArrayList<>(getAnnotations(c));
-                            a.add(st.sval);
-                            setAnnotations(c, a);
-                        }
+                }
+            } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("note")) {
+                st.nextToken();
+                if (st.ttype == StreamTokenizer.TT_NUMBER) {
+                    int x, y, coordWidth = 100;
+                    int coords = (int) st.nval;
+                    if (coords > 9999) {
+                        coordWidth = 1000;
                     }
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("tag")) {
+                    y = coords % coordWidth;
+                    coords /= coordWidth;
+                    x = coords;
                     st.nextToken();
+                    Coords c = new Coords(x, y);
                     if (st.ttype == '"') {
-                        addTag(st.sval);
+                        Collection<String> a = new ArrayList<>(getAnnotations(c));
+                        a.add(st.sval);
+                        setAnnotations(c, a);
                     }
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("end")) {
-                    break;
                 }
+            } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("tag")) {
+                st.nextToken();
+                if (st.ttype == '"') {
+                    addTag(st.sval);
+                }
+            } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("end")) {
+                state.ended = true;
+                break;
             }
-        } catch (IOException ex) {
-            LogManager.getLogger().error("I/O Error: " + ex);
         }
+    }
+
+    private void finishLoading(LoadState state, StringBuffer errBuff, boolean continueLoadOnError) {
+        final int nw = state.width;
+        final int nh = state.height;
+        final Hex[] nd = state.hexes;
 
         // fill nulls with blank hexes
         for (int i = 0; i < nd.length; i++) {
@@ -1029,15 +1164,14 @@ public class Board implements Serializable {
         }
 
         // check data integrity
-        if (isValid(nd, nw, nh, errBuff) && ((nw > 1) || (nh > 1) || (di == (nw * nh)))) {
+        if (isValid(nd, nw, nh, errBuff) && ((nw > 1) || (nh > 1) || ((nw * nh) == 0))) {
             newData(nw, nh, nd, errBuff);
-        } else if (continueLoadOnError && ((nw > 1) || (nh > 1) || (di == (nw * nh)))) {
+        } else if (continueLoadOnError && ((nw > 1) || (nh > 1) || ((nw * nh) == 0))) {
             LogManager.getLogger().error("Invalid board data!");
             newData(nw, nh, nd, errBuff);
         } else if (errBuff == null) {
             LogManager.getLogger().error("Invalid board data!");
         }
-
     }
 
     public boolean isValid() {
@@ -1515,6 +1649,7 @@ public class Board implements Serializable {
     }
 
     protected void processBoardEvent(BoardEvent event) {
+        changeCount++;
         if (boardListeners == null) {
             return;
         }
@@ -1533,6 +1668,14 @@ public class Board implements Serializable {
         }
     }
 
+    /**
+     * @return a number that changes whenever a hex of this board changes or the board is replaced
+     * by a new one; it is not saved with the board
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
     protected Vector<BoardListener> getListeners() {
         if (boardListeners == null) {
             boardListeners = new Vector<>();
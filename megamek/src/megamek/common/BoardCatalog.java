@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import megamek.common.annotations.Nullable;
+import megamek.common.util.fileUtils.MegaMekFile;
+import org.apache.logging.log4j.LogManager;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * A catalog of the size and tags of the board files in the boards directory and the boards
+ * directory of the user data, so that the boards of a size or with a tag can be found without
+ * reading every board file. The catalog is saved to {@value #FILENAME_BOARDS_CACHE} in the user
+ * data directory and only the board files that have changed since are read again.
+ * <p>
+ * A board file is unchanged if its length and time stamp or, failing that, the CRC-32 of its
+ * contents match the catalog. The directories are checked for changes when the catalog is queried,
+ * at most once every {@link #REFRESH_INTERVAL} milliseconds.
+ */
+public final class BoardCatalog {
+
+    /** The size, tags and file information of a board file. */
+    public static final class BoardInfo {
+        private final File file;
+        private final String path;
+        private final BoardDimensions size;
+        private final Set<String> tags;
+        private final long length;
+        private long lastModified;
+        private final long checksum;
+
+        private BoardInfo(File file, String path, @Nullable BoardDimensions size, Set<String> tags,
+                          long length, long lastModified, long checksum) {
+            this.file = file;
+            this.path = path;
+            this.size = size;
+            this.tags = Collections.unmodifiableSet(tags);
+            this.length = length;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * @return the path of the board file relative to the boards directory it is in, starting
+         * with a separator and without the .board extension, e.g. "/Real World/Grasslands1"
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return the size of the board, or null if the file has no size
+         */
+        public @Nullable BoardDimensions getSize() {
+            return size;
+        }
+
+        public Set<String> getTags() {
+            return tags;
+        }
+    }
+
+    private static final String FILENAME_BOARDS_CACHE = "boards.cache";
+    private static final int MAGIC = 0x4D4D4243; // "MMBC"
+    private static final int VERSION = 1;
+    private static final long REFRESH_INTERVAL = 2000;
+
+    private static BoardCatalog instance;
+
+    private final File boardsDir;
+    private final File userDataBoardsDir;
+    private final File cacheFile;
+
+    /** The boards by the path of their file, in the order of the directory listings */
+    private Map<String, BoardInfo> boards = new LinkedHashMap<>();
+    private long lastRefresh;
+
+    public static synchronized BoardCatalog getInstance() {
+        if (instance == null) {
+            instance = new BoardCatalog(Configuration.boardsDir(),
+                    new File(Configuration.userdataDir(), Configuration.boardsDir().toString()),
+                    new File(Configuration.userdataDir(), FILENAME_BOARDS_CACHE));
+            instance.load();
+        }
+        return instance;
+    }
+
+    /**
+     * Creates an empty catalog of the given boards directories, see {@link #load()}.
+     *
+     * @param boardsDir the boards directory
+     * @param userDataBoardsDir the boards directory of the user data, which need not exist
+     * @param cacheFile the file the catalog is saved to
+     */
+    BoardCatalog(File boardsDir, File userDataBoardsDir, File cacheFile) {
+        this.boardsDir = boardsDir;
+        this.userDataBoardsDir = userDataBoardsDir;
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * @return all boards of both boards directories
+     */
+    public synchronized List<BoardInfo> getBoards() {
+        refreshIfStale();
+        return new ArrayList<>(boards.values());
+    }
+
+    /**
+     * @return the boards of the given size
+     */
+    public List<BoardInfo> getBoards(BoardDimensions size) {
+        return getBoards().stream().filter(board -> size.equals(board.getSize())).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the sizes of all boards
+     */
+    public SortedSet<BoardDimensions> getBoardSizes() {
+        return getBoards().stream().map(BoardInfo::getSize).filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * @return the board of the given file, or null if it is not a board file in one of the
+     * boards directories
+     */
+    public synchronized @Nullable BoardInfo getBoard(File file) {
+        refreshIfStale();
+        return boards.get(file.getPath());
+    }
+
+    /**
+     * @return the tags of the given board file; empty if it is not in the catalog
+     */
+    public Set<String> getTags(File file) {
+        BoardInfo board = getBoard(file);
+        return (board == null) ? Collections.emptySet() : board.getTags();
+    }
+
+    /**
+     * Checks the boards directories for changes now, regardless of when they were last checked.
+     */
+    public synchronized void refresh() {
+        Map<String, BoardInfo> previous = boards;
+        Map<String, BoardInfo> current = new LinkedHashMap<>();
+        boolean changed = scanDirectory(boardsDir, "", previous, current);
+        if (userDataBoardsDir.isDirectory()) {
+            changed |= scanDirectory(userDataBoardsDir, "", previous, current);
+        }
+        boards = current;
+        lastRefresh = System.currentTimeMillis();
+        if (changed || (previous.size() != current.size())) {
+            save();
+        }
+    }
+
+    private void refreshIfStale() {
+        if (System.currentTimeMillis() - lastRefresh >= REFRESH_INTERVAL) {
+            refresh();
+        }
+    }
+
+    /**
+     * Adds the boards of the given directory and its subdirectories to the current boards, taking
+     * those that are unchanged from the previous boards.
+     *
+     * @return true if a board was read from its file
+     */
+    private boolean scanDirectory(File boardDir, String basePath, Map<String, BoardInfo> previous,
+                                  Map<String, BoardInfo> current) {
+        boolean changed = false;
+        String[] fileList = boardDir.list();
+        if (fileList == null) {
+            return false;
+        }
+        Arrays.sort(fileList);
+        for (String filename : fileList) {
+            File filePath = new MegaMekFile(boardDir, filename).getFile();
+            if (filePath.isDirectory()) {
+                changed |= scanDirectory(filePath, basePath + File.separator + filename, previous, current);
+            } else if (filename.endsWith(".board")) {
+                String path = basePath + File.separator + filename.substring(0, filename.lastIndexOf("."));
+                BoardInfo known = previous.get(filePath.getPath());
+                long length = filePath.length();
+                long lastModified = filePath.lastModified();
+                if ((known != null) && (known.length == length) && (known.lastModified == lastModified)) {
+                    current.put(filePath.getPath(), known);
+                    continue;
+                }
+                try {
+                    byte[] content = Files.readAllBytes(filePath.toPath());
+                    CRC32 crc = new CRC32();
+                    crc.update(content);
+                    if ((known != null) && (known.length == content.length) && (known.checksum == crc.getValue())) {
+                        // only the time stamp has changed
+                        known.lastModified = lastModified;
+                        current.put(filePath.getPath(), known);
+                    } else {
+                        current.put(filePath.getPath(), readBoard(filePath, path, content, lastModified, crc.getValue()));
+                    }
+                    changed = true;
+                } catch (IOException ex) {
+                    LogManager.getLogger().error("Error reading board: " + filePath.getAbsolutePath(), ex);
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Reads the size and tags of the board file with the given contents, see
+     * {@link Board#readSizeAndTags(Reader, Set)}.
+     */
+    private static BoardInfo readBoard(File file, String path, byte[] content, long lastModified, long checksum)
+            throws IOException {
+        BoardDimensions size;
+        Set<String> tags = new HashSet<>();
+        try (Reader r = new InputStreamReader(new ByteArrayInputStream(content))) {
+            size = Board.readSizeAndTags(r, tags);
+        }
+        return new BoardInfo(file, path, size, tags, content.length, lastModified, checksum);
+    }
+
+    /**
+     * Reads the catalog saved by the last run. The saved boards are checked against their files
+     * when the catalog is first queried.
+     */
+    void load() {
+        if (!cacheFile.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if ((in.readInt() != MAGIC) || (in.readInt() != VERSION)) {
+                LogManager.getLogger().info("Ignoring board catalog of another version: " + cacheFile);
+                return;
+            }
+            int count = in.readInt();
+            Map<String, BoardInfo> loaded = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                File file = new File(in.readUTF());
+                String path = in.readUTF();
+                long length = in.readLong();
+                long lastModified = in.readLong();
+                long checksum = in.readLong();
+                BoardDimensions size = in.readBoolean() ? new BoardDimensions(in.readInt(), in.readInt()) : null;
+                int tagCount = in.readInt();
+                Set<String> tags = new HashSet<>();
+                for (int tag = 0; tag < tagCount; tag++) {
+                    tags.add(in.readUTF());
+                }
+                loaded.put(file.getPath(), new BoardInfo(file, path, size, tags, length, lastModified, checksum));
+            }
+            boards = loaded;
+        } catch (IOException ex) {
+            LogManager.getLogger().error("Unable to load the board catalog " + cacheFile, ex);
+        }
+    }
+
+    private void save() {
+        File temporaryFile = new File(cacheFile.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(boards.size());
+                for (BoardInfo board : boards.values()) {
+                    out.writeUTF(board.file.getPath());
+                    out.writeUTF(board.path);
+                    out.writeLong(board.length);
+                    out.writeLong(board.lastModified);
+                    out.writeLong(board.checksum);
+                    out.writeBoolean(board.size != null);
+                    if (board.size != null) {
+                        out.writeInt(board.size.width());
+                        out.writeInt(board.size.height());
+                    }
+                    out.writeInt(board.tags.size());
+                    for (String tag : board.tags) {
+                        out.writeUTF(tag);
+                    }
+                }
+            }
+            Files.move(temporaryFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            LogManager.getLogger().error("Unable to save the board catalog " + cacheFile, ex);
+            temporaryFile.delete();
+        }
+    }
+}
@@ -3694,6 +3694,20 @@ public class Compute {
      */
 
     public static int spinUpCannon(Game cgame, WeaponAttackAction atk, int spinupThreshold) {
+        return spinUpCannon(cgame, atk, spinupThreshold, false);
+    }
+
+    /**
+     * If this is an ultra or rotary cannon, lets see about 'spinning it up' for
+     * extra damage
+     *
+     * @param estimate If true, the weapon is put in the mode with
+     *                 {@link Mounted#setEstimatedMode(String)}, for a caller that restores the
+     *                 mode afterwards
+     * @return the <code>int</code> ID of weapon mode
+     */
+    public static int spinUpCannon(Game cgame, WeaponAttackAction atk, int spinupThreshold,
+                                   boolean estimate) {
 
         int threshold = 12;
         int final_spin;
@@ -3720,7 +3734,7 @@ public class Compute {
         threshold = atk.toHit(cgame).getValue();
 
         // Set the weapon to single shot mode
-        weapon.setMode(rapidAC ? "" : Weapon.MODE_AC_SINGLE);
+        setSpinUpMode(weapon, estimate, rapidAC ? "" : Weapon.MODE_AC_SINGLE);
         final_spin = 0;
 
         // If weapon can't hit target, exit the function with the weapon on
@@ -3735,11 +3749,11 @@ public class Compute {
             final_spin = 1;
             if ((wtype.getAmmoType() == AmmoType.T_AC_ULTRA)
                 || (wtype.getAmmoType() == AmmoType.T_AC_ULTRA_THB)) {
-                weapon.setMode(Weapon.MODE_UAC_ULTRA);
+                setSpinUpMode(weapon, estimate, Weapon.MODE_UAC_ULTRA);
             } else if (wtype.getAmmoType() == AmmoType.T_AC_ROTARY) {
-                weapon.setMode(Weapon.MODE_RAC_TWO_SHOT);
+                setSpinUpMode(weapon, estimate, Weapon.MODE_RAC_TWO_SHOT);
             } else if (rapidAC) {
-                weapon.setMode(Weapon.MODE_AC_RAPID);
+                setSpinUpMode(weapon, estimate, Weapon.MODE_AC_RAPID);
             }
         }
 
@@ -3749,18 +3763,26 @@ public class Compute {
             // If random roll is >= to-hit + 2 then set to quad-spin
             if (spinupThreshold >= (threshold + 1)) {
                 final_spin = 2;
-                weapon.setMode(Weapon.MODE_RAC_FOUR_SHOT);
+                setSpinUpMode(weapon, estimate, Weapon.MODE_RAC_FOUR_SHOT);
             }
 
             // If random roll is >= to-hit + 3 then set to six-spin
             if (spinupThreshold >= (threshold + 2)) {
                 final_spin = 3;
-                weapon.setMode(Weapon.MODE_RAC_SIX_SHOT);
+                setSpinUpMode(weapon, estimate, Weapon.MODE_RAC_SIX_SHOT);
             }
         }
         return final_spin;
     }
 
+    private static void setSpinUpMode(Mounted weapon, boolean estimate, String mode) {
+        if (estimate) {
+            weapon.setEstimatedMode(mode);
+        } else {
+            weapon.setMode(mode);
+        }
+    }
+
     /**
      * Checks to see if a target is in arc of the specified weapon, on the
      * specified entity
@@ -461,23 +461,19 @@ public class ComputeECM {
     }
 
     /**
-     * Returns the total ECM effects on the supplied unit.
+     * Returns the total ECM effects on the supplied unit. The effects of each hex on the line are
+     * looked up in the {@link ECMFieldMap} of the game of the unit.
      *
      * @param ae
      * @param a
      * @param b
+     * @param compareECM true to find the strongest ECM, false to find the strongest ECCM
+     * @param allEcmInfo the fields, or null to use the fields of all entities in the game
      * @return
      */
     public static @Nullable ECMInfo getECMEffects(Entity ae, @Nullable Coords a, @Nullable Coords b,
                                                   boolean compareECM,
                                                   @Nullable List<ECMInfo> allEcmInfo) {
-        Comparator<ECMInfo> ecmComparator;
-        if (compareECM) {
-            ecmComparator = new ECMComparator();
-        } else {
-            ecmComparator = new ECCMComparator();
-        }
-
         if (ae.isSpaceborne()) {
             // normal ECM effects don't apply in space
             return null;
@@ -486,6 +482,29 @@ public class ComputeECM {
             return null;
         }
 
+        Comparator<ECMInfo> ecmComparator = compareECM ? new ECMComparator() : new ECCMComparator();
+        Game game = ae.getGame();
+        ECMFieldMap fieldMap = (game == null) ? null : game.getECMFieldMap();
+        if (fieldMap == null) {
+            return computeECMEffects(ae, a, b, ecmComparator, allEcmInfo);
+        }
+        return fieldMap.getECMEffects(ae, a, b, ecmComparator, allEcmInfo);
+    }
+
+    /**
+     * Returns the total ECM effects on the supplied unit by checking every field for every hex
+     * of the line, without the {@link ECMFieldMap} of the game.
+     *
+     * @param ae
+     * @param a
+     * @param b
+     * @param ecmComparator the comparator that decides which effects are the worst
+     * @param allEcmInfo the fields, or null to compute the fields of all entities in the game
+     * @return
+     */
+    public static @Nullable ECMInfo computeECMEffects(Entity ae, Coords a, Coords b,
+                                                      Comparator<ECMInfo> ecmComparator,
+                                                      @Nullable List<ECMInfo> allEcmInfo) {
         if (allEcmInfo == null) {
             allEcmInfo = computeAllEntitiesECMInfo(ae.getGame().getEntitiesVector());
         }
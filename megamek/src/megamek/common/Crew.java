@@ -16,6 +16,7 @@
 package megamek.common;
 
 import megamek.client.generator.RandomGenderGenerator;
+import megamek.common.annotations.Nullable;
 import megamek.common.enums.Gender;
 import megamek.common.icons.Portrait;
 import megamek.common.options.IOption;
@@ -110,6 +111,9 @@ public class Crew implements Serializable {
     // and which work for the entire unit.
     private PilotOptions options = new PilotOptions();
 
+    /** Told whenever the skills or options of the crew change, see {@link #setChangeListener(Runnable)} */
+    private transient Runnable changeListener;
+
     // SPA RangeMaster range bands
     public static final String RANGEMASTER_NONE = "None";
     public static final String RANGEMASTER_MEDIUM = "Medium";
@@ -611,18 +615,22 @@ public class Crew implements Serializable {
 
     public void setGunnery(int gunnery, int pos) {
         this.gunnery[pos] = gunnery;
+        changed();
     }
 
     public void setGunneryL(int gunnery, int pos) {
         gunneryL[pos] = gunnery;
+        changed();
     }
 
     public void setGunneryM(int gunnery, int pos) {
         gunneryM[pos] = gunnery;
+        changed();
     }
 
     public void setGunneryB(int gunnery, int pos) {
         gunneryB[pos] = gunnery;
+        changed();
     }
 
     public void setArtillery(int artillery, int pos) {
@@ -631,6 +639,7 @@ public class Crew implements Serializable {
 
     public void setPiloting(int piloting, int pos) {
         this.piloting[pos] = piloting;
+        changed();
     }
 
     public void setHits(int hits, int pos) {
@@ -809,6 +818,29 @@ public class Crew implements Serializable {
 
     public void setOptions(PilotOptions options) {
         this.options = options;
+        options.setChangeListener(changeListener);
+        changed();
+    }
+
+    /**
+     * Sets the listener that is told whenever the skills or options of this crew change, such as
+     * the unit whose BV depends on them. The listener is not serialized.
+     *
+     * @param changeListener the listener, or null for none
+     */
+    public void setChangeListener(@Nullable Runnable changeListener) {
+        this.changeListener = changeListener;
+        options.setChangeListener(changeListener);
+    }
+
+    /**
+     * Tells the listener of this crew that its skills or options changed.
+     */
+    protected void changed() {
+        final Runnable listener = changeListener;
+        if (listener != null) {
+            listener.run();
+        }
     }
 
     public PilotOptions getOptions() {
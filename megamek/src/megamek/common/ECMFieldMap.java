@@ -0,0 +1,433 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import megamek.common.annotations.Nullable;
+import megamek.common.options.GameOptions;
+import megamek.common.options.OptionsConstants;
+import megamek.server.SmokeCloud;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A raster of the combined ECM, ECCM and Angel ECM effects in each hex of the board of a game, as
+ * seen by each player. The effects of a hex are what {@link ComputeECM#getECMEffects} sums up from
+ * all fields in range of it, so a line query only looks up the hexes along the line.
+ * <p>
+ * The raster is kept for the fields of the game itself and for the last list of fields that a
+ * caller supplied. When the fields change, for example because an entity with ECM moved or
+ * switched its ECM mode, only the hexes covered by the fields that were added or removed are
+ * computed again. The fields of the game are only recomputed with
+ * {@link ComputeECM#computeAllEntitiesECMInfo(List)} after an entity reported a change to its ECM
+ * or ECCM through {@link #sourcesChanged()}, after entities were added, replaced or removed, or
+ * when the board, the chaff clouds, the teams or the ECM options changed.
+ * <p>
+ * This is safe to use from several threads.
+ */
+public class ECMFieldMap {
+    private final Game game;
+
+    /** Counts the changes that entities reported to their ECM and ECCM */
+    private final AtomicInteger sourceChanges = new AtomicInteger();
+
+    private volatile GameFields gameFields;
+    private volatile Raster gameRaster;
+    private volatile Raster listRaster;
+
+    /** The fields of the game and the state of the game they were computed for */
+    private static final class GameFields {
+        private final int sourceChanges;
+        private final int entityChanges;
+        private final Board board;
+        private final int options;
+        private final int[] playerTeams;
+        private final List<Coords> chaff;
+        private final List<ECMInfo> fields;
+
+        /**
+         * Computes the fields of the game. The state of the game is taken first, so that a change
+         * while the fields are computed is seen by the next query.
+         */
+        private GameFields(ECMFieldMap map) {
+            sourceChanges = map.sourceChanges.get();
+            entityChanges = map.game.getEntityChangeCount();
+            board = map.game.getBoard();
+            options = optionsOf(map.game);
+            playerTeams = playerTeamsOf(map.game);
+            chaff = new ArrayList<>();
+            for (SmokeCloud cloud : map.game.getSmokeCloudList()) {
+                if (cloud.getSmokeLevel() == SmokeCloud.SMOKE_CHAFF_LIGHT) {
+                    chaff.addAll(cloud.getCoordsList());
+                }
+            }
+            fields = Collections.unmodifiableList(
+                    ComputeECM.computeAllEntitiesECMInfo(map.game.getEntitiesVector()));
+        }
+
+        private boolean matches(ECMFieldMap map) {
+            final Game game = map.game;
+            return (sourceChanges == map.sourceChanges.get())
+                    && (entityChanges == game.getEntityChangeCount())
+                    && (board == game.getBoard())
+                    && (options == optionsOf(game))
+                    && playerTeamsMatch(game) && chaffMatches(game);
+        }
+
+        private boolean playerTeamsMatch(Game game) {
+            final List<Player> players = game.getPlayersVector();
+            synchronized (players) {
+                if (2 * players.size() != playerTeams.length) {
+                    return false;
+                }
+                for (int i = 0; i < players.size(); i++) {
+                    if ((playerTeams[2 * i] != players.get(i).getId())
+                            || (playerTeams[2 * i + 1] != players.get(i).getTeam())) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private boolean chaffMatches(Game game) {
+            int i = 0;
+            for (SmokeCloud cloud : game.getSmokeCloudList()) {
+                if (cloud.getSmokeLevel() == SmokeCloud.SMOKE_CHAFF_LIGHT) {
+                    for (Coords coords : cloud.getCoordsList()) {
+                        if ((i >= chaff.size()) || !chaff.get(i++).equals(coords)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return i == chaff.size();
+        }
+    }
+
+    public ECMFieldMap(Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Called when the ECM or ECCM of an entity of the game may have changed, for example when it
+     * moved, shut down or its equipment changed mode or was damaged. The fields of the game are
+     * computed again on the next query.
+     */
+    void sourcesChanged() {
+        sourceChanges.incrementAndGet();
+    }
+
+    /**
+     * Returns the ECM and ECCM fields of all entities as computed by
+     * {@link ComputeECM#computeAllEntitiesECMInfo(List)}. The result is cached until an entity
+     * reports a change to its ECM or ECCM, entities are added, replaced or removed, or the board,
+     * the chaff clouds, the teams or the ECM options change. It cannot be modified.
+     *
+     * @return the ECM info of all entities
+     */
+    public List<ECMInfo> getAllECMInfo() {
+        GameFields current = gameFields;
+        if ((current == null) || !current.matches(this)) {
+            synchronized (this) {
+                current = gameFields;
+                if ((current == null) || !current.matches(this)) {
+                    current = new GameFields(this);
+                    gameFields = current;
+                }
+            }
+        }
+        return current.fields;
+    }
+
+    /**
+     * Returns the total ECM effects on the line from a to b for the given unit, as
+     * {@link ComputeECM#getECMEffects(Entity, Coords, Coords, boolean, List)}. The caller has
+     * already handled units in space and missing coordinates.
+     *
+     * @param ae the unit whose owner's view of the fields is used
+     * @param a the start of the line
+     * @param b the end of the line
+     * @param ecmComparator the comparator that decides which effects are the worst
+     * @param allEcmInfo the fields, or null for the fields of the game
+     * @return the worst effects on the line, or null if no field covers it
+     */
+    public @Nullable ECMInfo getECMEffects(Entity ae, Coords a, Coords b, Comparator<ECMInfo> ecmComparator,
+                                           @Nullable List<ECMInfo> allEcmInfo) {
+        final Player owner = ae.getOwner();
+        final boolean gameList = (allEcmInfo == null) || (allEcmInfo == getCachedGameFields());
+        final List<ECMInfo> fields = (allEcmInfo == null) ? getAllECMInfo() : allEcmInfo;
+        if (owner == null) {
+            return ComputeECM.computeECMEffects(ae, a, b, ecmComparator, fields);
+        }
+        final Raster raster = getRaster(fields, gameList);
+        final ECMInfo[] cells = raster.cellsFor(owner);
+        final boolean iNarcECM = ae.isINarcedWith(INarcPod.ECM);
+
+        ECMInfo worstECMEffects = null;
+        for (Coords c : Coords.intervening(a, b)) {
+            ECMInfo affectedInfo = raster.contains(c) ? cells[raster.index(c)] : fieldEffects(owner, c, fields);
+            if (iNarcECM && c.equals(ae.getPosition())) {
+                affectedInfo = withINarcECM(owner, c, affectedInfo);
+            }
+            if ((affectedInfo != null)
+                    && ((worstECMEffects == null) || (ecmComparator.compare(affectedInfo, worstECMEffects) > 0))) {
+                worstECMEffects = affectedInfo;
+            }
+        }
+        return (worstECMEffects == null) ? null : copy(worstECMEffects, owner);
+    }
+
+    private @Nullable List<ECMInfo> getCachedGameFields() {
+        final GameFields current = gameFields;
+        return (current == null) ? null : current.fields;
+    }
+
+    /**
+     * @return a raster of the given fields on the current board, updated from the previous one
+     * of the game or of supplied fields if that exists
+     */
+    private Raster getRaster(List<ECMInfo> fields, boolean gameList) {
+        final Board board = game.getBoard();
+        Raster raster = gameList ? gameRaster : listRaster;
+        if ((raster != null) && raster.matches(board, fields, gameList)) {
+            return raster;
+        }
+        synchronized (this) {
+            raster = gameList ? gameRaster : listRaster;
+            if ((raster == null) || !raster.matches(board, fields, gameList)) {
+                raster = ((raster != null) && (raster.board == board)) ? raster.update(fields) : new Raster(board, fields);
+                if (gameList) {
+                    gameRaster = raster;
+                } else {
+                    listRaster = raster;
+                }
+            }
+        }
+        return raster;
+    }
+
+    /**
+     * @return the combined effects of the fields in range of the given hex as seen by the owner,
+     * or null if none is in range
+     */
+    private static @Nullable ECMInfo fieldEffects(Player owner, Coords c, List<ECMInfo> fields) {
+        ECMInfo affectedInfo = null;
+        for (ECMInfo ecmInfo : fields) {
+            if (c.distance(ecmInfo.getPos()) <= ecmInfo.getRange()) {
+                if (affectedInfo == null) {
+                    affectedInfo = new ECMInfo(0, 0, owner, c);
+                }
+                affectedInfo.addOpposingECMEffects(ecmInfo);
+            }
+        }
+        return affectedInfo;
+    }
+
+    /**
+     * @return the effects of a hex with the ECM of an iNarc pod on the unit in it added
+     */
+    private static ECMInfo withINarcECM(Player owner, Coords c, @Nullable ECMInfo cell) {
+        final ECMInfo result = new ECMInfo(0, 1, owner, c);
+        if (cell != null) {
+            result.strength += cell.strength;
+            result.angelStrength += cell.angelStrength;
+            result.eccmStrength += cell.eccmStrength;
+            result.angelECCMStrength += cell.angelECCMStrength;
+            result.isECMNova = cell.isECMNova;
+        }
+        return result;
+    }
+
+    /**
+     * @return a copy of the effects for the given owner, which may be a newer object for the
+     * player the raster layer was created for
+     */
+    private static ECMInfo copy(ECMInfo info, Player owner) {
+        final ECMInfo result = new ECMInfo(info);
+        result.owner = owner;
+        result.isECMNova = info.isECMNova;
+        return result;
+    }
+
+    /**
+     * @return the options that the ECM and ECCM of the entities depend on, one bit each
+     */
+    private static int optionsOf(Game game) {
+        final GameOptions options = game.getOptions();
+        return (options.booleanOption(OptionsConstants.ADVANCED_TACOPS_ECCM) ? 1 : 0)
+                | (options.booleanOption(OptionsConstants.ADVANCED_TACOPS_ANGEL_ECM) ? 2 : 0)
+                | (options.booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM) ? 4 : 0);
+    }
+
+    /**
+     * @return the id and team of each player of the game
+     */
+    private static int[] playerTeamsOf(Game game) {
+        final List<Player> players = new ArrayList<>(game.getPlayersVector());
+        final int[] result = new int[2 * players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            result[2 * i] = players.get(i).getId();
+            result[2 * i + 1] = players.get(i).getTeam();
+        }
+        return result;
+    }
+
+    /**
+     * @return the team of the owner of each field, as the effects depend on who are enemies
+     */
+    private static int[] teamsOf(List<ECMInfo> fields) {
+        final int[] teams = new int[fields.size()];
+        for (int i = 0; i < teams.length; i++) {
+            final ECMInfo field = fields.get(i);
+            teams[i] = ((field == null) || (field.getOwner() == null)) ? Player.TEAM_NONE : field.getOwner().getTeam();
+        }
+        return teams;
+    }
+
+    /** The effects in each hex of a board for a list of fields, created for each player on first use */
+    private static final class Raster {
+        private final Board board;
+        private final int width;
+        private final int height;
+        private final List<ECMInfo> source;
+        private final List<ECMInfo> fields;
+        private final int[] teams;
+        private final Map<Long, Layer> layers = new ConcurrentHashMap<>();
+
+        private static final class Layer {
+            private final Player player;
+            private final ECMInfo[] cells;
+
+            private Layer(Player player, ECMInfo[] cells) {
+                this.player = player;
+                this.cells = cells;
+            }
+        }
+
+        private Raster(Board board, List<ECMInfo> fields) {
+            this.board = board;
+            width = board.getWidth();
+            height = board.getHeight();
+            source = fields;
+            this.fields = new ArrayList<>(fields);
+            teams = teamsOf(fields);
+        }
+
+        /**
+         * @param gameList true if the fields are those of the game, which cannot be modified and
+         *                 are replaced when the teams change, so the same list has the same fields
+         */
+        private boolean matches(Board otherBoard, List<ECMInfo> otherFields, boolean gameList) {
+            if ((board != otherBoard) || (width != board.getWidth()) || (height != board.getHeight())) {
+                return false;
+            }
+            return (gameList && (source == otherFields))
+                    || (fields.equals(otherFields) && Arrays.equals(teams, teamsOf(otherFields)));
+        }
+
+        private boolean contains(Coords c) {
+            return (c.getX() >= 0) && (c.getY() >= 0) && (c.getX() < width) && (c.getY() < height);
+        }
+
+        private int index(Coords c) {
+            return c.getY() * width + c.getX();
+        }
+
+        private ECMInfo[] cellsFor(Player player) {
+            final long key = ((long) player.getId() << 32) | (player.getTeam() & 0xFFFFFFFFL);
+            return layers.computeIfAbsent(key, k -> new Layer(player, rasterize(player))).cells;
+        }
+
+        private ECMInfo[] rasterize(Player player) {
+            final ECMInfo[] cells = new ECMInfo[width * height];
+            for (ECMInfo field : fields) {
+                forEachCell(field, (c, index) -> {
+                    if (cells[index] == null) {
+                        cells[index] = new ECMInfo(0, 0, player, c);
+                    }
+                    cells[index].addOpposingECMEffects(field);
+                });
+            }
+            return cells;
+        }
+
+        /**
+         * Creates a raster of the new fields on the same board. The layers of the players are
+         * copied from this raster and only the hexes covered by fields that are not in both lists
+         * are computed again. If the teams of field owners changed, all layers are dropped.
+         */
+        private Raster update(List<ECMInfo> newFields) {
+            final Raster result = new Raster(board, newFields);
+            if (!Arrays.equals(teams, teamsOf(fields)) || (width != board.getWidth())
+                    || (height != board.getHeight())) {
+                return result;
+            }
+            final Map<ECMInfo, Integer> changes = new HashMap<>();
+            for (ECMInfo field : fields) {
+                changes.merge(field, 1, Integer::sum);
+            }
+            for (ECMInfo field : newFields) {
+                changes.merge(field, -1, Integer::sum);
+            }
+            final BitSet dirty = new BitSet(width * height);
+            for (Map.Entry<ECMInfo, Integer> change : changes.entrySet()) {
+                if (change.getValue() != 0) {
+                    result.forEachCell(change.getKey(), (c, index) -> dirty.set(index));
+                }
+            }
+            for (Map.Entry<Long, Layer> entry : layers.entrySet()) {
+                final Player player = entry.getValue().player;
+                final ECMInfo[] cells = entry.getValue().cells.clone();
+                for (int index = dirty.nextSetBit(0); index >= 0; index = dirty.nextSetBit(index + 1)) {
+                    cells[index] = fieldEffects(player, new Coords(index % width, index / width), result.fields);
+                }
+                result.layers.put(entry.getKey(), new Layer(player, cells));
+            }
+            return result;
+        }
+
+        private interface CellConsumer {
+            void accept(Coords c, int index);
+        }
+
+        /** Calls the consumer for each hex of the board in range of the field */
+        private void forEachCell(ECMInfo field, CellConsumer consumer) {
+            final Coords pos = field.getPos();
+            final int range = field.getRange();
+            if ((pos == null) || (range < 0)) {
+                return;
+            }
+            // a hex within range is at most range columns and rows away
+            final int minX = Math.max(pos.getX() - range, 0);
+            final int maxX = Math.min(pos.getX() + range, width - 1);
+            final int minY = Math.max(pos.getY() - range, 0);
+            final int maxY = Math.min(pos.getY() + range, height - 1);
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    final Coords c = new Coords(x, y);
+                    if (c.distance(pos) <= range) {
+                        consumer.accept(c, y * width + x);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -44,6 +44,7 @@ import org.apache.logging.log4j.LogManager;
 import java.math.BigInteger;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -516,6 +517,25 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      */
     protected ArrayList<Mounted> miscList = new ArrayList<>();
 
+    /** The flags of the misc equipment, rebuilt when the misc list or the equipment status changes */
+    private transient MiscFlagSummary miscFlagSummary;
+
+    /** Incremented whenever the status or mode of a mounted equipment changes */
+    private transient int equipmentStatusStamp;
+
+    /** The ECM and ECCM of the misc equipment, see {@link #getEquipmentECM()} */
+    private transient EquipmentECM equipmentECM;
+
+    /** The BV and cost last computed for the lobby, see {@link #getCachedBattleValue()} */
+    private transient CachedValues cachedValues;
+
+    /** Incremented whenever something the BV or cost depend on changes, see {@link #markModified()} */
+    private transient volatile int modificationStamp;
+
+    /** The number of BV and cost calculations of all entities, for performance statistics */
+    private static final AtomicLong BV_CALCULATIONS = new AtomicLong();
+    private static final AtomicLong COST_CALCULATIONS = new AtomicLong();
+
     protected ArrayList<INarcPod> pendingINarcPods = new ArrayList<>();
     protected ArrayList<INarcPod> iNarcPods = new ArrayList<>();
     protected ArrayList<NarcPod> pendingNarcPods = new ArrayList<>();
@@ -666,6 +686,13 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      */
     private Vector<Player> entityDetectedBy = new Vector<>();
 
+    /**
+     * Server side snapshots of the {@link EntityDelta} fields as they were when this entity was
+     * last sent, by the id of the player it was sent to. Players that were sent the same state
+     * share the same snapshot.
+     */
+    private transient Map<Integer, EntityDelta.State> sentStates;
+
     /**
      * Contains the ids of all entities that have been detected by this entity's sensors.
      * Used for double-blind on space maps - SO p117
@@ -889,6 +916,8 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      */
     public Entity() {
         crew = new Crew(defaultCrewType());
+        crew.setChangeListener(this::markModified);
+        quirks.setChangeListener(this::markModified);
         nCrew = 0;
         nPassenger = 0;
         nMarines = 0;
@@ -982,6 +1011,13 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
         
         // set game options, we derive some equipment's modes from this
         setGameOptions();
+
+        // the listeners of the crew and quirks are not serialized
+        if (crew != null) {
+            crew.setChangeListener(this::markModified);
+        }
+        quirks.setChangeListener(this::markModified);
+        markModified();
     }
 
     /**
@@ -1544,6 +1580,8 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
     public void setOwner(Player player) {
         owner = player;
         ownerId = player.getId();
+        markModified();
+        ecmSourceChanged();
 
         generateDisplayName();
     }
@@ -1575,6 +1613,10 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
 
     public void setCrew(Crew crew) {
         this.crew = crew;
+        if (crew != null) {
+            crew.setChangeListener(this::markModified);
+        }
+        markModified();
     }
     
     /**
@@ -1634,6 +1676,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
     public void setShutDown(boolean shutDown) {
         this.shutDown = shutDown;
         setShutDownThisPhase(shutDown);
+        ecmSourceChanged();
     }
 
     public void setShutDownThisPhase(boolean shutDown) {
@@ -1980,6 +2023,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
         if ((game != null) && gameUpdate) {
             game.updateEntityPositionLookup(this, oldPositions);
         }
+        ecmSourceChanged();
     }
 
     /**
@@ -2002,6 +2046,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      */
     public void setElevation(int elevation) {
         this.elevation = elevation;
+        ecmSourceChanged();
     }
 
     /**
@@ -2637,6 +2682,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      */
     public void setFacing(int facing) {
         this.facing = FireControl.correctFacing(facing);
+        ecmSourceChanged();
         if (game != null) {
             game.processGameEvent(new GameEntityChangeEvent(this, this));
         }
@@ -3340,6 +3386,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      */
     public void setArmor(int val, int loc, boolean rear) {
         armor[loc] = val;
+        markModified();
     }
 
     public void refreshLocations() {
@@ -3461,6 +3508,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      */
     public void setInternal(int val, int loc) {
         internal[loc] = val;
+        markModified();
     }
 
     /**
@@ -3777,6 +3825,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
             throws LocationFullException {
         mounted.setLocation(loc, rearMounted);
         equipmentList.add(mounted);
+        markModified();
 
         compositeTechLevel.addComponent(mounted.getType());
         if (mounted.isArmored()) {
@@ -4285,6 +4334,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
             }
         }
         equipmentList.removeAll(bombAttacksToRemove);
+        markModified();
         weaponList.removeAll(bombAttacksToRemove);
         totalWeaponList.removeAll(bombAttacksToRemove);
         weaponGroupList.removeAll(bombAttacksToRemove);
@@ -4431,6 +4481,96 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
         return rv;
     }
 
+    /**
+     * The union of the flags of all misc equipment of an entity and of the ready ones among them
+     */
+    private static final class MiscFlagSummary {
+        private final int stamp;
+        private final int size;
+        private final EquipmentBitSet allFlags;
+        private final EquipmentBitSet workingFlags;
+
+        private MiscFlagSummary(int stamp, int size, EquipmentBitSet allFlags,
+                                EquipmentBitSet workingFlags) {
+            this.stamp = stamp;
+            this.size = size;
+            this.allFlags = allFlags;
+            this.workingFlags = workingFlags;
+        }
+    }
+
+    /**
+     * Called by the mounted equipment of this entity whenever a status changes that affects
+     * {@link Mounted#isReady()}, or its mode changes.
+     */
+    void equipmentStatusChanged() {
+        equipmentStatusStamp++;
+        markModified();
+        ecmSourceChanged();
+    }
+
+    /**
+     * Marks the BV and cost of this unit as changed, so that {@link #getCachedBattleValue()} and
+     * {@link #getCachedCost(boolean)} calculate them again. The setters of the armor, equipment,
+     * crew, quirks, C3 links and owner of this unit call this, as do the equipment and crew when
+     * their status, skills or options change and the game when its options or the units the BV
+     * depends on change. Anything else that changes the BV must call this.
+     */
+    public void markModified() {
+        modificationStamp++;
+    }
+
+    /**
+     * Called by the game when units were added, replaced or removed or the players changed. Marks
+     * this unit as modified if its BV depends on other units: the members of its C3 network or
+     * the TAG of its team for semi-guided and homing ammo.
+     */
+    void otherUnitsChanged() {
+        if (hasAnyC3System()) {
+            markModified();
+            return;
+        }
+        for (Mounted ammo : getAmmo()) {
+            final long munition = ((AmmoType) ammo.getType()).getMunitionType();
+            if ((munition == AmmoType.M_SEMIGUIDED) || (munition == AmmoType.M_HOMING)) {
+                markModified();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Tells the {@link ECMFieldMap} of the game that the ECM or ECCM of this entity may have
+     * changed. Called by the setters of the state that {@link #getECMInfo()} and
+     * {@link #getECCMInfo()} depend on.
+     */
+    protected void ecmSourceChanged() {
+        if (game != null) {
+            game.ecmSourcesChanged();
+        }
+    }
+
+    private MiscFlagSummary getMiscFlagSummary() {
+        MiscFlagSummary summary = miscFlagSummary;
+        final int stamp = equipmentStatusStamp;
+        // The misc list is also changed directly through getMisc(), so compare its size as well
+        if ((summary == null) || (summary.stamp != stamp) || (summary.size != miscList.size())) {
+            EquipmentBitSet allFlags = EquipmentBitSet.EMPTY;
+            EquipmentBitSet workingFlags = EquipmentBitSet.EMPTY;
+            for (Mounted m : miscList) {
+                if (m.getType() instanceof MiscType) {
+                    allFlags = allFlags.or(m.getType().getFlagSet());
+                    if (m.isReady()) {
+                        workingFlags = workingFlags.or(m.getType().getFlagSet());
+                    }
+                }
+            }
+            summary = new MiscFlagSummary(stamp, miscList.size(), allFlags, workingFlags);
+            miscFlagSummary = summary;
+        }
+        return summary;
+    }
+
     /**
      * Check if the entity has an arbitrary type of misc equipment
      *
@@ -4438,7 +4578,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      * @return true if at least one ready item.
      */
     public boolean hasWorkingMisc(BigInteger flag) {
-        return hasWorkingMisc(flag, -1);
+        return getMiscFlagSummary().workingFlags.intersects(flag);
     }
 
     /**
@@ -4449,6 +4589,11 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      * @return true if at least one ready item.
      */
     public boolean hasWorkingMisc(BigInteger flag, long secondary) {
+        if (!getMiscFlagSummary().workingFlags.intersects(flag)) {
+            return false;
+        } else if (secondary == -1) {
+            return true;
+        }
         for (Mounted m : miscList) {
             if ((m.getType() instanceof MiscType) && m.isReady()) {
                 MiscType type = (MiscType) m.getType();
@@ -4462,15 +4607,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
     }
 
     public boolean hasMisc(BigInteger flag) {
-        for (Mounted m : miscList) {
-            if ((m.getType() instanceof MiscType)) {
-                MiscType type = (MiscType) m.getType();
-                if (type.hasFlag(flag)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return getMiscFlagSummary().allFlags.intersects(flag);
     }
 
     /**
@@ -4484,6 +4621,9 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
     }
 
     public int countWorkingMisc(BigInteger flag, int location) {
+        if (!getMiscFlagSummary().allFlags.intersects(flag)) {
+            return 0;
+        }
         int count = 0;
         OUTER: for (Mounted m : getMisc()) {
             if (!m.isInoperable() && m.getType().hasFlag(flag)
@@ -4546,6 +4686,9 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      * @return true if at least one ready item.
      */
     public boolean hasWorkingMisc(BigInteger flag, long secondary, int location) {
+        if (!getMiscFlagSummary().workingFlags.intersects(flag)) {
+            return false;
+        }
         // go through the location slot by slot, because of misc equipment that
         // is spreadable
         for (int slot = 0; slot < getNumberOfCriticals(location); slot++) {
@@ -5931,6 +6074,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
             return;
         }
         c3NetIdString = e.c3NetIdString;
+        markModified();
     }
 
     public void setC3NetIdSelf() {
@@ -5941,6 +6085,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
         } else {
             c3NetIdString = "C3i." + getId();
         }
+        markModified();
     }
 
     /**
@@ -6233,8 +6378,10 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
         for (Entity e : game.getEntitiesVector()) {
             if (e.C3MasterIs(this) && !equals(e)) {
                 e.c3NetIdString = c3NetIdString;
+                e.markModified();
             }
         }
+        markModified();
     }
 
     public boolean onSameC3NetworkAs(Entity e) {
@@ -6895,7 +7042,83 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      * @return The Battle Value of this unit
      */
     private int manualOrCalculateBV(boolean ignoreC3, boolean ignoreSkill, CalculationReport calculationReport) {
-        return useManualBV ? manualBV : doBattleValueCalculation(ignoreC3, ignoreSkill, calculationReport);
+        if (useManualBV) {
+            return manualBV;
+        }
+        BV_CALCULATIONS.incrementAndGet();
+        return doBattleValueCalculation(ignoreC3, ignoreSkill, calculationReport);
+    }
+
+    /**
+     * Returns the full Battle Value of this unit like {@link #calculateBattleValue()}, but only
+     * calculates it again after {@link #markModified()}. This is meant for displays such as the
+     * lobby that show and sort by the BV of many units and refresh often.
+     *
+     * @return The full Battle Value of this unit including C3 and crew skill modifications
+     */
+    public int getCachedBattleValue() {
+        final CachedValues values = getCachedValues();
+        if (values.battleValue < 0) {
+            values.battleValue = calculateBattleValue();
+        }
+        return values.battleValue;
+    }
+
+    /**
+     * Returns the C-bill cost of this unit like {@link #getCost(boolean)}, but only calculates it
+     * again when the unit may have changed since the last call; see {@link #getCachedBattleValue()}.
+     *
+     * @param ignoreAmmo When true, the cost of ammo on the unit will be excluded from the cost
+     * @return The cost in C-Bills of this unit
+     */
+    public double getCachedCost(boolean ignoreAmmo) {
+        final CachedValues values = getCachedValues();
+        if (ignoreAmmo) {
+            if (Double.isNaN(values.dryCost)) {
+                values.dryCost = getCost(true);
+            }
+            return values.dryCost;
+        }
+        if (Double.isNaN(values.cost)) {
+            values.cost = getCost(false);
+        }
+        return values.cost;
+    }
+
+    /**
+     * @return the number of times the BV of any unit was calculated rather than taken from the
+     * cache or a manual BV
+     */
+    public static long getBVCalculationCount() {
+        return BV_CALCULATIONS.get();
+    }
+
+    /**
+     * @return the number of times the cost of any unit was calculated
+     */
+    public static long getCostCalculationCount() {
+        return COST_CALCULATIONS.get();
+    }
+
+    private static final class CachedValues {
+        private final int stamp;
+        private int battleValue = -1;
+        private double cost = Double.NaN;
+        private double dryCost = Double.NaN;
+
+        private CachedValues(int stamp) {
+            this.stamp = stamp;
+        }
+    }
+
+    private CachedValues getCachedValues() {
+        final int stamp = modificationStamp;
+        CachedValues values = cachedValues;
+        if ((values == null) || (values.stamp != stamp)) {
+            values = new CachedValues(stamp);
+            cachedValues = values;
+        }
+        return values;
     }
 
     /**
@@ -9013,6 +9236,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      */
     public void setTransportId(int transportId) {
         conveyance = transportId;
+        ecmSourceChanged();
         // If we were unloaded, set the appropriate flags.
         if (transportId == Entity.NONE) {
             unloadedThisTurn = true;
@@ -9634,6 +9858,51 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
         this.entitySeenBy = entitySeenBy;
     }
 
+    /**
+     * Records the current state of the fields covered by {@link EntityDelta} as the state the
+     * given players received. Called by the server whenever it sends the full entity.
+     *
+     * @param players the players the full entity is sent to
+     */
+    public void markSent(Collection<Player> players) {
+        if (sentStates == null) {
+            sentStates = new HashMap<>();
+        }
+        final EntityDelta.State currentState = new EntityDelta.State(this);
+        for (Player player : players) {
+            sentStates.put(player.getId(), currentState);
+        }
+    }
+
+    /**
+     * Creates the delta updates of the fields covered by {@link EntityDelta} that changed since this
+     * entity or its last delta was sent to each of the given players, and records the current state
+     * as sent to those players that receive a delta. Only use this when no other part of the entity
+     * has changed since it was last sent.
+     *
+     * @param players the players to send the entity to
+     * @return the deltas by player id, which may be empty; players that were sent the same state
+     * share the same delta. Players that this entity was never sent to are missing and need the
+     * full entity.
+     */
+    public Map<Integer, EntityDelta> createDeltas(Collection<Player> players) {
+        final Map<Integer, EntityDelta> deltas = new HashMap<>();
+        if (sentStates == null) {
+            return deltas;
+        }
+        final EntityDelta.State currentState = new EntityDelta.State(this);
+        final Map<EntityDelta.State, EntityDelta> deltasByState = new IdentityHashMap<>();
+        for (Player player : players) {
+            final EntityDelta.State sentState = sentStates.get(player.getId());
+            if (sentState != null) {
+                deltas.put(player.getId(), deltasByState.computeIfAbsent(sentState,
+                        state -> new EntityDelta(getId(), state, currentState)));
+                sentStates.put(player.getId(), currentState);
+            }
+        }
+        return deltas;
+    }
+
     public void clearSeenBy() {
         entitySeenBy.clear();
     }
@@ -10784,6 +11053,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
      * @return The cost in C-Bills of the 'Mech in question.
      */
     public final double getCost(boolean ignoreAmmo) {
+        COST_CALCULATIONS.incrementAndGet();
         return getCost(new DummyCalculationReport(), ignoreAmmo);
     }
 
@@ -12394,6 +12664,100 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
             return null;
         }
 
+        return atCurrentPosition(getEquipmentECM().ecm);
+    }
+
+    /**
+     * Returns information (range, location, strength) about ECCM if the unit
+     * has active ECCM or null if it doesn't. In the case of multiple ECCM
+     * system, the best one takes precedence, as a unit can only have one
+     * active ECCM at a time.
+     *
+     * @return
+     */
+    public ECMInfo getECCMInfo() {
+        // If we don't have a position, ECM doesn't have an effect
+        if ((getPosition() == null) || isShutDown() || isStealthOn()
+            || (getTransportId() != Entity.NONE)) {
+            return null;
+        }
+        // E(C)CM operates differently in space (SO pg 110)
+        if (game.getBoard().inSpace()) {
+            // No ECCM in space unless SO rule is on
+            if (!game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) {
+                return null;
+            }
+            int bapRange = getBAPRange();
+            int range = getECMRange();
+            ECMInfo eccmInfo = new ECMInfo(0, 0, this);
+            eccmInfo.setECCMStrength(1);
+            if (bapRange > 0) {
+                eccmInfo.setRange(bapRange);
+                // Medium range band only effects the nose, so set direction
+                if (bapRange > 6) {
+                    eccmInfo.setDirection(getFacing());
+                }
+            } else if ((range >= 0) && hasActiveECCM()) {
+                eccmInfo.setRange(range);
+            } else {
+                eccmInfo = null;
+            }
+            return eccmInfo;
+        }
+
+        return atCurrentPosition(getEquipmentECM().eccm);
+    }
+
+    /**
+     * The best ECM and ECCM of the misc equipment of an entity, computed again when the
+     * equipment, its status or its mode changes
+     */
+    private static final class EquipmentECM {
+        private final int stamp;
+        private final int size;
+        private final ECMInfo ecm;
+        private final ECMInfo eccm;
+
+        private EquipmentECM(int stamp, int size, @Nullable ECMInfo ecm, @Nullable ECMInfo eccm) {
+            this.stamp = stamp;
+            this.size = size;
+            this.ecm = ecm;
+            this.eccm = eccm;
+        }
+    }
+
+    private EquipmentECM getEquipmentECM() {
+        EquipmentECM result = equipmentECM;
+        final int stamp = equipmentStatusStamp;
+        // The misc list is also changed directly through getMisc(), so compare its size as well
+        if ((result == null) || (result.stamp != stamp) || (result.size != miscList.size())) {
+            result = new EquipmentECM(stamp, miscList.size(), computeEquipmentECMInfo(),
+                    computeEquipmentECCMInfo());
+            equipmentECM = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return a copy of the given ECM info of the equipment at the current position and owner of
+     * this entity, or null if it is null
+     */
+    private @Nullable ECMInfo atCurrentPosition(@Nullable ECMInfo info) {
+        if (info == null) {
+            return null;
+        }
+        ECMInfo result = new ECMInfo(info);
+        result.pos = getPosition();
+        result.owner = getOwner();
+        result.owningEntity = this;
+        result.isECMNova = info.isECMNova;
+        return result;
+    }
+
+    /**
+     * @return the best ECM of the working misc equipment in its current mode
+     */
+    private @Nullable ECMInfo computeEquipmentECMInfo() {
         ECMInfo bestInfo = null;
         Comparator<ECMInfo> ecmComparator;
         ecmComparator = new ECMInfo.ECCMComparator();
@@ -12443,43 +12807,9 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
     }
 
     /**
-     * Returns information (range, location, strength) about ECCM if the unit
-     * has active ECCM or null if it doesn't. In the case of multiple ECCM
-     * system, the best one takes precedence, as a unit can only have one
-     * active ECCM at a time.
-     *
-     * @return
+     * @return the best ECCM of the misc equipment in its current mode
      */
-    public ECMInfo getECCMInfo() {
-        // If we don't have a position, ECM doesn't have an effect
-        if ((getPosition() == null) || isShutDown() || isStealthOn()
-            || (getTransportId() != Entity.NONE)) {
-            return null;
-        }
-        // E(C)CM operates differently in space (SO pg 110)
-        if (game.getBoard().inSpace()) {
-            // No ECCM in space unless SO rule is on
-            if (!game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) {
-                return null;
-            }
-            int bapRange = getBAPRange();
-            int range = getECMRange();
-            ECMInfo eccmInfo = new ECMInfo(0, 0, this);
-            eccmInfo.setECCMStrength(1);
-            if (bapRange > 0) {
-                eccmInfo.setRange(bapRange);
-                // Medium range band only effects the nose, so set direction
-                if (bapRange > 6) {
-                    eccmInfo.setDirection(getFacing());
-                }
-            } else if ((range >= 0) && hasActiveECCM()) {
-                eccmInfo.setRange(range);
-            } else {
-                eccmInfo = null;
-            }
-            return eccmInfo;
-        }
-
+    private @Nullable ECMInfo computeEquipmentECCMInfo() {
         ECMInfo bestInfo = null;
         Comparator<ECMInfo> ecmComparator;
         ecmComparator = new ECMInfo.ECCMComparator();
@@ -12930,6 +13260,8 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
 
     public synchronized void setQuirks(Quirks quirks) {
         this.quirks = quirks;
+        quirks.setChangeListener(this::markModified);
+        markModified();
     }
 
     /**
@@ -13152,6 +13484,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
 
     public void setAltitude(int a) {
         altitude = a;
+        ecmSourceChanged();
     }
 
     public boolean getUseManualBV() {
@@ -13160,6 +13493,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
 
     public void setUseManualBV(boolean bv) {
         useManualBV = bv;
+        markModified();
     }
 
     public int getManualBV() {
@@ -13168,6 +13502,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
 
     public void setManualBV(int bv) {
         manualBV = bv;
+        markModified();
     }
 
     /**
@@ -14461,6 +14796,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
 
     public void setC3UUIDAsString(String c3id) {
         c3UUID = c3id;
+        markModified();
     }
 
     public String getC3UUIDAsString() {
@@ -14469,6 +14805,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
 
     public void setC3MasterIsUUIDAsString(String c3id) {
         c3MasterIsUUID = c3id;
+        markModified();
     }
 
     public String getC3MasterIsUUIDAsString() {
@@ -14477,6 +14814,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
 
     public void setC3iNextUUIDAsString(int pos, String c3id) {
         c3iUUIDs[pos] = c3id;
+        markModified();
     }
 
     public String getC3iNextUUIDAsString(int pos) {
@@ -14496,6 +14834,7 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
 
     public void setNC3NextUUIDAsString(int pos, String c3id) {
         NC3UUIDs[pos] = c3id;
+        markModified();
     }
 
     public String getNC3NextUUIDAsString(int pos) {
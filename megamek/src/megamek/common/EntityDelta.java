@@ -0,0 +1,414 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import megamek.common.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A compact update of an {@link Entity} that carries only those of its frequently changing fields
+ * that differ from the state the clients last received: position, facings, elevation, altitude,
+ * heat, armor and internal structure per location, crew hits, ammo shots and the done flag.
+ *
+ * Each delta carries a digest of the state it was computed against, which serves as the version of
+ * that state. A client must only apply a delta when its copy of the entity has the same digest;
+ * otherwise it has to ask for the full entity. Changes to any other part of the entity are not
+ * covered, so the server only sends a delta when it knows that nothing else has changed since the
+ * entity was last sent.
+ */
+public class EntityDelta implements Serializable {
+    private static final long serialVersionUID = -3311766279385040719L;
+
+    //region Field Flags
+    public static final int POSITION = 1;
+    public static final int FACING = 1 << 1;
+    public static final int SECONDARY_FACING = 1 << 2;
+    public static final int ELEVATION = 1 << 3;
+    public static final int ALTITUDE = 1 << 4;
+    public static final int HEAT = 1 << 5;
+    public static final int ARMOR = 1 << 6;
+    public static final int INTERNAL = 1 << 7;
+    public static final int CREW_HITS = 1 << 8;
+    public static final int AMMO = 1 << 9;
+    public static final int DONE = 1 << 10;
+    //endregion Field Flags
+
+    //region Variable Declarations
+    private final int entityId;
+    private final long baseDigest;
+    private final long digest;
+    private final int changedFields;
+
+    private final Coords position;
+    private final int facing;
+    private final int secondaryFacing;
+    private final int elevation;
+    private final int altitude;
+    private final int heat;
+    private final boolean done;
+
+    /** Changed armor values as (location, rear ? 1 : 0, value) triplets */
+    private final int[] armor;
+    /** Changed internal structure values as (location, value) pairs */
+    private final int[] internal;
+    /** Changed crew hits as (crew slot, hits) pairs */
+    private final int[] crewHits;
+    /** Changed shots as (equipment number, shots left) pairs */
+    private final int[] ammo;
+    //endregion Variable Declarations
+
+    //region Constructors
+    /**
+     * Creates the delta that transforms the old state into the new state.
+     */
+    EntityDelta(int entityId, State oldState, State newState) {
+        this.entityId = entityId;
+        this.baseDigest = oldState.digest();
+        this.digest = newState.digest();
+
+        int changed = 0;
+        if (!Objects.equals(oldState.position, newState.position)) {
+            changed |= POSITION;
+        }
+        if (oldState.facing != newState.facing) {
+            changed |= FACING;
+        }
+        if (oldState.secondaryFacing != newState.secondaryFacing) {
+            changed |= SECONDARY_FACING;
+        }
+        if (oldState.elevation != newState.elevation) {
+            changed |= ELEVATION;
+        }
+        if (oldState.altitude != newState.altitude) {
+            changed |= ALTITUDE;
+        }
+        if (oldState.heat != newState.heat) {
+            changed |= HEAT;
+        }
+        if (oldState.done != newState.done) {
+            changed |= DONE;
+        }
+        position = newState.position;
+        facing = newState.facing;
+        secondaryFacing = newState.secondaryFacing;
+        elevation = newState.elevation;
+        altitude = newState.altitude;
+        heat = newState.heat;
+        done = newState.done;
+
+        armor = diff(oldState.armor, newState.armor, 3);
+        internal = diff(oldState.internal, newState.internal, 2);
+        crewHits = diff(oldState.crewHits, newState.crewHits, 2);
+        ammo = diff(oldState.ammo, newState.ammo, 2);
+        changed |= (armor.length > 0) ? ARMOR : 0;
+        changed |= (internal.length > 0) ? INTERNAL : 0;
+        changed |= (crewHits.length > 0) ? CREW_HITS : 0;
+        changed |= (ammo.length > 0) ? AMMO : 0;
+        changedFields = changed;
+    }
+
+    /**
+     * Creates a delta from its fields, e.g. when it is read from the network.
+     */
+    public EntityDelta(int entityId, long baseDigest, long digest, int changedFields,
+                       @Nullable Coords position, int facing, int secondaryFacing, int elevation,
+                       int altitude, int heat, boolean done, int[] armor, int[] internal,
+                       int[] crewHits, int[] ammo) {
+        this.entityId = entityId;
+        this.baseDigest = baseDigest;
+        this.digest = digest;
+        this.changedFields = changedFields;
+        this.position = position;
+        this.facing = facing;
+        this.secondaryFacing = secondaryFacing;
+        this.elevation = elevation;
+        this.altitude = altitude;
+        this.heat = heat;
+        this.done = done;
+        this.armor = armor;
+        this.internal = internal;
+        this.crewHits = crewHits;
+        this.ammo = ammo;
+    }
+    //endregion Constructors
+
+    //region Getters
+    public int getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * @return the digest of the delta fields an entity must have for this delta to be applied to it
+     */
+    public long getBaseDigest() {
+        return baseDigest;
+    }
+
+    /**
+     * @return the digest of the delta fields of the entity after this delta has been applied
+     */
+    public long getDigest() {
+        return digest;
+    }
+
+    /**
+     * @return the flags of the fields that are changed by this delta
+     */
+    public int getChangedFields() {
+        return changedFields;
+    }
+
+    public @Nullable Coords getPosition() {
+        return position;
+    }
+
+    public int getFacing() {
+        return facing;
+    }
+
+    public int getSecondaryFacing() {
+        return secondaryFacing;
+    }
+
+    public int getElevation() {
+        return elevation;
+    }
+
+    public int getAltitude() {
+        return altitude;
+    }
+
+    public int getHeat() {
+        return heat;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * @return the changed armor values as (location, rear ? 1 : 0, value) triplets
+     */
+    public int[] getArmor() {
+        return armor;
+    }
+
+    /**
+     * @return the changed internal structure values as (location, value) pairs
+     */
+    public int[] getInternal() {
+        return internal;
+    }
+
+    /**
+     * @return the changed crew hits as (crew slot, hits) pairs
+     */
+    public int[] getCrewHits() {
+        return crewHits;
+    }
+
+    /**
+     * @return the changed shots as (equipment number, shots left) pairs
+     */
+    public int[] getAmmo() {
+        return ammo;
+    }
+
+    public boolean hasChanged(int field) {
+        return (changedFields & field) != 0;
+    }
+
+    /**
+     * @return true if this delta does not change anything
+     */
+    public boolean isEmpty() {
+        return changedFields == 0;
+    }
+    //endregion Getters
+
+    /**
+     * Writes the changed fields into the given entity. This does not check the entity's state and
+     * does not update any game lookup tables; use {@link Game#applyEntityDelta(EntityDelta)} for
+     * that.
+     *
+     * @param entity the entity to update
+     */
+    void applyTo(Entity entity) {
+        if (hasChanged(POSITION)) {
+            entity.setPosition(position, false);
+        }
+        if (hasChanged(FACING)) {
+            entity.setFacing(facing);
+        }
+        if (hasChanged(SECONDARY_FACING)) {
+            entity.setSecondaryFacing(secondaryFacing, false);
+        }
+        if (hasChanged(ELEVATION)) {
+            entity.setElevation(elevation);
+        }
+        if (hasChanged(ALTITUDE)) {
+            entity.setAltitude(altitude);
+        }
+        if (hasChanged(HEAT)) {
+            entity.heat = heat;
+        }
+        if (hasChanged(DONE)) {
+            entity.setDone(done);
+        }
+        for (int i = 0; i < armor.length; i += 3) {
+            entity.setArmor(armor[i + 2], armor[i], armor[i + 1] == 1);
+        }
+        for (int i = 0; i < internal.length; i += 2) {
+            entity.setInternal(internal[i + 1], internal[i]);
+        }
+        if (entity.getCrew() != null) {
+            for (int i = 0; i < crewHits.length; i += 2) {
+                entity.getCrew().setHits(crewHits[i + 1], crewHits[i]);
+            }
+        }
+        for (int i = 0; i < ammo.length; i += 2) {
+            Mounted mounted = entity.getEquipment(ammo[i]);
+            if (mounted != null) {
+                mounted.setShotsLeft(ammo[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Compares two arrays of fixed-width tuples, where the last element of each tuple is the value
+     * and the others identify it, and returns the tuples of the new array that differ from the old
+     * array. If the arrays have different layouts, all new tuples are returned.
+     */
+    private static int[] diff(int[] oldValues, int[] newValues, int width) {
+        int[] result = new int[newValues.length];
+        int count = 0;
+        for (int i = 0; i < newValues.length; i += width) {
+            if ((oldValues.length != newValues.length)
+                    || !Arrays.equals(oldValues, i, i + width, newValues, i, i + width)) {
+                System.arraycopy(newValues, i, result, count, width);
+                count += width;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    @Override
+    public String toString() {
+        return "EntityDelta " + entityId + " " + Long.toHexString(baseDigest) + "->"
+                + Long.toHexString(digest) + " fields "
+                + Integer.toBinaryString(changedFields);
+    }
+
+    /**
+     * A snapshot of the fields of an entity that are covered by {@link EntityDelta}. The server
+     * keeps the snapshot of the state it last sent to compute the next delta from, and clients
+     * compare the digest of their copy's snapshot with the base digest of a delta.
+     */
+    static class State {
+        private final Coords position;
+        private final int facing;
+        private final int secondaryFacing;
+        private final int elevation;
+        private final int altitude;
+        private final int heat;
+        private final boolean done;
+        private final int[] armor;
+        private final int[] internal;
+        private final int[] crewHits;
+        private final int[] ammo;
+
+        State(Entity entity) {
+            position = entity.getPosition();
+            facing = entity.getFacing();
+            secondaryFacing = entity.getSecondaryFacing();
+            elevation = entity.getElevation();
+            altitude = entity.getAltitude();
+            heat = entity.heat;
+            done = entity.isDone();
+
+            final int locations = entity.locations();
+            int rearLocations = 0;
+            for (int loc = 0; loc < locations; loc++) {
+                if (entity.hasRearArmor(loc)) {
+                    rearLocations++;
+                }
+            }
+            armor = new int[(locations + rearLocations) * 3];
+            internal = new int[locations * 2];
+            int a = 0;
+            for (int loc = 0; loc < locations; loc++) {
+                armor[a++] = loc;
+                armor[a++] = 0;
+                armor[a++] = entity.getArmor(loc, false);
+                if (entity.hasRearArmor(loc)) {
+                    armor[a++] = loc;
+                    armor[a++] = 1;
+                    armor[a++] = entity.getArmor(loc, true);
+                }
+                internal[loc * 2] = loc;
+                internal[(loc * 2) + 1] = entity.getInternal(loc);
+            }
+
+            final Crew crew = entity.getCrew();
+            final int slots = (crew == null) ? 0 : crew.getSlotCount();
+            crewHits = new int[slots * 2];
+            for (int slot = 0; slot < slots; slot++) {
+                crewHits[slot * 2] = slot;
+                crewHits[(slot * 2) + 1] = crew.getHits(slot);
+            }
+
+            final List<Mounted> ammoMounts = entity.getAmmo();
+            ammo = new int[ammoMounts.size() * 2];
+            for (int i = 0; i < ammoMounts.size(); i++) {
+                ammo[i * 2] = entity.getEquipmentNum(ammoMounts.get(i));
+                ammo[(i * 2) + 1] = ammoMounts.get(i).getBaseShotsLeft();
+            }
+        }
+
+        /**
+         * @return a 64-bit hash of all fields covered by deltas
+         */
+        long digest() {
+            long hash = 17;
+            hash = mix(hash, (position == null) ? -1 : position.getX());
+            hash = mix(hash, (position == null) ? -1 : position.getY());
+            hash = mix(hash, facing);
+            hash = mix(hash, secondaryFacing);
+            hash = mix(hash, elevation);
+            hash = mix(hash, altitude);
+            hash = mix(hash, heat);
+            hash = mix(hash, done ? 1 : 0);
+            for (int[] values : new int[][] { armor, internal, crewHits, ammo }) {
+                hash = mix(hash, values.length);
+                for (int value : values) {
+                    hash = mix(hash, value);
+                }
+            }
+            return hash;
+        }
+
+        private static long mix(long hash, int value) {
+            return (hash * 0x100000001B3L) ^ (value * 0x9E3779B97F4A7C15L);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import java.util.*;
+
+/**
+ * A grid of square buckets of hexes that holds the ids of the entities positioned in each bucket,
+ * so that the entities near a hex can be found without looking at every entity of the game. It is
+ * kept up to date by {@link Game} whenever an entity is added, moved or removed.
+ * <p>
+ * A hex at distance d from another can be at most d columns and d rows away from it, so the
+ * buckets overlapping the square of d hexes around a hex hold all entities within that distance.
+ * The index only returns candidates; the exact distance is checked by the {@link Game}.
+ */
+final class EntitySpatialIndex {
+    /** The side length of a bucket in hexes; 2^BUCKET_SHIFT */
+    private static final int BUCKET_SHIFT = 3;
+
+    private final Map<Long, Set<Integer>> buckets = new HashMap<>();
+    private final Map<Integer, Long> bucketOfEntity = new HashMap<>();
+
+    /**
+     * Places the entity in the bucket of its current position, or removes it from the index if
+     * it has no position.
+     */
+    void update(Entity entity) {
+        final Coords position = entity.getPosition();
+        if (position == null) {
+            remove(entity.getId());
+            return;
+        }
+        final long key = bucketKey(position.getX() >> BUCKET_SHIFT, position.getY() >> BUCKET_SHIFT);
+        final Long previous = bucketOfEntity.put(entity.getId(), key);
+        if ((previous != null) && (previous == key)) {
+            return;
+        } else if (previous != null) {
+            removeFromBucket(previous, entity.getId());
+        }
+        buckets.computeIfAbsent(key, k -> new HashSet<>()).add(entity.getId());
+    }
+
+    void remove(int entityId) {
+        final Long previous = bucketOfEntity.remove(entityId);
+        if (previous != null) {
+            removeFromBucket(previous, entityId);
+        }
+    }
+
+    void clear() {
+        buckets.clear();
+        bucketOfEntity.clear();
+    }
+
+    /**
+     * Adds the ids of all entities that may be within the given distance of the center to the
+     * given collection. Every entity within the distance is added, but so may be some that are
+     * further away.
+     */
+    void addCandidates(Coords center, int distance, Collection<Integer> result) {
+        final int minX = (center.getX() - distance) >> BUCKET_SHIFT;
+        final int maxX = (center.getX() + distance) >> BUCKET_SHIFT;
+        final int minY = (center.getY() - distance) >> BUCKET_SHIFT;
+        final int maxY = (center.getY() + distance) >> BUCKET_SHIFT;
+        if ((long) (maxX - minX + 1) * (maxY - minY + 1) > buckets.size()) {
+            // the square covers more buckets than are occupied
+            for (Map.Entry<Long, Set<Integer>> bucket : buckets.entrySet()) {
+                final int x = (int) (bucket.getKey() >> 32);
+                final int y = (int) (long) bucket.getKey();
+                if ((x >= minX) && (x <= maxX) && (y >= minY) && (y <= maxY)) {
+                    result.addAll(bucket.getValue());
+                }
+            }
+            return;
+        }
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                final Set<Integer> bucket = buckets.get(bucketKey(x, y));
+                if (bucket != null) {
+                    result.addAll(bucket);
+                }
+            }
+        }
+    }
+
+    private void removeFromBucket(long key, int entityId) {
+        final Set<Integer> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(entityId);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    private static long bucketKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * An immutable, fixed width set of equipment flags such as {@link MiscType#F_ECM} or
+ * {@link WeaponType#F_ENERGY}. The flags themselves remain {@link BigInteger} constants with a
+ * single bit set; this class stores them as words of bits so that testing a flag does not
+ * allocate, unlike {@link BigInteger#and(BigInteger)}.
+ */
+public final class EquipmentBitSet {
+    /** The number of bits that all sets can hold without growing */
+    public static final int DEFAULT_WIDTH = 256;
+
+    public static final EquipmentBitSet EMPTY = new EquipmentBitSet(BigInteger.ZERO);
+
+    private final long[] words;
+    private final BigInteger value;
+
+    /**
+     * Creates a set of the bits of the given flags.
+     *
+     * @param flags the flags, a combination of F_XXX constants
+     */
+    public EquipmentBitSet(BigInteger flags) {
+        if (flags.signum() < 0) {
+            throw new IllegalArgumentException("Equipment flags cannot be negative");
+        }
+        value = flags;
+        words = new long[Math.max(DEFAULT_WIDTH, flags.bitLength() + 63) / 64];
+        for (int bit = flags.getLowestSetBit(); bit >= 0; bit = nextSetBit(flags, bit + 1)) {
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private EquipmentBitSet(long[] words, BigInteger value) {
+        this.words = words;
+        this.value = value;
+    }
+
+    private static int nextSetBit(BigInteger flags, int from) {
+        for (int bit = from; bit < flags.bitLength(); bit++) {
+            if (flags.testBit(bit)) {
+                return bit;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the first set bit at or after the given index, or -1 if there is none
+     */
+    public int nextSetBit(int from) {
+        int index = from >>> 6;
+        if (index >= words.length) {
+            return -1;
+        }
+        long word = words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index * 64) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * @return true if the given bit is set
+     */
+    public boolean get(int bit) {
+        final int index = bit >>> 6;
+        return (index < words.length) && ((words[index] & (1L << bit)) != 0);
+    }
+
+    /**
+     * @return true if no bit is set
+     */
+    public boolean isEmpty() {
+        return value.signum() == 0;
+    }
+
+    /**
+     * Returns true if any of the given flags is set, which is the meaning of
+     * {@link EquipmentType#hasFlag(BigInteger)}. Testing a single flag does not allocate.
+     *
+     * @param flag a F_XXX constant or a combination of them
+     * @return true if this set and the flag have a bit in common
+     */
+    public boolean intersects(BigInteger flag) {
+        // The lowest set bit and bit count are cached by BigInteger
+        if (flag.bitCount() == 1) {
+            return get(flag.getLowestSetBit());
+        }
+        for (int bit = nextSetBit(0); bit >= 0; bit = nextSetBit(bit + 1)) {
+            if (flag.testBit(bit)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if this set and the other have a bit in common
+     */
+    public boolean intersects(EquipmentBitSet other) {
+        final int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a set of the bits that are set in either this or the other set
+     */
+    public EquipmentBitSet or(EquipmentBitSet other) {
+        final long[] result = Arrays.copyOf(words, Math.max(words.length, other.words.length));
+        for (int i = 0; i < other.words.length; i++) {
+            result[i] |= other.words[i];
+        }
+        return new EquipmentBitSet(result, value.or(other.value));
+    }
+
+    /**
+     * @return the flags of this set as they were used to create it
+     */
+    public BigInteger toBigInteger() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return (this == other)
+                || ((other instanceof EquipmentBitSet) && value.equals(((EquipmentBitSet) other).value));
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value.toString(2);
+    }
+}
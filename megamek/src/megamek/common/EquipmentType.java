@@ -171,6 +171,9 @@ public class EquipmentType implements ITechnology {
 
     protected BigInteger flags = BigInteger.valueOf(0);
 
+    /** The flags as a bit set for {@link #hasFlag(BigInteger)}, rebuilt when the flags are replaced */
+    private transient EquipmentBitSet flagSet = EquipmentBitSet.EMPTY;
+
     protected long subType = 0;
 
     protected double bv = 0; // battle value point system
@@ -506,8 +509,21 @@ public class EquipmentType implements ITechnology {
         return flags;
     }
 
+    /**
+     * @return the flags of this equipment as a bit set
+     */
+    public EquipmentBitSet getFlagSet() {
+        EquipmentBitSet result = flagSet;
+        // Subclasses assign the flags field directly, so compare the set with the current flags
+        if (result.toBigInteger() != flags) {
+            result = new EquipmentBitSet(flags);
+            flagSet = result;
+        }
+        return result;
+    }
+
     public boolean hasFlag(BigInteger flag) {
-        return !(flags.and(flag)).equals(BigInteger.valueOf(0));
+        return getFlagSet().intersects(flag);
     }
 
     public double getBV(Entity entity) {
@@ -50,16 +50,16 @@ public class Game implements Serializable {
     /**
      * A UUID to identify this game instance.
      */
-    public UUID uuid = UUID.randomUUID();
+    public UUID uuid;
 
     /**
      * Stores the version of MM, so that it can be serialized in saved games.
      */
     public final Version version = MMConstants.VERSION;
 
-    private GameOptions options = new GameOptions();
+    private GameOptions options;
 
-    private Board board = new Board();
+    private Board board;
 
     private final List<Entity> entities = new CopyOnWriteArrayList<>();
     private Hashtable<Integer, Entity> entityIds = new Hashtable<>();
@@ -76,6 +76,12 @@ public class Game implements Serializable {
 
     private final Map<Coords, HashSet<Integer>> entityPosLookup = new HashMap<>();
 
+    /** The entities by area of the board for range queries; rebuilt when needed after loading */
+    private transient EntitySpatialIndex entitySpatialIndex;
+
+    /** Incremented whenever an entity is added, replaced, updated or removed */
+    private transient int entityChangeCount;
+
     /**
      * have the entities been deployed?
      */
@@ -84,7 +90,7 @@ public class Game implements Serializable {
     /**
      * how's the weather?
      */
-    private PlanetaryConditions planetaryConditions = new PlanetaryConditions();
+    private PlanetaryConditions planetaryConditions;
 
     /**
      * what round is it?
@@ -118,7 +124,7 @@ public class Game implements Serializable {
     private Vector<Team> initiativeRerollRequests = new Vector<>();
 
     // reports
-    private GameReports gameReports = new GameReports();
+    private GameReports gameReports;
 
     private boolean forceVictory = false;
     private int victoryPlayerId = Player.PLAYER_NONE;
@@ -153,9 +159,12 @@ public class Game implements Serializable {
      * The forces present in the game. The top level force holds all forces and force-less entities
      * and should therefore not be shown.
      */
-    private Forces forces = new Forces(this);
+    private Forces forces;
 
     private transient Vector<GameListener> gameListeners = new Vector<>();
+
+    /** The ECM fields on the board, created on first use */
+    private transient volatile ECMFieldMap ecmFieldMap;
     
     /** 
      * Stores princess behaviors for game factions. It does not indicate that a faction is currently
@@ -168,7 +177,112 @@ public class Game implements Serializable {
      * Constructor
      */
     public Game() {
-        // empty
+        uuid = UUID.randomUUID();
+        options = new GameOptions();
+        options.setChangeListener(this::optionsChanged);
+        board = new Board();
+        planetaryConditions = new PlanetaryConditions();
+        gameReports = new GameReports();
+        forces = new Forces(this);
+    }
+
+    /**
+     * Creates a snapshot of the given game, see {@link #snapshot(Entity)}.
+     */
+    private Game(Game source, @Nullable Entity substitute) {
+        uuid = source.uuid;
+        options = source.options;
+        board = source.board;
+        entities.addAll(source.entities);
+        entityIds = new Hashtable<>(source.entityIds);
+        vOutOfGame = new Vector<>(source.vOutOfGame);
+        players = new Vector<>(source.players);
+        teams = new Vector<>(source.teams);
+        playerIds = new Hashtable<>(source.playerIds);
+        for (Map.Entry<Coords, HashSet<Integer>> entry : source.entityPosLookup.entrySet()) {
+            entityPosLookup.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        }
+        entityChangeCount = source.entityChangeCount;
+        deploymentComplete = source.deploymentComplete;
+        planetaryConditions = source.planetaryConditions;
+        roundCount = source.roundCount;
+        turnVector = new Vector<>(source.turnVector);
+        turnIndex = source.turnIndex;
+        phase = source.phase;
+        lastPhase = source.lastPhase;
+        actions = new Vector<>(source.actions);
+        pendingCharges = new Vector<>(source.pendingCharges);
+        pendingRams = new Vector<>(source.pendingRams);
+        pendingTeleMissileAttacks = new Vector<>(source.pendingTeleMissileAttacks);
+        pilotRolls = new Vector<>(source.pilotRolls);
+        extremeGravityRolls = new Vector<>(source.extremeGravityRolls);
+        controlRolls = new Vector<>(source.controlRolls);
+        initiativeRerollRequests = new Vector<>(source.initiativeRerollRequests);
+        gameReports = source.gameReports;
+        forceVictory = source.forceVictory;
+        victoryPlayerId = source.victoryPlayerId;
+        victoryTeam = source.victoryTeam;
+        deploymentTable = new Hashtable<>(source.deploymentTable);
+        lastDeploymentRound = source.lastDeploymentRound;
+        for (Map.Entry<Coords, Vector<Minefield>> entry : source.minefields.entrySet()) {
+            minefields.put(entry.getKey(), new Vector<>(entry.getValue()));
+        }
+        vibrabombs = new Vector<>(source.vibrabombs);
+        attacks = new Vector<>(source.attacks);
+        offboardArtilleryAttacks = new Vector<>(source.offboardArtilleryAttacks);
+        lastEntityId = source.lastEntityId;
+        tagInfoForTurn = new Vector<>(source.tagInfoForTurn);
+        flares = new Vector<>(source.flares);
+        illuminatedPositions = new HashSet<>(source.illuminatedPositions);
+        victoryContext = source.victoryContext;
+        externalGameId = source.externalGameId;
+        victory = source.victory;
+        smokeCloudList.addAll(source.smokeCloudList);
+        // the entities tell the game they belong to of changes to their ECM, not the snapshot
+        ecmFieldMap = source.getECMFieldMap();
+        forces = source.forces.clone();
+        forces.setGame(this);
+        botSettings = source.botSettings;
+        if (substitute != null) {
+            final Entity replaced = entityIds.get(substitute.getId());
+            if (replaced != null) {
+                entities.set(entities.indexOf(replaced), substitute);
+                entityIds.put(substitute.getId(), substitute);
+                updateEntityPositionLookup(substitute, replaced.getOccupiedCoords());
+            }
+            substitute.setGame(this);
+        }
+    }
+
+    /**
+     * Returns a snapshot of this game for threads that analyze the game while it is being
+     * updated, such as the precognition of the bot. The snapshot has its own lists of the
+     * entities, players, turns, minefields and the other parts of the game that packets replace,
+     * so it stays as it is when this game changes. The elements of those lists, the board and the
+     * options are shared with this game rather than copied: an entity that is replaced in this
+     * game stays unchanged in the snapshot, while a hex or an entity that is changed in place
+     * changes in both. The snapshot has no listeners and must not be changed.
+     * <p>
+     * This must be called on the thread that updates this game, or by another thread holding
+     * the lock of this game, which the updates of the entities hold.
+     *
+     * @return the snapshot
+     */
+    public Game snapshot() {
+        return new Game(this, null);
+    }
+
+    /**
+     * Returns a snapshot of this game, see {@link #snapshot()}, in which the given unit takes the
+     * place of the unit of this game with the same id, if there is one, and belongs to the
+     * snapshot. This lets a thread work with its own copy of a unit, such as to find the hexes
+     * the unit can move to. Apart from this substitution the snapshot must not be changed.
+     *
+     * @param substitute a copy of a unit that belongs to no other game
+     * @return the snapshot
+     */
+    public Game snapshot(Entity substitute) {
+        return new Game(this, substitute);
     }
 
     // Added public accessors for external game id
@@ -188,6 +302,33 @@ public class Game implements Serializable {
         return board;
     }
 
+    /**
+     * @return the raster of the ECM fields on the board of this game
+     */
+    public ECMFieldMap getECMFieldMap() {
+        ECMFieldMap result = ecmFieldMap;
+        if (result == null) {
+            synchronized (this) {
+                result = ecmFieldMap;
+                if (result == null) {
+                    result = new ECMFieldMap(this);
+                    ecmFieldMap = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Called by the entities of this game when their ECM or ECCM may have changed.
+     */
+    void ecmSourcesChanged() {
+        final ECMFieldMap map = ecmFieldMap;
+        if (map != null) {
+            map.sourcesChanged();
+        }
+    }
+
     public void setBoard(Board board) {
         Board oldBoard = this.board;
         setBoardDirect(board);
@@ -339,10 +480,31 @@ public class Game implements Serializable {
             LogManager.getLogger().error("Can't set the game options to null!");
         } else {
             this.options = options;
+            options.setChangeListener(this::optionsChanged);
+            optionsChanged();
             processGameEvent(new GameSettingsChangeEvent(this));
         }
     }
 
+    /**
+     * Marks all units as modified when the options change, as their BV may depend on them.
+     */
+    private void optionsChanged() {
+        for (Entity entity : entities) {
+            entity.markModified();
+        }
+    }
+
+    /**
+     * Tells the units that units were added, replaced or removed or the players changed, see
+     * {@link Entity#otherUnitsChanged()}.
+     */
+    private void otherUnitsChanged() {
+        for (Entity entity : entities) {
+            entity.otherUnitsChanged();
+        }
+    }
+
     /**
      * Return an enumeration of teams in the game
      */
@@ -386,6 +548,7 @@ public class Game implements Serializable {
      * their own object
      */
     public void setupTeams() {
+        otherUnitsChanged();
         Vector<Team> initTeams = new Vector<>();
         boolean useTeamInit = getOptions().getOption(OptionsConstants.BASE_TEAM_INITIATIVE)
                 .booleanValue();
@@ -911,6 +1074,8 @@ public class Game implements Serializable {
         this.entities.addAll(entities);
         reindexEntities();
         resetEntityPositionLookup();
+        entityChangeCount++;
+        otherUnitsChanged();
         processGameEvent(new GameEntityNewEvent(this, entities));
     }
 
@@ -1308,6 +1473,8 @@ public class Game implements Serializable {
         }
         entities.add(entity);
         updateEntityPositionLookup(entity, null);
+        entityChangeCount++;
+        otherUnitsChanged();
 
         if (id > lastEntityId) {
             lastEntityId = id;
@@ -1346,6 +1513,8 @@ public class Game implements Serializable {
             HashSet<Coords> oldPositions = oldEntity.getOccupiedCoords();
             // Update position lookup table
             updateEntityPositionLookup(entity, oldPositions);
+            entityChangeCount++;
+            otherUnitsChanged();
 
             // Not sure if this really required
             if (id > lastEntityId) {
@@ -1358,6 +1527,36 @@ public class Game implements Serializable {
         assert (entities.size() == entityIds.size()) : "Set Entity Failed";
     }
 
+    /**
+     * Applies a delta update to the entity it belongs to, if this game has that entity in the
+     * state the delta was computed against.
+     *
+     * @param delta the delta update
+     * @return true if the delta was applied, false if the entity is unknown or its state differs
+     * from the delta's base state, in which case the full entity is needed
+     */
+    public synchronized boolean applyEntityDelta(EntityDelta delta) {
+        final Entity entity = getEntity(delta.getEntityId());
+        if ((entity == null) || (new EntityDelta.State(entity).digest() != delta.getBaseDigest())) {
+            return false;
+        }
+        HashSet<Coords> oldPositions = entity.getOccupiedCoords();
+        delta.applyTo(entity);
+        updateEntityPositionLookup(entity, oldPositions);
+        entityChangeCount++;
+        otherUnitsChanged();
+        processGameEvent(new GameEntityChangeEvent(this, entity));
+        return new EntityDelta.State(entity).digest() == delta.getDigest();
+    }
+
+    /**
+     * @return a counter that changes whenever an entity is added to, replaced in, updated in or
+     * removed from this game, for values that depend on the other entities of the game
+     */
+    public int getEntityChangeCount() {
+        return entityChangeCount;
+    }
+
     /**
      * @return int containing an unused entity id
      */
@@ -1388,6 +1587,8 @@ public class Game implements Serializable {
 
         entityIds.remove(id);
         removeEntityPositionLookup(toRemove);
+        entityChangeCount++;
+        otherUnitsChanged();
 
         toRemove.setRemovalCondition(condition);
 
@@ -1434,6 +1635,9 @@ public class Game implements Serializable {
         entities.clear();
         entityIds.clear();
         entityPosLookup.clear();
+        entitySpatialIndex = null;
+        entityChangeCount++;
+        otherUnitsChanged();
 
         vOutOfGame.removeAllElements();
 
@@ -1590,6 +1794,38 @@ public class Game implements Serializable {
         }
         return Collections.unmodifiableList(vector);
     }
+
+    /**
+     * Returns the entities whose position is within the given distance of the given hex, in the
+     * order of their ids. Only the entities in the area around the hex are looked at.
+     *
+     * @param center The hex to measure from
+     * @param distance The greatest distance in hexes
+     * @return the entities within the distance
+     */
+    public synchronized List<Entity> getEntitiesWithin(Coords center, int distance) {
+        final Set<Integer> candidates = new TreeSet<>();
+        getEntitySpatialIndex().addCandidates(center, distance, candidates);
+        final List<Entity> result = new ArrayList<>();
+        for (Integer id : candidates) {
+            final Entity entity = getEntity(id);
+            if ((entity != null) && (entity.getPosition() != null)
+                    && (center.distance(entity.getPosition()) <= distance)) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    private EntitySpatialIndex getEntitySpatialIndex() {
+        if (entitySpatialIndex == null) {
+            entitySpatialIndex = new EntitySpatialIndex();
+            for (Entity entity : entities) {
+                entitySpatialIndex.update(entity);
+            }
+        }
+        return entitySpatialIndex;
+    }
     
     /**
      * Convenience function that gets a list of all off-board enemy entities.
@@ -3338,6 +3574,9 @@ public class Game implements Serializable {
      */
     public synchronized void updateEntityPositionLookup(Entity e,
             HashSet<Coords> oldPositions) {
+        if (entitySpatialIndex != null) {
+            entitySpatialIndex.update(e);
+        }
         HashSet<Coords> newPositions = e.getOccupiedCoords();
         // Check to see that the position has actually changed
         if (newPositions.equals(oldPositions)) {
@@ -3368,6 +3607,9 @@ public class Game implements Serializable {
     }
 
     private void removeEntityPositionLookup(Entity e) {
+        if (entitySpatialIndex != null) {
+            entitySpatialIndex.remove(e.getId());
+        }
         // Remove Entity from cache
         for (Coords pos : e.getOccupiedCoords()) {
             HashSet<Integer> posEntities = entityPosLookup.get(pos);
@@ -3379,6 +3621,7 @@ public class Game implements Serializable {
 
     private void resetEntityPositionLookup() {
         entityPosLookup.clear();
+        entitySpatialIndex = null;
         for (Entity e : entities) {
             updateEntityPositionLookup(e, null);
         }
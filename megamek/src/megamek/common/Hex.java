@@ -17,7 +17,6 @@ import megamek.common.annotations.Nullable;
 import megamek.common.enums.BasementType;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.StringTokenizer;
 
@@ -28,9 +27,26 @@ import java.util.StringTokenizer;
 public class Hex implements Serializable {
     //region Variable Declarations
     private static final long serialVersionUID = 82483704768044698L;
+    private static final Terrain[] NO_TERRAINS = new Terrain[0];
     private Coords coords;
     private int level;
-    private Map<Integer, Terrain> terrains = new HashMap<>(1);
+
+    /**
+     * The terrains of this hex, ordered by their type. Together with the bits of
+     * {@link #terrainTypes} this finds the terrain of a type without boxing or hashing the type:
+     * its index is the number of types below it that are present.
+     */
+    private Terrain[] terrainsByType = NO_TERRAINS;
+
+    /** Bit n is set if the hex has a terrain of type n; all types are less than 64 */
+    private transient long terrainTypes;
+
+    /**
+     * The terrains of hexes saved by earlier versions, by their type. It is only set while such a
+     * hex is read and moved to {@link #terrainsByType} by {@link #readResolve()}.
+     */
+    private Map<Integer, Terrain> terrains;
+
     private String theme;
     private String originalTheme;
     private int fireTurn;
@@ -48,7 +64,7 @@ public class Hex implements Serializable {
      * Constructs a clean, plain hex at specified level.
      */
     public Hex(int level) {
-        this(level, new Terrain[Terrains.SIZE], null, new Coords(0, 0));
+        this(level, NO_TERRAINS, null, new Coords(0, 0));
     }
 
     public Hex(int level, Terrain[] terrains, String theme) {
@@ -63,7 +79,7 @@ public class Hex implements Serializable {
         coords = c;
         for (final Terrain t : terrains) {
             if (t != null) {
-                this.terrains.put(t.getType(), t);
+                addTerrain(t);
             }
         }
 
@@ -83,7 +99,7 @@ public class Hex implements Serializable {
      * Constructs a Hex from a combined string terrains format
      */
     public Hex(int level, String terrain, String theme, Coords c) {
-        this(level, new Terrain[Terrains.SIZE], theme, c);
+        this(level, NO_TERRAINS, theme, c);
         for (StringTokenizer st = new StringTokenizer(terrain, ";", false); st.hasMoreTokens();) {
             addTerrain(new Terrain(st.nextToken()));
         }
@@ -113,13 +129,24 @@ public class Hex implements Serializable {
     public void setTheme(String theme) {
         this.theme = theme;
     }
+
+    /**
+     * @return the theme specified in the board file, which {@link #resetTheme()} returns to
+     */
+    public String getOriginalTheme() {
+        return originalTheme;
+    }
     //endregion Getters/Setters
 
     /**
      * @return An array that contains an id for each terrain present in this hex.
      */
     public int[] getTerrainTypes() {
-        return terrains.keySet().stream().mapToInt(Integer::intValue).toArray();
+        final int[] types = new int[terrainsByType.length];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = terrainsByType[i].getType();
+        }
+        return types;
     }
 
     /**
@@ -133,9 +160,8 @@ public class Hex implements Serializable {
      * Clears the "exits" flag for all terrains in the hex where it is not manually specified.
      */
     public void clearExits() {
-        for (Integer i : terrains.keySet()) {
-            Terrain t = terrains.get(i);
-            if ((t != null) && !t.hasExitsSpecified()) {
+        for (final Terrain t : terrainsByType) {
+            if (!t.hasExitsSpecified()) {
                 t.setExits(0);
             }
         }
@@ -166,16 +192,15 @@ public class Hex implements Serializable {
      * @see Hex#setExits(Hex, int)
      */
     public void setExits(Hex other, int direction, boolean roadsAutoExit) {
-        for (Integer i : terrains.keySet()) {
-            Terrain cTerr = getTerrain(i);
+        for (final Terrain cTerr : terrainsByType) {
             Terrain oTerr;
 
-            if ((cTerr == null) || cTerr.hasExitsSpecified()) {
+            if (cTerr.hasExitsSpecified()) {
                 continue;
             }
 
             if (other != null) {
-                oTerr = other.getTerrain(i);
+                oTerr = other.getTerrain(cTerr.getType());
             } else {
                 oTerr = null;
             }
@@ -251,8 +276,8 @@ public class Hex implements Serializable {
      */
     public boolean containsExit(int direction) {
         boolean rv = false;
-        for (Integer terrType : terrains.keySet()) {
-            rv |= containsTerrainExit(terrType, direction);
+        for (final Terrain terrain : terrainsByType) {
+            rv |= containsTerrainExit(terrain.getType(), direction);
         }
         return rv;
     }
@@ -262,8 +287,8 @@ public class Hex implements Serializable {
      */
     public boolean hasExitableTerrain() {
         boolean rv = false;
-        for (Integer terrType : terrains.keySet()) {
-            rv |= Terrains.exitableTerrain(terrType);
+        for (final Terrain terrain : terrainsByType) {
+            rv |= Terrains.exitableTerrain(terrain.getType());
         }
         return rv;
     }
@@ -296,8 +321,8 @@ public class Hex implements Serializable {
     public int maxTerrainFeatureElevation(boolean inAtmosphere) {
         int maxFeature = 0;
         int featureElev;
-        for (Integer terrainType : terrains.keySet()) {
-            featureElev = terrains.get(terrainType).getTerrainElevation(inAtmosphere);
+        for (final Terrain terrain : terrainsByType) {
+            featureElev = terrain.getTerrainElevation(inAtmosphere);
             if (featureElev > maxFeature) {
                 maxFeature = featureElev;
             }
@@ -347,8 +372,8 @@ public class Hex implements Serializable {
      * @return true if this hex has a terrain with a non-zero terrain factor
      */
     public boolean hasTerrainFactor() {
-        for (int type : terrains.keySet()) {
-            if (terrains.get(type).getTerrainFactor() > 0) {
+        for (final Terrain terrain : terrainsByType) {
+            if (terrain.getTerrainFactor() > 0) {
                 return true;
             }
         }
@@ -363,7 +388,7 @@ public class Hex implements Serializable {
      * @see Hex#containsAnyTerrainOf(int...)
      */
     public boolean containsTerrain(int type) {
-        return getTerrain(type) != null;
+        return (type >= 0) && (type < Long.SIZE) && ((terrainTypes & (1L << type)) != 0);
     }
 
     /**
@@ -439,7 +464,15 @@ public class Hex implements Serializable {
      * in the hex
      */
     public @Nullable Terrain getTerrain(int type) {
-        return terrains.get(type);
+        return containsTerrain(type) ? terrainsByType[indexOf(type)] : null;
+    }
+
+    /**
+     * @return the index in {@link #terrainsByType} of the given type of terrain if it were
+     * present, which is the number of types below it that are present
+     */
+    private int indexOf(int type) {
+        return Long.bitCount(terrainTypes & ((1L << type) - 1));
     }
 
     /**
@@ -450,12 +483,12 @@ public class Hex implements Serializable {
      */
     public @Nullable Terrain getAnyTerrainOf(int type, int... types) {
         if (containsTerrain(type)) {
-            return terrains.get(type);
+            return getTerrain(type);
         }
 
         for (int moreTypes : types) {
             if (containsTerrain(moreTypes)) {
-                return terrains.get(moreTypes);
+                return getTerrain(moreTypes);
             }
         }
 
@@ -466,21 +499,45 @@ public class Hex implements Serializable {
      * @param terrain the terrain to add to this hex
      */
     public void addTerrain(Terrain terrain) {
-        terrains.put(terrain.getType(), terrain);
+        final int type = terrain.getType();
+        if ((type < 0) || (type >= Long.SIZE)) {
+            throw new IllegalArgumentException("Invalid terrain type " + type);
+        }
+        final int index = indexOf(type);
+        if (containsTerrain(type)) {
+            terrainsByType[index] = terrain;
+            return;
+        }
+        // the array is replaced rather than changed, so loops over the terrains may add terrains
+        final Terrain[] added = new Terrain[terrainsByType.length + 1];
+        System.arraycopy(terrainsByType, 0, added, 0, index);
+        added[index] = terrain;
+        System.arraycopy(terrainsByType, index, added, index + 1, terrainsByType.length - index);
+        terrainsByType = added;
+        terrainTypes |= 1L << type;
     }
 
     /**
      * @param type the terrain type to remove
      */
     public void removeTerrain(int type) {
-        terrains.remove(type);
+        if (!containsTerrain(type)) {
+            return;
+        }
+        final int index = indexOf(type);
+        final Terrain[] removed = new Terrain[terrainsByType.length - 1];
+        System.arraycopy(terrainsByType, 0, removed, 0, index);
+        System.arraycopy(terrainsByType, index + 1, removed, index, removed.length - index);
+        terrainsByType = removed;
+        terrainTypes &= ~(1L << type);
     }
 
     /**
      * Removes all Terrains from the hex.
      */
     public void removeAllTerrains() {
-        terrains.clear();
+        terrainsByType = NO_TERRAINS;
+        terrainTypes = 0;
     }
 
     /**
@@ -488,8 +545,8 @@ public class Hex implements Serializable {
      */
     public int displayableTerrainsPresent() {
         int present = 0;
-        for (Integer i : terrains.keySet()) {
-            if ((null != Terrains.getDisplayName(i, terrains.get(i).getLevel()))) {
+        for (final Terrain terrain : terrainsByType) {
+            if ((null != Terrains.getDisplayName(terrain.getType(), terrain.getLevel()))) {
                 present++;
             }
         }
@@ -500,7 +557,7 @@ public class Hex implements Serializable {
      * @return the number of terrain attributes present
      */
     public int terrainsPresent() {
-        return terrains.size();
+        return terrainsByType.length;
     }
 
     /**
@@ -508,20 +565,39 @@ public class Hex implements Serializable {
      * @return new hex which is equal to this
      */
     public Hex duplicate() {
-        Terrain[] tcopy = new Terrain[Terrains.SIZE];
-        for (Integer i : terrains.keySet()) {
-            tcopy[i] = new Terrain(terrains.get(i));
+        Terrain[] tcopy = new Terrain[terrainsByType.length];
+        for (int i = 0; i < tcopy.length; i++) {
+            tcopy[i] = new Terrain(terrainsByType[i]);
         }
         return new Hex(level, tcopy, theme, coords);
     }
 
+    /**
+     * Restores the terrain types, which are not saved, and moves the terrains of hexes saved by
+     * earlier versions to {@link #terrainsByType}.
+     */
+    private Object readResolve() {
+        final Terrain[] saved = (terrainsByType == null) ? NO_TERRAINS : terrainsByType;
+        removeAllTerrains();
+        for (Terrain terrain : saved) {
+            addTerrain(terrain);
+        }
+        if (terrains != null) {
+            for (Terrain terrain : terrains.values()) {
+                addTerrain(terrain);
+            }
+            terrains = null;
+        }
+        return this;
+    }
+
     /**
      * Adds terrain modifiers to PSRs made in this hex
      */
     public void terrainPilotingModifier(EntityMovementMode moveMode, PilotingRollData roll,
                                         boolean enteringRubble) {
-        for (Integer i : terrains.keySet()) {
-            terrains.get(i).pilotingModifier(moveMode, roll, enteringRubble);
+        for (final Terrain terrain : terrainsByType) {
+            terrain.pilotingModifier(moveMode, roll, enteringRubble);
         }
     }
 
@@ -530,7 +606,7 @@ public class Hex implements Serializable {
      */
     public int movementCost(Entity entity) {
         int rv = 0;
-        for (final Terrain terrain : terrains.values()) {
+        for (final Terrain terrain : terrainsByType) {
             rv += terrain.movementCost(entity);
         }
         return rv;
@@ -541,7 +617,7 @@ public class Hex implements Serializable {
      */
     public int getIgnitionModifier() {
         int mod = 0;
-        for (final Terrain terrain : terrains.values()) {
+        for (final Terrain terrain : terrainsByType) {
             if (terrain != null) {
                 mod += terrain.ignitionModifier();
             }
@@ -559,8 +635,9 @@ public class Hex implements Serializable {
     }
 
     public boolean isClearForTakeoff() {
-        for (final Integer i : terrains.keySet()) {
-            if (containsTerrain(i) && (i != Terrains.PAVEMENT) && (i != Terrains.ROAD) && (i != Terrains.FLUFF)
+        for (final Terrain terrain : terrainsByType) {
+            final int i = terrain.getType();
+            if ((i != Terrains.PAVEMENT) && (i != Terrains.ROAD) && (i != Terrains.FLUFF)
                     && (i != Terrains.ARMS) && (i != Terrains.LEGS) && (i != Terrains.SNOW) && (i != Terrains.MUD)
                     && (i != Terrains.SMOKE) && (i != Terrains.METAL_CONTENT)) {
                 return false;
@@ -585,6 +662,10 @@ public class Hex implements Serializable {
         fireTurn = 0;
     }
 
+    public void setFireTurn(int fireTurn) {
+        this.fireTurn = fireTurn;
+    }
+
     /**
      * get any modifiers to a bog-down roll in this hex. Takes the worst
      * modifier. If there is no bog-down chance in this hex, then it returns
@@ -592,7 +673,7 @@ public class Hex implements Serializable {
      */
     public int getBogDownModifier(EntityMovementMode moveMode, boolean largeVee) {
         int mod = TargetRoll.AUTOMATIC_SUCCESS;
-        for (final Terrain terrain : terrains.values()) {
+        for (final Terrain terrain : terrainsByType) {
             if ((terrain != null) && (mod < terrain.getBogDownModifier(moveMode, largeVee))) {
                 mod = terrain.getBogDownModifier(moveMode, largeVee);
             }
@@ -604,7 +685,7 @@ public class Hex implements Serializable {
      * get any modifiers to an unstuck roll in this hex.
      */
     public void getUnstuckModifier(int elev, PilotingRollData rollTarget) {
-        for (final Terrain terrain : terrains.values()) {
+        for (final Terrain terrain : terrainsByType) {
             terrain.getUnstuckModifier(elev, rollTarget);
         }
     }
@@ -670,7 +751,7 @@ public class Hex implements Serializable {
         }
         
         // Check individual terrains for validity
-        for (final Terrain terrain : terrains.values()) {
+        for (final Terrain terrain : terrainsByType) {
             if (terrain == null) {
                 valid = false;
                 errBuff.append("Hex contains a null terrain!\n");
@@ -764,7 +845,7 @@ public class Hex implements Serializable {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("Level: ").append(getLevel()).append("  Features: ");
-        for (final Terrain terrain : terrains.values()) {
+        for (final Terrain terrain : terrainsByType) {
             if (terrain != null) {
                 switch (terrain.getType()) {
                     case Terrains.WOODS:
@@ -140,6 +140,7 @@ public class LAMPilot extends Crew {
 
     public void setGunneryAero(int gunnery) {
         gunneryAero = gunnery;
+        changed();
     }
 
     public int getGunneryAeroB() {
@@ -148,6 +149,7 @@ public class LAMPilot extends Crew {
 
     public void setGunneryAeroB(int gunnery) {
         gunneryAeroB = gunnery;
+        changed();
     }
 
     public int getGunneryAeroL() {
@@ -156,6 +158,7 @@ public class LAMPilot extends Crew {
 
     public void setGunneryAeroL(int gunnery) {
         gunneryAeroL = gunnery;
+        changed();
     }
 
     public int getGunneryAeroM() {
@@ -164,6 +167,7 @@ public class LAMPilot extends Crew {
 
     public void setGunneryAeroM(int gunnery) {
         gunneryAeroM = gunnery;
+        changed();
     }
 
     public int getPilotingAero() {
@@ -172,6 +176,7 @@ public class LAMPilot extends Crew {
 
     public void setPilotingAero(int piloting) {
         pilotingAero = piloting;
+        changed();
     }
 
     private boolean useAeroGunnery() {
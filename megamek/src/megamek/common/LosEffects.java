@@ -176,6 +176,46 @@ public class LosEffects {
         minimumWaterDepth = inVal;
     }
 
+    /**
+     * @return a new LosEffects with the same values as this
+     */
+    LosEffects copy() {
+        LosEffects copy = new LosEffects();
+        copy.blocked = blocked;
+        copy.deadZone = deadZone;
+        copy.infProtected = infProtected;
+        copy.hasLoS = hasLoS;
+        copy.targetIsOversized = targetIsOversized;
+        copy.plantedFields = plantedFields;
+        copy.heavyIndustrial = heavyIndustrial;
+        copy.lightWoods = lightWoods;
+        copy.heavyWoods = heavyWoods;
+        copy.ultraWoods = ultraWoods;
+        copy.lightSmoke = lightSmoke;
+        copy.heavySmoke = heavySmoke;
+        copy.screen = screen;
+        copy.softBuildings = softBuildings;
+        copy.hardBuildings = hardBuildings;
+        copy.buildingLevelsOrHexes = buildingLevelsOrHexes;
+        copy.blockedByHill = blockedByHill;
+        copy.blockedByWater = blockedByWater;
+        copy.targetCover = targetCover;
+        copy.attackerCover = attackerCover;
+        copy.thruBldg = thruBldg;
+        copy.targetLoc = targetLoc;
+        copy.damagableCoverTypePrimary = damagableCoverTypePrimary;
+        copy.damagableCoverTypeSecondary = damagableCoverTypeSecondary;
+        copy.coverBuildingPrimary = coverBuildingPrimary;
+        copy.coverBuildingSecondary = coverBuildingSecondary;
+        copy.coverDropshipPrimary = coverDropshipPrimary;
+        copy.coverDropshipSecondary = coverDropshipSecondary;
+        copy.coverLocPrimary = coverLocPrimary;
+        copy.coverLocSecondary = coverLocSecondary;
+        copy.minimumWaterDepth = minimumWaterDepth;
+        copy.arcedShot = arcedShot;
+        return copy;
+    }
+
     public void add(LosEffects other) {
         // We need to check if we should update damageable cover
         //  We need to update cover if it's present, but we don't want to
@@ -361,10 +401,22 @@ public class LosEffects {
      */
     public static LosEffects calculateLOS(final Game game, final @Nullable Entity attacker,
                                           final @Nullable Targetable target, final boolean spotting) {
+        return calculateLOS(game, attacker, target, spotting, null);
+    }
+
+    /**
+     * Returns the same as {@link #calculateLOS(Game, Entity, Targetable, boolean)}, taking the
+     * LOS between the positions from the given cache if it has them.
+     *
+     * @param cache the cache of the LOS between positions, or null to compute it
+     */
+    public static LosEffects calculateLOS(final Game game, final @Nullable Entity attacker,
+                                          final @Nullable Targetable target, final boolean spotting,
+                                          final @Nullable TerrainLosCache cache) {
         if ((attacker == null) || (target == null)) {
             return calculateLOS(game, attacker, target,
                     (attacker == null) ? null : attacker.getPosition(),
-                    (target == null) ? null : target.getPosition(), spotting);
+                    (target == null) ? null : target.getPosition(), spotting, cache);
         }
 
         // We need to create Attacker and Target position lists because they might have secondary
@@ -392,7 +444,8 @@ public class LosEffects {
         LosEffects bestLOS = null;
         for (final Coords attackerPosition : attackerPositions) {
             for (final Coords targetPosition : targetPositions) {
-                LosEffects newLos = calculateLOS(game, attacker, target, attackerPosition, targetPosition, spotting);
+                LosEffects newLos = calculateLOS(game, attacker, target, attackerPosition, targetPosition,
+                        spotting, cache);
                 // is the new one better?
                 if ((bestLOS == null) || bestLOS.isBlocked()
                         || (newLos.losModifiers(game).getValue() < bestLOS.losModifiers(game).getValue())) {
@@ -402,7 +455,8 @@ public class LosEffects {
         }
 
         if (bestLOS == null) {
-            bestLOS = calculateLOS(game, attacker, target, attacker.getPosition(), target.getPosition(), spotting);
+            bestLOS = calculateLOS(game, attacker, target, attacker.getPosition(), target.getPosition(),
+                    spotting, cache);
         }
 
         bestLOS.targetLoc = target.getPosition();
@@ -414,6 +468,23 @@ public class LosEffects {
                                           final @Nullable Coords attackerPosition,
                                           final @Nullable Coords targetPosition,
                                           final boolean spotting) {
+        return calculateLOS(game, attacker, target, attackerPosition, targetPosition, spotting, null);
+    }
+
+    /**
+     * Returns the same as {@link #calculateLOS(Game, Entity, Targetable, Coords, Coords, boolean)},
+     * taking the effects of the terrain between the positions from the given cache if it has them.
+     * The effects that depend on the attacker and target are applied to a copy of the cached
+     * effects.
+     *
+     * @param cache the cache of the LOS between positions, or null to compute it
+     */
+    public static LosEffects calculateLOS(final Game game, final @Nullable Entity attacker,
+                                          final @Nullable Targetable target,
+                                          final @Nullable Coords attackerPosition,
+                                          final @Nullable Coords targetPosition,
+                                          final boolean spotting,
+                                          final @Nullable TerrainLosCache cache) {
         // LOS fails if one of the entities is not deployed.
         if ((attacker == null) || (target == null) || (attackerPosition == null)
                 || (targetPosition == null) || attacker.isOffBoard() || target.isOffBoard()) {
@@ -519,7 +590,7 @@ public class LosEffects {
             ai.attackPos = ai.targetPos;
         }
 
-        final LosEffects finalLoS = calculateLos(game, ai);
+        final LosEffects finalLoS = (cache == null) ? calculateLos(game, ai) : cache.calculateLos(game, ai);
         finalLoS.setMinimumWaterDepth(ai.minimumWaterDepth);
         finalLoS.targetLoc = target.getPosition();
         finalLoS.targetIsOversized = ai.targetEntity
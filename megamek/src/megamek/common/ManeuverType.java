@@ -53,7 +53,7 @@ public class ManeuverType {
                                      Game game, MovePath mp) {
 
         // We can only perform one maneuver in a turn (important for side-slip)
-        for (final MoveStep step : mp.getStepVector()) {
+        for (final MoveStep step : mp.getStepList()) {
             if (step.getType() == MoveStepType.MANEUVER) {
                 return false;
             }
@@ -1949,6 +1949,7 @@ public abstract class Mech extends Entity {
     public void setArmor(int val, int loc, boolean rear) {
         if (rear && hasRearArmor(loc)) {
             rearArmor[loc] = val;
+            markModified();
         } else {
             super.setArmor(val, loc, rear);
         }
@@ -3531,6 +3532,9 @@ public abstract class Mech extends Entity {
      */
     @Override
     public boolean isStealthOn() {
+        if (!hasMisc(MiscType.F_STEALTH)) {
+            return false;
+        }
         // Try to find a Mek Stealth system.
         for (Mounted mEquip : getMisc()) {
             MiscType mtype = (MiscType) mEquip.getType();
@@ -5587,6 +5591,7 @@ public abstract class Mech extends Entity {
     public void setStalled(boolean stalled) {
         this.stalled = stalled;
         stalledThisTurn = true;
+        ecmSourceChanged();
     }
 
     /*
@@ -750,30 +750,7 @@ public class MechFileParser {
         
         // Check if it's canon; if it is, mark it as such.
         ent.setCanon(false);// Guilty until proven innocent
-        try {
-            if (canonUnitNames == null) {
-                canonUnitNames = new Vector<>();
-                // init the list.
-                try (BufferedReader br = new BufferedReader(new FileReader(new MegaMekFile(
-                            Configuration.docsDir(), FILENAME_OFFICIAL_UNITS).getFile()))) {
-                    String s;
-                    String name;
-                    while ((s = br.readLine()) != null) {
-                        int nIndex1 = s.indexOf('|');
-                        if (nIndex1 > -1) {
-                            name = s.substring(0, nIndex1);
-                            canonUnitNames.addElement(name);
-                        }
-                    }
-                    Collections.sort(canonUnitNames);
-                } catch (Exception ignored) {
-
-                }
-            }
-        } catch (Exception ignored) {
-
-        }
-        int index = Collections.binarySearch(canonUnitNames, ent.getShortNameRaw());
+        int index = Collections.binarySearch(getCanonUnitNames(), ent.getShortNameRaw());
         if (index >= 0) {
             ent.setCanon(true);
         }        
@@ -781,6 +758,34 @@ public class MechFileParser {
 
     }
 
+    /**
+     * Loads the sorted list of official unit names on first use. Units may be parsed on several
+     * threads, so the list is only published once it is complete.
+     */
+    private static synchronized Vector<String> getCanonUnitNames() {
+        if (canonUnitNames == null) {
+            Vector<String> names = new Vector<>();
+            // init the list.
+            try (BufferedReader br = new BufferedReader(new FileReader(new MegaMekFile(
+                        Configuration.docsDir(), FILENAME_OFFICIAL_UNITS).getFile()))) {
+                String s;
+                String name;
+                while ((s = br.readLine()) != null) {
+                    int nIndex1 = s.indexOf('|');
+                    if (nIndex1 > -1) {
+                        name = s.substring(0, nIndex1);
+                        names.addElement(name);
+                    }
+                }
+                Collections.sort(names);
+            } catch (Exception ignored) {
+
+            }
+            canonUnitNames = names;
+        }
+        return canonUnitNames;
+    }
+
     /**
      * Links machine gun arrays to their machine guns using the bayWeapon list.
      * We take the first qualifying machine gun in the location (correct size and not already
@@ -901,7 +906,7 @@ public class MechFileParser {
         return entity;
     }
 
-    public static void dispose() {
+    public static synchronized void dispose() {
         canonUnitNames = null;
     }
 }
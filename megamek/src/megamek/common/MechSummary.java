@@ -49,6 +49,8 @@ public class MechSummary implements Serializable {
     private long dryCost;
     private long altCost;
     private long modified; // for comparison when loading
+    private long sourceLength; // for comparison when loading
+    private long sourceHash; // CRC-32 of the unit file or zip entry, for comparison when loading
     private String level;
     private int advTechYear; // year after which the unit is advanced level
     private int stdTechYear; // year after which the unit is standard level
@@ -231,6 +233,20 @@ public class MechSummary implements Serializable {
         return modified;
     }
 
+    /**
+     * @return the length of the unit file or the uncompressed zip entry the unit was loaded from
+     */
+    public long getSourceLength() {
+        return sourceLength;
+    }
+
+    /**
+     * @return the CRC-32 of the contents of the unit file or zip entry the unit was loaded from
+     */
+    public long getSourceHash() {
+        return sourceHash;
+    }
+
     public String getLevel() {
         return level;
     }
@@ -336,6 +352,14 @@ public class MechSummary implements Serializable {
         this.modified = lModified;
     }
 
+    public void setSourceLength(long sourceLength) {
+        this.sourceLength = sourceLength;
+    }
+
+    public void setSourceHash(long sourceHash) {
+        this.sourceHash = sourceHash;
+    }
+
     public void setLevel(String level) {
         this.level = level;
     }
@@ -436,6 +460,11 @@ public class MechSummary implements Serializable {
         return equipmentQuantities;
     }
 
+    void setEquipmentLists(Vector<String> names, Vector<Integer> quantities) {
+        equipmentNames = names;
+        equipmentQuantities = quantities;
+    }
+
     public void setTotalArmor(int totalArmor) {
         this.totalArmor = totalArmor;
     }
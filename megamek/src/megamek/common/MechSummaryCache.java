@@ -15,7 +15,7 @@
  */
 package megamek.common;
 
-import megamek.common.loaders.EntityLoadingException;
+import megamek.common.annotations.Nullable;
 import megamek.common.util.fileUtils.MegaMekFile;
 import megamek.common.verifier.*;
 import org.apache.logging.log4j.LogManager;
@@ -23,6 +23,13 @@ import org.apache.logging.log4j.LogManager;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -94,10 +101,7 @@ public class MechSummaryCache {
         instance.initialized = false;
         interrupted = false;
         disposeInstance = false;
-        File unit_cache_path = new MegaMekFile(getUnitCacheDir(), FILENAME_UNITS_CACHE).getFile();
-        long lastModified = unit_cache_path.exists() ? unit_cache_path.lastModified() : 0L;
-
-        instance.loader = new Thread(() -> instance.refreshCache(lastModified, ignoreUnofficial),
+        instance.loader = new Thread(() -> instance.refreshCache(ignoreUnofficial),
                 "Mech Cache Loader");
         instance.loader.setPriority(Thread.NORM_PRIORITY - 1);
         instance.loader.start();
@@ -181,9 +185,7 @@ public class MechSummaryCache {
     }
 
     public void loadMechData(boolean ignoreUnofficial) {
-        Vector<MechSummary> vMechs = new Vector<>();
-        Set<String> sKnownFiles = new HashSet<>();
-        long lLastCheck = 0;
+        Map<String, MechSummary> cachedUnits = new HashMap<>();
         entityVerifier = EntityVerifier.getInstance(new MegaMekFile(getUnitCacheDir(),
                 EntityVerifier.CONFIG_FILENAME).getFile());
         failedFiles = new HashMap<>();
@@ -200,34 +202,16 @@ public class MechSummaryCache {
             try {
                 if (unit_cache_path.exists()) {
                     loadReport.append("  Reading from unit cache file...\n");
-                    lLastCheck = unit_cache_path.lastModified();
-                    InputStream istream = new BufferedInputStream(
-                            new FileInputStream(unit_cache_path));
-                    ObjectInputStream fin = new ObjectInputStream(istream);
-                    Integer nuunits = (Integer) fin.readObject();
-                    for (int i = 0; i < nuunits; i++) {
+                    MechSummary[] units = UnitCacheFile.read(unit_cache_path);
+                    for (MechSummary ms : units) {
                         if (interrupted) {
                             done();
-                            fin.close();
-                            istream.close();
                             return;
                         }
-                        MechSummary ms = (MechSummary) fin.readObject();
-                        // Verify that this file still exists and is older than
-                        // the cache.
-                        File fSource = ms.getSourceFile();
-                        if (fSource.exists()) {
-                            vMechs.addElement(ms);
-                            if (null == ms.getEntryName()) {
-                                sKnownFiles.add(fSource.toString());
-                            } else {
-                                sKnownFiles.add(ms.getEntryName());
-                            }
-                            cacheCount++;
-                        }
+                        // Whether the source still exists and is unchanged is checked
+                        // when looking through the unit directories
+                        cachedUnits.put(getSourceKey(ms.getSourceFile(), ms.getEntryName()), ms);
                     }
-                    fin.close();
-                    istream.close();
                 }
             } catch (Exception e) {
                 loadReport.append("  Unable to load unit cache: ")
@@ -236,7 +220,11 @@ public class MechSummaryCache {
             }
         }
 
-        checkForChanges(ignoreUnofficial, vMechs, sKnownFiles, lLastCheck);
+        Vector<MechSummary> vMechs = checkForChanges(ignoreUnofficial, cachedUnits);
+        if (vMechs == null) {
+            done();
+            return;
+        }
         updateData(vMechs);
         addLookupNames();
         logReport();
@@ -244,21 +232,35 @@ public class MechSummaryCache {
         done();
     }
 
-    private void checkForChanges(boolean ignoreUnofficial, Vector<MechSummary> vMechs,
-                                 Set<String> sKnownFiles, long lLastCheck) {
-        // load any changes since the last check time
-        boolean bNeedsUpdate = loadMechsFromDirectory(vMechs, sKnownFiles,
-                lLastCheck, Configuration.unitsDir(), ignoreUnofficial);
+    /**
+     * Looks through the unit directories and returns the units of all unit files and zip entries
+     * found, taking those that are unchanged from the given cached units and loading the others.
+     * The cache file is rewritten if anything has changed.
+     *
+     * @param cachedUnits the units of the cache file by {@link #getSourceKey(File, String)}
+     * @return the units in the order of the unit directories, or null if loading was interrupted
+     */
+    private @Nullable Vector<MechSummary> checkForChanges(boolean ignoreUnofficial,
+                                                          Map<String, MechSummary> cachedUnits) {
+        UnitLoader unitLoader = new UnitLoader(cachedUnits, ignoreUnofficial);
+        Vector<MechSummary> vMechs;
+        try {
+            unitLoader.loadMechsFromDirectory(Configuration.unitsDir());
 
-        File userDataUnits = new File(Configuration.userdataDir(), Configuration.unitsDir().toString());
-        if (userDataUnits.isDirectory()) {
-            bNeedsUpdate |= loadMechsFromDirectory(vMechs, sKnownFiles, lLastCheck, userDataUnits, ignoreUnofficial);
+            File userDataUnits = new File(Configuration.userdataDir(), Configuration.unitsDir().toString());
+            if (userDataUnits.isDirectory()) {
+                unitLoader.loadMechsFromDirectory(userDataUnits);
+            }
+            vMechs = unitLoader.collect();
+        } finally {
+            unitLoader.shutdown();
         }
 
         // save updated cache back to disk
-        if (bNeedsUpdate) {
+        if ((vMechs != null) && unitLoader.needsUpdate) {
             saveCache(vMechs);
         }
+        return vMechs;
     }
 
     private void updateData(Vector<MechSummary> vMechs) {
@@ -325,43 +327,28 @@ public class MechSummaryCache {
     private void saveCache(List<MechSummary> data) {
         loadReport.append("Saving unit cache.\n");
         File unit_cache_path = new MegaMekFile(getUnitCacheDir(), FILENAME_UNITS_CACHE).getFile();
-        try (ObjectOutputStream wr = new ObjectOutputStream(
-                new BufferedOutputStream(new FileOutputStream(unit_cache_path)))) {
-            wr.writeObject(data.size());
-            for (MechSummary element : data) {
-                wr.writeObject(element);
-            }
+        try {
+            UnitCacheFile.write(unit_cache_path, data);
         } catch (Exception e) {
             loadReport.append(" Unable to save mech cache\n");
             LogManager.getLogger().error("", e);
         }
     }
 
-    private void refreshCache(long lastCheck, boolean ignoreUnofficial) {
+    private void refreshCache(boolean ignoreUnofficial) {
         loadReport = new StringBuffer();
         loadReport.append("Refreshing unit cache:\n");
-        Vector<MechSummary> units = new Vector<>();
-        Set<String> knownFiles = new HashSet<>();
-        // Loop through current contents and make sure the file is still there.
-        // Note which files are represented so we can skip them if they haven't changed
+        Map<String, MechSummary> cachedUnits = new HashMap<>();
         for (MechSummary ms : data) {
-            if (interrupted) {
-                done();
-                return;
-            }
-            File source = ms.getSourceFile();
-            if (source.exists()) {
-                units.add(ms);
-                if (null == ms.getEntryName()) {
-                    knownFiles.add(source.toString());
-                } else {
-                    knownFiles.add(ms.getEntryName());
-                }
-            }
+            cachedUnits.put(getSourceKey(ms.getSourceFile(), ms.getEntryName()), ms);
         }
 
-        // load any changes since the last check time
-        checkForChanges(ignoreUnofficial, units, knownFiles, lastCheck);
+        // load any changes since the units were last loaded
+        Vector<MechSummary> units = checkForChanges(ignoreUnofficial, cachedUnits);
+        if (units == null) {
+            done();
+            return;
+        }
         updateData(units);
         addLookupNames();
         logReport();
@@ -504,219 +491,344 @@ public class MechSummaryCache {
     }
 
     /**
-     * Loading a complete {@link Entity} object for each summary is a bear and should be
-     * changed, but it lets me use the existing parsers
-     *
-     * @param vMechs      List to add units to as they are loaded
-     * @param sKnownFiles Files that have been processed so far and can be skipped
-     * @param lLastCheck  The timestamp of the last time the cache was updated
-     * @param fDir        The directory to load units from
-     * @return            Whether the list of units has changed, requiring rewriting the cache
+     * @return the key of the unit file, or of the entry if the file is a zip file, for matching
+     * the units of the cache file to the files found in the unit directories
      */
-    private boolean loadMechsFromDirectory(Vector<MechSummary> vMechs,
-            Set<String> sKnownFiles, long lLastCheck, File fDir,
-            boolean ignoreUnofficial) {
-        boolean bNeedsUpdate = false;
-        loadReport.append("  Looking in ").append(fDir.getPath())
-                .append("...\n");
-        int thisDirectoriesFileCount = 0;
-        String[] sa = fDir.list();
-
-        if (sa != null) {
-            for (String element : sa) {
-                if (interrupted) {
-                    done();
-                    return false;
-                }
-                File f = new MegaMekFile(fDir, element).getFile();
-                if (f.equals(new MegaMekFile(getUnitCacheDir(), FILENAME_UNITS_CACHE).getFile())) {
-                    continue;
-                }
-                if (f.isDirectory()) {
-                    if (f.getName().equalsIgnoreCase("unsupported")) {
-                        // Mechs in this directory are ignored because
-                        // they have features not implemented in MM yet.
+    private static String getSourceKey(File file, @Nullable String entryName) {
+        return (entryName == null) ? file.toString() : file + "|" + entryName;
+    }
+
+    /** A unit file or zip entry found in the unit directories. */
+    private static class UnitSource {
+        private final File file;
+        private final String entryName;
+        private final String reportName;
+
+        /** The loading of this unit, if it is not taken from the cache unchanged */
+        private Future<?> loading;
+
+        private MechSummary summary;
+        /** Whether the unit was loaded from its file rather than the cache */
+        private boolean parsed;
+        /** Whether anything about the unit needs to be written to the cache file */
+        private boolean changed;
+        private String report = "";
+        private String failure;
+
+        private UnitSource(File file, @Nullable String entryName, String reportName) {
+            this.file = file;
+            this.entryName = entryName;
+            this.reportName = reportName;
+        }
+
+        private String getName() {
+            return (entryName == null) ? file.toString() : entryName;
+        }
+
+        private void failed(Exception ex, String message) {
+            StringWriter stringWriter = new StringWriter();
+            PrintWriter printWriter = new PrintWriter(stringWriter);
+            ex.printStackTrace(printWriter);
+            report = reportName + "\n" + message + stringWriter.getBuffer() + "\n";
+            failure = ex.getMessage();
+        }
+    }
+
+    /**
+     * Looks through the unit directories and loads the units that are new or have changed on a
+     * pool of threads. A unit file is unchanged if its length and time stamp are those stored
+     * with the cached unit or, failing that, the CRC-32 of its contents is. A zip entry is
+     * unchanged if its length and the CRC-32 stored in the zip file are. The directories are
+     * listed in sorted order and the units and load report are collected in that order, so
+     * neither depends on which units had to be loaded or on the order in which they finished.
+     */
+    private class UnitLoader {
+        private final Map<String, MechSummary> cachedUnits;
+        private final boolean ignoreUnofficial;
+        private final List<UnitSource> sources = new ArrayList<>();
+        private final List<Supplier<String>> report = new ArrayList<>();
+        private final ExecutorService pool;
+        private boolean needsUpdate;
+
+        private UnitLoader(Map<String, MechSummary> cachedUnits, boolean ignoreUnofficial) {
+            this.cachedUnits = cachedUnits;
+            this.ignoreUnofficial = ignoreUnofficial;
+            AtomicInteger threadCount = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "Mech Cache Loader " + threadCount.incrementAndGet());
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        /**
+         * Loading a complete {@link Entity} object for each summary is a bear and should be
+         * changed, but it lets me use the existing parsers
+         *
+         * @param fDir The directory to load units from
+         */
+        private void loadMechsFromDirectory(File fDir) {
+            report.add(() -> "  Looking in " + fDir.getPath() + "...\n");
+            List<UnitSource> thisDirectoriesFiles = new ArrayList<>();
+            String[] sa = fDir.list();
+
+            if (sa != null) {
+                Arrays.sort(sa);
+                for (String element : sa) {
+                    if (interrupted) {
+                        return;
+                    }
+                    File f = new MegaMekFile(fDir, element).getFile();
+                    if (f.equals(new MegaMekFile(getUnitCacheDir(), FILENAME_UNITS_CACHE).getFile())) {
                         continue;
-                    } else if (f.getName().equalsIgnoreCase("unofficial") && ignoreUnofficial) {
-                        // Mechs in this directory are ignored because
-                        // they are unofficial and we don't want those right
-                        // now.
+                    }
+                    if (f.isDirectory()) {
+                        if (f.getName().equalsIgnoreCase("unsupported")) {
+                            // Mechs in this directory are ignored because
+                            // they have features not implemented in MM yet.
+                            continue;
+                        } else if (f.getName().equalsIgnoreCase("unofficial") && ignoreUnofficial) {
+                            // Mechs in this directory are ignored because
+                            // they are unofficial and we don't want those right
+                            // now.
+                            continue;
+                        } else if (f.getName().equalsIgnoreCase("_svn")
+                                || f.getName().equalsIgnoreCase(".svn")) {
+                            // This is a Subversion work directory. Lets ignore it.
+                            continue;
+                        }
+                        // recursion is fun
+                        loadMechsFromDirectory(f);
                         continue;
-                    } else if (f.getName().equalsIgnoreCase("_svn")
-                            || f.getName().equalsIgnoreCase(".svn")) {
-                        // This is a Subversion work directory. Lets ignore it.
+                    }
+                    if (f.getName().indexOf('.') == -1) {
                         continue;
                     }
-                    // recursion is fun
-                    bNeedsUpdate |= loadMechsFromDirectory(vMechs, sKnownFiles,
-                            lLastCheck, f, ignoreUnofficial);
-                    continue;
-                }
-                if (f.getName().indexOf('.') == -1) {
-                    continue;
-                }
-                if (f.getName().toLowerCase().endsWith(".gitignore")) {
-                    continue;
-                }
-                if (f.getName().toLowerCase().endsWith(".txt")) {
-                    continue;
-                }
-                if (f.getName().toLowerCase().endsWith(".log")) {
-                    continue;
-                }
-                if (f.getName().toLowerCase().endsWith(".svn-base")) {
-                    continue;
-                }
-                if (f.getName().toLowerCase().endsWith(".svn-work")) {
-                    continue;
-                }
-                if (f.getName().toLowerCase().endsWith(".ds_store")) {
-                    continue;
-                }
-                if (f.getName().toLowerCase().endsWith(".yml")) {
-                    continue;
-                }
-                if (f.getName().equals("UnitVerifierOptions.xml")) {
-                    continue;
-                }
-                if (f.getName().toLowerCase().endsWith(".zip")) {
-                    bNeedsUpdate |= loadMechsFromZipFile(vMechs, sKnownFiles,
-                            lLastCheck, f);
-                    continue;
-                }
-                if ((f.lastModified() < lLastCheck)
-                        && sKnownFiles.contains(f.toString())) {
-                    continue;
-                }
-                try {
-                    MechFileParser mfp = new MechFileParser(f);
-                    Entity e = mfp.getEntity();
-                    MechSummary ms = getSummary(e, f, null);
-                    // if this is unit's MechSummary is already known,
-                    // remove it first, so we don't get duplicates
-                    if (sKnownFiles.contains(f.toString())) {
-                        vMechs.removeElement(ms);
+                    if (f.getName().toLowerCase().endsWith(".gitignore")) {
+                        continue;
                     }
-                    vMechs.addElement(ms);
-                    sKnownFiles.add(f.toString());
-                    bNeedsUpdate = true;
-                    thisDirectoriesFileCount++;
-                    fileCount++;
-                    Iterator<String> failedEquipment = e.getFailedEquipment();
-                    if (failedEquipment.hasNext()) {
-                        loadReport.append("    Loading from ").append(f).append("\n");
-                        while (failedEquipment.hasNext()) {
-                            loadReport.append("      Failed to load equipment: ")
-                                    .append(failedEquipment.next()).append("\n");
-                        }
+                    if (f.getName().toLowerCase().endsWith(".txt")) {
+                        continue;
+                    }
+                    if (f.getName().toLowerCase().endsWith(".log")) {
+                        continue;
+                    }
+                    if (f.getName().toLowerCase().endsWith(".tmp")) {
+                        continue;
+                    }
+                    if (f.getName().toLowerCase().endsWith(".svn-base")) {
+                        continue;
+                    }
+                    if (f.getName().toLowerCase().endsWith(".svn-work")) {
+                        continue;
                     }
-                } catch (EntityLoadingException ex) {
-                    loadReport.append("    Loading from ").append(f).append("\n");
-                    loadReport.append("***   Unable to load file: ");
-                    StringWriter stringWriter = new StringWriter();
-                    PrintWriter printWriter = new PrintWriter(stringWriter);
-                    ex.printStackTrace(printWriter);
-                    loadReport.append(stringWriter.getBuffer()).append("\n");
-                    failedFiles.put(f.toString(), ex.getMessage());
+                    if (f.getName().toLowerCase().endsWith(".ds_store")) {
+                        continue;
+                    }
+                    if (f.getName().toLowerCase().endsWith(".yml")) {
+                        continue;
+                    }
+                    if (f.getName().equals("UnitVerifierOptions.xml")) {
+                        continue;
+                    }
+                    if (f.getName().toLowerCase().endsWith(".zip")) {
+                        loadMechsFromZipFile(f);
+                        continue;
+                    }
+                    UnitSource source = new UnitSource(f, null, "    Loading from " + f);
+                    MechSummary cached = cachedUnits.get(getSourceKey(f, null));
+                    long length = f.length();
+                    long modified = f.lastModified();
+                    if ((cached != null) && (cached.getSourceLength() == length)
+                            && (cached.getModified() == modified)) {
+                        source.summary = cached;
+                    } else {
+                        source.loading = pool.submit(() -> loadUnitFile(source, cached, length, modified));
+                    }
+                    addSource(source);
+                    thisDirectoriesFiles.add(source);
                 }
             }
-        }
-
-        loadReport.append("  ...loaded ").append(thisDirectoriesFileCount).append(" files.\n");
-        return bNeedsUpdate;
-    }
 
-    private boolean loadMechsFromZipFile(Vector<MechSummary> vMechs,
-            Set<String> sKnownFiles, long lLastCheck, File fZipFile) {
-        boolean bNeedsUpdate = false;
-        ZipFile zFile;
-        int thisZipFileCount = 0;
-        try {
-            zFile = new ZipFile(fZipFile);
-        } catch (Exception ex) {
-            loadReport.append("  Unable to load file ")
-                    .append(fZipFile.getName()).append(": ");
-            StringWriter stringWriter = new StringWriter();
-            PrintWriter printWriter = new PrintWriter(stringWriter);
-            ex.printStackTrace(printWriter);
-            loadReport.append(stringWriter.getBuffer()).append("\n");
-            return false;
+            report.add(() -> "  ...loaded " + thisDirectoriesFiles.stream().filter(s -> s.parsed).count()
+                    + " files.\n");
         }
-        loadReport.append("  Looking in zip file ").append(fZipFile.getPath())
-                .append("...\n");
 
-        for (Enumeration<?> i = zFile.entries(); i.hasMoreElements();) {
-            if (interrupted) {
-                done();
-                try {
-                    zFile.close();
-                    return false;
-                } catch (IOException e) {
-                    LogManager.getLogger().error("", e);
+        private void loadUnitFile(UnitSource source, @Nullable MechSummary cached, long length, long modified) {
+            try {
+                long hash;
+                try (InputStream is = new FileInputStream(source.file)) {
+                    hash = getHash(is);
                 }
-            }
-            ZipEntry zEntry = (ZipEntry) i.nextElement();
-
-            if (zEntry.isDirectory()) {
-                if (zEntry.getName().equalsIgnoreCase("unsupported")) {
-                    loadReport.append(" Do not place special 'unsupported' type folders in zip files, they must \nbe uncompressed directories to work properly. Note that you may place \nzip files inside of 'unsupported' type folders, though.\n");
+                if ((cached != null) && (cached.getSourceLength() == length) && (cached.getSourceHash() == hash)) {
+                    // only the time stamp has changed
+                    cached.setModified(modified);
+                    source.summary = cached;
+                    source.changed = true;
+                    return;
                 }
-                continue;
-            }
-            if (zEntry.getName().toLowerCase().endsWith(".txt")) {
-                continue;
-            }
-            if (zEntry.getName().toLowerCase().endsWith(".yml")) {
-                continue;
-            }
-            if ((Math.max(fZipFile.lastModified(), zEntry.getTime()) < lLastCheck)
-                    && sKnownFiles.contains(zEntry.getName())) {
-                continue;
+                Entity e = new MechFileParser(source.file).getEntity();
+                source.summary = getSummary(e, source.file, null);
+                source.summary.setSourceLength(length);
+                source.summary.setSourceHash(hash);
+                source.summary.setModified(modified);
+                source.report = getFailedEquipmentReport(e, source.reportName);
+                source.parsed = true;
+                source.changed = true;
+            } catch (Exception ex) {
+                source.failed(ex, "***   Unable to load file: ");
             }
+        }
 
-            try {
-                MechFileParser mfp = new MechFileParser(
-                        zFile.getInputStream(zEntry), zEntry.getName());
-                Entity e = mfp.getEntity();
-                MechSummary ms = getSummary(e, fZipFile, zEntry.getName());
-                vMechs.addElement(ms);
-                sKnownFiles.add(zEntry.getName());
-                bNeedsUpdate = true;
-                thisZipFileCount++;
-                zipCount++;
-                Iterator<String> failedEquipment = e.getFailedEquipment();
-                if (failedEquipment.hasNext()) {
-                    loadReport.append("    Loading from zip file")
-                            .append(" >> ").append(zEntry.getName()).append("\n");
-                    while (failedEquipment.hasNext()) {
-                        loadReport.append("      Failed to load equipment: ")
-                                .append(failedEquipment.next()).append("\n");
+        private void loadMechsFromZipFile(File fZipFile) {
+            List<UnitSource> thisZipFilesEntries = new ArrayList<>();
+            try (ZipFile zFile = new ZipFile(fZipFile)) {
+                report.add(() -> "  Looking in zip file " + fZipFile.getPath() + "...\n");
+
+                for (Enumeration<? extends ZipEntry> i = zFile.entries(); i.hasMoreElements();) {
+                    if (interrupted) {
+                        return;
+                    }
+                    ZipEntry zEntry = i.nextElement();
+
+                    if (zEntry.isDirectory()) {
+                        if (zEntry.getName().equalsIgnoreCase("unsupported")) {
+                            report.add(() -> " Do not place special 'unsupported' type folders in zip files, they must \nbe uncompressed directories to work properly. Note that you may place \nzip files inside of 'unsupported' type folders, though.\n");
+                        }
+                        continue;
                     }
+                    if (zEntry.getName().toLowerCase().endsWith(".txt")) {
+                        continue;
+                    }
+                    if (zEntry.getName().toLowerCase().endsWith(".yml")) {
+                        continue;
+                    }
+
+                    UnitSource source = new UnitSource(fZipFile, zEntry.getName(),
+                            "    Loading from zip file >> " + zEntry.getName());
+                    MechSummary cached = cachedUnits.get(getSourceKey(fZipFile, zEntry.getName()));
+                    if ((cached != null) && (zEntry.getCrc() != -1) && (cached.getSourceHash() == zEntry.getCrc())
+                            && (cached.getSourceLength() == zEntry.getSize())) {
+                        source.summary = cached;
+                    } else {
+                        try {
+                            // read on this thread so that the zip file can be closed
+                            byte[] content;
+                            try (InputStream is = zFile.getInputStream(zEntry)) {
+                                content = is.readAllBytes();
+                            }
+                            long modified = zEntry.getTime();
+                            source.loading = pool.submit(() -> loadZipEntry(source, content, modified));
+                        } catch (Exception ex) {
+                            source.failed(ex, "      Unable to load file: ");
+                        }
+                    }
+                    addSource(source);
+                    thisZipFilesEntries.add(source);
                 }
             } catch (Exception ex) {
-                loadReport.append("    Loading from zip file").append(" >> ")
-                        .append(zEntry.getName()).append("\n");
-                loadReport.append("      Unable to load file: ");
                 StringWriter stringWriter = new StringWriter();
                 PrintWriter printWriter = new PrintWriter(stringWriter);
                 ex.printStackTrace(printWriter);
-                loadReport.append(stringWriter.getBuffer()).append("\n");
-                if (!(ex.getMessage() == null)) {
-                    failedFiles.put(zEntry.getName(), ex.getMessage());
+                report.add(() -> "  Unable to load file " + fZipFile.getName() + ": "
+                        + stringWriter.getBuffer() + "\n");
+                return;
+            }
+
+            report.add(() -> "  ...loaded " + thisZipFilesEntries.stream().filter(s -> s.parsed).count()
+                    + " files.\n");
+        }
+
+        private void loadZipEntry(UnitSource source, byte[] content, long modified) {
+            try {
+                Entity e = new MechFileParser(new ByteArrayInputStream(content), source.entryName).getEntity();
+                source.summary = getSummary(e, source.file, source.entryName);
+                source.summary.setSourceLength(content.length);
+                source.summary.setSourceHash(getHash(new ByteArrayInputStream(content)));
+                source.summary.setModified(modified);
+                source.report = getFailedEquipmentReport(e, source.reportName);
+                source.parsed = true;
+                source.changed = true;
+            } catch (Exception ex) {
+                source.failed(ex, "      Unable to load file: ");
+            }
+        }
+
+        private void addSource(UnitSource source) {
+            sources.add(source);
+            report.add(() -> source.report);
+        }
+
+        /**
+         * Waits for all units to be loaded and appends the report to the load report.
+         *
+         * @return the units found, or null if loading was interrupted
+         */
+        private @Nullable Vector<MechSummary> collect() {
+            Vector<MechSummary> units = new Vector<>();
+            for (UnitSource source : sources) {
+                if (interrupted) {
+                    return null;
+                }
+                if (source.loading != null) {
+                    try {
+                        source.loading.get();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    } catch (ExecutionException ex) {
+                        source.failed(ex, "***   Unable to load file: ");
+                    }
+                }
+                if (source.summary != null) {
+                    units.add(source.summary);
+                    if (source.parsed && (source.entryName == null)) {
+                        fileCount++;
+                    } else if (source.parsed) {
+                        zipCount++;
+                    } else {
+                        cacheCount++;
+                    }
                 }
+                if (source.failure != null) {
+                    failedFiles.put(source.getName(), source.failure);
+                }
+                needsUpdate |= source.changed;
+            }
+            // units whose files have been removed
+            needsUpdate |= (units.size() != cachedUnits.size());
+            for (Supplier<String> line : report) {
+                loadReport.append(line.get());
             }
+            return units;
         }
 
-        try {
-            zFile.close();
-        } catch (Exception ex) {
-            LogManager.getLogger().error("", ex);
+        private void shutdown() {
+            pool.shutdownNow();
         }
+    }
 
-        loadReport.append("  ...loaded ").append(thisZipFileCount)
-                .append(" files.\n");
+    private static String getFailedEquipmentReport(Entity e, String reportName) {
+        Iterator<String> failedEquipment = e.getFailedEquipment();
+        if (!failedEquipment.hasNext()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(reportName).append("\n");
+        while (failedEquipment.hasNext()) {
+            sb.append("      Failed to load equipment: ").append(failedEquipment.next()).append("\n");
+        }
+        return sb.toString();
+    }
 
-        return bNeedsUpdate;
+    private static long getHash(InputStream is) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            crc.update(buffer, 0, read);
+        }
+        return crc.getValue();
     }
 
     private void addLookupNames() {
@@ -216,6 +216,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
         }
 
         quirks.initialize();
+        quirks.setChangeListener(this::quirksChanged);
     }
 
     /**
@@ -252,6 +253,18 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
         if (type == null) {
             LogManager.getLogger().error("Could not restore equipment type \"" + typeName + "\"");
         }
+        quirks.setChangeListener(this::quirksChanged);
+        statusChanged();
+    }
+
+    /**
+     * Notifies the entity of a change to the status, type or mode of this equipment that affects
+     * {@link #isReady()} or the ECM of the entity.
+     */
+    private void statusChanged() {
+        if (entity != null) {
+            entity.equipmentStatusChanged();
+        }
     }
 
     public EquipmentType getType() {
@@ -350,7 +363,10 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
              */
 
             if (canInstantSwitch(newMode)) {
-                mode = newMode;
+                if (mode != newMode) {
+                    mode = newMode;
+                    statusChanged();
+                }
                 pendingMode = -1;
             } else if (pendingMode != newMode) {
                 if (mode == newMode) {
@@ -374,6 +390,53 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
         return true;
     }
 
+    /**
+     * @return the number of the current mode of the equipment
+     */
+    public int getModeNumber() {
+        return mode;
+    }
+
+    /**
+     * @return the number of the mode the equipment switches to at the end of the turn, or
+     *         <code>-1</code> if there is none
+     */
+    public int getPendingModeNumber() {
+        return pendingMode;
+    }
+
+    /**
+     * Puts the equipment in the named mode at once, so that an estimate can see what it does in
+     * that mode. Unlike {@link #setMode(String)} this ignores the rules for switching modes and
+     * does not notify the entity, whose equipment status is unchanged once the estimate puts the
+     * mode back with {@link #restoreMode(int, int)}. The estimate must hold the lock of this
+     * equipment meanwhile.
+     *
+     * @param newMode the name of the mode
+     * @return <code>true</code> if the equipment has the mode
+     */
+    public boolean setEstimatedMode(String newMode) {
+        for (int x = 0, e = type.getModesCount(); x < e; x++) {
+            if (type.getMode(x).equals(newMode)) {
+                mode = x;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts back the mode and pending mode from before {@link #setEstimatedMode(String)}, without
+     * notifying the entity.
+     *
+     * @param mode        the number of the mode, as from {@link #getModeNumber()}
+     * @param pendingMode the number of the pending mode, as from {@link #getPendingModeNumber()}
+     */
+    public void restoreMode(int mode, int pendingMode) {
+        this.mode = mode;
+        this.pendingMode = pendingMode;
+    }
+
     /**
      * Can the switch from the current mode to the new mode happen instantly?
      *
@@ -394,7 +457,10 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
         setUsedThisRound(false);
 
         if ((type != null) && (type.hasModes() && (pendingMode != -1))) {
-            mode = pendingMode;
+            if (mode != pendingMode) {
+                mode = pendingMode;
+                statusChanged();
+            }
             pendingMode = -1;
         }
         called.reset();
@@ -402,7 +468,10 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
 
     @Override
     public void newPhase(GamePhase phase) {
-        jammed = jammedThisPhase;
+        if (jammed != jammedThisPhase) {
+            jammed = jammedThisPhase;
+            statusChanged();
+        }
     }
 
     /**
@@ -595,7 +664,10 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
     }
 
     public void setUsedThisRound(boolean usedThisRound) {
-        this.usedThisRound = usedThisRound;
+        if (this.usedThisRound != usedThisRound) {
+            this.usedThisRound = usedThisRound;
+            statusChanged();
+        }
         if (usedThisRound) {
             phase = entity.game.getPhase();
         } else {
@@ -616,6 +688,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
 
     public void setBreached(boolean breached) {
         useless = breached;
+        statusChanged();
     }
 
     public boolean isDestroyed() {
@@ -632,6 +705,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
      */
     public void setDestroyed(boolean destroyed) {
         this.destroyed = destroyed;
+        statusChanged();
         if ((destroyed == true)
                 && getType().hasFlag(MiscType.F_RADICAL_HEATSINK)) {
             if (entity != null) {
@@ -672,6 +746,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
 
     public void setMissing(boolean missing) {
         this.missing = missing;
+        statusChanged();
     }
 
     public boolean isJammed() {
@@ -692,6 +767,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
     public void resetJam() {
         jammed = false;
         jammedThisPhase = false;
+        statusChanged();
     }
 
     /**
@@ -1112,6 +1188,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
             return;
         }
         linkedBy = linker;
+        statusChanged();
     }
 
     // called by setCrossLinked() when using cross-linked capacitors.
@@ -1285,6 +1362,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
 
     public void setFired(boolean val) {
         fired = val;
+        statusChanged();
     }
 
     public boolean isTSEMPDowntime() { // is this the "downtime" turn for TSEMP?
@@ -1656,6 +1734,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
 
     public void setDWPMounted(boolean dwpMounted) {
         isDWPMounted = dwpMounted;
+        statusChanged();
     }
 
     public boolean isAPMMounted() {
@@ -1723,6 +1802,14 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
 
     public void setQuirks(WeaponQuirks quirks) {
         this.quirks = quirks;
+        quirks.setChangeListener(this::quirksChanged);
+        quirksChanged();
+    }
+
+    private void quirksChanged() {
+        if (entity != null) {
+            entity.markModified();
+        }
     }
 
     /**
@@ -98,13 +98,14 @@ public class MovePath implements Cloneable, Serializable {
         }
     }
 
-    private Vector<MoveStep> steps = new Vector<>();
+    /** The steps, shared with the clones of this path until either adds or removes steps */
+    private MoveStepChain steps = MoveStepChain.EMPTY;
 
     private transient Game game;
     private transient Entity entity;
 
     // holds the types of steps present in this movement
-    private Set<MoveStepType> containedStepTypes = new HashSet<>();
+    private EnumSet<MoveStepType> containedStepTypes = EnumSet.noneOf(MoveStepType.class);
 
     // whether this movePath take us directly over an enemy unit
     // useful for debugging aircraft on ground maps
@@ -123,6 +124,22 @@ public class MovePath implements Cloneable, Serializable {
         this.setGame(game);
     }
 
+    /**
+     * Creates a path of steps that have not been compiled, such as steps received over the network.
+     * The path has neither game nor entity and must be compiled with
+     * {@link #compile(Game, Entity, boolean)} before it is used.
+     *
+     * @param steps   the uncompiled steps
+     * @param careful whether the path uses careful movement
+     * @return the path
+     */
+    public static MovePath ofUncompiledSteps(final List<MoveStep> steps, final boolean careful) {
+        final MovePath path = new MovePath(null, null);
+        path.steps = MoveStepChain.of(steps);
+        path.careful = careful;
+        return path;
+    }
+
     public Entity getEntity() {
         return entity;
     }
@@ -145,8 +162,8 @@ public class MovePath implements Cloneable, Serializable {
         sb.append("Final Coords: " + this.getFinalCoords());
         sb.append(System.lineSeparator());
 
-        for (final Enumeration<MoveStep> i = steps.elements(); i.hasMoreElements(); ) {
-            sb.append(i.nextElement().toString());
+        for (MoveStep step : steps) {
+            sb.append(step.toString());
             sb.append(' ');
         }
 
@@ -161,7 +178,7 @@ public class MovePath implements Cloneable, Serializable {
      * Returns the number of steps in this movement
      */
     public int length() {
-        return steps.size();
+        return steps.length();
     }
 
     /**
@@ -273,7 +290,7 @@ public class MovePath implements Cloneable, Serializable {
             }
 
             coordsSet = new HashSet<>();
-            for (MoveStep step : getStepVector()) {
+            for (MoveStep step : steps) {
                 if (step.getPosition() == null) {
                     continue;
                 }
@@ -294,9 +311,9 @@ public class MovePath implements Cloneable, Serializable {
             return this;
         }
 
-        steps.addElement(step);
+        steps = steps.append(step);
 
-        final MoveStep prev = getStep(steps.size() - 2);
+        final MoveStep prev = getStep(steps.length() - 2);
 
         if (compile) {
             try {
@@ -331,7 +348,7 @@ public class MovePath implements Cloneable, Serializable {
         if (step.isLegal(this) && (null != prev) && !land.equals(prev.getPosition())) {
             // Loop through the steps from back to front.
             // Stop looping when the step says to, or we run out of steps.
-            int index = steps.size() - 2;
+            int index = steps.length() - 2;
             while ((index >= 0) && getStep(index).setEndPos(false)) {
                 index--;
             }
@@ -360,8 +377,8 @@ public class MovePath implements Cloneable, Serializable {
 
         // If running on pavement we don't know to mark the danger steps if we turn before expending
         // enough MP to require running movement.
-        if (steps.size() > 1) {
-            MoveStep lastStep = steps.get(steps.size() - 1);
+        if (steps.length() > 1) {
+            MoveStep lastStep = steps.get(steps.length() - 1);
             MoveStep prevStep = steps.get(0);
             for (MoveStep s : steps) {
                 if (s.getMovementType(false) == EntityMovementType.MOVE_ILLEGAL) {
@@ -444,8 +461,8 @@ public class MovePath implements Cloneable, Serializable {
         // Ensure we only lay one mine
         if ((step.getType() == MoveStepType.LAY_MINE)) {
             boolean containsOtherLayMineStep = false;
-            for (int i = 0; i < steps.size() - 1; i++) {
-                if (steps.get(i).getType() == MoveStepType.LAY_MINE) {
+            for (MoveStep previous : steps.getParent()) {
+                if (previous.getType() == MoveStepType.LAY_MINE) {
                     containsOtherLayMineStep = true;
                     break;
                 }
@@ -460,8 +477,8 @@ public class MovePath implements Cloneable, Serializable {
         // Ensure we only bomb one hex
         if (step.isVTOLBombingStep()) {
             boolean containsOtherBombStep = false;
-            for (int i = 0; i < steps.size() - 1; i++) {
-                if (steps.get(i).isVTOLBombingStep()) {
+            for (MoveStep previous : steps.getParent()) {
+                if (previous.isVTOLBombingStep()) {
                     containsOtherBombStep = true;
                 }
             }
@@ -473,23 +490,23 @@ public class MovePath implements Cloneable, Serializable {
 
         // Make sure we are not turning or changing elevation while strafing, and that we are not
         // starting a second group of hexes during the same round
-        if (step.isStrafingStep() && steps.size() > 1) {
-            MoveStep last = steps.get(steps.size() - 2);
+        if (step.isStrafingStep() && steps.length() > 1) {
+            MoveStep last = steps.get(steps.length() - 2);
             // If the previous step is a strafing step, make sure we have the same facing and elevation
             // and we are not exceeding the maximum five hexes.
             if (last.isStrafingStep()) {
                 if (step.getFacing() != last.getFacing()
                         || (step.getElevation() + getGame().getBoard().getHex(step.getPosition()).floor()
                             != last.getElevation() + getGame().getBoard().getHex(last.getPosition()).floor())
-                        || steps.stream().filter(MoveStep::isStrafingStep).count() > 5) {
+                        || steps.asList().stream().filter(MoveStep::isStrafingStep).count() > 5) {
                     step.setMovementType(EntityMovementType.MOVE_ILLEGAL);
                     return;
                 }
             } else {
                 // If the previous step is not a strafing step, make sure that the new step is the only strafing
                 // step we have in the path.
-                for (int i = 0; i < steps.size() - 2; i++) {
-                    if (steps.get(i).isStrafingStep()) {
+                for (MoveStep previous : steps.truncate(steps.length() - 2)) {
+                    if (previous.isStrafingStep()) {
                         step.setMovementType(EntityMovementType.MOVE_ILLEGAL);
                         return;
                     }
@@ -549,11 +566,11 @@ public class MovePath implements Cloneable, Serializable {
     public void compile(final Game g, final Entity en, boolean clip) {
         setGame(g);
         setEntity(en);
-        final Vector<MoveStep> temp = new Vector<>(steps);
-        steps.removeAllElements();
+        final List<MoveStep> temp = steps.asList();
+        steps = MoveStepChain.EMPTY;
         containedStepTypes.clear();
         for (int i = 0; i < temp.size(); i++) {
-            MoveStep step = temp.elementAt(i);
+            MoveStep step = temp.get(i);
             if ((step.getTargetPosition() != null) && (step.getTarget(getGame()) != null)) {
                 step = new MoveStep(this, step.getType(), step.getTarget(getGame()), step.getTargetPosition());
             } else if (step.getTarget(getGame()) != null) {
@@ -637,13 +654,13 @@ public class MovePath implements Cloneable, Serializable {
 
     public void removeLastStep() {
         if (!steps.isEmpty()) {
-            final MoveStep step1 = getStep(steps.size() - 1);
+            final MoveStep step1 = getStep(steps.length() - 1);
 
             if (step1.getType() == MoveStepType.START_JUMP) {
                 getEntity().setIsJumpingNow(false);
             }
 
-            steps.removeElementAt(steps.size() - 1);
+            steps = steps.getParent();
 
             if (getEntity().isConvertingNow() && !this.contains(MoveStepType.CONVERT_MODE)) {
                 getEntity().setConvertingNow(false);
@@ -657,27 +674,24 @@ public class MovePath implements Cloneable, Serializable {
             // Treat multiple convert steps as a single command
             if (step1.getType() == MoveStepType.CONVERT_MODE) {
                 while (!steps.isEmpty()
-                    && steps.get(steps.size() - 1).getType() == MoveStepType.CONVERT_MODE) {
-                steps.removeElementAt(steps.size() - 1);
+                    && steps.getLast().getType() == MoveStepType.CONVERT_MODE) {
+                steps = steps.getParent();
             }
             }
 
             // if this step is part of a manuever, undo the whole manuever, all the way to the beginning.
             if (step1.isManeuver()) {
-                int stepIndex = steps.size() - 1;
-
-                while (!steps.isEmpty() && steps.get(stepIndex).isManeuver()) {
-                    steps.removeElementAt(stepIndex);
-                    stepIndex--;
+                while (!steps.isEmpty() && steps.getLast().isManeuver()) {
+                    steps = steps.getParent();
                 }
 
                 // a maneuver begins with a "maneuver" step, so get rid of that as well
-                steps.removeElementAt(stepIndex);
+                steps = steps.getParent();
             }
         }
 
         // Find the new last step in the path.
-        int index = steps.size() - 1;
+        int index = steps.length() - 1;
         while ((index >= 0) && getStep(index).setEndPos(true)
                 && !getStep(index).isLegal(this)) {
             index--;
@@ -688,7 +702,7 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public void clear() {
-        steps.removeAllElements();
+        steps = MoveStepChain.EMPTY;
     }
 
     public boolean isValidPositionForBrace(MoveStep step) {
@@ -732,14 +746,11 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public Enumeration<MoveStep> getSteps() {
-        return steps.elements();
+        return Collections.enumeration(steps.asList());
     }
 
     public MoveStep getStep(final int index) {
-        if ((index < 0) || (index >= steps.size())) {
-            return null;
-        }
-        return steps.elementAt(index);
+        return steps.get(index);
     }
 
     /**
@@ -986,23 +997,45 @@ public class MovePath implements Cloneable, Serializable {
         return getLastStep().getMovementType(true);
     }
 
+    /**
+     * @return a new vector of the steps of this path; changing it does not change the path
+     */
     public Vector<MoveStep> getStepVector() {
+        return steps.toVector();
+    }
+
+    /**
+     * @return an unmodifiable list of the steps of this path, without copying them
+     */
+    public List<MoveStep> getStepList() {
+        return steps.asList();
+    }
+
+    /**
+     * @return the steps of this path as an immutable chain that can be shared
+     */
+    public MoveStepChain getStepChain() {
         return steps;
     }
 
+    /**
+     * Replaces the steps of this path with the given chain without compiling them. The steps must
+     * have been compiled for the entity of this path.
+     *
+     * @param chain the steps
+     */
+    public void setStepChain(final MoveStepChain chain) {
+        steps = chain;
+        regenerateStepTypes();
+    }
+
     public @Nullable MoveStep getLastStep() {
-        for (int i = getStepVector().size() - 1; i >= 0; i--) {
-            MoveStep last = getStepVector().get(i);
-            if (last != null) {
-                return last;
-            }
-        }
-        return null;
+        return steps.getLast();
     }
 
     public @Nullable MoveStep getSecondLastStep() {
-        if (steps.size() > 1) {
-            return getStep(steps.size() - 2);
+        if (steps.length() > 1) {
+            return getStep(steps.length() - 2);
         }
         return getLastStep();
     }
@@ -1010,9 +1043,10 @@ public class MovePath implements Cloneable, Serializable {
     /* Debug method */
     public void printAllSteps() {
         LogManager.getLogger().debug("*Steps*");
-        for (int i = 0; i < steps.size(); i++) {
-            LogManager.getLogger().debug("  " + i + ": " + getStep(i) + ", "
-                    + getStep(i).getMovementType(i == (steps.size() - 1)));
+        final List<MoveStep> stepList = steps.asList();
+        for (int i = 0; i < stepList.size(); i++) {
+            LogManager.getLogger().debug("  " + i + ": " + stepList.get(i) + ", "
+                    + stepList.get(i).getMovementType(i == (stepList.size() - 1)));
         }
     }
 
@@ -1026,18 +1060,18 @@ public class MovePath implements Cloneable, Serializable {
         }
         // Do final check for bad moves, and clip movement after first bad one
         // also clear and re-constitute "contained steps" cache
-        containedStepTypes = new HashSet<>();
-        final Vector<MoveStep> goodSteps = new Vector<>();
+        containedStepTypes = EnumSet.noneOf(MoveStepType.class);
+        int goodSteps = 0;
         for (MoveStep step : steps) {
             if (step.getMovementType(isEndStep(step)) != EntityMovementType.MOVE_ILLEGAL) {
                 containedStepTypes.add(step.getType());
-                goodSteps.addElement(step);
+                goodSteps++;
             } else {
                 break;
             }
 
         }
-        steps = goodSteps;
+        steps = steps.truncate(goodSteps);
     }
 
     /**
@@ -1048,10 +1082,10 @@ public class MovePath implements Cloneable, Serializable {
      */
     @SuppressWarnings("unused")
     private void transformLateralShift() {
-        if (steps.size() < 3) {
+        if (steps.length() < 3) {
             return;
         }
-        final int index = steps.size() - 3;
+        final int index = steps.length() - 3;
         final MoveStep step1 = getStep(index);
         final MoveStep step2 = getStep(index + 1);
         final MoveStep step3 = getStep(index + 2);
@@ -1061,9 +1095,7 @@ public class MovePath implements Cloneable, Serializable {
             final MoveStepType stepType = step1.getType();
             final MoveStepType direction = step2.getType();
             // remove all old steps
-            steps.removeElementAt(index);
-            steps.removeElementAt(index);
-            steps.removeElementAt(index);
+            steps = steps.truncate(index);
             // add new step
             final MoveStep shift = new MoveStep(this, lateralShiftForTurn(stepType, direction));
             addStep(shift);
@@ -1542,9 +1574,9 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     protected void copyFields(MovePath copy) {
-        copy.steps = new Vector<>(steps);
+        copy.steps = steps; // the chain is immutable and shared until either path changes
         copy.careful = careful;
-        copy.containedStepTypes = new HashSet<>(containedStepTypes);
+        copy.containedStepTypes = containedStepTypes.clone();
         // copy.fliesOverEnemy = fliesOverEnemy;
         copy.cachedEntityState = cachedEntityState; // intentional pointer copy
     }
@@ -1651,7 +1683,7 @@ public class MovePath implements Cloneable, Serializable {
                         && moved == 4)) {
             return false;
         }
-        if (getEntity().wigeLiftoffHover() || steps.stream().map(MoveStep::getType)
+        if (getEntity().wigeLiftoffHover() || steps.asList().stream().map(MoveStep::getType)
                 .anyMatch(st -> st == MoveStepType.UP
                         || st == MoveStepType.HOVER)) {
             return false;
@@ -1754,7 +1786,7 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public void replaceSteps(Vector<MoveStep> path) {
-        steps.clear();
+        steps = MoveStepChain.EMPTY;
         addSteps(path, true);
     }
 
@@ -1814,9 +1846,10 @@ public class MovePath implements Cloneable, Serializable {
      */
     public boolean setStrafingStep(Coords pos) {
         MoveStep found = null;
-        for (int i = steps.size() - 1; i >= 0; i--) {
-            if (steps.get(i).getPosition().equals(pos)) {
-                found = steps.get(i);
+        final List<MoveStep> stepList = steps.asList();
+        for (int i = stepList.size() - 1; i >= 0; i--) {
+            if (stepList.get(i).getPosition().equals(pos)) {
+                found = stepList.get(i);
             } else if (found != null) {
                 found.setStrafing(true);
                 return true;
@@ -19,6 +19,7 @@
 package megamek.common;
 
 import megamek.common.MovePath.MoveStepType;
+import megamek.common.annotations.Nullable;
 import megamek.common.options.OptionsConstants;
 import megamek.common.pathfinder.CachedEntityState;
 import org.apache.logging.log4j.LogManager;
@@ -26,6 +27,7 @@ import org.apache.logging.log4j.LogManager;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.TreeMap;
 import java.util.Vector;
 
@@ -310,6 +312,29 @@ public class MoveStep implements Serializable {
         this.mf = mf;
     }
 
+    /**
+     * Create a step that is not part of a path yet, with all the data that
+     * {@link MovePath#compile(Game, Entity, boolean)} creates the compiled step from. This is used
+     * for steps received over the network.
+     */
+    public MoveStep(MoveStepType type, int targetId, int targetType, @Nullable Coords targetPos,
+                    int recoveryUnit, int mineToLay, int braceLocation,
+                    @Nullable TreeMap<Integer, Vector<Integer>> launched, int maneuverType,
+                    boolean noCost, boolean maneuver, @Nullable Minefield mf) {
+        this(null, type);
+        this.targetId = targetId;
+        this.targetType = targetType;
+        this.targetPos = targetPos;
+        this.recoveryUnit = recoveryUnit;
+        this.mineToLay = mineToLay;
+        this.braceLocation = braceLocation;
+        this.launched = launched;
+        this.maneuverType = maneuverType;
+        this.noCost = noCost;
+        this.maneuver = maneuver;
+        this.mf = mf;
+    }
+
     @Override
     public String toString() {
         switch (type) {
@@ -459,6 +484,17 @@ public class MoveStep implements Serializable {
         return game.getTarget(targetType, targetId);
     }
 
+    /**
+     * @return the id of the target of this step, or {@link Entity#NONE} if it has none
+     */
+    public int getTargetId() {
+        return targetId;
+    }
+
+    public int getTargetType() {
+        return targetType;
+    }
+
     public Coords getTargetPosition() {
         return targetPos;
     }
@@ -1585,7 +1621,7 @@ public class MoveStep implements Serializable {
         }
         
         // A step is an end position if it is the last legal step.
-        Vector<MoveStep> steps = path.getStepVector();
+        List<MoveStep> steps = path.getStepList();
         // Starting from the end, each step is considered the last step until
         // we find a legal last step
         boolean lastStep = true;
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import megamek.common.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An immutable sequence of move steps that links each step to the sequence before it. Appending a
+ * step creates a new chain in constant time that shares all previous steps with this one, so the
+ * many paths that a pathfinder derives from a common prefix do not copy it. This is the step
+ * storage of {@link MovePath}; cloning a MovePath only copies the reference to its chain.
+ * <p>
+ * Steps near the end of the chain are looked up by walking back from the last step, which is what
+ * extending a path needs. Iteration and indexed access further back build an array of the steps
+ * for the call; the array is not kept, as most chains of a search are only ever extended.
+ */
+public final class MoveStepChain implements Iterable<MoveStep>, Serializable {
+    private static final long serialVersionUID = 3195829180614471922L;
+
+    /** The chain without any steps */
+    public static final MoveStepChain EMPTY = new MoveStepChain(null, null);
+
+    private static final MoveStep[] NO_STEPS = new MoveStep[0];
+
+    /** Steps up to this many positions before the last one are found by walking back the chain */
+    private static final int TAIL_WALK_LIMIT = 8;
+
+    private final MoveStepChain parent;
+    private final MoveStep step;
+    private final int length;
+
+    private MoveStepChain(final @Nullable MoveStepChain parent, final @Nullable MoveStep step) {
+        this.parent = parent;
+        this.step = step;
+        length = (parent == null) ? 0 : parent.length + 1;
+    }
+
+    /**
+     * Creates a chain of the given steps in their iteration order.
+     *
+     * @param steps the steps
+     * @return the chain
+     */
+    public static MoveStepChain of(final Iterable<MoveStep> steps) {
+        MoveStepChain chain = EMPTY;
+        for (MoveStep step : steps) {
+            chain = chain.append(step);
+        }
+        return chain;
+    }
+
+    /**
+     * @param step the step to append, not null
+     * @return a new chain of the steps of this chain followed by the given step
+     */
+    public MoveStepChain append(final MoveStep step) {
+        return new MoveStepChain(this, Objects.requireNonNull(step));
+    }
+
+    /**
+     * @return the chain without the last step, or this chain if it is empty
+     */
+    public MoveStepChain getParent() {
+        return isEmpty() ? this : parent;
+    }
+
+    /**
+     * @param newLength the number of steps to keep
+     * @return the chain of the first newLength steps of this chain
+     */
+    public MoveStepChain truncate(final int newLength) {
+        MoveStepChain chain = this;
+        while (chain.length > Math.max(newLength, 0)) {
+            chain = chain.parent;
+        }
+        return chain;
+    }
+
+    /**
+     * @return a chain of the steps of this chain without the one at the given index
+     */
+    public MoveStepChain remove(final int index) {
+        if ((index < 0) || (index >= length)) {
+            return this;
+        }
+        MoveStepChain chain = truncate(index);
+        final MoveStep[] steps = toArray();
+        for (int i = index + 1; i < length; i++) {
+            chain = chain.append(steps[i]);
+        }
+        return chain;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * @return the last step, or null if the chain is empty
+     */
+    public @Nullable MoveStep getLast() {
+        return step;
+    }
+
+    /**
+     * @return the step at the given index, or null if the index is out of range
+     */
+    public @Nullable MoveStep get(final int index) {
+        if ((index < 0) || (index >= length)) {
+            return null;
+        } else if (length - 1 - index <= TAIL_WALK_LIMIT) {
+            MoveStepChain chain = this;
+            while (chain.length > index + 1) {
+                chain = chain.parent;
+            }
+            return chain.step;
+        }
+        return toArray()[index];
+    }
+
+    /**
+     * @return an unmodifiable list view of the steps
+     */
+    public List<MoveStep> asList() {
+        return Collections.unmodifiableList(Arrays.asList(toArray()));
+    }
+
+    /**
+     * @return a new vector of the steps
+     */
+    public Vector<MoveStep> toVector() {
+        return new Vector<>(Arrays.asList(toArray()));
+    }
+
+    @Override
+    public Iterator<MoveStep> iterator() {
+        final MoveStep[] steps = toArray();
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < steps.length;
+            }
+
+            @Override
+            public MoveStep next() {
+                if (next >= steps.length) {
+                    throw new NoSuchElementException();
+                }
+                return steps[next++];
+            }
+        };
+    }
+
+    private MoveStep[] toArray() {
+        if (isEmpty()) {
+            return NO_STEPS;
+        }
+        final MoveStep[] result = new MoveStep[length];
+        MoveStepChain chain = this;
+        for (int i = length - 1; i >= 0; i--) {
+            result[i] = chain.step;
+            chain = chain.parent;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return asList().toString();
+    }
+}
@@ -403,6 +403,44 @@ public class Report implements Serializable {
         return tagData.size();
     }
 
+    /**
+     * Internal method. Not for typical use.
+     * <p>
+     * Get the data value at the given index as it was added, without
+     * translation.
+     *
+     * @param index position of data value (indexes are chronological and start
+     *            at zero)
+     * @return the data value, or null if it has been hidden
+     */
+    public String getData(int index) {
+        return tagData.elementAt(index);
+    }
+
+    public String getTagTranslate() {
+        return tagTranslate;
+    }
+
+    public void setTagTranslate(String tagTranslate) {
+        this.tagTranslate = tagTranslate;
+    }
+
+    public int getIndentation() {
+        return indentation;
+    }
+
+    public void setIndentation(int indentation) {
+        this.indentation = indentation;
+    }
+
+    public String getImageCode() {
+        return imageCode;
+    }
+
+    public void setImageCode(String imageCode) {
+        this.imageCode = imageCode;
+    }
+
     private String getTag() {
         return getTag(tagCounter);
     }
@@ -564,6 +602,18 @@ public class Report implements Serializable {
         obscuredRecipients.addElement(playerName);
     }
 
+    /**
+     * Internal method. Not for typical use.
+     * <p>
+     * Get the names of the players who received an obscured version of this
+     * report.
+     *
+     * @return the player names
+     */
+    public Vector<String> getObscuredRecipients() {
+        return obscuredRecipients;
+    }
+
     /**
      * Internal method. Not for typical use.
      * <p>
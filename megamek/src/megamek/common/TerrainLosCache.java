@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import megamek.common.options.OptionsConstants;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the results of {@link LosEffects#calculateLos(Game, LosEffects.AttackInfo)} for the
+ * positions and heights of the attacker and target, for callers such as the bot that compute the
+ * LOS between the same hypothetical positions many times. Without grounded DropShips, that result
+ * depends only on the hexes between the two positions, the LOS options of the game and the kinds
+ * of units involved, which are all part of the key. The effects that depend on the units
+ * themselves, such as the position of the target and an oversized target, are applied to a copy
+ * of the cached result by {@link LosEffects#calculateLOS(Game, Entity, Targetable, Coords, Coords,
+ * boolean, TerrainLosCache)}.
+ * <p>
+ * The cache is emptied whenever the board changes, including changed hexes, smoke and collapsed
+ * buildings, as tracked by {@link Board#getChangeCount()}. While a grounded DropShip is in the game
+ * the LOS is not cached, as DropShips block it like buildings; whether there is one is checked
+ * again when {@link Game#getEntityChangeCount()} changes. The cache may be used by several
+ * threads at once.
+ */
+public final class TerrainLosCache {
+    /** The cache is emptied when it grows beyond this many lines */
+    private static final int MAX_ENTRIES = 200_000;
+
+    private static final int ATT_UNDER_WATER = 1;
+    private static final int ATT_IN_WATER = 1 << 1;
+    private static final int ATT_ON_LAND = 1 << 2;
+    private static final int TARGET_UNDER_WATER = 1 << 3;
+    private static final int TARGET_IN_WATER = 1 << 4;
+    private static final int TARGET_ON_LAND = 1 << 5;
+    private static final int UNDER_WATER_COMBAT = 1 << 6;
+    private static final int TARGET_ENTITY = 1 << 7;
+    private static final int TARGET_INFANTRY = 1 << 8;
+    private static final int TARGET_IS_MECH = 1 << 9;
+    private static final int ATTACKER_IS_MECH = 1 << 10;
+    private static final int DIAGRAM_LOS = 1 << 11;
+    private static final int PARTIAL_COVER = 1 << 12;
+    private static final int DEAD_ZONES = 1 << 13;
+
+    /** The lines cached for one state of one board */
+    private static final class BoardLines {
+        private final Board board;
+        private final int changeCount;
+        private final Map<Key, Line> lines = new ConcurrentHashMap<>();
+        private volatile DropShips dropShips;
+
+        private BoardLines(Board board, int changeCount) {
+            this.board = board;
+            this.changeCount = changeCount;
+        }
+    }
+
+    /** Whether a game had a grounded DropShip when its entities last changed */
+    private static final class DropShips {
+        private final Game game;
+        private final int entityChangeCount;
+        private final boolean grounded;
+
+        private DropShips(Game game) {
+            this.game = game;
+            entityChangeCount = game.getEntityChangeCount();
+            grounded = hasGroundedDropShip(game);
+        }
+    }
+
+    /** The positions, heights and kinds of units of a line */
+    private static final class Key {
+        private final Coords attackPos;
+        private final Coords targetPos;
+        private final int attackHeight;
+        private final int targetHeight;
+        private final int attackAbsHeight;
+        private final int targetAbsHeight;
+        private final int minimumWaterDepth;
+        private final int flags;
+
+        private Key(LosEffects.AttackInfo ai, int flags) {
+            attackPos = ai.attackPos;
+            targetPos = ai.targetPos;
+            attackHeight = ai.attackHeight;
+            targetHeight = ai.targetHeight;
+            attackAbsHeight = ai.attackAbsHeight;
+            targetAbsHeight = ai.targetAbsHeight;
+            minimumWaterDepth = ai.minimumWaterDepth;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return (attackHeight == other.attackHeight) && (targetHeight == other.targetHeight)
+                    && (attackAbsHeight == other.attackAbsHeight) && (targetAbsHeight == other.targetAbsHeight)
+                    && (minimumWaterDepth == other.minimumWaterDepth) && (flags == other.flags)
+                    && attackPos.equals(other.attackPos) && targetPos.equals(other.targetPos);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(attackPos, targetPos, attackHeight, targetHeight, attackAbsHeight,
+                    targetAbsHeight, minimumWaterDepth, flags);
+        }
+    }
+
+    /** The result of a line and the minimum water depth along it */
+    private static final class Line {
+        private final LosEffects effects;
+        private final int minimumWaterDepth;
+
+        private Line(LosEffects effects, int minimumWaterDepth) {
+            this.effects = effects;
+            this.minimumWaterDepth = minimumWaterDepth;
+        }
+    }
+
+    private volatile BoardLines boardLines;
+
+    /**
+     * Returns the result of {@link LosEffects#calculateLos(Game, LosEffects.AttackInfo)}, computing
+     * it only if the same line has not been computed since the board last changed. Like that
+     * method, this updates the minimum water depth of the given attack info.
+     *
+     * @return a new LosEffects that the caller may change
+     */
+    public LosEffects calculateLos(Game game, LosEffects.AttackInfo ai) {
+        if (ai.attOffBoard || (ai.attackPos == null) || (ai.targetPos == null)) {
+            return LosEffects.calculateLos(game, ai);
+        }
+        final BoardLines current = getBoardLines(game.getBoard());
+        if (hasGroundedDropShip(current, game)) {
+            return LosEffects.calculateLos(game, ai);
+        }
+        final Key key = new Key(ai, flags(game, ai));
+        Line line = current.lines.get(key);
+        if (line == null) {
+            final LosEffects effects = LosEffects.calculateLos(game, ai);
+            line = new Line(effects.copy(), ai.minimumWaterDepth);
+            if (current.lines.size() >= MAX_ENTRIES) {
+                current.lines.clear();
+            }
+            current.lines.put(key, line);
+            return effects;
+        }
+        ai.minimumWaterDepth = line.minimumWaterDepth;
+        return line.effects.copy();
+    }
+
+    /**
+     * Forgets all cached lines.
+     */
+    public void clear() {
+        boardLines = null;
+    }
+
+    /**
+     * @return the number of lines cached for the current state of the board
+     */
+    public int size() {
+        final BoardLines current = boardLines;
+        if ((current == null) || (current.board.getChangeCount() != current.changeCount)) {
+            return 0;
+        }
+        return current.lines.size();
+    }
+
+    private BoardLines getBoardLines(Board board) {
+        final int changeCount = board.getChangeCount();
+        BoardLines current = boardLines;
+        if ((current == null) || (current.board != board) || (current.changeCount != changeCount)) {
+            current = new BoardLines(board, changeCount);
+            boardLines = current;
+        }
+        return current;
+    }
+
+    private static boolean hasGroundedDropShip(BoardLines current, Game game) {
+        DropShips dropShips = current.dropShips;
+        if ((dropShips == null) || (dropShips.game != game)
+                || (dropShips.entityChangeCount != game.getEntityChangeCount())) {
+            dropShips = new DropShips(game);
+            current.dropShips = dropShips;
+        }
+        return dropShips.grounded;
+    }
+
+    private static boolean hasGroundedDropShip(Game game) {
+        for (Entity entity : game.getEntitiesVector()) {
+            if ((entity instanceof Dropship) && !entity.isAirborne() && !entity.isSpaceborne()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int flags(Game game, LosEffects.AttackInfo ai) {
+        return (ai.attUnderWater ? ATT_UNDER_WATER : 0)
+                | (ai.attInWater ? ATT_IN_WATER : 0)
+                | (ai.attOnLand ? ATT_ON_LAND : 0)
+                | (ai.targetUnderWater ? TARGET_UNDER_WATER : 0)
+                | (ai.targetInWater ? TARGET_IN_WATER : 0)
+                | (ai.targetOnLand ? TARGET_ON_LAND : 0)
+                | (ai.underWaterCombat ? UNDER_WATER_COMBAT : 0)
+                | (ai.targetEntity ? TARGET_ENTITY : 0)
+                | (ai.targetInfantry ? TARGET_INFANTRY : 0)
+                | (ai.targetIsMech ? TARGET_IS_MECH : 0)
+                | (ai.attackerIsMech ? ATTACKER_IS_MECH : 0)
+                | (game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_LOS1) ? DIAGRAM_LOS : 0)
+                | (game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER) ? PARTIAL_COVER : 0)
+                | (game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_DEAD_ZONES) ? DEAD_ZONES : 0);
+    }
+}
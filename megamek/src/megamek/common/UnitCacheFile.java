@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import megamek.common.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Reads and writes the unit cache file of the {@link MechSummaryCache}. The file stores the
+ * fields of the summaries column by column and all strings once in a string table. It is read
+ * into a single buffer, from which all fields including the equipment lists are decoded at once;
+ * each string of the string table is decoded once and shared by all units. The buffer is dropped
+ * after reading, so the summaries do not keep the bytes of the file.
+ * <p>
+ * The layout is a header of ints followed by the long, int, string and int array columns with
+ * one value per unit, a pool of ints holding the arrays and equipment lists, the offsets of the
+ * strings and finally the UTF-8 bytes of the strings. A string or array is stored as an index or
+ * offset, -1 for null. The header holds {@link #VERSION}, which must be increased whenever the
+ * columns change; a file of another version is rejected and the cache rebuilt.
+ */
+final class UnitCacheFile {
+    private static final int MAGIC = 0x4D4D5543; // "MMUC"
+    static final int VERSION = 1;
+    private static final int HEADER_INTS = 8;
+
+    private static final class LongColumn {
+        private final ToLongFunction<MechSummary> getter;
+        private final ObjLongConsumer<MechSummary> setter;
+
+        private LongColumn(ToLongFunction<MechSummary> getter, ObjLongConsumer<MechSummary> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    private static final class IntColumn {
+        private final ToIntFunction<MechSummary> getter;
+        private final ObjIntConsumer<MechSummary> setter;
+
+        private IntColumn(ToIntFunction<MechSummary> getter, ObjIntConsumer<MechSummary> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    private static final class Column<T> {
+        private final Function<MechSummary, T> getter;
+        private final BiConsumer<MechSummary, T> setter;
+
+        private Column(Function<MechSummary, T> getter, BiConsumer<MechSummary, T> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    private static LongColumn doubleColumn(ToDoubleFunction<MechSummary> getter, ObjDoubleConsumer<MechSummary> setter) {
+        return new LongColumn(ms -> Double.doubleToLongBits(getter.applyAsDouble(ms)),
+                (ms, value) -> setter.accept(ms, Double.longBitsToDouble(value)));
+    }
+
+    private static IntColumn booleanColumn(Predicate<MechSummary> getter, BiConsumer<MechSummary, Boolean> setter) {
+        return new IntColumn(ms -> getter.test(ms) ? 1 : 0, (ms, value) -> setter.accept(ms, value != 0));
+    }
+
+    private static final List<LongColumn> LONG_COLUMNS = List.of(
+            new LongColumn(MechSummary::getCost, MechSummary::setCost),
+            new LongColumn(MechSummary::getDryCost, MechSummary::setDryCost),
+            new LongColumn(MechSummary::getAlternateCost, MechSummary::setAlternateCost),
+            new LongColumn(MechSummary::getModified, MechSummary::setModified),
+            new LongColumn(MechSummary::getSourceLength, MechSummary::setSourceLength),
+            new LongColumn(MechSummary::getSourceHash, MechSummary::setSourceHash),
+            doubleColumn(MechSummary::getTons, MechSummary::setTons),
+            doubleColumn(MechSummary::getTOweight, MechSummary::setTOweight),
+            doubleColumn(MechSummary::getTWweight, MechSummary::setTWweight),
+            doubleColumn(MechSummary::getSuitWeight, MechSummary::setSuitWeight));
+
+    private static final List<IntColumn> INT_COLUMNS = List.of(
+            new IntColumn(MechSummary::getMulId, MechSummary::setMulId),
+            new IntColumn(MechSummary::getYear, MechSummary::setYear),
+            new IntColumn(MechSummary::getType, MechSummary::setType),
+            new IntColumn(MechSummary::getBV, MechSummary::setBV),
+            new IntColumn(MechSummary::getAdvancedTechYear, MechSummary::setAdvancedYear),
+            new IntColumn(MechSummary::getStandardTechYear, MechSummary::setStandardYear),
+            booleanColumn(MechSummary::isCanon, MechSummary::setCanon),
+            booleanColumn(MechSummary::isClan, MechSummary::setClan),
+            booleanColumn(MechSummary::isSupport, MechSummary::setSupport),
+            new IntColumn(MechSummary::getWalkMp, MechSummary::setWalkMp),
+            new IntColumn(MechSummary::getRunMp, MechSummary::setRunMp),
+            new IntColumn(MechSummary::getJumpMp, MechSummary::setJumpMp),
+            new IntColumn(MechSummary::getTotalArmor, MechSummary::setTotalArmor),
+            new IntColumn(MechSummary::getTotalInternal, MechSummary::setTotalInternal),
+            new IntColumn(MechSummary::getCockpitType, MechSummary::setCockpitType),
+            new IntColumn(MechSummary::getGyroType, MechSummary::setGyroType),
+            new IntColumn(MechSummary::getInternalsType, MechSummary::setInternalsType));
+
+    private static final List<Column<String>> STRING_COLUMNS = List.of(
+            new Column<>(MechSummary::getName, MechSummary::setName),
+            new Column<>(MechSummary::getChassis, MechSummary::setChassis),
+            new Column<>(MechSummary::getModel, MechSummary::setModel),
+            new Column<>(MechSummary::getUnitType, MechSummary::setUnitType),
+            new Column<>(MechSummary::getUnitSubType, MechSummary::setUnitSubType),
+            new Column<>(MechSummary::getFullAccurateUnitType, MechSummary::setFullAccurateUnitType),
+            new Column<>(ms -> (ms.getSourceFile() == null) ? null : ms.getSourceFile().getPath(),
+                    (ms, path) -> ms.setSourceFile((path == null) ? null : new File(path))),
+            new Column<>(MechSummary::getEntryName, MechSummary::setEntryName),
+            new Column<>(MechSummary::getLevel, MechSummary::setLevel),
+            new Column<>(MechSummary::getEngineName, MechSummary::setEngineName),
+            new Column<>(MechSummary::getMyomerName, MechSummary::setMyomerName));
+
+    private static final List<Column<int[]>> ARRAY_COLUMNS = List.of(
+            new Column<>(MechSummary::getAltTypes, MechSummary::setAltTypes),
+            new Column<>(ms -> ms.getArmorType().stream().mapToInt(Integer::intValue).sorted().toArray(),
+                    MechSummary::setArmorType),
+            new Column<>(MechSummary::getArmorTypes, MechSummary::setArmorTypes),
+            new Column<>(MechSummary::getArmorTechTypes, MechSummary::setArmorTechTypes));
+
+    private final ByteBuffer buffer;
+    private final int unitCount;
+    private final int columnsStart;
+    private final int poolStart;
+    private final int stringOffsetsStart;
+    private final int stringsStart;
+    private final String[] strings;
+
+    /**
+     * Writes the units to the given file. The file is written under a temporary name first and
+     * then replaces the existing file, so a failed write leaves the previous cache intact.
+     */
+    static void write(File file, List<MechSummary> units) throws IOException {
+        final Map<String, Integer> stringTable = new LinkedHashMap<>();
+        final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        final DataOutputStream poolOut = new DataOutputStream(pool);
+        final File temporaryFile = new File(file.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+            // the columns are collected first as the header needs the size of the pool and string table
+            final int[][] intValues = new int[INT_COLUMNS.size() + STRING_COLUMNS.size() + ARRAY_COLUMNS.size() + 1][units.size()];
+            final long[][] longValues = new long[LONG_COLUMNS.size()][units.size()];
+            for (int unit = 0; unit < units.size(); unit++) {
+                final MechSummary ms = units.get(unit);
+                int column = 0;
+                for (int i = 0; i < LONG_COLUMNS.size(); i++) {
+                    longValues[i][unit] = LONG_COLUMNS.get(i).getter.applyAsLong(ms);
+                }
+                for (IntColumn intColumn : INT_COLUMNS) {
+                    intValues[column++][unit] = intColumn.getter.applyAsInt(ms);
+                }
+                for (Column<String> stringColumn : STRING_COLUMNS) {
+                    intValues[column++][unit] = indexOf(stringColumn.getter.apply(ms), stringTable);
+                }
+                for (Column<int[]> arrayColumn : ARRAY_COLUMNS) {
+                    final int[] array = arrayColumn.getter.apply(ms);
+                    if (array == null) {
+                        intValues[column++][unit] = -1;
+                    } else {
+                        intValues[column++][unit] = poolOut.size() / Integer.BYTES;
+                        poolOut.writeInt(array.length);
+                        for (int value : array) {
+                            poolOut.writeInt(value);
+                        }
+                    }
+                }
+                final Vector<String> names = ms.getEquipmentNames();
+                final Vector<Integer> quantities = ms.getEquipmentQuantities();
+                if ((names == null) || (quantities == null)) {
+                    intValues[column][unit] = -1;
+                } else {
+                    intValues[column][unit] = poolOut.size() / Integer.BYTES;
+                    poolOut.writeInt(names.size());
+                    for (int i = 0; i < names.size(); i++) {
+                        poolOut.writeInt(indexOf(names.get(i), stringTable));
+                        poolOut.writeInt(quantities.get(i));
+                    }
+                }
+            }
+
+            final List<byte[]> encodedStrings = new ArrayList<>(stringTable.size());
+            for (String string : stringTable.keySet()) {
+                encodedStrings.add(string.getBytes(StandardCharsets.UTF_8));
+            }
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(units.size());
+            out.writeInt(LONG_COLUMNS.size());
+            out.writeInt(intValues.length);
+            out.writeInt(poolOut.size() / Integer.BYTES);
+            out.writeInt(encodedStrings.size());
+            out.writeInt(0); // reserved
+            for (long[] column : longValues) {
+                for (long value : column) {
+                    out.writeLong(value);
+                }
+            }
+            for (int[] column : intValues) {
+                for (int value : column) {
+                    out.writeInt(value);
+                }
+            }
+            pool.writeTo(out);
+            int offset = 0;
+            for (byte[] encoded : encodedStrings) {
+                out.writeInt(offset);
+                offset += encoded.length;
+            }
+            out.writeInt(offset);
+            for (byte[] encoded : encodedStrings) {
+                out.write(encoded);
+            }
+        } catch (IOException ex) {
+            Files.deleteIfExists(temporaryFile.toPath());
+            throw ex;
+        }
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int indexOf(@Nullable String string, Map<String, Integer> stringTable) {
+        return (string == null) ? -1 : stringTable.computeIfAbsent(string, s -> stringTable.size());
+    }
+
+    /**
+     * Reads the units of the given file.
+     *
+     * @throws IOException if the file cannot be read, is not a unit cache file or is of another
+     * version
+     */
+    static MechSummary[] read(File file) throws IOException {
+        return new UnitCacheFile(ByteBuffer.wrap(Files.readAllBytes(file.toPath()))).readUnits();
+    }
+
+    private UnitCacheFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if ((buffer.capacity() < HEADER_INTS * Integer.BYTES) || (buffer.getInt(0) != MAGIC)) {
+            throw new IOException("Not a unit cache file");
+        } else if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unit cache file version " + buffer.getInt(4) + " instead of " + VERSION);
+        }
+        unitCount = buffer.getInt(8);
+        final int longColumns = buffer.getInt(12);
+        final int intColumns = buffer.getInt(16);
+        final int poolInts = buffer.getInt(20);
+        final int stringCount = buffer.getInt(24);
+        if ((longColumns != LONG_COLUMNS.size())
+                || (intColumns != INT_COLUMNS.size() + STRING_COLUMNS.size() + ARRAY_COLUMNS.size() + 1)
+                || (unitCount < 0) || (poolInts < 0) || (stringCount < 0)) {
+            throw new IOException("Unit cache file header does not match version " + VERSION);
+        }
+        columnsStart = HEADER_INTS * Integer.BYTES;
+        poolStart = Math.toIntExact(columnsStart + (long) unitCount * (longColumns * Long.BYTES + intColumns * Integer.BYTES));
+        stringOffsetsStart = Math.toIntExact(poolStart + (long) poolInts * Integer.BYTES);
+        stringsStart = Math.toIntExact(stringOffsetsStart + (stringCount + 1L) * Integer.BYTES);
+        if ((stringsStart > buffer.capacity())
+                || (stringsStart + (long) buffer.getInt(stringsStart - Integer.BYTES) != buffer.capacity())) {
+            throw new IOException("Unit cache file is truncated");
+        }
+        strings = new String[stringCount];
+    }
+
+    private MechSummary[] readUnits() {
+        final MechSummary[] units = new MechSummary[unitCount];
+        for (int unit = 0; unit < unitCount; unit++) {
+            units[unit] = new MechSummary();
+        }
+        int position = columnsStart;
+        for (LongColumn column : LONG_COLUMNS) {
+            for (MechSummary ms : units) {
+                column.setter.accept(ms, buffer.getLong(position));
+                position += Long.BYTES;
+            }
+        }
+        for (IntColumn column : INT_COLUMNS) {
+            for (MechSummary ms : units) {
+                column.setter.accept(ms, buffer.getInt(position));
+                position += Integer.BYTES;
+            }
+        }
+        for (Column<String> column : STRING_COLUMNS) {
+            for (MechSummary ms : units) {
+                column.setter.accept(ms, getString(buffer.getInt(position)));
+                position += Integer.BYTES;
+            }
+        }
+        for (Column<int[]> column : ARRAY_COLUMNS) {
+            for (MechSummary ms : units) {
+                column.setter.accept(ms, getArray(buffer.getInt(position)));
+                position += Integer.BYTES;
+            }
+        }
+        for (MechSummary ms : units) {
+            final int offset = buffer.getInt(position);
+            if (offset != -1) {
+                readEquipment(offset, ms);
+            }
+            position += Integer.BYTES;
+        }
+        return units;
+    }
+
+    private @Nullable int[] getArray(int offset) {
+        if (offset == -1) {
+            return null;
+        }
+        final int start = poolStart + offset * Integer.BYTES;
+        final int[] array = new int[buffer.getInt(start)];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = buffer.getInt(start + (i + 1) * Integer.BYTES);
+        }
+        return array;
+    }
+
+    /**
+     * Reads the equipment lists stored at the given offset of the pool into the summary.
+     */
+    private void readEquipment(int offset, MechSummary ms) {
+        final int start = poolStart + offset * Integer.BYTES;
+        final int count = buffer.getInt(start);
+        final Vector<String> names = new Vector<>(count);
+        final Vector<Integer> quantities = new Vector<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(getString(buffer.getInt(start + (2 * i + 1) * Integer.BYTES)));
+            quantities.add(buffer.getInt(start + (2 * i + 2) * Integer.BYTES));
+        }
+        ms.setEquipmentLists(names, quantities);
+    }
+
+    /**
+     * @return the string of the string table with the given index, decoded once and shared
+     * by all units
+     */
+    private @Nullable String getString(int index) {
+        if (index == -1) {
+            return null;
+        } else if (strings[index] == null) {
+            final int start = buffer.getInt(stringOffsetsStart + index * Integer.BYTES);
+            final int end = buffer.getInt(stringOffsetsStart + (index + 1) * Integer.BYTES);
+            final byte[] encoded = new byte[end - start];
+            final ByteBuffer source = buffer.duplicate();
+            source.position(stringsStart + start);
+            source.get(encoded);
+            strings[index] = new String(encoded, StandardCharsets.UTF_8);
+        }
+        return strings[index];
+    }
+}
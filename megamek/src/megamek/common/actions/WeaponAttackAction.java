@@ -2752,6 +2752,10 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
     public void setLaunchVelocity(int velocity) {
         this.launchVelocity = velocity;
     }
+
+    public int getLaunchVelocity() {
+        return launchVelocity;
+    }
     
     //This is a stub. ArtilleryAttackActions actually need to use it
     public void updateTurnsTilHit(Game game) {
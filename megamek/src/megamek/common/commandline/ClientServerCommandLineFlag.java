@@ -31,6 +31,8 @@ public enum ClientServerCommandLineFlag {
     MAIL(Messages.getString("MegaMek.Help.Mail"), true, false, true),
     SAVEGAME(Messages.getString("MegaMek.Help.SaveGame"), true, false, true),
     PASSWORD(Messages.getString("MegaMek.Help.Password"), true, false, true),
+    // server only options
+    NIOTHREADS(Messages.getString("MegaMek.Help.NioThreads"), true, false, false),
     // client or host only options
     PLAYERNAME(Messages.getString("MegaMek.Help.PlayerName"), false, true, true),
     // client only options
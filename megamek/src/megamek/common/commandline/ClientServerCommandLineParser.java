@@ -36,6 +36,7 @@ public class ClientServerCommandLineParser extends AbstractCommandLineParser {
     private String mailProperties;
     private String serverAddress;
     private String playerName;
+    private int nioThreads;
 
     private final String parent;
     private final boolean server;
@@ -89,6 +90,14 @@ public class ClientServerCommandLineParser extends AbstractCommandLineParser {
         return serverAddress;
     }
 
+    /**
+     * @return the number of non-blocking I/O threads, or <code>0</code> to use a blocking
+     * connection thread per client
+     */
+    public int getNioThreads() {
+        return nioThreads;
+    }
+
     public boolean getUseDefaults() {
         return useDefaults;
     }
@@ -156,6 +165,10 @@ public class ClientServerCommandLineParser extends AbstractCommandLineParser {
                                 nextToken();
                                 processDataDir();
                                 break;
+                            case NIOTHREADS:
+                                nextToken();
+                                parseNioThreads();
+                                break;
                             case USEDEFAULTS:
                                 useDefaults = true;
                                 break;
@@ -200,6 +213,22 @@ public class ClientServerCommandLineParser extends AbstractCommandLineParser {
         }
     }
 
+    private void parseNioThreads() throws ParseException {
+        if (getTokenType() == TOK_LITERAL) {
+            try {
+                nioThreads = Integer.parseInt(getTokenValue());
+            } catch (NumberFormatException ex) {
+                throw new ParseException(String.format(
+                        "number of I/O threads must be a number. '%s' is not valid", getTokenValue()));
+            }
+            if (nioThreads < 0) {
+                throw new ParseException("number of I/O threads must not be negative");
+            }
+        } else {
+            throw new ParseException("number of I/O threads expected");
+        }
+    }
+
     private void parseAnnounce() throws ParseException {
         if (getTokenType() == TOK_LITERAL) {
             announceUrl = getTokenValue();
@@ -268,6 +297,7 @@ public class ClientServerCommandLineParser extends AbstractCommandLineParser {
         public final String playerName, serverAddress, password, saveGameFileName, announceUrl, mailPropertiesFile;
         public final boolean registerServer;
         public final int port;
+        public final int nioThreads;
 
         public Resolver(ClientServerCommandLineParser parser, String defaultPassword, int defaultPort,
                         String defaultServerAddress, String defaultPlayerName)
@@ -331,6 +361,7 @@ public class ClientServerCommandLineParser extends AbstractCommandLineParser {
             this.announceUrl = announceUrl;
             this.registerServer = registerServer;
             this.mailPropertiesFile = mailPropertiesFile;
+            this.nioThreads = parser.getNioThreads();
         }
     }
 }
\ No newline at end of file
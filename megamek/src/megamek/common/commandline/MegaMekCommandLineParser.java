@@ -23,6 +23,7 @@ import org.apache.logging.log4j.LogManager;
 
 import java.io.*;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class parses the options passed into to MegaMek from the command line.
@@ -181,6 +182,9 @@ public class MegaMekCommandLineParser extends AbstractCommandLineParser {
     }
 
     private void processUnitValidator() throws ParseException {
+        if (getTokenType() == TOK_EOF) {
+            processAllUnitsValidator();
+        }
         String filename;
         if (getTokenType() == TOK_LITERAL) {
             filename = getTokenValue();
@@ -209,37 +213,7 @@ public class MegaMekCommandLineParser extends AbstractCommandLineParser {
                                     EntityVerifier.CONFIG_FILENAME).getFile());
                     MechView mechView = new MechView(entity, false);
                     StringBuffer sb = new StringBuffer(mechView.getMechReadout());
-                    if ((entity instanceof Mech) || (entity instanceof Tank)
-                            || (entity instanceof Aero) || (entity instanceof BattleArmor)) {
-                        TestEntity testEntity = null;
-                        if (entity instanceof Mech) {
-                            testEntity = new TestMech((Mech) entity, entityVerifier.mechOption,
-                                    null);
-                        } else if ((entity instanceof Tank) && !(entity instanceof GunEmplacement)) {
-                            if (entity.isSupportVehicle()) {
-                                testEntity = new TestSupportVehicle(entity,
-                                        entityVerifier.tankOption, null);
-                            } else {
-                                testEntity = new TestTank((Tank) entity,
-                                        entityVerifier.tankOption, null);
-                            }
-                        } else if ((entity.getEntityType() == Entity.ETYPE_AERO)
-                                && (entity.getEntityType() != Entity.ETYPE_DROPSHIP)
-                                && (entity.getEntityType() != Entity.ETYPE_SMALL_CRAFT)
-                                && (entity.getEntityType() != Entity.ETYPE_FIGHTER_SQUADRON)
-                                && (entity.getEntityType() != Entity.ETYPE_JUMPSHIP)
-                                && (entity.getEntityType() != Entity.ETYPE_SPACE_STATION)) {
-                            testEntity = new TestAero((Aero) entity,
-                                    entityVerifier.aeroOption, null);
-                        } else if (entity instanceof BattleArmor) {
-                            testEntity = new TestBattleArmor((BattleArmor) entity,
-                                    entityVerifier.baOption, null);
-                        }
-
-                        if (testEntity != null) {
-                            testEntity.correctEntity(sb);
-                        }
-                    }
+                    validate(entity, entityVerifier, sb);
                     LogManager.getLogger().info(sb.toString());
                 } catch (Exception ex) {
                     throw new ParseException("\"chassis model\" expected as input");
@@ -251,11 +225,104 @@ public class MegaMekCommandLineParser extends AbstractCommandLineParser {
         System.exit(0);
     }
 
-    private void processUnitBattleForceConverter() {
+    /**
+     * Validates every unit of the unit cache on a pool of threads and logs the problems of the
+     * invalid units in the order of the cache.
+     */
+    private void processAllUnitsValidator() {
+        EntityVerifier entityVerifier = EntityVerifier.getInstance(
+                new MegaMekFile(Configuration.unitsDir(), EntityVerifier.CONFIG_FILENAME).getFile());
+        MechSummary[] units = MechSummaryCache.getInstance().getAllMechs();
+        AtomicInteger invalid = new AtomicInteger();
+        StringWriter report = new StringWriter();
+        try {
+            new UnitBatchConverter(0, "Validated").convert(units, (unit, out) -> {
+                Entity entity = new MechFileParser(unit.getSourceFile(), unit.getEntryName()).getEntity();
+                StringBuffer sb = new StringBuffer();
+                if (!validate(entity, entityVerifier, sb)) {
+                    invalid.incrementAndGet();
+                    out.write(entity.getShortNameRaw() + " (" + unit.getSourceFile() + ")");
+                    out.newLine();
+                    out.write(sb.toString());
+                    out.newLine();
+                }
+            }, report);
+        } catch (IOException ex) {
+            LogManager.getLogger().error("", ex);
+        }
+        LogManager.getLogger().info(invalid.get() + " of " + units.length + " units are invalid\n" + report);
+        System.exit(0);
+    }
+
+    /**
+     * Checks the entity with the test for its unit type and appends the problems found to the
+     * given buffer.
+     *
+     * @return false if the entity has a test and fails it
+     */
+    private static boolean validate(Entity entity, EntityVerifier entityVerifier, StringBuffer sb) {
+        if ((entity instanceof Mech) || (entity instanceof Tank)
+                || (entity instanceof Aero) || (entity instanceof BattleArmor)) {
+            TestEntity testEntity = null;
+            if (entity instanceof Mech) {
+                testEntity = new TestMech((Mech) entity, entityVerifier.mechOption,
+                        null);
+            } else if ((entity instanceof Tank) && !(entity instanceof GunEmplacement)) {
+                if (entity.isSupportVehicle()) {
+                    testEntity = new TestSupportVehicle(entity,
+                            entityVerifier.tankOption, null);
+                } else {
+                    testEntity = new TestTank((Tank) entity,
+                            entityVerifier.tankOption, null);
+                }
+            } else if ((entity.getEntityType() == Entity.ETYPE_AERO)
+                    && (entity.getEntityType() != Entity.ETYPE_DROPSHIP)
+                    && (entity.getEntityType() != Entity.ETYPE_SMALL_CRAFT)
+                    && (entity.getEntityType() != Entity.ETYPE_FIGHTER_SQUADRON)
+                    && (entity.getEntityType() != Entity.ETYPE_JUMPSHIP)
+                    && (entity.getEntityType() != Entity.ETYPE_SPACE_STATION)) {
+                testEntity = new TestAero((Aero) entity,
+                        entityVerifier.aeroOption, null);
+            } else if (entity instanceof BattleArmor) {
+                testEntity = new TestBattleArmor((BattleArmor) entity,
+                        entityVerifier.baOption, null);
+            }
+
+            if (testEntity != null) {
+                return testEntity.correctEntity(sb);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the number of worker threads that may follow the file name of the unit exporters, or
+     * follow -oul directly as it has no file name.
+     *
+     * @return the number of threads, or 0 if none is given
+     */
+    private int processThreadCount() throws ParseException {
+        if (getTokenType() != TOK_LITERAL) {
+            return 0;
+        }
+        try {
+            int threads = Integer.parseInt(getTokenValue());
+            if (threads > 0) {
+                nextToken();
+                return threads;
+            }
+        } catch (NumberFormatException ignored) {
+
+        }
+        throw new ParseException("number of threads expected");
+    }
+
+    private void processUnitBattleForceConverter() throws ParseException {
         String filename;
         if (getTokenType() == TOK_LITERAL) {
             filename = getTokenValue();
             nextToken();
+            int threads = processThreadCount();
 
             if (!new File("./docs").exists()) {
                 if (!new File("./docs").mkdir()) {
@@ -275,13 +342,13 @@ public class MegaMekCommandLineParser extends AbstractCommandLineParser {
                 fw.newLine();
 
                 MechSummary[] units = MechSummaryCache.getInstance().getAllMechs();
-                for (MechSummary unit : units) {
+                new UnitBatchConverter(threads, "Converted").convert(units, (unit, out) -> {
                     Entity entity = new MechFileParser(unit.getSourceFile(),
                             unit.getEntryName()).getEntity();
 
                     BattleForceElement bfe = new BattleForceElement(entity);
-                    bfe.writeCsv(fw);
-                }
+                    bfe.writeCsv(out);
+                }, fw);
             } catch (Exception e) {
                 LogManager.getLogger().error("", e);
             }
@@ -290,11 +357,12 @@ public class MegaMekCommandLineParser extends AbstractCommandLineParser {
         System.exit(0);
     }
 
-    private void processUnitAlphaStrikeConverter() {
+    private void processUnitAlphaStrikeConverter() throws ParseException {
         String filename;
         if (getTokenType() == TOK_LITERAL) {
             filename = getTokenValue();
             nextToken();
+            int threads = processThreadCount();
 
             if (!new File("./docs").exists()) {
                 if (!new File("./docs").mkdir()) {
@@ -315,13 +383,13 @@ public class MegaMekCommandLineParser extends AbstractCommandLineParser {
                 bw.newLine();
 
                 MechSummary[] units = MechSummaryCache.getInstance().getAllMechs();
-                for (MechSummary unit : units) {
+                new UnitBatchConverter(threads, "Converted").convert(units, (unit, out) -> {
                     Entity entity = new MechFileParser(unit.getSourceFile(),
                             unit.getEntryName()).getEntity();
 
                     AlphaStrikeElement ase = new AlphaStrikeElement(entity);
-                    ase.writeCsv(bw);
-                }
+                    ase.writeCsv(out);
+                }, bw);
             } catch (Exception ex) {
                 LogManager.getLogger().error("", ex);
             }
@@ -329,19 +397,22 @@ public class MegaMekCommandLineParser extends AbstractCommandLineParser {
         System.exit(0);
     }
 
-    private void processUnitExporter() {
+    private void processUnitExporter() throws ParseException {
         processUnitExporter(false);
     }
 
-    private void processUnitExporter(boolean officialUnitList) {
+    private void processUnitExporter(boolean officialUnitList) throws ParseException {
         String filename;
         if ((getTokenType() == TOK_LITERAL) || officialUnitList) {
             if (officialUnitList) {
+                // -oul takes no file name, so the token after it is not skipped but may be the
+                // number of threads
                 filename = MechFileParser.FILENAME_OFFICIAL_UNITS;
             } else {
                 filename = getTokenValue();
+                nextToken();
             }
-            nextToken();
+            int threads = processThreadCount();
 
             if (!new File("./docs").exists()) {
                 if (!new File("./docs").mkdir()) {
@@ -369,54 +440,54 @@ public class MegaMekCommandLineParser extends AbstractCommandLineParser {
                 bw.newLine();
 
                 MechSummary[] units = MechSummaryCache.getInstance(officialUnitList).getAllMechs();
-                for (MechSummary unit : units) {
+                new UnitBatchConverter(threads, "Exported").convert(units, (unit, out) -> {
                     String unitType = unit.getUnitType();
                     if (unitType.equalsIgnoreCase("mek")) {
                         unitType = "'Mech";
                     }
 
                     if (!officialUnitList) {
-                        bw.write(unitType);
-                        bw.write(",");
-                        bw.write(unit.getUnitSubType());
-                        bw.write(",");
-                        bw.write(unit.getChassis());
-                        bw.write(",");
-                        bw.write(unit.getModel());
-                        bw.write(",");
-                        bw.write(Integer.toString(unit.getBV()));
-                        bw.write(",");
-                        bw.write(Long.toString(unit.getCost()));
-                        bw.write(",");
-                        bw.write(Long.toString(unit.getDryCost()));
-                        bw.write(",");
-                        bw.write(Integer.toString(unit.getYear()));
-                        bw.write(",");
-                        bw.write(TechConstants.getLevelDisplayableName(unit.getType()));
-                        bw.write(",");
-                        bw.write(Double.toString(unit.getTons()));
-                        bw.write(",");
+                        out.write(unitType);
+                        out.write(",");
+                        out.write(unit.getUnitSubType());
+                        out.write(",");
+                        out.write(unit.getChassis());
+                        out.write(",");
+                        out.write(unit.getModel());
+                        out.write(",");
+                        out.write(Integer.toString(unit.getBV()));
+                        out.write(",");
+                        out.write(Long.toString(unit.getCost()));
+                        out.write(",");
+                        out.write(Long.toString(unit.getDryCost()));
+                        out.write(",");
+                        out.write(Integer.toString(unit.getYear()));
+                        out.write(",");
+                        out.write(TechConstants.getLevelDisplayableName(unit.getType()));
+                        out.write(",");
+                        out.write(Double.toString(unit.getTons()));
+                        out.write(",");
                         if (unit.isClan()) {
-                            bw.write("Clan,");
+                            out.write("Clan,");
                         } else {
-                            bw.write("IS,");
+                            out.write("IS,");
                         }
                         if (unit.isCanon()) {
-                            bw.write("Canon,");
+                            out.write("Canon,");
                         } else {
-                            bw.write("Non-Canon,");
+                            out.write("Non-Canon,");
                         }
-                        bw.write(Integer.toString(unit.getWalkMp()));
-                        bw.write(",");
-                        bw.write(Integer.toString(unit.getRunMp()));
-                        bw.write(",");
-                        bw.write(Integer.toString(unit.getJumpMp()));
+                        out.write(Integer.toString(unit.getWalkMp()));
+                        out.write(",");
+                        out.write(Integer.toString(unit.getRunMp()));
+                        out.write(",");
+                        out.write(Integer.toString(unit.getJumpMp()));
                     } else {
-                        bw.write(unit.getChassis()
+                        out.write(unit.getChassis()
                                 + (unit.getModel().isBlank() ? "|" : " " + unit.getModel() + "|"));
                     }
-                    bw.newLine();
-                }
+                    out.newLine();
+                }, bw);
             } catch (Exception ex) {
                 LogManager.getLogger().error("", ex);
             }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common.commandline;
+
+import megamek.common.MechSummary;
+import org.apache.logging.log4j.LogManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Converts the units of the unit cache on a pool of worker threads for the command line
+ * exporters. Every unit is written to a buffer of its own; the buffers are then copied to the
+ * output in the order of the units, so the output does not depend on the number of threads. A unit
+ * that fails to convert is logged and left out of the output, and the others are still converted.
+ * Only a limited number of units is converted ahead of the one that is written next, which keeps
+ * the memory use bounded if a unit is slow.
+ */
+final class UnitBatchConverter {
+
+    /** Writes the output lines of a single unit. */
+    @FunctionalInterface
+    interface UnitConverter {
+        void convert(MechSummary unit, BufferedWriter out) throws Exception;
+    }
+
+    /** The number of units per thread that may be converted ahead of the one written next */
+    private static final int UNITS_AHEAD_PER_THREAD = 16;
+
+    private final int threads;
+    private final String description;
+    private int failures;
+
+    /**
+     * @param threads the number of worker threads; 0 or less for one per processor
+     * @param description what is done to the units, for the log, e.g. "Converted"
+     */
+    UnitBatchConverter(int threads, String description) {
+        this.threads = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+        this.description = description;
+    }
+
+    /**
+     * Converts all given units and writes their output to the given writer in the order of the
+     * units, then logs the number of units converted per second and the number of failures.
+     *
+     * @return the number of units that could not be converted
+     */
+    int convert(MechSummary[] units, UnitConverter converter, Writer out) throws IOException {
+        failures = 0;
+        final long start = System.nanoTime();
+        final AtomicInteger workerCount = new AtomicInteger();
+        final ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Unit Converter " + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final Deque<Future<String>> pending = new ArrayDeque<>();
+        int written = 0;
+        try {
+            for (MechSummary unit : units) {
+                if (pending.size() >= threads * UNITS_AHEAD_PER_THREAD) {
+                    write(units[written++], pending.removeFirst(), out);
+                }
+                pending.addLast(pool.submit(() -> {
+                    StringWriter buffer = new StringWriter();
+                    try (BufferedWriter bw = new BufferedWriter(buffer)) {
+                        converter.convert(unit, bw);
+                    }
+                    return buffer.toString();
+                }));
+            }
+            while (!pending.isEmpty()) {
+                write(units[written++], pending.removeFirst(), out);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        out.flush();
+
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        LogManager.getLogger().info(String.format("%s %d units in %.1f s (%.1f units/s) on %d threads, %d failed",
+                description, units.length, seconds, units.length / Math.max(seconds, 1e-9), threads, failures));
+        return failures;
+    }
+
+    private void write(MechSummary unit, Future<String> result, Writer out) throws IOException {
+        try {
+            out.write(result.get());
+        } catch (ExecutionException ex) {
+            failures++;
+            LogManager.getLogger().error("Failed to convert " + unit.getName() + " from "
+                    + unit.getSourceFile() + ((unit.getEntryName() == null) ? "" : " (" + unit.getEntryName() + ")"),
+                    ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while converting units", ex);
+        }
+    }
+}
@@ -15,7 +15,6 @@
 */
 package megamek.common.net.connections;
 
-import megamek.common.net.enums.PacketCommand;
 import megamek.common.net.events.AbstractConnectionEvent;
 import megamek.common.net.events.ConnectedEvent;
 import megamek.common.net.events.DisconnectedEvent;
@@ -33,7 +32,6 @@ import java.util.Enumeration;
 import java.util.LinkedList;
 import java.util.Vector;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Generic bidirectional connection between client and server
@@ -140,16 +138,17 @@ public abstract class AbstractConnection {
     /**
      * @return the type of the marshalling used to send packets
      */
-    protected int getMarshallingType() {
+    public int getMarshallingType() {
         return marshallingType;
     }
 
     /**
-     * Sets the type of the marshalling used to send packets
+     * Sets the type of the marshalling used to send packets. Received packets carry their own
+     * marshalling type, so this only affects packets sent after the call.
      *
      * @param marshallingType new marhalling type
      */
-    protected void setMarshallingType(int marshallingType) {
+    public synchronized void setMarshallingType(int marshallingType) {
         PacketMarshaller pm = marshallerFactory.getMarshaller(marshallingType);
         assert (pm != null) : "Unknown marshalling type";
         this.marshallingType = marshallingType;
@@ -249,8 +248,23 @@ public abstract class AbstractConnection {
     /**
      * Adds a packet to the send queue to be send on a seperate thread.
      */
-    public synchronized void send(Packet packet) {
-        sendQueue.addPacket(new SendPacket(packet));
+    public void send(Packet packet) {
+        send(new PreEncodedPacket(packet));
+    }
+
+    /**
+     * Adds a packet that may be shared with other connections to the send queue. The packet is
+     * only encoded if no other connection with the same marshalling type and compression setting
+     * has encoded it already.
+     */
+    public synchronized void send(PreEncodedPacket packet) {
+        try {
+            SendPacket encoded = packet.getEncoded(marshaller, marshallingType, zipData);
+            bytesSent += encoded.getData().length;
+            sendQueue.addPacket(encoded);
+        } catch (Exception e) {
+            LogManager.getLogger().error("Failed to encode packet " + packet.getCommand(), e);
+        }
         // Send right now
         flush();
     }
@@ -260,7 +274,7 @@ public abstract class AbstractConnection {
      */
     public void sendNow(SendPacket packet) {
         try {
-            sendNetworkPacket(packet.getData(), packet.isCompressed());
+            sendNetworkPacket(packet.getData(), packet.getMarshallingType(), packet.isCompressed());
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -478,10 +492,12 @@ public abstract class AbstractConnection {
      * Sends the data. This must not be blocked for too long
      *
      * @param data data to send
+     * @param marshallingType the marshalling type the data was encoded with
      * @param zipped should the data be compressed
      * @throws Exception if there's an issue with sending the packet
      */
-    protected abstract void sendNetworkPacket(byte[] data, boolean zipped) throws Exception;
+    protected abstract void sendNetworkPacket(byte[] data, int marshallingType, boolean zipped)
+            throws Exception;
 
     /**
      * Wrapper around a <code>LinkedList</code> for keeping a queue of packets
@@ -523,7 +539,7 @@ public abstract class AbstractConnection {
         public void reportContents() {
             System.err.print("Contents of Send Queue: ");
             for (SendPacket p : queue) {
-                System.err.print(p.command);
+                System.err.print(p.getCommand());
             }
             System.err.println();
         }
@@ -553,51 +569,6 @@ public abstract class AbstractConnection {
         }
     }
 
-    private class SendPacket implements INetworkPacket {
-        byte[] data;
-        boolean zipped = false;
-        PacketCommand command;
-
-        public SendPacket(Packet packet) {
-            command = packet.getCommand();
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            OutputStream out;
-            try {
-                if (zipData && packet.getData() != null) {
-                    out = new GZIPOutputStream(bos);
-                    zipped = true;
-                } else {
-                    out = bos;
-                }
-                marshaller.marshall(packet, out);
-                out.close();
-                data = bos.toByteArray();
-                bytesSent += data.length;
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
-
-        @Override
-        public int getMarshallingType() {
-            return marshallingType;
-        }
-
-        @Override
-        public byte[] getData() {
-            return data;
-        }
-
-        @Override
-        public boolean isCompressed() {
-            return zipped;
-        }
-
-        public PacketCommand getCommand() {
-            return command;
-        }
-    }
-
     /**
      * Connection layer data packet.
      */
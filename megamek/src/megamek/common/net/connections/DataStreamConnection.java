@@ -94,7 +94,7 @@ public class DataStreamConnection extends AbstractConnection {
     }
 
     @Override
-    protected void sendNetworkPacket(byte[] data, boolean iszipped)
+    protected void sendNetworkPacket(byte[] data, int marshallingType, boolean iszipped)
             throws Exception {
 
         if (out == null) {
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common.net.connections;
+
+import org.apache.logging.log4j.LogManager;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server side connection that performs non-blocking, framed reads and writes on a
+ * {@link SocketChannel}. Unlike {@link DataStreamConnection} it does not need a thread of its own;
+ * all I/O is driven by one of the threads of a {@link NioSelectorPool}, and the received packets
+ * are handed to the packet threads of the pool, so a slow handler never holds up the reads and
+ * writes of other connections. The packets of one connection are processed one after the other in
+ * the order they arrived. The wire format is the same
+ * as the one used by {@link DataStreamConnection}: a zipped flag, the marshalling type, the payload
+ * length and the payload itself, so clients using a blocking connection can talk to it unchanged.
+ */
+public class NioConnection extends AbstractConnection {
+    /** zipped flag (1 byte) + marshalling type (4 bytes) + payload length (4 bytes) */
+    private static final int HEADER_LENGTH = 9;
+
+    private final SocketChannel channel;
+    private final NioSelectorPool selectorPool;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * Set while a packet thread processes the received packets of this connection.
+     */
+    private final AtomicBoolean processing = new AtomicBoolean(false);
+
+    /**
+     * The selector thread driving this connection, set when the connection is opened.
+     */
+    volatile NioSelectorPool.SelectorThread selectorThread;
+
+    /**
+     * The selection key of the channel; only used by the selector thread.
+     */
+    private SelectionKey key;
+
+    /**
+     * Read state; only touched by the selector thread.
+     */
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+    private ByteBuffer payload;
+    private boolean zipped;
+    private int encoding;
+
+    /**
+     * Packets read by the selector thread and waiting to be processed by a packet thread.
+     */
+    private final Queue<NetworkPacket> received = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Set by the selector thread once the channel reached its end or broke; the connection is
+     * closed after the packets received before are processed.
+     */
+    private volatile boolean endOfStream;
+
+    /**
+     * Buffers waiting to be written to the channel, guarded by itself.
+     */
+    private final ArrayDeque<ByteBuffer> outgoing = new ArrayDeque<>();
+
+    /**
+     * Creates new server connection
+     *
+     * @param channel the accepted socket channel
+     * @param id connection ID
+     * @param selectorPool the pool of selector threads that will drive this connection
+     */
+    public NioConnection(SocketChannel channel, int id, NioSelectorPool selectorPool) {
+        super(channel.socket(), id);
+        this.channel = channel;
+        this.selectorPool = selectorPool;
+    }
+
+    /**
+     * Opens the connection and hands it to the selector pool.
+     */
+    @Override
+    public synchronized boolean open() {
+        if (!super.open()) {
+            return false;
+        }
+        if (selectorThread == null) {
+            try {
+                channel.configureBlocking(false);
+            } catch (IOException e) {
+                LogManager.getLogger().error("Failed to make connection " + getId() + " non-blocking", e);
+                return false;
+            }
+            selectorPool.register(this);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        // Reads, writes and the server may all notice a broken channel; only report it once
+        if (closed.compareAndSet(false, true)) {
+            super.close();
+        }
+    }
+
+    @Override
+    public synchronized boolean hasPending() {
+        synchronized (outgoing) {
+            return super.hasPending() || !outgoing.isEmpty();
+        }
+    }
+
+    @Override
+    protected INetworkPacket readNetworkPacket() {
+        return received.poll();
+    }
+
+    @Override
+    protected void sendNetworkPacket(byte[] data, int marshallingType, boolean iszipped) {
+        final ByteBuffer frameHeader = ByteBuffer.allocate(HEADER_LENGTH);
+        frameHeader.put((byte) (iszipped ? 1 : 0));
+        frameHeader.putInt(marshallingType);
+        frameHeader.putInt(data.length);
+        frameHeader.flip();
+        synchronized (outgoing) {
+            outgoing.add(frameHeader);
+            // The data array may be shared with other connections; wrapping it does not copy it
+            outgoing.add(ByteBuffer.wrap(data));
+        }
+
+        final NioSelectorPool.SelectorThread thread = selectorThread;
+        if (thread != null) {
+            thread.requestWrite(this);
+        }
+    }
+
+    /**
+     * Registers the channel with the given selector. Called on the selector thread.
+     */
+    void register(Selector selector) throws IOException {
+        key = channel.register(selector, SelectionKey.OP_READ, this);
+        // Packets may have been queued before the registration went through
+        handleWritable();
+    }
+
+    /**
+     * Reads whatever is available on the channel and hands complete packets to the packet
+     * threads. Called on the selector thread.
+     */
+    void handleReadable() {
+        try {
+            readFromChannel();
+        } catch (IOException e) {
+            // Happens when the socket closes; stop selecting the channel until it is closed
+            endOfStream = true;
+            key.cancel();
+        }
+        if (!received.isEmpty() || endOfStream) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Has a packet thread process the received packets, unless one is already at it.
+     */
+    private void dispatch() {
+        if (processing.compareAndSet(false, true)) {
+            selectorPool.process(this::processReceived);
+        }
+    }
+
+    /**
+     * Processes the received packets and closes the connection if the channel has ended. Called on
+     * a packet thread.
+     */
+    private void processReceived() {
+        do {
+            update();
+            if (endOfStream) {
+                close();
+            }
+            processing.set(false);
+            // The selector thread may have added packets after the last poll but before the flag
+            // was cleared, in which case it did not dispatch them
+        } while ((!received.isEmpty() || (endOfStream && !closed.get()))
+                && processing.compareAndSet(false, true));
+    }
+
+    /**
+     * Writes as much of the outgoing data as the channel accepts without blocking and updates the
+     * interest in write readiness accordingly. Called on the selector thread.
+     */
+    void handleWritable() {
+        if ((key == null) || !key.isValid()) {
+            return;
+        }
+
+        try {
+            final boolean done;
+            synchronized (outgoing) {
+                while (!outgoing.isEmpty()) {
+                    ByteBuffer buffer = outgoing.peek();
+                    channel.write(buffer);
+                    if (buffer.hasRemaining()) {
+                        break;
+                    }
+                    outgoing.poll();
+                }
+                done = outgoing.isEmpty();
+            }
+            key.interestOps(done ? SelectionKey.OP_READ : (SelectionKey.OP_READ | SelectionKey.OP_WRITE));
+        } catch (Exception e) {
+            // The channel broke or was closed underneath us
+            close();
+        }
+    }
+
+    private void readFromChannel() throws IOException {
+        while (true) {
+            if (payload == null) {
+                if (channel.read(header) < 0) {
+                    throw new EOFException();
+                } else if (header.hasRemaining()) {
+                    return;
+                }
+                header.flip();
+                zipped = header.get() != 0;
+                encoding = header.getInt();
+                final int length = header.getInt();
+                header.clear();
+                if (length < 0) {
+                    throw new IOException("Invalid packet length " + length);
+                }
+                payload = ByteBuffer.allocate(length);
+            }
+
+            if (payload.hasRemaining()) {
+                if (channel.read(payload) < 0) {
+                    throw new EOFException();
+                } else if (payload.hasRemaining()) {
+                    return;
+                }
+            }
+            received.add(new NetworkPacket(zipped, encoding, payload.array()));
+            payload = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NioConnection Id " + getId();
+    }
+
+    private static class NetworkPacket implements INetworkPacket {
+        private final boolean compressed;
+        private final int marshallingType;
+        private final byte[] data;
+
+        NetworkPacket(boolean compressed, int marshallingType, byte[] data) {
+            this.compressed = compressed;
+            this.marshallingType = marshallingType;
+            this.data = data;
+        }
+
+        @Override
+        public int getMarshallingType() {
+            return marshallingType;
+        }
+
+        @Override
+        public byte[] getData() {
+            return data;
+        }
+
+        @Override
+        public boolean isCompressed() {
+            return compressed;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common.net.connections;
+
+import org.apache.logging.log4j.LogManager;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small, fixed set of threads that each run a {@link Selector} and drive the reads and writes
+ * of any number of {@link NioConnection}s. Connections are spread over the threads round-robin.
+ * The received packets are processed on a fixed set of separate packet threads. Each connection
+ * processes its packets in one task at a time, so they are handled in the order they arrived, and
+ * a connection with a slow handler only holds up its own packets and one packet thread.
+ */
+public class NioSelectorPool {
+    private final SelectorThread[] selectorThreads;
+    private final AtomicInteger nextThread = new AtomicInteger();
+    private final AtomicInteger packetThreadCount = new AtomicInteger();
+    private final ExecutorService packetThreads;
+
+    /**
+     * Creates and starts the selector threads.
+     *
+     * @param threadCount the number of I/O threads, at least one thread is always created; there
+     *                    are as many packet threads, but at least two
+     * @throws IOException if a selector cannot be opened
+     */
+    public NioSelectorPool(int threadCount) throws IOException {
+        packetThreads = Executors.newFixedThreadPool(Math.max(2, threadCount), task -> {
+            Thread thread = new Thread(task, "Connection packets " + packetThreadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        selectorThreads = new SelectorThread[Math.max(1, threadCount)];
+        for (int i = 0; i < selectorThreads.length; i++) {
+            selectorThreads[i] = new SelectorThread("Connection I/O " + i);
+        }
+    }
+
+    /**
+     * Assigns the connection to one of the selector threads, which registers its channel.
+     */
+    void register(NioConnection connection) {
+        SelectorThread thread = selectorThreads[Math.floorMod(nextThread.getAndIncrement(),
+                selectorThreads.length)];
+        connection.selectorThread = thread;
+        thread.pendingRegistrations.add(connection);
+        thread.selector.wakeup();
+    }
+
+    /**
+     * Runs the processing of received packets on one of the packet threads.
+     */
+    void process(Runnable task) {
+        try {
+            packetThreads.execute(task);
+        } catch (RejectedExecutionException e) {
+            // The pool is shutting down; the packets are of no use anymore
+            LogManager.getLogger().debug("Dropped received packets after shutdown");
+        }
+    }
+
+    /**
+     * Stops all selector and packet threads. Connections must be closed separately.
+     */
+    public void shutdown() {
+        for (SelectorThread thread : selectorThreads) {
+            thread.shutdown();
+        }
+        packetThreads.shutdown();
+    }
+
+    static class SelectorThread implements Runnable {
+        private final Selector selector;
+        private final Queue<NioConnection> pendingRegistrations = new ConcurrentLinkedQueue<>();
+        private final Queue<NioConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+        private volatile boolean running = true;
+
+        SelectorThread(String name) throws IOException {
+            selector = Selector.open();
+            Thread thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Asks this thread to write the queued data of the given connection.
+         */
+        void requestWrite(NioConnection connection) {
+            pendingWrites.add(connection);
+            selector.wakeup();
+        }
+
+        void shutdown() {
+            running = false;
+            try {
+                selector.close();
+            } catch (IOException e) {
+                LogManager.getLogger().error("Failed closing selector", e);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select();
+
+                    NioConnection connection;
+                    while ((connection = pendingRegistrations.poll()) != null) {
+                        try {
+                            connection.register(selector);
+                        } catch (IOException e) {
+                            connection.close();
+                        }
+                    }
+
+                    while ((connection = pendingWrites.poll()) != null) {
+                        connection.handleWritable();
+                    }
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        connection = (NioConnection) key.attachment();
+                        if (key.isValid() && key.isReadable()) {
+                            connection.handleReadable();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.handleWritable();
+                        }
+                    }
+                } catch (ClosedSelectorException e) {
+                    return;
+                } catch (Exception e) {
+                    LogManager.getLogger().error("Unexpected error in selector thread", e);
+                }
+            }
+        }
+    }
+}
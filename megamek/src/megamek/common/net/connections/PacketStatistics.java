@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common.net.connections;
+
+import megamek.common.net.enums.PacketCommand;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Process-wide counters for packet encoding, kept per {@link PacketCommand}. They record how
+ * often packets were actually marshalled and compressed, how long that took and how large the
+ * result was, as well as how often an already encoded packet was reused for another connection
+ * instead of being encoded again. The counters are lock-free and cheap enough to stay enabled.
+ */
+public final class PacketStatistics {
+    //region Variable Declarations
+    private static final PacketCommand[] PACKET_COMMANDS = PacketCommand.values();
+    private static final PacketStatistics INSTANCE = new PacketStatistics();
+
+    private final AtomicLongArray encodes = new AtomicLongArray(PACKET_COMMANDS.length);
+    private final AtomicLongArray encodeNanos = new AtomicLongArray(PACKET_COMMANDS.length);
+    private final AtomicLongArray encodedBytes = new AtomicLongArray(PACKET_COMMANDS.length);
+    private final AtomicLongArray reuses = new AtomicLongArray(PACKET_COMMANDS.length);
+    private final AtomicLongArray reusedBytes = new AtomicLongArray(PACKET_COMMANDS.length);
+    //endregion Variable Declarations
+
+    //region Constructors
+    private PacketStatistics() {
+
+    }
+    //endregion Constructors
+
+    public static PacketStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    //region Recording
+    void recordEncode(final PacketCommand command, final int bytes, final long nanos) {
+        final int index = command.ordinal();
+        encodes.incrementAndGet(index);
+        encodeNanos.addAndGet(index, nanos);
+        encodedBytes.addAndGet(index, bytes);
+    }
+
+    void recordReuse(final PacketCommand command, final int bytes) {
+        final int index = command.ordinal();
+        reuses.incrementAndGet(index);
+        reusedBytes.addAndGet(index, bytes);
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset() {
+        for (int i = 0; i < PACKET_COMMANDS.length; i++) {
+            encodes.set(i, 0);
+            encodeNanos.set(i, 0);
+            encodedBytes.set(i, 0);
+            reuses.set(i, 0);
+            reusedBytes.set(i, 0);
+        }
+    }
+    //endregion Recording
+
+    //region Getters
+    /**
+     * @return the number of times packets with the given command were marshalled
+     */
+    public long getEncodes(final PacketCommand command) {
+        return encodes.get(command.ordinal());
+    }
+
+    /**
+     * @return the total time in nanoseconds spent marshalling packets with the given command
+     */
+    public long getEncodeNanos(final PacketCommand command) {
+        return encodeNanos.get(command.ordinal());
+    }
+
+    /**
+     * @return the total encoded size in bytes of all packets with the given command
+     */
+    public long getEncodedBytes(final PacketCommand command) {
+        return encodedBytes.get(command.ordinal());
+    }
+
+    /**
+     * @return the number of times an encoded packet with the given command was reused instead of
+     * being marshalled again
+     */
+    public long getReuses(final PacketCommand command) {
+        return reuses.get(command.ordinal());
+    }
+
+    /**
+     * @return the number of bytes that did not have to be marshalled again thanks to reuse
+     */
+    public long getReusedBytes(final PacketCommand command) {
+        return reusedBytes.get(command.ordinal());
+    }
+
+    /**
+     * @return the estimated encoding time in nanoseconds saved by reusing encoded packets with the
+     * given command, based on the average encoding time for that command
+     */
+    public long getSavedNanos(final PacketCommand command) {
+        final long count = getEncodes(command);
+        return (count == 0) ? 0 : (getEncodeNanos(command) / count) * getReuses(command);
+    }
+    //endregion Getters
+
+    /**
+     * @return one line per packet command that has been encoded at least once, describing the
+     * encode count, bytes and time, as well as the reuse count and estimated savings
+     */
+    public String getReport() {
+        final StringBuilder sb = new StringBuilder();
+        for (final PacketCommand command : PACKET_COMMANDS) {
+            if (getEncodes(command) == 0) {
+                continue;
+            }
+            sb.append(command).append(": encoded ").append(getEncodes(command))
+                    .append("x, ").append(getEncodedBytes(command)).append(" bytes, ")
+                    .append(getEncodeNanos(command) / 1000000L).append(" ms; reused ")
+                    .append(getReuses(command)).append("x, ").append(getReusedBytes(command))
+                    .append(" bytes, ~").append(getSavedNanos(command) / 1000000L)
+                    .append(" ms saved").append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common.net.connections;
+
+import megamek.common.net.enums.PacketCommand;
+import megamek.common.net.marshalling.PacketMarshaller;
+import megamek.common.net.packets.Packet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Wraps a {@link Packet} that is to be sent to several connections. The packet is encoded at most
+ * once per marshalling type and compression setting, and the resulting immutable
+ * {@link SendPacket} is shared by every connection that asks for the same encoding. This avoids
+ * serializing and compressing large broadcasts such as full entity lists or the board once for
+ * every connected client.
+ */
+public final class PreEncodedPacket {
+    //region Variable Declarations
+    private final Packet packet;
+    private final Map<Integer, SendPacket> encodings = new HashMap<>(2);
+    //endregion Variable Declarations
+
+    //region Constructors
+    public PreEncodedPacket(final Packet packet) {
+        this.packet = packet;
+    }
+    //endregion Constructors
+
+    //region Getters
+    public Packet getPacket() {
+        return packet;
+    }
+
+    public PacketCommand getCommand() {
+        return packet.getCommand();
+    }
+    //endregion Getters
+
+    /**
+     * Returns the encoded form of the packet for the given marshalling type and compression
+     * setting, encoding it only if no connection has asked for that form before.
+     *
+     * @param marshaller the marshaller belonging to the marshalling type
+     * @param marshallingType the marshalling type of the requesting connection
+     * @param zip true if the requesting connection compresses its data
+     * @return the shared encoded packet
+     * @throws Exception if the packet cannot be marshalled
+     */
+    public synchronized SendPacket getEncoded(final PacketMarshaller marshaller,
+                                              final int marshallingType,
+                                              final boolean zip) throws Exception {
+        final boolean zipped = zip && (packet.getData() != null);
+        final int key = (marshallingType << 1) | (zipped ? 1 : 0);
+        SendPacket encoded = encodings.get(key);
+        if (encoded == null) {
+            encoded = SendPacket.encode(packet, marshaller, marshallingType, zipped);
+            encodings.put(key, encoded);
+        } else {
+            PacketStatistics.getInstance().recordReuse(packet.getCommand(), encoded.getData().length);
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common.net.connections;
+
+import megamek.common.net.enums.PacketCommand;
+import megamek.common.net.marshalling.PacketMarshaller;
+import megamek.common.net.packets.Packet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A packet that has been marshalled (and possibly compressed) and is ready to be written to the
+ * wire. Instances are immutable, so the same <code>SendPacket</code> may sit in the send queue of
+ * any number of connections that share its marshalling type and compression setting. The data
+ * array returned by {@link #getData()} must therefore never be modified.
+ */
+public final class SendPacket implements AbstractConnection.INetworkPacket {
+    //region Variable Declarations
+    private final PacketCommand command;
+    private final int marshallingType;
+    private final boolean zipped;
+    private final byte[] data;
+    //endregion Variable Declarations
+
+    //region Constructors
+    private SendPacket(final PacketCommand command, final int marshallingType,
+                       final boolean zipped, final byte[] data) {
+        this.command = command;
+        this.marshallingType = marshallingType;
+        this.zipped = zipped;
+        this.data = data;
+    }
+    //endregion Constructors
+
+    //region Getters
+    @Override
+    public int getMarshallingType() {
+        return marshallingType;
+    }
+
+    @Override
+    public byte[] getData() {
+        return data;
+    }
+
+    @Override
+    public boolean isCompressed() {
+        return zipped;
+    }
+
+    public PacketCommand getCommand() {
+        return command;
+    }
+    //endregion Getters
+
+    /**
+     * Marshalls and optionally compresses the given packet, recording the time and size of the
+     * encoding in the {@link PacketStatistics}.
+     *
+     * @param packet the packet to encode
+     * @param marshaller the marshaller to use
+     * @param marshallingType the marshalling type identifier written to the wire
+     * @param zip true to compress the marshalled data
+     * @return the encoded packet
+     * @throws Exception if the packet cannot be marshalled
+     */
+    static SendPacket encode(final Packet packet, final PacketMarshaller marshaller,
+                             final int marshallingType, final boolean zip) throws Exception {
+        final long start = System.nanoTime();
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final OutputStream out = zip ? new GZIPOutputStream(bos) : bos;
+        marshaller.marshall(packet, out);
+        out.close();
+        final SendPacket sendPacket = new SendPacket(packet.getCommand(), marshallingType, zip,
+                bos.toByteArray());
+        PacketStatistics.getInstance().recordEncode(packet.getCommand(),
+                sendPacket.getData().length, System.nanoTime() - start);
+        return sendPacket;
+    }
+}
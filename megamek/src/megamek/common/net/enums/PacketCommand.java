@@ -120,7 +120,9 @@ public enum PacketCommand {
     CFR_HIDDEN_PBS,
     CFR_TELEGUIDED_TARGET,
     CFR_TAG_TARGET,
-    GAME_VICTORY_EVENT;
+    GAME_VICTORY_EVENT,
+    ENTITY_DELTA_UPDATE,
+    ENTITY_FULL_UPDATE_REQUEST;
     //endregion Enum Declarations
 
     //region Boolean Comparison Methods
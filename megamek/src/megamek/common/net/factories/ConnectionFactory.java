@@ -15,8 +15,11 @@ package megamek.common.net.factories;
 
 import megamek.common.net.connections.AbstractConnection;
 import megamek.common.net.connections.DataStreamConnection;
+import megamek.common.net.connections.NioConnection;
+import megamek.common.net.connections.NioSelectorPool;
 
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 
 /**
  * Connections factory. Creates the Client/Server connections
@@ -59,4 +62,18 @@ public class ConnectionFactory {
     public AbstractConnection createServerConnection(Socket socket, int id) {
         return new DataStreamConnection(socket, id);
     }
+
+    /**
+     * Creates new non-blocking Server connection that is driven by the given selector pool
+     * once it is opened
+     *
+     * @param channel accepted socket channel to read/write
+     * @param id connection ID
+     * @param selectorPool the selector threads performing the connection's I/O
+     * @return new Server connection
+     */
+    public AbstractConnection createServerConnection(SocketChannel channel, int id,
+                                                     NioSelectorPool selectorPool) {
+        return new NioConnection(channel, id, selectorPool);
+    }
 }
@@ -0,0 +1,676 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common.net.marshalling;
+
+import megamek.MMConstants;
+import megamek.common.*;
+import megamek.common.MovePath.MoveStepType;
+import megamek.common.actions.TorsoTwistAction;
+import megamek.common.actions.WeaponAttackAction;
+import megamek.common.annotations.Nullable;
+import megamek.common.enums.AimingMode;
+import megamek.common.enums.GamePhase;
+import megamek.common.net.enums.PacketCommand;
+import megamek.common.net.packets.Packet;
+import org.nibblesec.tools.SerialKiller;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Marshaller that writes packets in a compact, hand-written binary encoding. The packet data
+ * values of the frequently sent commands (entity movement and attacks, entity updates, turns,
+ * phase changes, hex changes and reports) are mostly made of a small set of types - numbers,
+ * strings, coordinates, game phases, unit locations, hexes, reports, move paths, weapon attacks,
+ * torso twists, entity deltas and standard collections of these. Those are written as a type tag
+ * followed by their fields, using variable length integers.
+ *
+ * Move paths are written as the data their steps are compiled from, so the receiver has to
+ * compile them before use. Any other value, e.g. a full <code>Entity</code>, is written as an
+ * embedded Java serialization blob and read back through <code>SerialKiller</code>, just like
+ * with the {@link NativeSerializationMarshaller}.
+ */
+public class CompactBinaryMarshaller extends PacketMarshaller {
+    //region Variable Declarations
+    private static final PacketCommand[] PACKET_COMMANDS = PacketCommand.values();
+    private static final GamePhase[] GAME_PHASES = GamePhase.values();
+    private static final MoveStepType[] MOVE_STEP_TYPES = MoveStepType.values();
+    private static final AimingMode[] AIMING_MODES = AimingMode.values();
+
+    /** The largest number of elements a collection or array read from a packet may have */
+    private static final int MAX_ELEMENTS = 1 << 20;
+    /** Collections read from a packet grow beyond this capacity as their elements are read */
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_INTEGER = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_FALSE = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_DOUBLE = 5;
+    private static final int TAG_STRING = 6;
+    private static final int TAG_INT_ARRAY = 7;
+    private static final int TAG_COORDS = 8;
+    private static final int TAG_GAME_PHASE = 9;
+    private static final int TAG_UNIT_LOCATION = 10;
+    private static final int TAG_HEX = 11;
+    private static final int TAG_REPORT = 12;
+    private static final int TAG_VECTOR = 13;
+    private static final int TAG_ARRAY_LIST = 14;
+    private static final int TAG_HASH_SET = 15;
+    private static final int TAG_LINKED_HASH_SET = 16;
+    private static final int TAG_SERIALIZED = 17;
+    private static final int TAG_MOVE_PATH = 18;
+    private static final int TAG_WEAPON_ATTACK = 19;
+    private static final int TAG_TORSO_TWIST = 20;
+    private static final int TAG_ENTITY_DELTA = 21;
+    //endregion Variable Declarations
+
+    @Override
+    public void marshall(final Packet packet, final OutputStream stream) throws Exception {
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        writeVarInt(out, packet.getCommand().ordinal());
+        final Object[] data = packet.getData();
+        if (data == null) {
+            writeVarInt(out, -1);
+        } else {
+            writeVarInt(out, data.length);
+            for (final Object value : data) {
+                writeValue(out, value);
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    public Packet unmarshall(final InputStream stream) throws Exception {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        final PacketCommand command = PACKET_COMMANDS[readIndex(in, PACKET_COMMANDS.length)];
+        final int length = readVarInt(in);
+        if (length < 0) {
+            return new Packet(command, (Object[]) null);
+        }
+        final Object[] data = new Object[checkSize(length)];
+        for (int i = 0; i < length; i++) {
+            data[i] = readValue(in);
+        }
+        return new Packet(command, data);
+    }
+
+    //region Values
+    private void writeValue(final DataOutputStream out, final Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INTEGER);
+            writeVarInt(out, (Integer) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            writeVarLong(out, (Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof int[]) {
+            out.writeByte(TAG_INT_ARRAY);
+            writeIntArray(out, (int[]) value);
+        } else if (value instanceof Coords) {
+            out.writeByte(TAG_COORDS);
+            writeCoords(out, (Coords) value);
+        } else if (value instanceof GamePhase) {
+            out.writeByte(TAG_GAME_PHASE);
+            writeVarInt(out, ((GamePhase) value).ordinal());
+        } else if (value instanceof UnitLocation) {
+            final UnitLocation location = (UnitLocation) value;
+            out.writeByte(TAG_UNIT_LOCATION);
+            writeVarInt(out, location.getId());
+            writeValue(out, location.getCoords());
+            writeVarInt(out, location.getFacing());
+            writeVarInt(out, location.getElevation());
+        } else if (isExactly(value, Hex.class)) {
+            out.writeByte(TAG_HEX);
+            writeHex(out, (Hex) value);
+        } else if (isExactly(value, Report.class)) {
+            out.writeByte(TAG_REPORT);
+            writeReport(out, (Report) value);
+        } else if (isExactly(value, MovePath.class)) {
+            out.writeByte(TAG_MOVE_PATH);
+            writeMovePath(out, (MovePath) value);
+        } else if (isExactly(value, WeaponAttackAction.class)) {
+            out.writeByte(TAG_WEAPON_ATTACK);
+            writeWeaponAttack(out, (WeaponAttackAction) value);
+        } else if (isExactly(value, TorsoTwistAction.class)) {
+            final TorsoTwistAction twist = (TorsoTwistAction) value;
+            out.writeByte(TAG_TORSO_TWIST);
+            writeVarInt(out, twist.getEntityId());
+            writeVarInt(out, twist.getFacing());
+        } else if (isExactly(value, EntityDelta.class)) {
+            out.writeByte(TAG_ENTITY_DELTA);
+            writeEntityDelta(out, (EntityDelta) value);
+        } else if (isCompactCollection(value)) {
+            final Collection<?> collection = (Collection<?>) value;
+            out.writeByte(collectionTag(collection));
+            writeVarInt(out, collection.size());
+            for (final Object element : collection) {
+                writeValue(out, element);
+            }
+        } else {
+            out.writeByte(TAG_SERIALIZED);
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+                objectOut.writeObject(value);
+            }
+            writeVarInt(out, bytes.size());
+            bytes.writeTo(out);
+        }
+    }
+
+    private Object readValue(final DataInputStream in) throws IOException, ClassNotFoundException {
+        final int tag = in.readUnsignedByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_INTEGER:
+                return readVarInt(in);
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_LONG:
+                return readVarLong(in);
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_STRING:
+                return readString(in);
+            case TAG_INT_ARRAY:
+                return readIntArray(in);
+            case TAG_COORDS:
+                return readCoords(in);
+            case TAG_GAME_PHASE:
+                return GAME_PHASES[readIndex(in, GAME_PHASES.length)];
+            case TAG_UNIT_LOCATION:
+                return new UnitLocation(readVarInt(in), (Coords) readValue(in), readVarInt(in),
+                        readVarInt(in));
+            case TAG_HEX:
+                return readHex(in);
+            case TAG_REPORT:
+                return readReport(in);
+            case TAG_MOVE_PATH:
+                return readMovePath(in);
+            case TAG_WEAPON_ATTACK:
+                return readWeaponAttack(in);
+            case TAG_TORSO_TWIST:
+                return new TorsoTwistAction(readVarInt(in), readVarInt(in));
+            case TAG_ENTITY_DELTA:
+                return readEntityDelta(in);
+            case TAG_VECTOR:
+            case TAG_ARRAY_LIST:
+            case TAG_HASH_SET:
+            case TAG_LINKED_HASH_SET:
+                final int size = readSize(in);
+                final Collection<Object> collection = createCollection(tag, size);
+                for (int i = 0; i < size; i++) {
+                    collection.add(readValue(in));
+                }
+                return collection;
+            case TAG_SERIALIZED:
+                final byte[] bytes = readBytes(in, readVarInt(in));
+                try (ObjectInputStream objectIn = new SerialKiller(new ByteArrayInputStream(bytes),
+                        MMConstants.SERIALKILLER_CONFIG_FILE)) {
+                    return objectIn.readObject();
+                }
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    private static boolean isExactly(final Object value, final Class<?> type) {
+        return value.getClass() == type;
+    }
+
+    /**
+     * @return true if the value is one of the supported collection classes and all its elements
+     * can be written without falling back to serialization. Collections containing any other
+     * value are serialized as a whole, so that the class descriptors are only written once.
+     */
+    private static boolean isCompactCollection(final Object value) {
+        if (!isExactly(value, Vector.class) && !isExactly(value, ArrayList.class)
+                && !isExactly(value, HashSet.class) && !isExactly(value, LinkedHashSet.class)) {
+            return false;
+        }
+        for (final Object element : (Collection<?>) value) {
+            if (!isCompact(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCompact(final Object value) {
+        return (value == null) || (value instanceof Integer) || (value instanceof Boolean)
+                || (value instanceof Long) || (value instanceof Double) || (value instanceof String)
+                || (value instanceof int[]) || (value instanceof Coords)
+                || (value instanceof GamePhase) || (value instanceof UnitLocation)
+                || isExactly(value, Hex.class) || isExactly(value, Report.class)
+                || isExactly(value, MovePath.class) || isExactly(value, WeaponAttackAction.class)
+                || isExactly(value, TorsoTwistAction.class) || isExactly(value, EntityDelta.class)
+                || isCompactCollection(value);
+    }
+
+    private static int collectionTag(final Collection<?> collection) {
+        if (collection instanceof Vector) {
+            return TAG_VECTOR;
+        } else if (collection instanceof ArrayList) {
+            return TAG_ARRAY_LIST;
+        } else if (collection instanceof LinkedHashSet) {
+            return TAG_LINKED_HASH_SET;
+        } else {
+            return TAG_HASH_SET;
+        }
+    }
+
+    private static Collection<Object> createCollection(final int tag, final int size) {
+        final int capacity = Math.min(size, MAX_INITIAL_CAPACITY);
+        switch (tag) {
+            case TAG_VECTOR:
+                return new Vector<>(capacity);
+            case TAG_ARRAY_LIST:
+                return new ArrayList<>(capacity);
+            case TAG_LINKED_HASH_SET:
+                return new LinkedHashSet<>();
+            default:
+                return new HashSet<>();
+        }
+    }
+    //endregion Values
+
+    //region Game Types
+    private static void writeHex(final DataOutput out, final Hex hex) throws IOException {
+        writeVarInt(out, hex.getLevel());
+        writeNullableCoords(out, hex.getCoords());
+        writeNullableString(out, hex.getTheme());
+        writeNullableString(out, hex.getOriginalTheme());
+        writeVarInt(out, hex.getFireTurn());
+        final int[] types = hex.getTerrainTypes();
+        writeVarInt(out, types.length);
+        for (final int type : types) {
+            final Terrain terrain = hex.getTerrain(type);
+            writeVarInt(out, terrain.getType());
+            writeVarInt(out, terrain.getLevel());
+            out.writeBoolean(terrain.hasExitsSpecified());
+            writeVarInt(out, terrain.getExits());
+            writeVarInt(out, terrain.getTerrainFactor());
+        }
+    }
+
+    private static Hex readHex(final DataInputStream in) throws IOException {
+        final int level = readVarInt(in);
+        final Coords coords = readNullableCoords(in);
+        final String theme = readNullableString(in);
+        final String originalTheme = readNullableString(in);
+        final int fireTurn = readVarInt(in);
+        final Terrain[] terrains = new Terrain[readSize(in)];
+        for (int i = 0; i < terrains.length; i++) {
+            terrains[i] = new Terrain(readVarInt(in), readVarInt(in), in.readBoolean(), readVarInt(in));
+            terrains[i].setTerrainFactor(readVarInt(in));
+        }
+        final Hex hex = new Hex(level, terrains, originalTheme, coords);
+        hex.setTheme(theme);
+        hex.setFireTurn(fireTurn);
+        return hex;
+    }
+
+    /**
+     * Writes the fields of a report that are sent to clients, i.e. everything but the transient
+     * fields.
+     */
+    private static void writeReport(final DataOutput out, final Report report) throws IOException {
+        writeVarInt(out, report.messageId);
+        writeVarInt(out, report.getIndentation());
+        writeVarInt(out, report.newlines);
+        writeVarInt(out, report.dataCount());
+        for (int i = 0; i < report.dataCount(); i++) {
+            writeNullableString(out, report.getData(i));
+            out.writeBoolean(report.isValueObscured(i));
+        }
+        writeNullableString(out, report.getTagTranslate());
+        writeVarInt(out, report.getObscuredRecipients().size());
+        for (final String recipient : report.getObscuredRecipients()) {
+            writeNullableString(out, recipient);
+        }
+        writeNullableString(out, report.getImageCode());
+    }
+
+    private static Report readReport(final DataInputStream in) throws IOException {
+        final Report report = new Report(readVarInt(in));
+        report.setIndentation(readVarInt(in));
+        report.newlines = readVarInt(in);
+        final int dataCount = readSize(in);
+        for (int i = 0; i < dataCount; i++) {
+            report.add(readNullableString(in), in.readBoolean());
+        }
+        report.setTagTranslate(readNullableString(in));
+        final int recipients = readSize(in);
+        for (int i = 0; i < recipients; i++) {
+            report.addObscuredRecipient(readNullableString(in));
+        }
+        report.setImageCode(readNullableString(in));
+        return report;
+    }
+
+    /**
+     * Writes the steps of a path with only the data that {@link MovePath#compile} creates the
+     * compiled steps from.
+     */
+    private void writeMovePath(final DataOutputStream out, final MovePath path) throws IOException {
+        out.writeBoolean(path.isCareful());
+        writeVarInt(out, path.length());
+        for (final Enumeration<MoveStep> steps = path.getSteps(); steps.hasMoreElements(); ) {
+            final MoveStep step = steps.nextElement();
+            writeVarInt(out, step.getType().ordinal());
+            writeVarInt(out, step.getTargetId());
+            writeVarInt(out, step.getTargetType());
+            writeNullableCoords(out, step.getTargetPosition());
+            writeVarInt(out, step.getRecoveryUnit());
+            writeVarInt(out, step.getMineToLay());
+            writeVarInt(out, step.getBraceLocation());
+            writeVarInt(out, step.getManeuverType());
+            out.writeBoolean(step.hasNoCost());
+            out.writeBoolean(step.isManeuver());
+            writeValue(out, step.getMinefield());
+            final TreeMap<Integer, Vector<Integer>> launched = step.getLaunched();
+            writeVarInt(out, launched.size());
+            for (final Map.Entry<Integer, Vector<Integer>> entry : launched.entrySet()) {
+                writeVarInt(out, entry.getKey());
+                writeVarInt(out, entry.getValue().size());
+                for (final Integer id : entry.getValue()) {
+                    writeVarInt(out, id);
+                }
+            }
+        }
+    }
+
+    private MovePath readMovePath(final DataInputStream in) throws IOException, ClassNotFoundException {
+        final boolean careful = in.readBoolean();
+        final int length = readSize(in);
+        final List<MoveStep> steps = new ArrayList<>(Math.min(length, MAX_INITIAL_CAPACITY));
+        for (int i = 0; i < length; i++) {
+            final MoveStepType type = MOVE_STEP_TYPES[readIndex(in, MOVE_STEP_TYPES.length)];
+            final int targetId = readVarInt(in);
+            final int targetType = readVarInt(in);
+            final Coords targetPosition = readNullableCoords(in);
+            final int recoveryUnit = readVarInt(in);
+            final int mineToLay = readVarInt(in);
+            final int braceLocation = readVarInt(in);
+            final int maneuverType = readVarInt(in);
+            final boolean noCost = in.readBoolean();
+            final boolean maneuver = in.readBoolean();
+            final Object minefield = readValue(in);
+            if ((minefield != null) && !(minefield instanceof Minefield)) {
+                throw new IOException("Unexpected minefield value " + minefield.getClass());
+            }
+            TreeMap<Integer, Vector<Integer>> launched = null;
+            final int bays = readSize(in);
+            for (int bay = 0; bay < bays; bay++) {
+                if (launched == null) {
+                    launched = new TreeMap<>();
+                }
+                final int bayNumber = readVarInt(in);
+                final Vector<Integer> ids = new Vector<>();
+                final int count = readSize(in);
+                for (int j = 0; j < count; j++) {
+                    ids.add(readVarInt(in));
+                }
+                launched.put(bayNumber, ids);
+            }
+            steps.add(new MoveStep(type, targetId, targetType, targetPosition, recoveryUnit,
+                    mineToLay, braceLocation, launched, maneuverType, noCost, maneuver,
+                    (Minefield) minefield));
+        }
+        return MovePath.ofUncompiledSteps(steps, careful);
+    }
+
+    private static void writeWeaponAttack(final DataOutput out, final WeaponAttackAction attack)
+            throws IOException {
+        writeVarInt(out, attack.getEntityId());
+        writeVarInt(out, attack.getTargetType());
+        writeVarInt(out, attack.getTargetId());
+        writeVarInt(out, attack.getWeaponId());
+        writeVarInt(out, attack.getAmmoId());
+        writeVarInt(out, attack.getAmmoCarrier());
+        writeVarInt(out, attack.getAimedLocation());
+        writeVarInt(out, attack.getAimingMode().ordinal());
+        writeVarInt(out, attack.getOtherAttackInfo());
+        out.writeBoolean(attack.isNemesisConfused());
+        out.writeBoolean(attack.isSwarmingMissiles());
+        writeVarInt(out, attack.getLaunchVelocity());
+        writeVarInt(out, attack.getOldTargetId());
+        writeVarInt(out, attack.getOldTargetType());
+        writeVarInt(out, attack.getOriginalTargetId());
+        writeVarInt(out, attack.getOriginalTargetType());
+        writeVarInt(out, attack.getSwarmMissiles());
+        out.writeBoolean(attack.getBombPayload() != null);
+        if (attack.getBombPayload() != null) {
+            writeIntArray(out, attack.getBombPayload());
+        }
+        out.writeBoolean(attack.isStrafing());
+        out.writeBoolean(attack.isStrafingFirstShot());
+        out.writeBoolean(attack.isPointblankShot());
+        out.writeBoolean(attack.isHomingShot());
+    }
+
+    private static WeaponAttackAction readWeaponAttack(final DataInputStream in) throws IOException {
+        final WeaponAttackAction attack = new WeaponAttackAction(readVarInt(in), readVarInt(in),
+                readVarInt(in), readVarInt(in));
+        attack.setAmmoId(readVarInt(in));
+        attack.setAmmoCarrier(readVarInt(in));
+        attack.setAimedLocation(readVarInt(in));
+        attack.setAimingMode(AIMING_MODES[readIndex(in, AIMING_MODES.length)]);
+        attack.setOtherAttackInfo(readVarInt(in));
+        attack.setNemesisConfused(in.readBoolean());
+        attack.setSwarmingMissiles(in.readBoolean());
+        attack.setLaunchVelocity(readVarInt(in));
+        attack.setOldTargetId(readVarInt(in));
+        attack.setOldTargetType(readVarInt(in));
+        attack.setOriginalTargetId(readVarInt(in));
+        attack.setOriginalTargetType(readVarInt(in));
+        attack.setSwarmMissiles(readVarInt(in));
+        attack.setBombPayload(in.readBoolean() ? readIntArray(in) : null);
+        attack.setStrafing(in.readBoolean());
+        attack.setStrafingFirstShot(in.readBoolean());
+        attack.setPointblankShot(in.readBoolean());
+        attack.setHomingShot(in.readBoolean());
+        return attack;
+    }
+
+    private static void writeEntityDelta(final DataOutput out, final EntityDelta delta) throws IOException {
+        writeVarInt(out, delta.getEntityId());
+        out.writeLong(delta.getBaseDigest());
+        out.writeLong(delta.getDigest());
+        writeVarInt(out, delta.getChangedFields());
+        writeNullableCoords(out, delta.getPosition());
+        writeVarInt(out, delta.getFacing());
+        writeVarInt(out, delta.getSecondaryFacing());
+        writeVarInt(out, delta.getElevation());
+        writeVarInt(out, delta.getAltitude());
+        writeVarInt(out, delta.getHeat());
+        out.writeBoolean(delta.isDone());
+        writeIntArray(out, delta.getArmor());
+        writeIntArray(out, delta.getInternal());
+        writeIntArray(out, delta.getCrewHits());
+        writeIntArray(out, delta.getAmmo());
+    }
+
+    private static EntityDelta readEntityDelta(final DataInputStream in) throws IOException {
+        return new EntityDelta(readVarInt(in), in.readLong(), in.readLong(), readVarInt(in),
+                readNullableCoords(in), readVarInt(in), readVarInt(in), readVarInt(in),
+                readVarInt(in), readVarInt(in), in.readBoolean(), readIntArray(in),
+                readIntArray(in), readIntArray(in), readIntArray(in));
+    }
+    //endregion Game Types
+
+    //region Primitives
+    private static void writeCoords(final DataOutput out, final Coords coords) throws IOException {
+        writeVarInt(out, coords.getX());
+        writeVarInt(out, coords.getY());
+    }
+
+    private static Coords readCoords(final DataInput in) throws IOException {
+        return new Coords(readVarInt(in), readVarInt(in));
+    }
+
+    private static void writeNullableCoords(final DataOutput out, final @Nullable Coords coords)
+            throws IOException {
+        out.writeBoolean(coords != null);
+        if (coords != null) {
+            writeCoords(out, coords);
+        }
+    }
+
+    private static @Nullable Coords readNullableCoords(final DataInput in) throws IOException {
+        return in.readBoolean() ? readCoords(in) : null;
+    }
+
+    private static void writeIntArray(final DataOutput out, final int[] array) throws IOException {
+        writeVarInt(out, array.length);
+        for (final int element : array) {
+            writeVarInt(out, element);
+        }
+    }
+
+    private static int[] readIntArray(final DataInput in) throws IOException {
+        final int[] array = new int[readSize(in)];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = readVarInt(in);
+        }
+        return array;
+    }
+
+    /**
+     * Writes a string as UTF-8 with a variable length prefix. Unlike {@link DataOutput#writeUTF}
+     * this has no limit on the length of the string.
+     */
+    private static void writeString(final DataOutput out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        return new String(readBytes(in, readVarInt(in)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a string that may be null as {@link #writeString} does, after a flag telling whether
+     * it is null.
+     */
+    private static void writeNullableString(final DataOutput out, final @Nullable String value)
+            throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeString(out, value);
+        }
+    }
+
+    private static @Nullable String readNullableString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? readString(in) : null;
+    }
+
+    /**
+     * Reads the given number of bytes. The buffer grows as the bytes arrive, so a corrupt length
+     * fails at the end of the stream instead of allocating its full size up front.
+     */
+    private static byte[] readBytes(final DataInputStream in, final int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Negative length " + length);
+        }
+        final byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException();
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads the number of elements of a collection or array.
+     *
+     * @throws IOException if the number is negative or larger than {@link #MAX_ELEMENTS}
+     */
+    private static int readSize(final DataInput in) throws IOException {
+        return checkSize(readVarInt(in));
+    }
+
+    private static int checkSize(final int size) throws IOException {
+        if ((size < 0) || (size > MAX_ELEMENTS)) {
+            throw new IOException("Invalid number of elements " + size);
+        }
+        return size;
+    }
+
+    /**
+     * Reads an index into an array of constants, such as the values of an enum.
+     *
+     * @throws IOException if the index is not below the given number of constants
+     */
+    private static int readIndex(final DataInput in, final int count) throws IOException {
+        final int index = readVarInt(in);
+        if ((index < 0) || (index >= count)) {
+            throw new IOException("Invalid index " + index + " of " + count + " constants");
+        }
+        return index;
+    }
+
+    /**
+     * Writes a zigzag encoded variable length int, using one byte for values between -64 and 63.
+     */
+    static void writeVarInt(final DataOutput out, final int value) throws IOException {
+        writeVarLong(out, value);
+    }
+
+    static int readVarInt(final DataInput in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    static void writeVarLong(final DataOutput out, final long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    static long readVarLong(final DataInput in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IOException("Malformed variable length number");
+    }
+    //endregion Primitives
+}
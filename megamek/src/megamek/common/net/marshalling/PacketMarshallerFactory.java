@@ -20,6 +20,8 @@ public class PacketMarshallerFactory {
 
     private NativeSerializationMarshaller nativeSerializationMarshaller;
 
+    private CompactBinaryMarshaller compactBinaryMarshaller;
+
     private PacketMarshallerFactory() {
     }
 
@@ -27,6 +29,33 @@ public class PacketMarshallerFactory {
         return instance;
     }
 
+    /**
+     * @return the marshalling types this factory can create marshallers for, most preferred first
+     */
+    public int[] getSupportedMarshallingTypes() {
+        return new int[] { PacketMarshaller.COMPACT_BINARY_MARSHALING,
+                PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING };
+    }
+
+    /**
+     * Selects the marshalling type to use for a connection from the types offered by the other
+     * side, in their order of preference.
+     *
+     * @param offeredTypes the marshalling types supported by the other side, or null if it did not
+     *                     announce any
+     * @return the first offered type this factory supports, or the native serialization type
+     */
+    public int negotiateMarshallingType(int... offeredTypes) {
+        if (offeredTypes != null) {
+            for (int type : offeredTypes) {
+                if (getMarshaller(type) != null) {
+                    return type;
+                }
+            }
+        }
+        return PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING;
+    }
+
     public PacketMarshaller getMarshaller(int marshallingType) {
         switch (marshallingType) {
             case PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING:
@@ -34,6 +63,11 @@ public class PacketMarshallerFactory {
                     nativeSerializationMarshaller = new NativeSerializationMarshaller();
                 }
                 return nativeSerializationMarshaller;
+            case PacketMarshaller.COMPACT_BINARY_MARSHALING:
+                if (compactBinaryMarshaller == null) {
+                    compactBinaryMarshaller = new CompactBinaryMarshaller();
+                }
+                return compactBinaryMarshaller;
             default:
                 return null;
         }
@@ -29,6 +29,9 @@ public abstract class AbstractOptions implements Serializable {
     private static final long serialVersionUID = 6406883135074654379L;
     private Hashtable<String, IOption> optionsHash = new Hashtable<>();
 
+    /** Told whenever the value of one of the options changes */
+    private transient Runnable changeListener;
+
     protected AbstractOptions() {
         initialize();
         getOptionsInfoImp().finish();
@@ -36,6 +39,24 @@ public abstract class AbstractOptions implements Serializable {
 
     protected abstract void initialize();
 
+    /**
+     * Sets the listener that is told whenever the value of one of these options is set, so that
+     * values derived from the options can be computed again. The listener is not serialized and
+     * must be set again on a copy.
+     *
+     * @param changeListener the listener, or null for none
+     */
+    public void setChangeListener(@Nullable Runnable changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    void optionChanged() {
+        final Runnable listener = changeListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
     /**
      * Returns a count of all options in this object.
      * @return Option count.
@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import megamek.client.bot.princess.CardinalEdge;
 import megamek.common.*;
@@ -94,10 +95,10 @@ public class BoardClusterTracker {
         }
     }
     
-    private Map<MovementType, Map<Coords, BoardCluster>> movableAreas = new HashMap<>();
-    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasWithTerrainReduction = new HashMap<>();
-    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasBridges = new HashMap<>();
-    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasBridgesWithTerrainReduction = new HashMap<>();
+    private Map<MovementType, Map<Coords, BoardCluster>> movableAreas = new ConcurrentHashMap<>();
+    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasWithTerrainReduction = new ConcurrentHashMap<>();
+    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasBridges = new ConcurrentHashMap<>();
+    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasBridgesWithTerrainReduction = new ConcurrentHashMap<>();
     
     /**
      * Returns the size of the biggest terrain-reduced or non-terrain-reduced
@@ -208,24 +209,23 @@ public class BoardClusterTracker {
     /**
      * Updates and stores accessible clusters for the given entity,
      * both for destruction and non-destruction-aware path finding.
+     * May be called by several threads at once. The clusters are generated outside of the maps,
+     * so that other movement types are not blocked meanwhile; threads that generate the clusters
+     * of the same movement type at once keep the first ones stored.
      */
     public void updateMovableAreas(Entity entity) {
         MovementType movementType = MovementType.getMovementType(entity);
-        
-        if (!movableAreas.containsKey(movementType)) {
-            movableAreas.put(movementType, generateClusters(entity, false, false));
-        }
-        
-        if (!movableAreasWithTerrainReduction.containsKey(movementType)) {
-            movableAreasWithTerrainReduction.putIfAbsent(movementType, generateClusters(entity, true, false));
-        }
-        
-        if (!movableAreasBridges.containsKey(movementType)) {
-            movableAreasBridges.put(movementType, generateClusters(entity, false, true));
-        }
-        
-        if (!movableAreasBridgesWithTerrainReduction.containsKey(movementType)) {
-            movableAreasBridgesWithTerrainReduction.putIfAbsent(movementType, generateClusters(entity, true, true));
+
+        updateMovableAreas(movableAreas, movementType, entity, false, false);
+        updateMovableAreas(movableAreasWithTerrainReduction, movementType, entity, true, false);
+        updateMovableAreas(movableAreasBridges, movementType, entity, false, true);
+        updateMovableAreas(movableAreasBridgesWithTerrainReduction, movementType, entity, true, true);
+    }
+
+    private void updateMovableAreas(Map<MovementType, Map<Coords, BoardCluster>> areas, MovementType movementType,
+                                    Entity entity, boolean destructionAware, boolean useBridgeTop) {
+        if (!areas.containsKey(movementType)) {
+            areas.putIfAbsent(movementType, generateClusters(entity, destructionAware, useBridgeTop));
         }
     }
 
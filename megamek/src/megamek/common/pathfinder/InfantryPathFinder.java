@@ -66,7 +66,7 @@ public class InfantryPathFinder {
             
             // add "flee" option if we haven't done anything else
             if (game.getBoard().isOnBoardEdge(startingEdge.getFinalCoords())
-                    && startingEdge.getStepVector().isEmpty()) {
+                    && (startingEdge.length() == 0)) {
                 MovePath fleePath = startingEdge.clone();
                 fleePath.addStep(MoveStepType.FLEE);
                 infantryPaths.add(fleePath);
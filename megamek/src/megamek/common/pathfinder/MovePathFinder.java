@@ -214,8 +214,8 @@ public class MovePathFinder<C> extends AbstractPathFinder<CoordsWithFacing, C, M
             Comparator<MovePath> {
         @Override
         public int compare(final MovePath first, final MovePath second) {
-            final int firstSteps = first.getStepVector().size();
-            final int secondSteps = second.getStepVector().size();
+            final int firstSteps = first.length();
+            final int secondSteps = second.length();
             return firstSteps - secondSteps;
         }
     }
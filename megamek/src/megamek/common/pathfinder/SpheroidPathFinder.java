@@ -95,7 +95,7 @@ public class SpheroidPathFinder {
             
             // add "flee" option if we haven't done anything else
             if (game.getBoard().isOnBoardEdge(startingEdge.getFinalCoords())
-                    && startingEdge.getStepVector().isEmpty()) {
+                    && (startingEdge.length() == 0)) {
                 MovePath fleePath = startingEdge.clone();
                 fleePath.addStep(MoveStepType.FLEE);
                 spheroidPaths.add(fleePath);
@@ -66,7 +66,8 @@ public class DedicatedServer {
         Server server;
 
         try {
-            server = new Server(resolver.password, resolver.port, resolver.registerServer, resolver.announceUrl, mailer, true);
+            server = new Server(resolver.password, resolver.port, resolver.registerServer, resolver.announceUrl, mailer, true,
+                    resolver.nioThreads);
             MegaMek.printToOut(Messages.getFormattedString("MegaMek.ServerStarted", server.getHost(), server.getPort(), server.isPassworded() ? "enabled" : "disabled") + "\n");
         } catch (Exception ex) {
             LogManager.getLogger().error("Error: could not start server at localhost" + ":" + resolver.port, ex);
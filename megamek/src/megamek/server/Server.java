@@ -39,11 +39,14 @@ import megamek.common.force.Force;
 import megamek.common.force.Forces;
 import megamek.common.icons.Camouflage;
 import megamek.common.net.connections.AbstractConnection;
+import megamek.common.net.connections.NioSelectorPool;
+import megamek.common.net.connections.PreEncodedPacket;
 import megamek.common.net.enums.PacketCommand;
 import megamek.common.net.events.DisconnectedEvent;
 import megamek.common.net.events.PacketReceivedEvent;
 import megamek.common.net.factories.ConnectionFactory;
 import megamek.common.net.listeners.ConnectionListener;
+import megamek.common.net.marshalling.PacketMarshallerFactory;
 import megamek.common.net.packets.Packet;
 import megamek.common.options.GameOptions;
 import megamek.common.options.IBasicOption;
@@ -66,6 +69,7 @@ import org.apache.logging.log4j.LogManager;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.ServerSocketChannel;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -78,34 +82,6 @@ import java.util.zip.GZIPOutputStream;
  * @author Ben Mazur
  */
 public class Server implements Runnable {
-    private static class EntityTargetPair {
-        Entity ent;
-
-        Targetable target;
-
-        EntityTargetPair (Entity e, Targetable t) {
-            ent = e;
-            target = t;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if ((null == o) || (getClass() != o.getClass())) {
-                return false;
-            }
-            final EntityTargetPair other = (EntityTargetPair) o;
-            return Objects.equals(ent, other.ent) && Objects.equals(target, other.target);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(ent, target);
-        }
-    }
-
     /**
      * The DamageType enumeration is used for the damageEntity function.
      */
@@ -123,6 +99,12 @@ public class Server implements Runnable {
 
     private ServerSocket serverSocket;
 
+    /**
+     * The selector threads driving all connections, or null if each connection has its own
+     * {@link ConnectionHandler} thread.
+     */
+    private final NioSelectorPool nioSelectorPool;
+
     private String motd;
 
     private EmailService mailer;
@@ -208,6 +190,9 @@ public class Server implements Runnable {
 
     private Game game = new Game();
 
+    /** The cached LOS and ECM fields used for double-blind visibility checks */
+    private VisibilityMatrix visibilityMatrix;
+
     private Vector<Report> vPhaseReport = new Vector<>();
 
     public Vector<Report> getvPhaseReport() {
@@ -432,6 +417,12 @@ public class Server implements Runnable {
                   String metaServerUrl, EmailService mailer) throws IOException {
         this(password, port, registerWithServerBrowser, metaServerUrl, mailer, false);
     }
+
+    public Server(@Nullable String password, int port, boolean registerWithServerBrowser,
+                  @Nullable String metaServerUrl, @Nullable EmailService mailer, boolean dedicated) throws IOException {
+        this(password, port, registerWithServerBrowser, metaServerUrl, mailer, dedicated, 0);
+    }
+
     /**
      * Construct a new GameHost and begin listening for incoming clients.
      *
@@ -442,9 +433,12 @@ public class Server implements Runnable {
      *                                  with the master server browser on megamek.info
      * @param mailer an email service instance to use for sending round reports.
      * @param dedicated set to true if this server is started from a GUI-less context
+     * @param nioThreads the number of non-blocking I/O threads serving all connections, or 0 to
+     *                   use a blocking connection thread per client
      */
     public Server(@Nullable String password, int port, boolean registerWithServerBrowser,
-                  @Nullable String metaServerUrl, @Nullable EmailService mailer, boolean dedicated) throws IOException {
+                  @Nullable String metaServerUrl, @Nullable EmailService mailer, boolean dedicated,
+                  int nioThreads) throws IOException {
         this.metaServerUrl = (metaServerUrl != null) && (!metaServerUrl.isBlank()) ? metaServerUrl : null;
         this.password = (password != null) && (!password.isBlank()) ? password : null;
 
@@ -452,7 +446,15 @@ public class Server implements Runnable {
         this.dedicated = dedicated;
 
         // initialize server socket
-        serverSocket = new ServerSocket(port);
+        if (nioThreads > 0) {
+            ServerSocketChannel serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port));
+            serverSocket = serverChannel.socket();
+            nioSelectorPool = new NioSelectorPool(nioThreads);
+        } else {
+            serverSocket = new ServerSocket(port);
+            nioSelectorPool = null;
+        }
 
         motd = createMotd();
 
@@ -517,6 +519,7 @@ public class Server implements Runnable {
         registerCommand(new AssignNovaNetServerCommand(this));
         registerCommand(new AllowTeamChangeCommand(this));
         registerCommand(new JoinTeamCommand(this));
+        registerCommand(new PacketStatsCommand(this));
 
         // register terrain processors
         terrainProcessors.add(new FireProcessor(this));
@@ -704,6 +707,9 @@ public class Server implements Runnable {
 
         connections.removeAllElements();
         connectionIds.clear();
+        if (nioSelectorPool != null) {
+            nioSelectorPool.shutdown();
+        }
         if (serverBrowserUpdateTimer != null) {
             serverBrowserUpdateTimer.cancel();
         }
@@ -968,22 +974,14 @@ public class Server implements Runnable {
                 send(createMapSizesPacket());
                 // Send Entities *after* the Lounge Phase Change
                 send(connId, new Packet(PacketCommand.PHASE_CHANGE, getGame().getPhase()));
-                if (doBlind()) {
-                    send(connId, createFilteredFullEntitiesPacket(player));
-                } else {
-                    send(connId, createFullEntitiesPacket());
-                }
+                sendEntities(connId, true);
             } else {
                 send(connId, new Packet(PacketCommand.ROUND_UPDATE, getGame().getRoundCount()));
                 send(connId, createBoardPacket());
                 send(connId, createAllReportsPacket(player));
 
                 // Send entities *before* other phase changes.
-                if (doBlind()) {
-                    send(connId, createFilteredFullEntitiesPacket(player));
-                } else {
-                    send(connId, createFullEntitiesPacket());
-                }
+                sendEntities(connId, true);
                 player.setDone(getGame().getEntitiesOwnedBy(player) <= 0);
                 send(connId, new Packet(PacketCommand.PHASE_CHANGE, getGame().getPhase()));
             }
@@ -1017,13 +1015,37 @@ public class Server implements Runnable {
      * Resend entities to the player called by SeeAll command
      */
     public void sendEntities(int connId) {
-        if (doBlind()) {
-            send(connId, createFilteredEntitiesPacket(getPlayer(connId), null));
-        } else {
-            send(connId, createEntitiesPacket());
+        sendEntities(connId, false);
+    }
+
+    /**
+     * Sends the entities the player of the given connection may see and records them as sent to
+     * that player.
+     *
+     * @param includeOutOfGame true to send the out-of-game entities and the forces as well
+     */
+    private void sendEntities(int connId, boolean includeOutOfGame) {
+        final Player player = getPlayer(connId);
+        final List<Entity> entities = doBlind()
+                ? filterEntities(player, getGame().getEntitiesVector())
+                : getGame().getEntitiesVector();
+        send(connId, includeOutOfGame ? createFullEntitiesPacket(entities) : createEntitiesPacket(entities));
+        if (player != null) {
+            markSent(entities, List.of(player));
         }
     }
 
+    /**
+     * Sends all current entities to all connections and records them as sent to all players.
+     *
+     * @param includeOutOfGame true to send the out-of-game entities and the forces as well
+     */
+    void sendEntitiesToAll(boolean includeOutOfGame) {
+        final List<Entity> entities = getGame().getEntitiesVector();
+        send(includeOutOfGame ? createFullEntitiesPacket(entities) : createEntitiesPacket(entities));
+        markSent(entities);
+    }
+
     /**
      * Adds a new player to the game
      */
@@ -1168,7 +1190,7 @@ public class Server implements Runnable {
     public void resetGame() {
         // remove all entities
         game.reset();
-        send(createEntitiesPacket());
+        sendEntitiesToAll(false);
         send(new Packet(PacketCommand.SENDING_MINEFIELDS, new Vector<>()));
 
         // remove ghosts
@@ -1497,7 +1519,7 @@ public class Server implements Runnable {
         delEntities.forEach(e -> game.removeEntity(e.getId(), IEntityRemovalConditions.REMOVE_NEVER_JOINED));
 
         // send full update
-        send(createFullEntitiesPacket());
+        sendEntitiesToAll(true);
     }
 
     /**
@@ -2380,7 +2402,7 @@ public class Server implements Runnable {
                 }
                 // Update visibility indications if using double blind.
                 if (doBlind()) {
-                    updateVisibilityIndicator(null);
+                    updateVisibilityIndicator();
                 }
                 resetEntityPhase(phase);
                 checkForObservers();
@@ -2537,7 +2559,7 @@ public class Server implements Runnable {
                         }
                     }
                 }
-                send(createFullEntitiesPacket());
+                sendEntitiesToAll(true);
                 send(createReportPacket(null));
                 send(createEndOfGamePacket());
                 break;
@@ -3207,7 +3229,7 @@ public class Server implements Runnable {
                 break;
             case MOVEMENT:
                 if (toSkip != null) {
-                    processMovement(toSkip, new MovePath(game, toSkip), null);
+                    processMovement(toSkip, new MovePath(game, toSkip));
                 }
                 endCurrentTurn(toSkip);
                 break;
@@ -4763,7 +4785,6 @@ public class Server implements Runnable {
      * the current turn.
      */
     private void receiveMovement(Packet packet, int connId) {
-        Map<EntityTargetPair, LosEffects> losCache = new HashMap<>();
         Entity entity = game.getEntity(packet.getIntValue(0));
         MovePath md = (MovePath) packet.getObject(1);
         md.setGame(getGame());
@@ -4791,8 +4812,12 @@ public class Server implements Runnable {
             return;
         }
 
+        // The compact marshaller sends the steps without their compiled state; compile them against
+        // the server's game, as processMovement does again before moving the unit
+        md.compile(getGame(), entity, false);
+
         // looks like mostly everything's okay
-        processMovement(entity, md, losCache);
+        processMovement(entity, md);
 
         // The attacker may choose to break a chain whip grapple by expending MP
         if ((entity.getGrappled() != Entity.NONE)
@@ -4835,7 +4860,7 @@ public class Server implements Runnable {
 
         // Update visibility indications if using double blind.
         if (doBlind()) {
-            updateVisibilityIndicator(losCache);
+            updateVisibilityIndicator();
         }
 
         // An entity that is not vulnerable to anti-TSM green smoke that has stayed in a smoke-filled
@@ -5917,7 +5942,7 @@ public class Server implements Runnable {
                     }
                     game.removeTurnFor(target);
                     send(createTurnVectorPacket());
-                    processMovement(target, md, null);
+                    processMovement(target, md);
                     // for some reason it is not clearing out turn
                 } else {
                     // what needs to get checked?
@@ -6413,17 +6438,8 @@ public class Server implements Runnable {
      *
      * @param entity   The Entity that is moving
      * @param md       The MovePath that defines how the Entity moves
-     * @param losCache A cache that stores Los between various Entities and
-     *                 targets.  In double blind games, we may need to compute a
-     *                 lot of LosEffects, so caching them can really speed
-     *                 things up.
      */
-    private void processMovement(Entity entity, MovePath md, Map<EntityTargetPair,
-            LosEffects> losCache) {
-        // Make sure the cache isn't null
-        if (losCache == null) {
-            losCache = new HashMap<>();
-        }
+    private void processMovement(Entity entity, MovePath md) {
         Report r;
         boolean sideslipped = false; // for VTOL side slipping
         PilotingRollData rollTarget;
@@ -6716,7 +6732,7 @@ public class Server implements Runnable {
                             send(entity.getOwner().getId(), createSpecialReportPacket());
                         }
                         entity.setDone(true);
-                        entityUpdate(entity.getId(), movePath, true, losCache);
+                        entityUpdate(entity.getId(), movePath, true);
                         return;
                         // Potential point-blank shot
                     } else if ((dist == 1) && !e.madePointblankShot()) {
@@ -6724,8 +6740,9 @@ public class Server implements Runnable {
                         entity.setFacing(step.getFacing());
                         // If not set, BV icons could have wrong facing
                         entity.setSecondaryFacing(step.getFacing());
-                        // Update entity position on client
-                        send(e.getOwnerId(), createEntityPacket(entity.getId(), null));
+                        // Update entity position on client; the unit is in the middle of its
+                        // move, so other fields than those of a delta may have changed
+                        sendFullEntity(entity, List.of(e.getOwner()), null);
                         boolean tookPBS = processPointblankShotCFR(e, entity);
                         // Movement should be interrupted
                         if (tookPBS) {
@@ -9397,7 +9414,7 @@ public class Server implements Runnable {
         // Update the entity's position,
         // unless it is off the game map.
         if (!game.isOutOfGame(entity)) {
-            entityUpdate(entity.getId(), movePath, true, losCache);
+            entityUpdate(entity.getId(), movePath, true);
             if (entity.isDoomed()) {
                 send(createRemoveEntityPacket(entity.getId(),
                         entity.getRemovalCondition()));
@@ -9461,8 +9478,7 @@ public class Server implements Runnable {
 
         // if using double blind, update the player on new units he might see
         if (doBlind()) {
-            send(entity.getOwner().getId(),
-                    createFilteredEntitiesPacket(entity.getOwner(), losCache));
+            sendEntities(entity.getOwner().getId(), false);
         }
 
         // if we generated a charge attack, report it now
@@ -13003,7 +13019,7 @@ public class Server implements Runnable {
 
         // Update visibility indications if using double blind.
         if (doBlind()) {
-            updateVisibilityIndicator(null);
+            updateVisibilityIndicator();
         }
 
         endCurrentTurn(entity);
@@ -13356,11 +13372,12 @@ public class Server implements Runnable {
 
         // Update visibility indications if using double blind.
         if (doBlind()) {
-            updateVisibilityIndicator(null);
+            updateVisibilityIndicator();
         }
 
         endCurrentTurn(entity);
-        entityUpdate(entity.getId());
+        // Ending the turn only changes the done flag
+        entityDeltaUpdate(entity.getId());
     }
 
     /**
@@ -13401,7 +13418,7 @@ public class Server implements Runnable {
 
         // Update visibility indications if using double blind.
         if (doBlind()) {
-            updateVisibilityIndicator(null);
+            updateVisibilityIndicator();
         }
 
         endCurrentTurn(entity);
@@ -13599,7 +13616,6 @@ public class Server implements Runnable {
                 entity.setAltitude(entity.getAltitude() - aero.getAltLoss());
                 aero.setAltLossThisRound(aero.getAltLoss());
                 aero.resetAltLoss();
-                entityUpdate(entity.getId());
             }
         }
 
@@ -14117,20 +14133,18 @@ public class Server implements Runnable {
     private void resolveWhatPlayersCanSeeWhatUnits() {
         List<ECMInfo> allECMInfo = null;
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_SENSORS)) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game
-                    .getEntitiesVector());
+            allECMInfo = getVisibilityMatrix().getAllECMInfo();
         }
-        Map<EntityTargetPair, LosEffects> losCache = new HashMap<>();
         for (Entity entity : game.getEntitiesVector()) {
             // We are hidden once again!
             entity.clearSeenBy();
             entity.clearDetectedBy();
             // Handle visual spotting
-            for (Player p : whoCanSee(entity, false, losCache)) {
+            for (Player p : whoCanSee(entity, false)) {
                 entity.addBeenSeenBy(p);
             }
             // Handle detection by sensors
-            for (Player p : whoCanDetect(entity, allECMInfo, losCache)) {
+            for (Player p : whoCanDetect(entity, allECMInfo)) {
                     entity.addBeenDetectedBy(p);
             }
         }
@@ -24107,15 +24121,9 @@ public class Server implements Runnable {
 
         // This is technically part of cratering, but...
         // Now we destroy all the units inside the cratering range.
-        for (Entity entity : game.getEntitiesVector()) {
-            // loaded units and off board units don't have a position,
-            // so we don't count 'em here
-            if ((entity.getTransportId() != Entity.NONE) || (entity.getPosition() == null)) {
-                continue;
-            }
-
-            // If it's too far away for this...
-            if (position.distance(entity.getPosition()) >= range) {
+        for (Entity entity : game.getEntitiesWithin(position, range - 1)) {
+            // loaded units don't count here
+            if (entity.getTransportId() != Entity.NONE) {
                 continue;
             }
 
@@ -28824,67 +28832,13 @@ public class Server implements Runnable {
         createSmoke(coords, smokeLevel, 0);
     }
 
-    /**
-     * Recursively scan the specified path to determine the board sizes
-     * available.
-     *
-     * @param searchDir The directory to search below this path (may be null for all
-     *                  in base path).
-     * @param sizes     Where to store the discovered board sizes
-     */
-    private void getBoardSizesInDir(final File searchDir, TreeSet<BoardDimensions> sizes) {
-        if (searchDir == null) {
-            throw new IllegalArgumentException("must provide searchDir");
-        }
-
-        if (sizes == null) {
-            throw new IllegalArgumentException("must provide sizes");
-        }
-
-        String[] file_list = searchDir.list();
-
-        if (file_list != null) {
-            for (String filename : file_list) {
-                File query_file = new File(searchDir, filename);
-
-                if (query_file.isDirectory()) {
-                    getBoardSizesInDir(query_file, sizes);
-                } else {
-                    try {
-                        if (filename.endsWith(".board")) {
-                            BoardDimensions size = Board.getSize(query_file);
-                            if (size == null) {
-                                throw new Exception();
-                            }
-                            sizes.add(Board.getSize(query_file));
-                        }
-                    } catch (Exception e) {
-                        LogManager.getLogger().error("Error parsing board: " + query_file.getAbsolutePath(), e);
-                    }
-                }
-            }
-        }
-    }
-
     /**
      * Get a list of the available board sizes from the boards data directory.
      *
      * @return A Set containing all the available board sizes.
      */
     private Set<BoardDimensions> getBoardSizes() {
-        TreeSet<BoardDimensions> board_sizes = new TreeSet<>();
-
-        File boards_dir = Configuration.boardsDir();
-        // Slightly overkill sanity check...
-        if (boards_dir.isDirectory()) {
-            getBoardSizesInDir(boards_dir, board_sizes);
-        }
-        boards_dir = new File(Configuration.userdataDir(), Configuration.boardsDir().toString());
-        if (boards_dir.isDirectory()) {
-            getBoardSizesInDir(boards_dir, board_sizes);
-        }
-
-        return board_sizes;
+        return BoardCatalog.getInstance().getBoardSizes();
     }
 
     /**
@@ -28905,7 +28859,7 @@ public class Server implements Runnable {
      * everyone
      */
     public void entityUpdate(int nEntityID) {
-        entityUpdate(nEntityID, new Vector<>(), true, null);
+        entityUpdate(nEntityID, new Vector<>(), true);
     }
 
     /**
@@ -28916,8 +28870,28 @@ public class Server implements Runnable {
      *                         called to update who can see the entity for
      *                         double-blind games.
      */
-    public void entityUpdate(int nEntityID, Vector<UnitLocation> movePath, boolean updateVisibility,
-                             Map<EntityTargetPair, LosEffects> losCache) {
+    public void entityUpdate(int nEntityID, Vector<UnitLocation> movePath, boolean updateVisibility) {
+        entityUpdate(nEntityID, movePath, updateVisibility, false);
+    }
+
+    /**
+     * Sends only those fields of an entity that are covered by {@link EntityDelta} and have changed
+     * since it was last sent to each player. This must only be used when nothing else about the
+     * entity has changed since it was last sent. Clients whose copy of the entity does not match
+     * the state the delta was computed against request the full entity instead. In a double-blind
+     * game, players who could not see the entity before receive the full entity.
+     */
+    public void entityDeltaUpdate(int nEntityID) {
+        entityUpdate(nEntityID, new Vector<>(), true, true);
+    }
+
+    /**
+     * In a double-blind game, update only visible entities. Otherwise, update
+     * everyone. If deltas are used, players that already know the entity
+     * receive a delta instead of the full entity.
+     */
+    private void entityUpdate(int nEntityID, Vector<UnitLocation> movePath, boolean updateVisibility,
+                              boolean useDelta) {
         Entity eTarget = game.getEntity(nEntityID);
         if (eTarget == null) {
             if (game.getOutOfGameEntity(nEntityID) != null) {
@@ -28932,9 +28906,10 @@ public class Server implements Runnable {
         // If we're doing double blind, be careful who can see it...
         if (doBlind()) {
             Vector<Player> playersVector = game.getPlayersVector();
+            Vector<Player> vCouldSee = new Vector<>(eTarget.getWhoCanSee());
             Vector<Player> vCanSee;
             if (updateVisibility) {
-                vCanSee = whoCanSee(eTarget, true, losCache);
+                vCanSee = whoCanSee(eTarget, true);
             } else {
                 vCanSee = eTarget.getWhoCanSee();
             }
@@ -28945,24 +28920,25 @@ public class Server implements Runnable {
             if ((eTarget.getECMRange() > 0) && (eTarget.getPosition() != null)) {
                 int ecmRange = eTarget.getECMRange();
                 Coords pos = eTarget.getPosition();
-                for (Entity ent : game.getEntitiesVector()) {
-                    if ((ent.getPosition() != null)
-                        && (pos.distance(ent.getPosition()) <= ecmRange)) {
-                        if (!vCanSee.contains(ent.getOwner())) {
-                            vCanSee.add(ent.getOwner());
-                        }
+                for (Entity ent : game.getEntitiesWithin(pos, ecmRange)) {
+                    if (!vCanSee.contains(ent.getOwner())) {
+                        vCanSee.add(ent.getOwner());
                     }
                 }
             }
 
-            // send an entity update to everyone who can see
-            Packet pack = createEntityPacket(nEntityID, movePath);
-            for (int x = 0; x < vCanSee.size(); x++) {
-                Player p = vCanSee.elementAt(x);
-                send(p.getId(), pack);
+            // send an entity update to everyone who can see; players who could not see the
+            // entity before need the full entity
+            if (useDelta) {
+                Map<Boolean, List<Player>> byCouldSee = vCanSee.stream()
+                        .collect(Collectors.partitioningBy(vCouldSee::contains));
+                sendEntityDeltas(eTarget, byCouldSee.get(true), movePath);
+                sendFullEntity(eTarget, byCouldSee.get(false), movePath);
+            } else {
+                sendFullEntity(eTarget, vCanSee, movePath);
             }
             // send an entity delete to everyone else
-            pack = createRemoveEntityPacket(nEntityID, eTarget.getRemovalCondition());
+            Packet pack = createRemoveEntityPacket(nEntityID, eTarget.getRemovalCondition());
             for (int x = 0; x < playersVector.size(); x++) {
                 if (!vCanSee.contains(playersVector.elementAt(x))) {
                     Player p = playersVector.elementAt(x);
@@ -28971,12 +28947,69 @@ public class Server implements Runnable {
             }
 
             entityUpdateLoadedUnits(eTarget, vCanSee, playersVector);
+        } else if (useDelta) {
+            // Everyone can see the entity
+            sendEntityDeltas(eTarget, game.getPlayersVector(), movePath);
         } else {
             // But if we're not, then everyone can see.
+            eTarget.markSent(game.getPlayersVector());
             send(createEntityPacket(nEntityID, movePath));
         }
     }
 
+    /**
+     * Sends the entity to the given players as a delta update of the fields that changed since it
+     * was last sent to each of them, or as the full entity to those it was never sent to. Each
+     * distinct delta and the full entity are only encoded once.
+     */
+    private void sendEntityDeltas(Entity entity, List<Player> players, @Nullable Vector<UnitLocation> movePath) {
+        final Map<Integer, EntityDelta> deltas = entity.createDeltas(players);
+        final Map<EntityDelta, PreEncodedPacket> deltaPackets = new IdentityHashMap<>();
+        final List<Player> fullRecipients = new ArrayList<>();
+        for (Player player : players) {
+            final EntityDelta delta = deltas.get(player.getId());
+            if (delta == null) {
+                fullRecipients.add(player);
+            } else if (!delta.isEmpty()) {
+                send(player.getId(), deltaPackets.computeIfAbsent(delta,
+                        d -> new PreEncodedPacket(new Packet(PacketCommand.ENTITY_DELTA_UPDATE, d))));
+            }
+        }
+        sendFullEntity(entity, fullRecipients, movePath);
+    }
+
+    /**
+     * Sends the full entity to the given players, encoding it only once.
+     */
+    private void sendFullEntity(Entity entity, List<Player> players, @Nullable Vector<UnitLocation> movePath) {
+        if (!players.isEmpty()) {
+            entity.markSent(players);
+            final PreEncodedPacket packet = new PreEncodedPacket(createEntityPacket(entity.getId(), movePath));
+            for (Player player : players) {
+                send(player.getId(), packet);
+            }
+        }
+    }
+
+    /**
+     * Sends the full entity to a client whose copy did not match a delta update, provided the
+     * client's player may see it.
+     */
+    private void receiveEntityFullUpdateRequest(Packet packet, int connId) {
+        final Entity entity = game.getEntity(packet.getIntValue(0));
+        final Player player = getPlayer(connId);
+        if ((entity == null) || (player == null)) {
+            return;
+        }
+
+        if (doBlind() && !player.canSeeAll() && (entity.getOwner() != player)
+                && !whoCanSee(entity, true).contains(player)) {
+            return;
+        }
+        entity.markSent(List.of(player));
+        send(connId, createEntityPacket(entity.getId(), null));
+    }
+
     /**
      * Whenever updating an Entity, we also need to update all of its loaded
      * Entity's, otherwise it could cause issues with Clients.
@@ -28992,13 +29025,9 @@ public class Server implements Runnable {
         // so we need to send them.
         for (Entity eLoaded : loader.getLoadedUnits()) {
             // send an entity update to everyone who can see
-            Packet pack = createEntityPacket(eLoaded.getId(), null);
-            for (int x = 0; x < vCanSee.size(); x++) {
-                Player p = vCanSee.elementAt(x);
-                send(p.getId(), pack);
-            }
+            sendFullEntity(eLoaded, vCanSee, null);
             // send an entity delete to everyone else
-            pack = createRemoveEntityPacket(eLoaded.getId(), eLoaded.getRemovalCondition());
+            Packet pack = createRemoveEntityPacket(eLoaded.getId(), eLoaded.getRemovalCondition());
             for (int x = 0; x < playersVector.size(); x++) {
                 if (!vCanSee.contains(playersVector.elementAt(x))) {
                     Player p = playersVector.elementAt(x);
@@ -29014,7 +29043,18 @@ public class Server implements Runnable {
      * for sensor detections.
      */
     private Vector<Player> whoCanSee(Entity entity) {
-        return whoCanSee(entity, true, null);
+        return whoCanSee(entity, true);
+    }
+
+    /**
+     * @return the visibility matrix of the current game, validated against its current state
+     */
+    private VisibilityMatrix getVisibilityMatrix() {
+        if ((visibilityMatrix == null) || (visibilityMatrix.getGame() != game)) {
+            visibilityMatrix = new VisibilityMatrix(game);
+        }
+        visibilityMatrix.validate();
+        return visibilityMatrix;
     }
 
     /**
@@ -29025,20 +29065,16 @@ public class Server implements Runnable {
      * @param useSensors A flag that determines whether sensors are allowed
      * @return A vector of the players who can see the entity
      */
-    private Vector<Player> whoCanSee(Entity entity, boolean useSensors,
-            Map<EntityTargetPair, LosEffects> losCache) {
-        if (losCache == null) {
-            losCache = new HashMap<>();
-        }
+    private Vector<Player> whoCanSee(Entity entity, boolean useSensors) {
         // Some times Null entities are sent to this
         if (entity == null) {
             return new Vector<>();
         }
 
+        final VisibilityMatrix visibilityMatrix = getVisibilityMatrix();
         List<ECMInfo> allECMInfo = null;
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_SENSORS) && useSensors) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game
-                    .getEntitiesVector());
+            allECMInfo = visibilityMatrix.getAllECMInfo();
         }
 
         boolean bTeamVision = game.getOptions().booleanOption(OptionsConstants.ADVANCED_TEAM_VISION);
@@ -29069,13 +29105,7 @@ public class Server implements Runnable {
                     || vCanSee.contains(spotter.getOwner())) {
                 continue;
             }
-            // See if the LosEffects is cached, and if not cache it
-            EntityTargetPair etp = new EntityTargetPair(spotter, entity);
-            LosEffects los = losCache.get(etp);
-            if (los == null) {
-                los = LosEffects.calculateLOS(game, spotter, entity);
-                losCache.put(etp, los);
-            }
+            LosEffects los = visibilityMatrix.getLos(spotter, entity);
             if (Compute.canSee(game, spotter, entity, useSensors, los,
                     allECMInfo)) {
                 if (!vCanSee.contains(spotter.getOwner())) {
@@ -29097,16 +29127,11 @@ public class Server implements Runnable {
      *
      * @param entity        The Entity being detected.
      * @param allECMInfo    Cached ECMInfo for all Entities in the game.
-     * @param losCache      Cached LosEffects for particular Entity/Targetable
-     *                      pairs.  Can be passed in null.
      * @return
      */
     private Vector<Player> whoCanDetect(Entity entity,
-            List<ECMInfo> allECMInfo,
-            Map<EntityTargetPair, LosEffects> losCache) {
-        if (losCache == null) {
-            losCache = new HashMap<>();
-        }
+            List<ECMInfo> allECMInfo) {
+        final VisibilityMatrix visibilityMatrix = getVisibilityMatrix();
 
         boolean bTeamVision = game.getOptions().booleanOption(OptionsConstants.ADVANCED_TEAM_VISION);
         List<Entity> vEntities = game.getEntitiesVector();
@@ -29123,13 +29148,7 @@ public class Server implements Runnable {
                     || vCanDetect.contains(spotter.getOwner())) {
                 continue;
             }
-            // See if the LosEffects is cached, and if not cache it
-            EntityTargetPair etp = new EntityTargetPair(spotter, entity);
-            LosEffects los = losCache.get(etp);
-            if (los == null) {
-                los = LosEffects.calculateLOS(game, spotter, entity);
-                losCache.put(etp, los);
-            }
+            LosEffects los = visibilityMatrix.getLos(spotter, entity);
             if (Compute.inSensorRange(game, los, spotter, entity, allECMInfo)) {
                 if (!vCanDetect.contains(spotter.getOwner())) {
                     vCanDetect.addElement(spotter.getOwner());
@@ -29181,24 +29200,20 @@ public class Server implements Runnable {
             Vector<Player> playersVector = game.getPlayersVector();
             for (int x = 0; x < playersVector.size(); x++) {
                 Player p = playersVector.elementAt(x);
-                send(p.getId(), createFilteredEntitiesPacket(p, null));
+                sendEntities(p.getId(), false);
             }
             return;
         }
 
         // Otherwise, send the full list.
-        send(createEntitiesPacket());
+        sendEntitiesToAll(false);
     }
 
     /**
      * Filters an entity vector according to LOS
      */
     private List<Entity> filterEntities(Player pViewer,
-            List<Entity> vEntities,
-            Map<EntityTargetPair, LosEffects> losCache) {
-        if (losCache == null) {
-            losCache = new HashMap<>();
-        }
+            List<Entity> vEntities) {
         Vector<Entity> vCanSee = new Vector<>();
         Vector<Entity> vMyEntities = new Vector<>();
         boolean bTeamVision = game.getOptions().booleanOption(OptionsConstants.ADVANCED_TEAM_VISION);
@@ -29208,9 +29223,10 @@ public class Server implements Runnable {
             return vEntities;
         }
 
+        final VisibilityMatrix visibilityMatrix = getVisibilityMatrix();
         List<ECMInfo> allECMInfo = null;
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_SENSORS)) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game.getEntitiesVector());
+            allECMInfo = visibilityMatrix.getAllECMInfo();
         }
 
         // If they're an observer, they can see anything seen by any enemy.
@@ -29218,8 +29234,8 @@ public class Server implements Runnable {
             vMyEntities.addAll(vEntities);
             for (Entity a : vMyEntities) {
                 for (Entity b : vMyEntities) {
-                    if (a.isEnemyOf(b)
-                        && Compute.canSee(game, b, a, true, null, allECMInfo)) {
+                    if (a.isEnemyOf(b) && Compute.canSee(game, b, a, true,
+                            visibilityMatrix.getLos(b, a), allECMInfo)) {
                         addVisibleEntity(vCanSee, a);
                         break;
                     }
@@ -29256,13 +29272,7 @@ public class Server implements Runnable {
                     continue;
                 }
 
-                // See if the LosEffects is cached, and if not cache it
-                EntityTargetPair etp = new EntityTargetPair(spotter, e);
-                LosEffects los = losCache.get(etp);
-                if (los == null) {
-                    los = LosEffects.calculateLOS(game, spotter, e);
-                    losCache.put(etp, los);
-                }
+                LosEffects los = visibilityMatrix.getLos(spotter, e);
                 // Otherwise, if they can see the entity in question
                 if (Compute.canSee(game, spotter, e, true, los, allECMInfo)) {
                     addVisibleEntity(vCanSee, e);
@@ -29440,19 +29450,11 @@ public class Server implements Runnable {
     /**
      * Updates entities graphical "visibility indications" which are used in
      * double-blind games.
-     *
-     * @param losCache  It can be expensive to have to recompute LoSEffects
-     *                  again and again, so in some cases where this may happen,
-     *                  the LosEffects are cached.   This can safely be null.
      */
-    private void updateVisibilityIndicator(Map<EntityTargetPair, LosEffects> losCache) {
-        if (losCache == null) {
-            losCache = new HashMap<>();
-        }
+    private void updateVisibilityIndicator() {
         List<ECMInfo> allECMInfo = null;
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_SENSORS)) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game
-                    .getEntitiesVector());
+            allECMInfo = getVisibilityMatrix().getAllECMInfo();
         }
 
         List<Entity> vAllEntities = game.getEntitiesVector();
@@ -29463,7 +29465,7 @@ public class Server implements Runnable {
             e.setDetectedByEnemy(false);
             e.clearSeenBy();
             e.clearDetectedBy();
-            Vector<Player> vCanSee = whoCanSee(e, false, losCache);
+            Vector<Player> vCanSee = whoCanSee(e, false);
             // Who can See this unit?
             for (Player p : vCanSee) {
                 if (e.getOwner().isEnemyOf(p) && !p.isObserver()) {
@@ -29475,7 +29477,7 @@ public class Server implements Runnable {
                 e.addBeenSeenBy(p);
             }
             // Who can Detect this unit?
-            Vector<Player> vCanDetect = whoCanDetect(e, allECMInfo, losCache);
+            Vector<Player> vCanDetect = whoCanDetect(e, allECMInfo);
             for (Player p : vCanDetect) {
                 if (e.getOwner().isEnemyOf(p) && !p.isObserver()) {
                     e.setDetectedByEnemy(true);
@@ -29503,7 +29505,7 @@ public class Server implements Runnable {
             }
 
             if (hasClientWithoutEntity) {
-                entityUpdate(e.getId(), new Vector<>(), false, losCache);
+                entityUpdate(e.getId(), new Vector<>(), false);
             } else {
                 sendVisibilityIndicator(e);
             }
@@ -30561,6 +30563,22 @@ public class Server implements Runnable {
         return new Packet(PacketCommand.ENTITY_UPDATE, entityId, getGame().getEntity(entityId), movePath);
     }
 
+    /**
+     * Records the current state of the given entities as sent to all players, so that following
+     * delta updates can be computed against it.
+     */
+    private void markSent(Collection<Entity> entities) {
+        markSent(entities, getGame().getPlayersVector());
+    }
+
+    /**
+     * Records the current state of the given entities as sent to the given players, so that
+     * following delta updates can be computed against it.
+     */
+    private void markSent(Collection<Entity> entities, Collection<Player> players) {
+        entities.forEach(entity -> entity.markSent(players));
+    }
+
     /**
      * Creates a packet containing a Vector of Reports
      */
@@ -30595,36 +30613,17 @@ public class Server implements Runnable {
     }
 
     /**
-     * Creates a packet containing all current entities
+     * Creates a packet containing the given entities
      */
-    private Packet createEntitiesPacket() {
-        return new Packet(PacketCommand.SENDING_ENTITIES, getGame().getEntitiesVector());
+    private Packet createEntitiesPacket(List<Entity> entities) {
+        return new Packet(PacketCommand.SENDING_ENTITIES, entities);
     }
 
     /**
-     * Creates a packet containing all current and out-of-game entities
+     * Creates a packet containing the given entities and all out-of-game entities
      */
-    Packet createFullEntitiesPacket() {
-        return new Packet(PacketCommand.SENDING_ENTITIES, getGame().getEntitiesVector(),
-                getGame().getOutOfGameEntitiesVector(), getGame().getForces());
-    }
-
-    /**
-     * Creates a packet containing all entities visible to the player in a blind game
-     */
-    private Packet createFilteredEntitiesPacket(Player p,
-                                                Map<EntityTargetPair, LosEffects> losCache) {
-        return new Packet(PacketCommand.SENDING_ENTITIES,
-                filterEntities(p, getGame().getEntitiesVector(), losCache));
-    }
-
-    /**
-     * Creates a packet containing all entities, including wrecks, visible to
-     * the player in a blind game
-     */
-    private Packet createFilteredFullEntitiesPacket(Player p) {
-        return new Packet(PacketCommand.SENDING_ENTITIES,
-                filterEntities(p, getGame().getEntitiesVector(), null),
+    private Packet createFullEntitiesPacket(List<Entity> entities) {
+        return new Packet(PacketCommand.SENDING_ENTITIES, entities,
                 getGame().getOutOfGameEntitiesVector(), getGame().getForces());
     }
 
@@ -30751,6 +30750,9 @@ public class Server implements Runnable {
      * Sends notification to clients that the specified hex has changed.
      */
     public void sendChangedHex(Coords coords) {
+        if (visibilityMatrix != null) {
+            visibilityMatrix.hexesChanged(Collections.singleton(coords));
+        }
         send(createHexChangePacket(coords, game.getBoard().getHex(coords)));
     }
 
@@ -30765,6 +30767,9 @@ public class Server implements Runnable {
      * Sends notification to clients that the specified hex has changed.
      */
     public void sendChangedHexes(Set<Coords> coords) {
+        if (visibilityMatrix != null) {
+            visibilityMatrix.hexesChanged(coords);
+        }
         send(createHexesChangePacket(coords, coords.stream()
                 .map(coord -> game.getBoard().getHex(coord))
                 .collect(Collectors.toCollection(LinkedHashSet::new))));
@@ -30860,13 +30865,15 @@ public class Server implements Runnable {
     }
 
     /**
-     * Send a packet to all connected clients.
+     * Send a packet to all connected clients. The packet is encoded once and the encoded data is
+     * shared by all connections.
      */
     void send(Packet packet) {
+        final PreEncodedPacket preEncodedPacket = new PreEncodedPacket(packet);
         synchronized (connections) {
             connections.stream()
                     .filter(Objects::nonNull)
-                    .forEach(connection -> connection.send(packet));
+                    .forEach(connection -> connection.send(preEncodedPacket));
         }
     }
 
@@ -30912,6 +30919,16 @@ public class Server implements Runnable {
         // For now, nothing.
     }
 
+    /**
+     * Send an already shared packet to a specific connection.
+     */
+    private void send(int connId, PreEncodedPacket packet) {
+        AbstractConnection connection = getClient(connId);
+        if (connection != null) {
+            connection.send(packet);
+        }
+    }
+
     /**
      * Send a packet to a pending connection
      */
@@ -30970,7 +30987,11 @@ public class Server implements Runnable {
             case CLIENT_VERSIONS:
                 final boolean valid = receivePlayerVersion(packet, connId);
                 if (valid) {
-                    sendToPending(connId, new Packet(PacketCommand.SERVER_GREETING));
+                    // Older clients do not announce their marshalling types and keep native serialization
+                    final int marshallingType = PacketMarshallerFactory.getInstance()
+                            .negotiateMarshallingType((int[]) packet.getObject(2));
+                    sendToPending(connId, new Packet(PacketCommand.SERVER_GREETING, marshallingType));
+                    getPendingConnection(connId).setMarshallingType(marshallingType);
                 } else {
                     sendToPending(connId, new Packet(PacketCommand.ILLEGAL_CLIENT_VERSION, MMConstants.VERSION));
                     getPendingConnection(connId).close();
@@ -31079,6 +31100,9 @@ public class Server implements Runnable {
                 receiveEntityUpdate(packet, connId);
                 resetPlayersDone();
                 break;
+            case ENTITY_FULL_UPDATE_REQUEST:
+                receiveEntityFullUpdateRequest(packet, connId);
+                break;
             case ENTITY_MULTIUPDATE:
                 receiveEntitiesUpdate(packet, connId);
                 resetPlayersDone();
@@ -31270,16 +31294,26 @@ public class Server implements Runnable {
                     int id = getFreeConnectionId();
                     LogManager.getLogger().info("s: accepting player connection #" + id + "...");
 
-                    AbstractConnection c = ConnectionFactory.getInstance().createServerConnection(s, id);
-                    c.addConnectionListener(connectionListener);
-                    c.open();
-                    connectionsPending.addElement(c);
-                    ConnectionHandler ch = new ConnectionHandler(c);
-                    Thread newConnThread = new Thread(ch, "Connection " + id);
-                    newConnThread.start();
-                    connectionHandlers.put(id, ch);
+                    if (nioSelectorPool != null) {
+                        AbstractConnection c = ConnectionFactory.getInstance()
+                                .createServerConnection(s.getChannel(), id, nioSelectorPool);
+                        c.addConnectionListener(connectionListener);
+                        connectionsPending.addElement(c);
+                        // Opening hands the connection to the selector threads
+                        c.open();
+                    } else {
+                        AbstractConnection c = ConnectionFactory.getInstance().createServerConnection(s, id);
+                        c.addConnectionListener(connectionListener);
+                        c.open();
+                        connectionsPending.addElement(c);
+                        ConnectionHandler ch = new ConnectionHandler(c);
+                        Thread newConnThread = new Thread(ch, "Connection " + id);
+                        newConnThread.start();
+                        connectionHandlers.put(id, ch);
+                    }
 
                     clientVersionCheck(id);
+                    // Both kinds of connection are prompted again and closed if they never answer
                     ConnectionWatchdog w = new ConnectionWatchdog(this, id);
                     watchdogTimer.schedule(w, 1000, 500);
                 }
@@ -253,7 +253,7 @@ class ServerLobbyHelper {
         game.getForces().correct();
         correctLoading(game);
         correctC3Connections(game);
-        server.send(server.createFullEntitiesPacket());
+        server.sendEntitiesToAll(true);
     }
     
     /** 
@@ -289,7 +289,7 @@ class ServerLobbyHelper {
         forces.correct();
         correctLoading(game);
         correctC3Connections(game);
-        server.send(server.createFullEntitiesPacket());
+        server.sendEntitiesToAll(true);
     }
     
     /** 
@@ -314,7 +314,7 @@ class ServerLobbyHelper {
             server.send(createForceUpdatePacket(forceList));
         } else {
             LogManager.getLogger().warn("Invalid forces update received.");
-            server.send(server.createFullEntitiesPacket());
+            server.sendEntitiesToAll(true);
         }
     }
     
@@ -346,7 +346,7 @@ class ServerLobbyHelper {
         correctLoading(game);
         correctC3Connections(game);
         
-        server.send(server.createFullEntitiesPacket());
+        server.sendEntitiesToAll(true);
         for (Player player: serverPlayers) {
             server.transmitPlayerUpdate(player);
         }
@@ -445,7 +445,7 @@ class ServerLobbyHelper {
         for (var entity: entities) {
             game.getForces().addEntity(game.getEntity(entity.getId()), newId);
         }
-        server.send(server.createFullEntitiesPacket());
+        server.sendEntitiesToAll(true);
     }
 
     /**
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.server;
+
+import megamek.common.*;
+import megamek.common.event.BoardEvent;
+import megamek.common.event.BoardListenerAdapter;
+
+import java.util.*;
+
+/**
+ * A persistent spotter x target matrix of the line of sight effects between all entities of a
+ * game, together with the ECM fields, used by the server to determine who can see and detect
+ * which entity in double-blind games. Computing the LOS for every pair of entities is the bulk of
+ * the work of these checks, so the results are kept between calls instead of being recomputed on
+ * every call.
+ * <p>
+ * Every cached LOS stores a key of the LOS relevant state (position, heights, elevation, altitude)
+ * of both entities. When an entity moves, the keys of its row and column no longer match and only
+ * those entries are recomputed on their next use. Changed hexes only evict the entries whose line
+ * of sight passes through or next to them. Grounded DropShips block LOS like buildings, so any
+ * change to them evicts the whole matrix.
+ * <p>
+ * The ECM fields depend on all entities; they are only recomputed when the ECM or ECCM of any
+ * entity or the chaff clouds have changed.
+ */
+public class VisibilityMatrix {
+    //region Variable Declarations
+    private final Game game;
+
+    /** The cached LOS entries, by spotter id in the upper and target id in the lower 32 bits */
+    private final Map<Long, LosEntry> losEntries = new HashMap<>();
+
+    private Board board;
+    private final BoardListenerAdapter boardListener = new BoardListenerAdapter() {
+        @Override
+        public void boardNewBoard(BoardEvent b) {
+            clear();
+        }
+
+        @Override
+        public void boardChangedHex(BoardEvent b) {
+            hexesChanged(Collections.singleton(b.getCoords()));
+        }
+
+        @Override
+        public void boardChangedAllHexes(BoardEvent b) {
+            clear();
+        }
+    };
+
+    private long obstacleKey;
+
+    private long losHits;
+    private long losMisses;
+    //endregion Variable Declarations
+
+    private static class LosEntry {
+        final Coords spotterPosition;
+        final Coords targetPosition;
+        final long spotterKey;
+        final long targetKey;
+        final LosEffects los;
+
+        LosEntry(Entity spotter, Entity target, long spotterKey, long targetKey, LosEffects los) {
+            spotterPosition = spotter.getPosition();
+            targetPosition = target.getPosition();
+            this.spotterKey = spotterKey;
+            this.targetKey = targetKey;
+            this.los = los;
+        }
+    }
+
+    public VisibilityMatrix(final Game game) {
+        this.game = game;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Checks the game wide state the cached LOS depends on, i.e. the board and the grounded
+     * DropShips, and evicts the matrix if it has changed. This should be called once before a
+     * batch of visibility checks.
+     */
+    public void validate() {
+        if (game.getBoard() != board) {
+            if (board != null) {
+                board.removeBoardListener(boardListener);
+            }
+            board = game.getBoard();
+            board.addBoardListener(boardListener);
+            clear();
+        }
+
+        long key = 0;
+        int entityCount = 0;
+        for (Entity entity : game.getEntitiesVector()) {
+            entityCount++;
+            if ((entity instanceof Dropship) && !entity.isAirborne() && !entity.isSpaceborne()) {
+                key = 31 * key + Objects.hash(entity.getId(), entity.getPosition());
+            }
+        }
+        if (key != obstacleKey) {
+            obstacleKey = key;
+            clear();
+        }
+
+        // Drop the entries of removed entities now and then
+        if (losEntries.size() > 2 * entityCount * entityCount + 64) {
+            clear();
+        }
+    }
+
+    /**
+     * Evicts all cached LOS.
+     */
+    public void clear() {
+        losEntries.clear();
+    }
+
+    /**
+     * Evicts the cached LOS of all pairs of entities whose line of sight passes through or next to
+     * any of the given hexes. This must be called whenever the terrain of hexes is changed.
+     *
+     * @param changedHexes the coordinates of the changed hexes
+     */
+    public void hexesChanged(final Collection<Coords> changedHexes) {
+        if (changedHexes.isEmpty() || losEntries.isEmpty()) {
+            return;
+        }
+        losEntries.values().removeIf(entry -> isNearLine(entry, changedHexes));
+    }
+
+    private static boolean isNearLine(final LosEntry entry, final Collection<Coords> hexes) {
+        if ((entry.spotterPosition == null) || (entry.targetPosition == null)) {
+            return false;
+        }
+        final int length = entry.spotterPosition.distance(entry.targetPosition);
+        for (Coords hex : hexes) {
+            // Any hex on the line from spotter to target or adjacent to it satisfies this
+            if (hex.distance(entry.spotterPosition) + hex.distance(entry.targetPosition) <= length + 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the line of sight effects from the spotter to the target, computing them only if
+     * they are not cached or the state of either entity has changed since.
+     *
+     * @param spotter the spotting entity
+     * @param target the target entity
+     * @return the LOS effects
+     */
+    public LosEffects getLos(final Entity spotter, final Entity target) {
+        final long pairKey = ((long) spotter.getId() << 32) | (target.getId() & 0xFFFFFFFFL);
+        final long spotterKey = losKey(spotter, false);
+        final long targetKey = losKey(target, true);
+        final LosEntry entry = losEntries.get(pairKey);
+        if ((entry != null) && (entry.spotterKey == spotterKey) && (entry.targetKey == targetKey)) {
+            losHits++;
+            return entry.los;
+        }
+        losMisses++;
+        final LosEffects los = LosEffects.calculateLOS(game, spotter, target);
+        losEntries.put(pairKey, new LosEntry(spotter, target, spotterKey, targetKey, los));
+        return los;
+    }
+
+    /**
+     * @return a key of the state of the entity that the LOS calculation uses
+     */
+    private long losKey(final Entity entity, final boolean asTarget) {
+        long key = System.identityHashCode(entity);
+        key = 31 * key + Objects.hashCode(entity.getPosition());
+        key = 31 * key + entity.getElevation();
+        key = 31 * key + entity.getAltitude();
+        key = 31 * key + entity.getHeight();
+        key = 31 * key + entity.relHeight();
+        key = 31 * key + (entity.isOffBoard() ? 1 : 0);
+        key = 31 * key + (entity.isAirborne() ? 1 : 0);
+        key = 31 * key + (entity.isSpaceborne() ? 1 : 0);
+        if (asTarget && (entity.getPosition() != null) && game.getBoard().contains(entity.getPosition())) {
+            key = 31 * key + (game.hasRooftopGunEmplacement(entity.getPosition()) ? 1 : 0);
+        }
+        return key;
+    }
+
+    /**
+     * Returns the ECM and ECCM fields of all entities as computed by
+     * {@link ComputeECM#computeAllEntitiesECMInfo(List)}, as cached by the {@link ECMFieldMap} of
+     * the game.
+     *
+     * @return the ECM info of all entities
+     */
+    public List<ECMInfo> getAllECMInfo() {
+        return game.getECMFieldMap().getAllECMInfo();
+    }
+
+    /**
+     * @return the number of LOS requests that were answered from the matrix
+     */
+    public long getLosHits() {
+        return losHits;
+    }
+
+    /**
+     * @return the number of LOS requests that had to be computed
+     */
+    public long getLosMisses() {
+        return losMisses;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.server.commands;
+
+import megamek.common.net.connections.PacketStatistics;
+import megamek.server.Server;
+
+/**
+ * Lists the packet encoding statistics of this server, including how much encoding work was saved
+ * by sharing encoded broadcast packets between connections.
+ */
+public class PacketStatsCommand extends ServerCommand {
+
+    public PacketStatsCommand(Server server) {
+        super(server, "packetstats",
+                "Lists packet encoding statistics per packet command. Usage: /packetstats [reset]");
+    }
+
+    @Override
+    public void run(int connId, String[] args) {
+        if ((args.length > 1) && "reset".equalsIgnoreCase(args[1])) {
+            PacketStatistics.getInstance().reset();
+            server.sendServerChat(connId, "Packet statistics reset.");
+            return;
+        }
+
+        server.sendServerChat(connId, "[command]: [encodes], [bytes], [time]; [reuses], [bytes], [time saved]");
+        for (String line : PacketStatistics.getInstance().getReport().split(System.lineSeparator())) {
+            if (!line.isBlank()) {
+                server.sendServerChat(connId, line);
+            }
+        }
+        server.sendServerChat(connId, "end list");
+    }
+}
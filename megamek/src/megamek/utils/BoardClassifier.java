@@ -18,17 +18,14 @@
  */
 package megamek.utils;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import megamek.common.Board;
+import megamek.common.BoardCatalog;
 import megamek.common.BoardDimensions;
-import megamek.common.Configuration;
-import megamek.common.util.fileUtils.MegaMekFile;
 import megamek.utils.BoardsTagger.Tags;
 
 /**
@@ -94,59 +91,31 @@ public class BoardClassifier {
     }
     
     /**
-     * Scans through the boards in the default and user-data directories, 
-     * and populates the "boardsBy[x]" indices. WARNING: This is a very time-consuming 
-     * operation, so use very sparingly.
+     * Populates the "boardsBy[x]" indices with the boards in the default and user-data
+     * directories from the {@link BoardCatalog}.
      */
     private void scanForBoards() {
-        // Scan the MegaMek boards directory
-        File boardDir = Configuration.boardsDir();
-        scanForBoardsInDir(boardDir, "");
-        
-        // Scan the userData directory
-        boardDir = new File(Configuration.userdataDir(), Configuration.boardsDir().toString());
-        if (boardDir.isDirectory()) {
-            scanForBoardsInDir(boardDir, "");
-        }
-    }
-    
-    /**
-     * Scans the given boardDir directory for map boards and populates the "boardsBy[x]" indices.
-     * Potentially a very time-consuming operation.
-     */
-    private void scanForBoardsInDir(final File boardDir, final String basePath) {
-        String[] fileList = boardDir.list();
-        if (fileList != null) {
-            for (String filename : fileList) {
-                File filePath = new MegaMekFile(boardDir, filename).getFile();
+        for (BoardCatalog.BoardInfo board : BoardCatalog.getInstance().getBoards()) {
+            String filePath = board.getFile().getPath();
+            BoardDimensions dimension = board.getSize();
+            
+            if (dimension != null) {
+                getBoardsByHeight().putIfAbsent(dimension.height(), new ArrayList<>());
+                getBoardsByWidth().putIfAbsent(dimension.width(), new ArrayList<>());
                 
-                // this is a "partial" board path that omits the "data/boards" part of the path
-                // and is usable 
-                String partialBoardPath = basePath + File.separator + filename;
-                if (filePath.isDirectory()) {
-                    scanForBoardsInDir(filePath, partialBoardPath);
-                } else {
-                    if (filename.endsWith(".board")) {
-                        BoardDimensions dimension = Board.getSize(filePath);
-                        
-                        if (dimension != null) {
-                            getBoardsByHeight().putIfAbsent(dimension.height(), new ArrayList<>());
-                            getBoardsByWidth().putIfAbsent(dimension.width(), new ArrayList<>());
-                            
-                            getBoardsByHeight().get(dimension.height()).add(filePath.getPath());
-                            getBoardsByWidth().get(dimension.width()).add(filePath.getPath());
-                        }
-                        
-                        for (String tagString : Board.getTags(filePath)) {
-                            Tags tag = Tags.parse(tagString);
-                            getBoardsByTag().putIfAbsent(tag, new ArrayList<>());
-                            getBoardsByTag().get(tag).add(filePath.getPath());
-                        }
-                        
-                        getBoardPaths().put(filePath.getPath(), partialBoardPath);
-                    }
-                }
+                getBoardsByHeight().get(dimension.height()).add(filePath);
+                getBoardsByWidth().get(dimension.width()).add(filePath);
+            }
+            
+            for (String tagString : board.getTags()) {
+                Tags tag = Tags.parse(tagString);
+                getBoardsByTag().putIfAbsent(tag, new ArrayList<>());
+                getBoardsByTag().get(tag).add(filePath);
             }
+            
+            // this is a "partial" board path that omits the "data/boards" part of the path
+            // and is usable 
+            getBoardPaths().put(filePath, board.getPath() + ".board");
         }
     }
     
@@ -208,6 +208,10 @@ public class BehaviorSettingsTest {
         Assert.assertEquals(BehaviorSettingsTestConstants.GOOD_HERD_MENTALITY_INDEX,
                 behaviorSettings.getHerdMentalityIndex());
         Assert.assertEquals(BehaviorSettingsTestConstants.GOOD_BRAVERY_INDEX, behaviorSettings.getBraveryIndex());
+        Assert.assertEquals(BehaviorSettingsTestConstants.GOOD_PATH_RANKING_THREADS,
+                behaviorSettings.getPathRankingThreads());
+        Assert.assertEquals(BehaviorSettingsTestConstants.GOOD_TURN_TIME_BUDGET,
+                behaviorSettings.getTurnTimeBudget());
         Assert.assertEquals(expectedTargets, behaviorSettings.getStrategicBuildingTargets());
         Assert.assertEquals(expectedUnits, behaviorSettings.getPriorityUnitTargets());
 
@@ -28,6 +28,8 @@ public class BehaviorSettingsTestConstants {
     public static final int GOOD_SELF_PRESERVATION_INDEX = 5;
     public static final int GOOD_HERD_MENTALITY_INDEX = 5;
     public static final int GOOD_BRAVERY_INDEX = 5;
+    public static final int GOOD_PATH_RANKING_THREADS = 2;
+    public static final int GOOD_TURN_TIME_BUDGET = 3;
     public static final String STRATEGIC_TARGET_1 = "1234";
     public static final String STRATEGIC_TARGET_2 = "9876";
     public static final int PRORITY_TARGET = 100;
@@ -45,6 +47,8 @@ public class BehaviorSettingsTestConstants {
             "    <selfPreservationIndex>" + GOOD_SELF_PRESERVATION_INDEX + "</selfPreservationIndex>\n" +
             "    <herdMentalityIndex>" + GOOD_HERD_MENTALITY_INDEX + "</herdMentalityIndex>\n" +
             "    <braveryIndex>" + GOOD_BRAVERY_INDEX + "</braveryIndex>\n" +
+            "    <pathRankingThreads>" + GOOD_PATH_RANKING_THREADS + "</pathRankingThreads>\n" +
+            "    <turnTimeBudget>" + GOOD_TURN_TIME_BUDGET + "</turnTimeBudget>\n" +
             "    <strategicTargets>\n" +
             "        <target>" + STRATEGIC_TARGET_1 + "</target>\n" +
             "        <target>" + STRATEGIC_TARGET_2 + "</target>\n" +
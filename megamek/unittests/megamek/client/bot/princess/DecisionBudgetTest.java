@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.client.bot.princess;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class DecisionBudgetTest {
+
+    @Test
+    public void testZeroIsUnlimited() {
+        final DecisionBudget budget = DecisionBudget.start(0);
+        assertSame(DecisionBudget.UNLIMITED, budget);
+        assertFalse(budget.isLimited());
+        assertFalse(budget.isExpired());
+        assertEquals(0, budget.getBudgetMillis());
+        assertSame(DecisionBudget.UNLIMITED, DecisionBudget.start(-1));
+    }
+
+    @Test
+    public void testLimited() {
+        final DecisionBudget budget = DecisionBudget.start(30);
+        assertTrue(budget.isLimited());
+        assertFalse(budget.isExpired());
+        assertEquals(30_000, budget.getBudgetMillis());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.client.bot.princess;
+
+import megamek.common.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class PathRankerTest {
+    private static final int MAX_RANGE = 3;
+
+    private Princess mockPrincess;
+    private Entity mockMover;
+    private TestPathRanker ranker;
+
+    // The enemy is at (10, 10): (10, 7) is in range, (10, 12) is closer and (10, 4) out of range
+    private MovePath outOfRange;
+    private MovePath inRangeShort;
+    private MovePath closer;
+    private MovePath inRangeLong;
+    private List<MovePath> paths;
+
+    /**
+     * Ranks the paths in the order it gets them and finds the same enemy from everywhere.
+     */
+    private static class TestPathRanker extends PathRanker {
+        private final Targetable enemy;
+
+        TestPathRanker(Princess owner, Targetable enemy) {
+            super(owner);
+            this.enemy = enemy;
+        }
+
+        @Override
+        protected RankedPath rankPath(MovePath path, Game game, int maxRange, double fallTolerance,
+                                      List<Entity> enemies, Coords friendsCoords) {
+            return new RankedPath(0, path, "test");
+        }
+
+        @Override
+        public Targetable findClosestEnemy(Entity me, Coords position, Game game) {
+            return enemy;
+        }
+
+        @Override
+        public double distanceToClosestEnemy(Entity entity, Coords position, Game game) {
+            return position.distance(enemy.getPosition());
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mockPrincess = Mockito.mock(Princess.class);
+        mockMover = Mockito.mock(BipedMech.class);
+        final Targetable mockEnemy = Mockito.mock(Targetable.class);
+        Mockito.when(mockEnemy.getPosition()).thenReturn(new Coords(10, 10));
+        ranker = new TestPathRanker(mockPrincess, mockEnemy);
+
+        outOfRange = createPath(new Coords(10, 4), 4);
+        inRangeShort = createPath(new Coords(10, 7), 2);
+        closer = createPath(new Coords(10, 12), 3);
+        inRangeLong = createPath(new Coords(10, 7), 5);
+        paths = List.of(outOfRange, inRangeShort, closer, inRangeLong);
+    }
+
+    private MovePath createPath(Coords destination, int hexesMoved) {
+        final MovePath path = Mockito.mock(MovePath.class);
+        Mockito.when(path.getEntity()).thenReturn(mockMover);
+        Mockito.when(path.getFinalCoords()).thenReturn(destination);
+        Mockito.when(path.getHexesMoved()).thenReturn(hexesMoved);
+        return path;
+    }
+
+    private static List<MovePath> pathsOf(List<RankedPath> rankedPaths) {
+        final List<MovePath> result = new ArrayList<>();
+        for (RankedPath rankedPath : rankedPaths) {
+            result.add(rankedPath.getPath());
+        }
+        return result;
+    }
+
+    @Test
+    public void testOrderForBudgetRoundRobinByDestination() {
+        // The hexes in range come first, each with its longest move, before any hex gets its second path
+        final List<MovePath> ordered = ranker.orderForBudget(paths, null, MAX_RANGE);
+        assertEquals(List.of(inRangeLong, closer, outOfRange, inRangeShort), ordered);
+        assertEquals(List.of(outOfRange, inRangeShort, closer, inRangeLong), paths);
+    }
+
+    @Test
+    public void testOrderForBudgetFallingBack() {
+        // A unit falling back prefers the hexes farthest from the enemy
+        Mockito.when(mockPrincess.wantsToFallBack(mockMover)).thenReturn(true);
+        final List<MovePath> ordered = ranker.orderForBudget(paths, null, MAX_RANGE);
+        assertEquals(List.of(outOfRange, inRangeLong, closer, inRangeShort), ordered);
+    }
+
+    @Test
+    public void testOrderForBudgetSinglePath() {
+        final List<MovePath> single = Collections.singletonList(closer);
+        assertSame(single, ranker.orderForBudget(single, null, MAX_RANGE));
+    }
+
+    @Test
+    public void testExpiredBudgetRanksOnePath() {
+        final DecisionBudget expired = Mockito.mock(DecisionBudget.class);
+        Mockito.when(expired.isLimited()).thenReturn(true);
+        Mockito.when(expired.isExpired()).thenReturn(true);
+        Mockito.when(mockPrincess.getDecisionBudget()).thenReturn(expired);
+
+        final List<RankedPath> ranked = ranker.rankValidPaths(paths, null, MAX_RANGE, 0,
+                Collections.emptyList(), null);
+        assertEquals(List.of(inRangeLong), pathsOf(ranked));
+    }
+
+    @Test
+    public void testUnlimitedBudgetRanksAllPaths() {
+        Mockito.when(mockPrincess.getDecisionBudget()).thenReturn(DecisionBudget.UNLIMITED);
+
+        final List<RankedPath> ranked = ranker.rankValidPaths(paths, null, MAX_RANGE, 0,
+                Collections.emptyList(), null);
+        assertEquals(paths, pathsOf(ranked));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.client.ui.swing;
+
+import megamek.client.Client;
+import megamek.common.Game;
+import megamek.common.Report;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import java.util.Vector;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class RoundReportPaneTest {
+    private Client client;
+    private Game game;
+
+    @Before
+    public void setUp() {
+        client = new Client("Test", "localhost", 0);
+        game = client.getGame();
+        game.setRoundCount(1);
+        game.addReports(phaseReports("Atlas"));
+    }
+
+    /**
+     * @return The reports of a phase in which the given unit fires
+     */
+    private static Vector<Report> phaseReports(String unit) {
+        final Vector<Report> reports = new Vector<>();
+        reports.add(new Report(3000));
+        final Report report = new Report(3100);
+        report.add(unit);
+        report.add("Player");
+        reports.add(report);
+        return reports;
+    }
+
+    private static String textOf(RoundReportPane pane) throws BadLocationException {
+        final Document document = ((JTextPane) pane.getViewport().getView()).getDocument();
+        return document.getText(0, document.getLength()).replaceAll("\\s+", " ").trim();
+    }
+
+    @Test
+    public void testRenderedWhenRefreshed() throws BadLocationException {
+        final RoundReportPane pane = new RoundReportPane(client, 1, p -> { });
+        pane.update();
+        assertFalse(pane.isRendered());
+
+        pane.refresh();
+        assertTrue(pane.isRendered());
+        assertTrue(textOf(pane).contains("Weapons fire for Atlas"));
+    }
+
+    @Test
+    public void testAppendMatchesRender() throws BadLocationException {
+        final RoundReportPane appended = new RoundReportPane(client, 1, p -> { });
+        appended.refresh();
+        final JTextPane textPane = (JTextPane) appended.getViewport().getView();
+
+        game.addReports(phaseReports("Marauder"));
+        appended.update();
+        // the new reports are appended to the same document instead of rendering the round again
+        assertSame(textPane, appended.getViewport().getView());
+
+        final RoundReportPane rendered = new RoundReportPane(client, 1, p -> { });
+        rendered.refresh();
+        assertEquals(textOf(rendered), textOf(appended));
+        assertTrue(textOf(appended).indexOf("Atlas") < textOf(appended).indexOf("Marauder"));
+
+        // nothing new, nothing appended
+        final String text = textOf(appended);
+        appended.update();
+        assertEquals(text, textOf(appended));
+    }
+
+    @Test
+    public void testShowSelectedRound() {
+        game.setRoundCount(2);
+        game.addReports(phaseReports("Marauder"));
+        final JTabbedPane tabs = new JTabbedPane();
+        final RoundReportPane first = new RoundReportPane(client, 1, p -> { });
+        final RoundReportPane second = new RoundReportPane(client, 2, p -> { });
+        tabs.add("Round 1", first);
+        tabs.add("Round 2", second);
+
+        tabs.setSelectedIndex(0);
+        RoundReportPane.showSelectedRound(tabs);
+        assertTrue(first.isRendered());
+        assertFalse(second.isRendered());
+
+        // the earlier round is released, the latest round stays rendered once shown
+        tabs.setSelectedIndex(1);
+        RoundReportPane.showSelectedRound(tabs);
+        assertFalse(first.isRendered());
+        assertTrue(second.isRendered());
+        tabs.setSelectedIndex(0);
+        RoundReportPane.showSelectedRound(tabs);
+        assertTrue(first.isRendered());
+        assertTrue(second.isRendered());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.client.ui.swing.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class ImageCacheTest {
+
+    /** The size of a 10 x 10 image at 4 bytes per pixel */
+    private static final long IMAGE_BYTES = 400;
+
+    private static Image image() {
+        return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Test
+    public void testByteAccounting() {
+        final ImageCache<Integer, Object> cache = new ImageCache<>(10 * IMAGE_BYTES, ImageCache::estimateBytes);
+        cache.put(1, image());
+        cache.put(2, List.of(image(), image()));
+        cache.put(3, "no image");
+        assertEquals(3 * IMAGE_BYTES, cache.getBytes());
+
+        // replacing an entry counts only the new value
+        cache.put(2, image());
+        assertEquals(2 * IMAGE_BYTES, cache.getBytes());
+
+        cache.remove(1);
+        assertEquals(IMAGE_BYTES, cache.getBytes());
+        cache.remove(1);
+        assertEquals(IMAGE_BYTES, cache.getBytes());
+
+        cache.clear();
+        assertEquals(0, cache.getBytes());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        final ImageCache<Integer, Image> cache = new ImageCache<>(3 * IMAGE_BYTES, ImageCache::estimateBytes);
+        cache.put(1, image());
+        cache.put(2, image());
+        cache.put(3, image());
+        assertEquals(0, cache.getEvictions());
+
+        // 1 is used after 2, so 2 goes first
+        assertNotNull(cache.get(1));
+        cache.put(4, image());
+        assertEquals(3, cache.size());
+        assertEquals(3 * IMAGE_BYTES, cache.getBytes());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(1));
+        assertNotNull(cache.get(3));
+        assertNotNull(cache.get(4));
+    }
+
+    @Test
+    public void testKeepsNewEntryOverBudget() {
+        final ImageCache<Integer, Image> cache = new ImageCache<>(IMAGE_BYTES / 2, ImageCache::estimateBytes);
+        cache.put(1, image());
+        assertEquals(1, cache.size());
+        cache.put(2, image());
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.get(2));
+    }
+
+    @Test
+    public void testMaxEntries() {
+        final ImageCache<Integer, Image> cache = new ImageCache<>(2);
+        cache.put(1, new BufferedImage(1000, 1000, BufferedImage.TYPE_INT_ARGB));
+        cache.put(2, new BufferedImage(1000, 1000, BufferedImage.TYPE_INT_ARGB));
+        assertEquals(2, cache.size());
+        cache.put(3, image());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testCounters() {
+        final ImageCache<Integer, Image> cache = new ImageCache<>(10 * IMAGE_BYTES, ImageCache::estimateBytes);
+        cache.put(1, image());
+        cache.get(1);
+        cache.get(1);
+        cache.get(2);
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+        assertTrue(cache.getStatistics().startsWith("1 images"));
+    }
+
+    @Test
+    public void testNullsAreNotCached() {
+        final ImageCache<Integer, Image> cache = new ImageCache<>(10 * IMAGE_BYTES, ImageCache::estimateBytes);
+        assertNull(cache.put(null, image()));
+        assertNull(cache.put(1, null));
+        assertEquals(0, cache.size());
+    }
+}
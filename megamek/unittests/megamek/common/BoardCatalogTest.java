@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class BoardCatalogTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private File boardsDir;
+    private File userDataBoardsDir;
+    private File cacheFile;
+
+    @Before
+    public void setUp() throws IOException {
+        boardsDir = tmpFolder.newFolder("boards");
+        userDataBoardsDir = new File(tmpFolder.getRoot(), "userdata");
+        cacheFile = new File(tmpFolder.getRoot(), "boards.cache");
+    }
+
+    private BoardCatalog createCatalog() {
+        BoardCatalog catalog = new BoardCatalog(boardsDir, userDataBoardsDir, cacheFile);
+        catalog.load();
+        return catalog;
+    }
+
+    private static File writeBoard(File dir, String name, int width, int height, String tag) throws IOException {
+        File file = new File(dir, name + ".board");
+        String content = "size " + width + " " + height + "\n"
+                + "tag \"" + tag + "\"\n"
+                + "end\n";
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void testReadsBoards() throws IOException {
+        File grass = writeBoard(boardsDir, "Grass", 16, 17, "Grassland");
+        userDataBoardsDir.mkdirs();
+        File city = writeBoard(userDataBoardsDir, "City", 32, 17, "Urban");
+
+        BoardCatalog catalog = createCatalog();
+        assertEquals(2, catalog.getBoards().size());
+        assertEquals(new BoardDimensions(16, 17), catalog.getBoard(grass).getSize());
+        assertEquals("/Grass".replace('/', File.separatorChar), catalog.getBoard(grass).getPath());
+        assertEquals(Set.of("Urban"), catalog.getTags(city));
+        assertEquals(1, catalog.getBoards(new BoardDimensions(32, 17)).size());
+        assertTrue(cacheFile.exists());
+    }
+
+    @Test
+    public void testChangedTimeStampWithSameContent() throws IOException {
+        File grass = writeBoard(boardsDir, "Grass", 16, 17, "Grassland");
+        BoardCatalog catalog = createCatalog();
+        BoardCatalog.BoardInfo known = catalog.getBoard(grass);
+
+        // the checksum matches, so the board is kept rather than read again
+        assertTrue(grass.setLastModified(grass.lastModified() - 60_000));
+        catalog.refresh();
+        assertSame(known, catalog.getBoard(grass));
+
+        // the same length with other content is read again
+        writeBoard(boardsDir, "Grass", 16, 17, "Grassloam");
+        assertTrue(grass.setLastModified(grass.lastModified() - 120_000));
+        catalog.refresh();
+        assertNotSame(known, catalog.getBoard(grass));
+        assertEquals(Set.of("Grassloam"), catalog.getTags(grass));
+    }
+
+    @Test
+    public void testRemovedBoard() throws IOException {
+        File grass = writeBoard(boardsDir, "Grass", 16, 17, "Grassland");
+        File city = writeBoard(boardsDir, "City", 32, 17, "Urban");
+        BoardCatalog catalog = createCatalog();
+        assertEquals(2, catalog.getBoards().size());
+
+        assertTrue(city.delete());
+        catalog.refresh();
+        assertEquals(1, catalog.getBoards().size());
+        assertNull(catalog.getBoard(city));
+        assertTrue(catalog.getTags(city).isEmpty());
+        assertTrue(catalog.getBoardSizes().contains(new BoardDimensions(16, 17)));
+        assertFalse(catalog.getBoardSizes().contains(new BoardDimensions(32, 17)));
+
+        // the saved catalog no longer has the board either
+        assertNull(createCatalog().getBoard(city));
+        assertNotNull(createCatalog().getBoard(grass));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        File grass = writeBoard(boardsDir, "Grass", 16, 17, "Grassland");
+        File city = writeBoard(boardsDir, "City", 32, 17, "Urban");
+        createCatalog().refresh();
+
+        // unchanged boards are taken from the saved catalog, so it is not saved again
+        assertTrue(cacheFile.setLastModified(1_000_000));
+        BoardCatalog loaded = createCatalog();
+        assertEquals(2, loaded.getBoards().size());
+        assertEquals(new BoardDimensions(16, 17), loaded.getBoard(grass).getSize());
+        assertEquals(Set.of("Grassland"), loaded.getTags(grass));
+        assertEquals(new BoardDimensions(32, 17), loaded.getBoard(city).getSize());
+        assertEquals(Set.of("Urban"), loaded.getTags(city));
+        assertEquals(1_000_000, cacheFile.lastModified());
+    }
+
+    @Test
+    public void testCatalogIsNotSavedInBoardsDir() throws IOException {
+        writeBoard(boardsDir, "Grass", 16, 17, "Grassland");
+        userDataBoardsDir.mkdirs();
+        writeBoard(userDataBoardsDir, "City", 32, 17, "Urban");
+        assertEquals(2, createCatalog().getBoards().size());
+        assertArrayEquals(new String[] { "Grass.board" }, boardsDir.list());
+        assertArrayEquals(new String[] { "City.board" }, userDataBoardsDir.list());
+        assertTrue(cacheFile.exists());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class BoardTest {
+
+    private static final String BOARD = "size 3 2\n"
+            + "option exit_roads_to_pavement false\n"
+            + "# a comment line\n"
+            + "hex 0101 0 \"woods:1;foliage_elev:2\" \"\"\n"
+            + "HEX 0201 -2 \"woods:1;foliage_elev:2\" \"snow\" # a comment\n"
+            + "hex 0301 3\n"
+            + "hex 0102 1 \"road:1:09;road:1:12\" grass\n"
+            + "hex 0202 1.5 \"building:2:00;bldg_cf:15;bldg_elev:2\" \"\"\n"
+            + "hex 0302 0 'rough:1' \"\"\n"
+            + "tag \"Grassland\"\n"
+            + "description \"A test board\"\n"
+            + "end\n"
+            + "hex 0101 5 \"water:1\" \"\"\n";
+
+    private static String loadAndSave(String content) {
+        Board board = new Board();
+        board.load(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), new StringBuffer(), true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        board.save(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        String saved = loadAndSave(BOARD);
+        assertEquals(saved, loadAndSave(saved));
+    }
+
+    @Test
+    public void testLoad() {
+        Board board = new Board();
+        board.load(new ByteArrayInputStream(BOARD.getBytes(StandardCharsets.UTF_8)), new StringBuffer(), true);
+        assertEquals(3, board.getWidth());
+        assertEquals(2, board.getHeight());
+        assertEquals(2, board.getHex(0, 0).terrainLevel(Terrains.FOLIAGE_ELEV));
+        assertEquals(-2, board.getHex(1, 0).getLevel());
+        assertEquals("snow", board.getHex(1, 0).getTheme());
+        assertEquals(3, board.getHex(2, 0).getLevel());
+        assertTrue(board.getHex(0, 1).containsTerrain(Terrains.ROAD));
+        assertEquals("grass", board.getHex(0, 1).getTheme());
+        assertEquals(1, board.getHex(1, 1).getLevel());
+        // only double quoted terrains are read
+        assertFalse(board.getHex(2, 1).containsTerrain(Terrains.ROUGH));
+        assertTrue(board.getTags().contains("Grassland"));
+        // hexes of the same terrain do not share their terrains
+        assertEquals(board.getHex(0, 0).getTerrain(Terrains.WOODS), board.getHex(1, 0).getTerrain(Terrains.WOODS));
+        assertNotSame(board.getHex(0, 0).getTerrain(Terrains.WOODS), board.getHex(1, 0).getTerrain(Terrains.WOODS));
+    }
+
+    @Test
+    public void testReadSizeAndTags() throws IOException {
+        Set<String> tags = new HashSet<>();
+        assertEquals(new BoardDimensions(3, 2), Board.readSizeAndTags(new StringReader(BOARD), tags));
+        assertEquals(Set.of("Grassland"), tags);
+        assertEquals(new BoardDimensions(3, 2), Board.readSizeAndTags(new StringReader(BOARD), null));
+
+        // tags after the end of the board are not read
+        tags.clear();
+        assertNull(Board.readSizeAndTags(new StringReader("tag \"Urban\"\nend\ntag \"Snow\"\n"), tags));
+        assertEquals(Set.of("Urban"), tags);
+    }
+}
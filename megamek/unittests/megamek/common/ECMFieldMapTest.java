@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import megamek.common.options.OptionsConstants;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the effects looked up in the {@link ECMFieldMap} with those that
+ * {@link ComputeECM#computeECMEffects} finds by checking every field for every hex.
+ */
+@RunWith(JUnit4.class)
+public class ECMFieldMapTest {
+    private static final int WIDTH = 16;
+    private static final int HEIGHT = 17;
+
+    private Game game;
+    private Player first;
+    private Player ally;
+    private Player enemy;
+    private final List<Entity> entities = new ArrayList<>();
+
+    @BeforeClass
+    public static void setUpClass() {
+        EquipmentType.initializeTypes();
+    }
+
+    @Before
+    public void setUp() {
+        game = new Game();
+        final Hex[] hexes = new Hex[WIDTH * HEIGHT];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        game.setBoard(new Board(WIDTH, HEIGHT, hexes));
+        first = addPlayer(0, 1);
+        ally = addPlayer(1, 1);
+        enemy = addPlayer(2, 2);
+    }
+
+    private Player addPlayer(int id, int team) {
+        final Player player = new Player(id, "Player " + id);
+        player.setTeam(team);
+        game.addPlayer(id, player);
+        return player;
+    }
+
+    private Entity addMech(Player owner, Coords position, String... equipment) throws LocationFullException {
+        final Entity entity = new BipedMech();
+        entity.setOwner(owner);
+        for (String name : equipment) {
+            entity.addEquipment(EquipmentType.get(name), Mech.LOC_CT);
+        }
+        game.addEntity(entity, false);
+        entity.setPosition(position);
+        entity.setGameOptions();
+        entities.add(entity);
+        return entity;
+    }
+
+    private void setOption(String name) {
+        game.getOptions().getOption(name).setValue(true);
+        for (Entity entity : entities) {
+            entity.setGameOptions();
+        }
+    }
+
+    private static Mounted ecm(Entity entity) {
+        for (Mounted mounted : entity.getMisc()) {
+            if (mounted.getType().hasFlag(MiscType.F_ECM)) {
+                return mounted;
+            }
+        }
+        throw new IllegalStateException("No ECM on " + entity);
+    }
+
+    /**
+     * Switches the ECM of the entity to the mode at the end of the turn.
+     */
+    private static void switchMode(Entity entity, String mode) {
+        final Mounted ecm = ecm(entity);
+        assertTrue(ecm.setMode(mode) >= 0);
+        ecm.newRound(1);
+        assertEquals(mode, ecm.curMode().getName());
+    }
+
+    /**
+     * Checks the lines from each unit to a spread of hexes across the board, for the ECM and the
+     * ECCM comparators, with the fields of the game and with the same fields as a supplied list.
+     *
+     * @return the number of lines affected by ECM
+     */
+    private int assertMatchesComputeECM() {
+        final List<ECMInfo> suppliedFields = new ArrayList<>(
+                ComputeECM.computeAllEntitiesECMInfo(game.getEntitiesVector()));
+        int affected = 0;
+        for (Entity ae : entities) {
+            for (int x = 0; x < WIDTH; x += 3) {
+                for (int y = 0; y < HEIGHT; y += 4) {
+                    final Coords a = ae.getPosition();
+                    final Coords b = new Coords(x, y);
+                    for (boolean compareECM : new boolean[] { true, false }) {
+                        final ECMInfo expected = ComputeECM.computeECMEffects(ae, a, b,
+                                compareECM ? new ECMInfo.ECMComparator() : new ECMInfo.ECCMComparator(), null);
+                        final String line = ae.getOwner().getName() + " " + a + " to " + b + " ECM " + compareECM;
+                        assertEquals(line, expected, ComputeECM.getECMEffects(ae, a, b, compareECM, null));
+                        assertEquals(line, expected, ComputeECM.getECMEffects(ae, a, b, compareECM, suppliedFields));
+                    }
+                    final ECMInfo expected = ComputeECM.computeECMEffects(ae, a, b,
+                            new ECMInfo.ECMComparator(), null);
+                    final boolean expectedAffected = (expected != null) && expected.isECM();
+                    assertEquals(expectedAffected, ComputeECM.isAffectedByECM(ae, a, b));
+                    assertEquals((expected != null) && expected.isAngelECM(), ComputeECM.isAffectedByAngelECM(ae, a, b));
+                    affected += expectedAffected ? 1 : 0;
+                }
+            }
+        }
+        return affected;
+    }
+
+    @Test
+    public void testEnemyAndAlliedECM() throws LocationFullException {
+        addMech(first, new Coords(3, 3));
+        addMech(ally, new Coords(5, 4), "ISGuardianECMSuite");
+        addMech(enemy, new Coords(10, 8), "ISGuardianECMSuite");
+        addMech(enemy, new Coords(12, 14));
+        assertTrue(assertMatchesComputeECM() > 0);
+    }
+
+    @Test
+    public void testECCM() throws LocationFullException {
+        setOption(OptionsConstants.ADVANCED_TACOPS_ECCM);
+        addMech(first, new Coords(3, 3));
+        final Entity eccm = addMech(ally, new Coords(7, 6), "ISGuardianECMSuite");
+        addMech(enemy, new Coords(9, 7), "ISGuardianECMSuite");
+        addMech(enemy, new Coords(2, 12), "ISGuardianECMSuite");
+        switchMode(eccm, "ECCM");
+        assertTrue(eccm.hasActiveECCM());
+        assertTrue(assertMatchesComputeECM() > 0);
+    }
+
+    @Test
+    public void testAngelECM() throws LocationFullException {
+        setOption(OptionsConstants.ADVANCED_TACOPS_ECCM);
+        setOption(OptionsConstants.ADVANCED_TACOPS_ANGEL_ECM);
+        addMech(first, new Coords(3, 3), "ISGuardianECMSuite");
+        final Entity angel = addMech(enemy, new Coords(8, 5), "ISAngelECMSuite");
+        addMech(ally, new Coords(9, 10), "ISAngelECMSuite");
+        switchMode(angel, "ECM & ECCM");
+        assertTrue(angel.hasActiveECCM());
+        assertTrue(assertMatchesComputeECM() > 0);
+    }
+
+    @Test
+    public void testIncrementalUpdate() throws LocationFullException {
+        setOption(OptionsConstants.ADVANCED_TACOPS_ECCM);
+        addMech(first, new Coords(3, 3));
+        final Entity allied = addMech(ally, new Coords(5, 4), "ISGuardianECMSuite");
+        final Entity hostile = addMech(enemy, new Coords(10, 8), "ISGuardianECMSuite");
+        final int affected = assertMatchesComputeECM();
+        assertTrue(affected > 0);
+        final List<ECMInfo> before = game.getECMFieldMap().getAllECMInfo();
+        assertSame(before, game.getECMFieldMap().getAllECMInfo());
+
+        // the entities tell the field map of a move, a mode change and a shutdown
+        hostile.setPosition(new Coords(6, 6));
+        assertNotSame(before, game.getECMFieldMap().getAllECMInfo());
+        assertNotEquals(affected, assertMatchesComputeECM());
+
+        switchMode(allied, "ECCM");
+        assertMatchesComputeECM();
+
+        hostile.setShutDown(true);
+        assertEquals(0, assertMatchesComputeECM());
+        hostile.setShutDown(false);
+
+        // and a change of teams makes the enemy an ally
+        enemy.setTeam(1);
+        assertEquals(0, assertMatchesComputeECM());
+        enemy.setTeam(2);
+
+        addMech(enemy, new Coords(1, 10), "ISGuardianECMSuite");
+        assertMatchesComputeECM();
+        game.removeEntity(hostile.getId(), IEntityRemovalConditions.REMOVE_SALVAGEABLE);
+        entities.remove(hostile);
+        assertMatchesComputeECM();
+    }
+}
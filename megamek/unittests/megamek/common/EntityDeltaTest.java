@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class EntityDeltaTest {
+    private final Player owner = new Player(0, "Owner");
+    private final Player observer = new Player(1, "Observer");
+
+    /**
+     * @return A mech as both the server and a client know it
+     */
+    private Entity createMech(Game game) {
+        final Entity entity = new BipedMech();
+        entity.setId(5);
+        entity.setPosition(new Coords(3, 3));
+        entity.setFacing(1);
+        for (int loc = 0; loc < entity.locations(); loc++) {
+            entity.initializeArmor(10, loc);
+            entity.initializeInternal(5, loc);
+            if (entity.hasRearArmor(loc)) {
+                entity.setArmor(4, loc, true);
+            }
+        }
+        if (game != null) {
+            game.addPlayer(owner.getId(), owner);
+            entity.setOwner(owner);
+            game.addEntity(entity, false);
+        }
+        return entity;
+    }
+
+    private static void damage(Entity entity) {
+        entity.setPosition(new Coords(4, 6));
+        entity.setFacing(3);
+        entity.heat = 7;
+        entity.setArmor(2, Mech.LOC_CT, false);
+        entity.setArmor(1, Mech.LOC_CT, true);
+        entity.setInternal(3, Mech.LOC_LARM);
+        entity.setDone(true);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final Entity serverEntity = createMech(null);
+        final Game clientGame = new Game();
+        final Entity clientEntity = createMech(clientGame);
+        serverEntity.markSent(List.of(owner));
+
+        damage(serverEntity);
+        final EntityDelta delta = serverEntity.createDeltas(List.of(owner)).get(owner.getId());
+        assertNotNull(delta);
+        assertTrue(delta.hasChanged(EntityDelta.POSITION));
+        assertTrue(delta.hasChanged(EntityDelta.ARMOR));
+        assertFalse(delta.hasChanged(EntityDelta.ALTITUDE));
+        assertFalse(delta.hasChanged(EntityDelta.AMMO));
+
+        assertTrue(clientGame.applyEntityDelta(delta));
+        assertEquals(new Coords(4, 6), clientEntity.getPosition());
+        assertEquals(3, clientEntity.getFacing());
+        assertEquals(7, clientEntity.heat);
+        assertEquals(2, clientEntity.getArmor(Mech.LOC_CT, false));
+        assertEquals(1, clientEntity.getArmor(Mech.LOC_CT, true));
+        assertEquals(3, clientEntity.getInternal(Mech.LOC_LARM));
+        assertTrue(clientEntity.isDone());
+        assertEquals(new EntityDelta.State(serverEntity).digest(), new EntityDelta.State(clientEntity).digest());
+        assertEquals(clientEntity, clientGame.getEntity(5));
+
+        // Nothing changed since the delta
+        final EntityDelta empty = serverEntity.createDeltas(List.of(owner)).get(owner.getId());
+        assertTrue(empty.isEmpty());
+        assertTrue(clientGame.applyEntityDelta(empty));
+    }
+
+    @Test
+    public void testNeverSentNeedsFullEntity() {
+        final Entity entity = createMech(null);
+        assertTrue(entity.createDeltas(List.of(owner)).isEmpty());
+
+        entity.markSent(List.of(owner));
+        damage(entity);
+        final Map<Integer, EntityDelta> deltas = entity.createDeltas(List.of(owner, observer));
+        assertTrue(deltas.containsKey(owner.getId()));
+        assertFalse(deltas.containsKey(observer.getId()));
+    }
+
+    @Test
+    public void testMismatchedCopyIsNotUpdated() {
+        final Entity serverEntity = createMech(null);
+        final Game clientGame = new Game();
+        final Entity clientEntity = createMech(clientGame);
+        serverEntity.markSent(List.of(owner));
+        // The client missed a change
+        serverEntity.setArmor(6, Mech.LOC_HEAD, false);
+        serverEntity.markSent(List.of(owner));
+
+        damage(serverEntity);
+        final EntityDelta delta = serverEntity.createDeltas(List.of(owner)).get(owner.getId());
+        assertFalse(clientGame.applyEntityDelta(delta));
+        assertEquals(new Coords(3, 3), clientEntity.getPosition());
+        assertEquals(10, clientEntity.getArmor(Mech.LOC_CT, false));
+
+        // An unknown entity cannot be updated either
+        assertFalse(new Game().applyEntityDelta(delta));
+    }
+
+    @Test
+    public void testSentStatePerPlayer() {
+        final Entity entity = createMech(null);
+        entity.markSent(List.of(owner, observer));
+        entity.setPosition(new Coords(5, 5));
+
+        // Only the owner is sent the new position, so the observer's delta still has to carry it
+        final EntityDelta ownerDelta = entity.createDeltas(List.of(owner)).get(owner.getId());
+        assertTrue(ownerDelta.hasChanged(EntityDelta.POSITION));
+        entity.setFacing(4);
+        final Map<Integer, EntityDelta> deltas = entity.createDeltas(List.of(owner, observer));
+        assertFalse(deltas.get(owner.getId()).hasChanged(EntityDelta.POSITION));
+        assertTrue(deltas.get(owner.getId()).hasChanged(EntityDelta.FACING));
+        assertTrue(deltas.get(observer.getId()).hasChanged(EntityDelta.POSITION));
+        assertTrue(deltas.get(observer.getId()).hasChanged(EntityDelta.FACING));
+        assertEquals(deltas.get(owner.getId()).getDigest(), deltas.get(observer.getId()).getDigest());
+
+        // Players with the same sent state share the delta
+        entity.setFacing(5);
+        final Map<Integer, EntityDelta> shared = entity.createDeltas(List.of(owner, observer));
+        assertSame(shared.get(owner.getId()), shared.get(observer.getId()));
+    }
+}
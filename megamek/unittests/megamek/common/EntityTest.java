@@ -18,6 +18,7 @@ import junit.framework.TestCase;
 
 import megamek.client.ui.swing.calculationReport.CalculationReport;
 import megamek.client.ui.swing.calculationReport.DummyCalculationReport;
+import megamek.common.options.OptionsConstants;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -86,4 +87,52 @@ public class EntityTest {
             TestCase.fail(exc.getMessage());
         }
     }
+
+    @Test
+    public void testCachedBattleValue() throws Exception {
+        Entity e = new MechFileParser(new File("data/mechfiles/mechs/3050U/Exterminator EXT-4A.mtf")).getEntity();
+        Game game = new Game();
+        game.addPlayer(0, new Player(0, "Player"));
+        e.setOwner(game.getPlayer(0));
+        game.addEntity(e, false);
+
+        int bv = e.getCachedBattleValue();
+        long calculations = Entity.getBVCalculationCount();
+        TestCase.assertEquals(e.calculateBattleValue(), bv);
+        calculations++;
+        TestCase.assertEquals(bv, e.getCachedBattleValue());
+        TestCase.assertEquals(calculations, Entity.getBVCalculationCount());
+
+        // a better gunner makes the unit more valuable
+        e.getCrew().setGunnery(2, 0);
+        TestCase.assertTrue(e.getCachedBattleValue() > bv);
+        TestCase.assertEquals(e.calculateBattleValue(), e.getCachedBattleValue());
+
+        // quirks are options of the unit, which count their changes
+        calculations = Entity.getBVCalculationCount();
+        e.getQuirks().getOption(OptionsConstants.QUIRK_POS_IMP_TARG_S).setValue(true);
+        e.getCachedBattleValue();
+        TestCase.assertEquals(calculations + 1, Entity.getBVCalculationCount());
+
+        // lost armor lowers the BV
+        bv = e.getCachedBattleValue();
+        e.setArmor(e.getArmor(Mech.LOC_CT) - 1, Mech.LOC_CT);
+        TestCase.assertTrue(e.getCachedBattleValue() < bv);
+        TestCase.assertEquals(e.calculateBattleValue(), e.getCachedBattleValue());
+
+        // a game option may change the BV of every unit
+        calculations = Entity.getBVCalculationCount();
+        game.getOptions().getOption(OptionsConstants.ADVANCED_TACOPS_ECCM).setValue(true);
+        e.getCachedBattleValue();
+        TestCase.assertEquals(calculations + 1, Entity.getBVCalculationCount());
+
+        // but another unit without C3 does not change the BV of this one
+        Entity other = new MechFileParser(new File("data/mechfiles/mechs/3050U/Exterminator EXT-4A.mtf")).getEntity();
+        other.setOwner(game.getPlayer(0));
+        game.addEntity(other, false);
+        game.setEntity(other.getId(), other);
+        calculations = Entity.getBVCalculationCount();
+        e.getCachedBattleValue();
+        TestCase.assertEquals(calculations, Entity.getBVCalculationCount());
+    }
 }
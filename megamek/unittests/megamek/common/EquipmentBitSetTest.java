@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigInteger;
+import java.util.Enumeration;
+
+import static org.junit.Assert.*;
+
+@RunWith(value = JUnit4.class)
+public class EquipmentBitSetTest {
+
+    @Test
+    public void testIntersectsSingleFlags() {
+        final EquipmentBitSet set = new EquipmentBitSet(MiscType.F_ECM.or(MiscType.F_PROTOTYPE));
+        assertTrue(set.intersects(MiscType.F_ECM));
+        assertTrue(set.intersects(MiscType.F_PROTOTYPE));
+        assertFalse(set.intersects(MiscType.F_HEAT_SINK));
+        assertFalse(set.intersects(BigInteger.ONE.shiftLeft(1000)));
+        assertFalse(EquipmentBitSet.EMPTY.intersects(MiscType.F_ECM));
+    }
+
+    @Test
+    public void testIntersectsCombinedFlags() {
+        final EquipmentBitSet set = new EquipmentBitSet(MiscType.F_CLUB);
+        assertTrue(set.intersects(MiscType.F_HAND_WEAPON.or(MiscType.F_CLUB)));
+        assertFalse(set.intersects(MiscType.F_HAND_WEAPON.or(MiscType.F_ECM)));
+    }
+
+    @Test
+    public void testWideFlags() {
+        final BigInteger wide = BigInteger.ONE.shiftLeft(400);
+        final EquipmentBitSet set = new EquipmentBitSet(wide.or(BigInteger.ONE));
+        assertTrue(set.intersects(wide));
+        assertTrue(set.get(0));
+        assertEquals(400, set.nextSetBit(1));
+        assertEquals(-1, set.nextSetBit(401));
+    }
+
+    @Test
+    public void testOr() {
+        final EquipmentBitSet set = new EquipmentBitSet(MiscType.F_ECM)
+                .or(new EquipmentBitSet(BigInteger.ONE.shiftLeft(300)));
+        assertTrue(set.intersects(MiscType.F_ECM));
+        assertTrue(set.get(300));
+        assertEquals(MiscType.F_ECM.or(BigInteger.ONE.shiftLeft(300)), set.toBigInteger());
+    }
+
+    @Test
+    public void testHasFlagMatchesBigInteger() {
+        EquipmentType.initializeTypes();
+        final BigInteger[] flags = { MiscType.F_ECM, MiscType.F_JUMP_JET, MiscType.F_PROTOTYPE,
+                WeaponType.F_ENERGY, WeaponType.F_ARTEMIS_COMPATIBLE, AmmoType.F_SCREEN,
+                MiscType.F_CLUB.or(MiscType.F_HAND_WEAPON) };
+        for (Enumeration<EquipmentType> e = EquipmentType.getAllTypes(); e.hasMoreElements(); ) {
+            final EquipmentType type = e.nextElement();
+            for (BigInteger flag : flags) {
+                assertEquals(type.getInternalName(), type.getFlags().and(flag).signum() != 0,
+                        type.hasFlag(flag));
+            }
+        }
+    }
+
+    @Test
+    public void testWorkingMiscFollowsEquipmentStatus() throws LocationFullException {
+        EquipmentType.initializeTypes();
+        final Mech mech = new BipedMech();
+        assertFalse(mech.hasMisc(MiscType.F_ECM));
+        final Mounted ecm = mech.addEquipment(EquipmentType.get("ISGuardianECMSuite"), Mech.LOC_LT);
+        assertTrue(mech.hasMisc(MiscType.F_ECM));
+        assertTrue(mech.hasWorkingMisc(MiscType.F_ECM));
+
+        ecm.setDestroyed(true);
+        assertTrue(mech.hasMisc(MiscType.F_ECM));
+        assertFalse(mech.hasWorkingMisc(MiscType.F_ECM));
+        assertEquals(0, mech.countWorkingMisc(MiscType.F_ECM));
+
+        ecm.setDestroyed(false);
+        assertTrue(mech.hasWorkingMisc(MiscType.F_ECM));
+
+        mech.getMisc().remove(ecm);
+        assertFalse(mech.hasMisc(MiscType.F_ECM));
+    }
+}
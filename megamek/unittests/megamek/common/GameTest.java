@@ -1,10 +1,14 @@
 package megamek.common;
 
+import megamek.common.enums.GamePhase;
 import megamek.server.victory.VictoryResult;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.junit.Assert.*;
 
 @RunWith(JUnit4.class)
@@ -57,4 +61,90 @@ public class GameTest {
         assertSame(winningTeam, victoryResult2.getWinningTeam());
     }
 
+    @Test
+    public void testEntitiesWithin() {
+        Game game = new Game();
+        Entity near = addMech(game, 0, new Coords(5, 5));
+        Entity edge = addMech(game, 1, new Coords(5, 9));
+        Entity far = addMech(game, 2, new Coords(30, 30));
+        addMech(game, 3, null);
+
+        assertEquals(Arrays.asList(near, edge), game.getEntitiesWithin(new Coords(5, 6), 3));
+        assertEquals(Collections.singletonList(near), game.getEntitiesWithin(new Coords(5, 6), 2));
+
+        // the index follows moves and removals
+        far.setPosition(new Coords(6, 6));
+        assertEquals(Arrays.asList(near, edge, far), game.getEntitiesWithin(new Coords(5, 6), 3));
+        game.removeEntity(near.getId(), IEntityRemovalConditions.REMOVE_SALVAGEABLE);
+        assertEquals(Arrays.asList(edge, far), game.getEntitiesWithin(new Coords(5, 6), 3));
+    }
+
+    @Test
+    public void testSnapshot() {
+        Game game = new Game();
+        Entity first = addMech(game, 0, new Coords(2, 2));
+        Entity second = addMech(game, 1, new Coords(4, 4));
+        game.setPhase(GamePhase.MOVEMENT);
+
+        Game snapshot = game.snapshot();
+        assertSame(game.getBoard(), snapshot.getBoard());
+        assertSame(game.getOptions(), snapshot.getOptions());
+        assertSame(first, snapshot.getEntity(0));
+
+        // replacing and removing entities and changing the phase leave the snapshot as it was
+        Entity replacement = new BipedMech();
+        replacement.setId(0);
+        replacement.setOwner(game.getPlayer(0));
+        replacement.setPosition(new Coords(3, 3));
+        game.setEntity(0, replacement);
+        game.removeEntity(second.getId(), IEntityRemovalConditions.REMOVE_SALVAGEABLE);
+        game.setPhase(GamePhase.FIRING);
+
+        assertSame(first, snapshot.getEntity(0));
+        assertSame(second, snapshot.getEntity(1));
+        // the forces of the snapshot look up the entities of the snapshot
+        assertNotSame(game.getForces(), snapshot.getForces());
+        assertSame(first, snapshot.getForces().getEntity(0));
+        assertSame(replacement, game.getForces().getEntity(0));
+        assertEquals(Arrays.asList(first, second), snapshot.getEntitiesVector());
+        assertEquals(Collections.singletonList(second), snapshot.getEntitiesVector(new Coords(4, 4), true));
+        assertTrue(snapshot.getPhase().isMovement());
+        assertEquals(Collections.singletonList(replacement), game.getEntitiesVector());
+    }
+
+    @Test
+    public void testSnapshotWithSubstitute() {
+        Game game = new Game();
+        Entity first = addMech(game, 0, new Coords(2, 2));
+        Entity second = addMech(game, 1, new Coords(4, 4));
+
+        Entity copy = new BipedMech();
+        copy.setId(0);
+        copy.setOwner(game.getPlayer(0));
+        copy.setPosition(new Coords(3, 3));
+        Game snapshot = game.snapshot(copy);
+
+        // the copy takes the place of the unit in the snapshot only
+        assertSame(snapshot, copy.getGame());
+        assertSame(copy, snapshot.getEntity(0));
+        assertEquals(Arrays.asList(copy, second), snapshot.getEntitiesVector());
+        assertEquals(Collections.singletonList(copy), snapshot.getEntitiesVector(new Coords(3, 3), true));
+        assertTrue(snapshot.getEntitiesVector(new Coords(2, 2), true).isEmpty());
+        assertSame(game, first.getGame());
+        assertSame(first, game.getEntity(0));
+        assertEquals(Collections.singletonList(first), game.getEntitiesVector(new Coords(2, 2), true));
+    }
+
+    private static Entity addMech(Game game, int id, Coords position) {
+        if (game.getPlayer(0) == null) {
+            game.addPlayer(0, new Player(0, "Player"));
+        }
+        Entity entity = new BipedMech();
+        entity.setId(id);
+        entity.setOwner(game.getPlayer(0));
+        entity.setPosition(position);
+        game.addEntity(entity, false);
+        return entity;
+    }
+
 }
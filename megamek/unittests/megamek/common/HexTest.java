@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import org.junit.Test;
+
+import java.io.*;
+
+import static org.junit.Assert.*;
+
+public class HexTest {
+
+    @Test
+    public void testAddAndRemoveTerrains() {
+        Hex hex = new Hex(1, "water:2;woods:1;road:1:09", "", new Coords(0, 0));
+        assertArrayEquals(new int[] { Terrains.WOODS, Terrains.WATER, Terrains.ROAD }, hex.getTerrainTypes());
+        assertEquals(2, hex.terrainLevel(Terrains.WATER));
+        assertEquals(9, hex.getTerrain(Terrains.ROAD).getExits());
+        assertFalse(hex.containsTerrain(Terrains.ROUGH));
+        assertNull(hex.getTerrain(-1));
+        assertNull(hex.getTerrain(Terrains.SIZE + 100));
+        assertEquals(Terrain.LEVEL_NONE, hex.terrainLevel(Terrains.ROUGH));
+
+        hex.addTerrain(new Terrain(Terrains.WOODS, 2));
+        assertEquals(2, hex.terrainLevel(Terrains.WOODS));
+        assertEquals(3, hex.terrainsPresent());
+
+        hex.removeTerrain(Terrains.WATER);
+        hex.removeTerrain(Terrains.ROUGH);
+        assertArrayEquals(new int[] { Terrains.WOODS, Terrains.ROAD }, hex.getTerrainTypes());
+        assertEquals(1, hex.terrainLevel(Terrains.ROAD));
+
+        hex.removeAllTerrains();
+        assertEquals(0, hex.terrainsPresent());
+        assertFalse(hex.containsTerrain(Terrains.WOODS));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        Hex hex = new Hex(2, "woods:2;foliage_elev:2;road:1:09", "snow", new Coords(3, 4));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(hex);
+        }
+        Hex read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = (Hex) in.readObject();
+        }
+        assertArrayEquals(hex.getTerrainTypes(), read.getTerrainTypes());
+        assertEquals(2, read.terrainLevel(Terrains.FOLIAGE_ELEV));
+        assertEquals(9, read.getTerrain(Terrains.ROAD).getExits());
+        assertEquals("snow", read.getTheme());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import megamek.common.MovePath.MoveStepType;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(value = JUnit4.class)
+public class MoveStepChainTest {
+
+    @Test
+    public void testAppendSharesPrefix() {
+        final MoveStep forwards = new MoveStep(null, MoveStepType.FORWARDS);
+        final MoveStep left = new MoveStep(null, MoveStepType.TURN_LEFT);
+        final MoveStep right = new MoveStep(null, MoveStepType.TURN_RIGHT);
+
+        final MoveStepChain prefix = MoveStepChain.EMPTY.append(forwards);
+        final MoveStepChain first = prefix.append(left);
+        final MoveStepChain second = prefix.append(right);
+
+        assertEquals(1, prefix.length());
+        assertEquals(Arrays.asList(forwards, left), first.asList());
+        assertEquals(Arrays.asList(forwards, right), second.asList());
+        assertSame(prefix, first.getParent());
+        assertSame(prefix, second.getParent());
+        assertSame(right, second.getLast());
+        assertSame(forwards, second.get(0));
+        assertNull(second.get(2));
+    }
+
+    @Test
+    public void testIndexing() {
+        // Long enough for indices both near the end and far from it
+        final List<MoveStep> steps = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            steps.add(new MoveStep(null, (i % 2 == 0) ? MoveStepType.FORWARDS : MoveStepType.TURN_LEFT));
+        }
+        final MoveStepChain chain = MoveStepChain.of(steps);
+
+        assertEquals(30, chain.length());
+        for (int i = 0; i < steps.size(); i++) {
+            assertSame(steps.get(i), chain.get(i));
+        }
+        assertNull(chain.get(-1));
+        assertNull(chain.get(30));
+        assertNull(MoveStepChain.EMPTY.get(0));
+        assertNull(MoveStepChain.EMPTY.getLast());
+
+        int index = 0;
+        for (MoveStep step : chain) {
+            assertSame(steps.get(index++), step);
+        }
+        assertEquals(steps, chain.asList());
+        assertEquals(steps, chain.toVector());
+    }
+
+    @Test
+    public void testBranchesShareSteps() {
+        final MoveStepChain prefix = MoveStepChain.EMPTY.append(new MoveStep(null, MoveStepType.FORWARDS))
+                .append(new MoveStep(null, MoveStepType.FORWARDS));
+        final MoveStep left = new MoveStep(null, MoveStepType.TURN_LEFT);
+        final MoveStep right = new MoveStep(null, MoveStepType.TURN_RIGHT);
+        final MoveStepChain first = prefix.append(left);
+        final MoveStepChain second = prefix.append(right);
+        final MoveStepChain longer = first.append(new MoveStep(null, MoveStepType.FORWARDS));
+
+        // The branches and the extension share the prefix and leave each other unchanged
+        assertSame(prefix.get(1), first.get(1));
+        assertSame(prefix.get(1), second.get(1));
+        assertSame(first, longer.getParent());
+        assertSame(left, longer.get(2));
+        assertSame(right, second.get(2));
+        assertEquals(2, prefix.length());
+        assertEquals(3, first.length());
+        assertSame(left, first.getLast());
+        assertSame(prefix, longer.truncate(2));
+    }
+
+    @Test
+    public void testTruncateAndRemove() {
+        final List<MoveStep> steps = Arrays.asList(new MoveStep(null, MoveStepType.FORWARDS),
+                new MoveStep(null, MoveStepType.TURN_LEFT), new MoveStep(null, MoveStepType.FORWARDS));
+        final MoveStepChain chain = MoveStepChain.of(steps);
+
+        assertEquals(steps.subList(0, 2), chain.truncate(2).asList());
+        assertTrue(chain.truncate(0).isEmpty());
+        assertEquals(Arrays.asList(steps.get(0), steps.get(2)), chain.remove(1).asList());
+        assertSame(MoveStepChain.EMPTY, MoveStepChain.EMPTY.getParent());
+    }
+
+    @Test
+    public void testCloneSharesSteps() {
+        final Game game = new Game();
+        final MovePath path = new MovePath(game, new BipedMech());
+        path.setStepChain(MoveStepChain.EMPTY.append(new MoveStep(null, MoveStepType.START_JUMP)));
+        assertTrue(path.isJumping());
+
+        final MovePath clone = path.clone();
+        assertSame(path.getStepChain(), clone.getStepChain());
+        clone.setStepChain(clone.getStepChain().append(new MoveStep(null, MoveStepType.FORWARDS)));
+        assertEquals(1, path.length());
+        assertEquals(2, clone.length());
+    }
+}
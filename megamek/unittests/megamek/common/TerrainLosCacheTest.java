@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TerrainLosCacheTest {
+
+    private static LosEffects.AttackInfo line(Coords from, Coords to) {
+        LosEffects.AttackInfo ai = LosEffects.buildAttackInfo(from, to, 1, 1, 0, 0);
+        ai.attOnLand = true;
+        ai.targetOnLand = true;
+        return ai;
+    }
+
+    private static Game createGame() {
+        Game game = new Game();
+        Hex[] hexes = new Hex[16 * 17];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        game.setBoard(new Board(16, 17, hexes));
+        return game;
+    }
+
+    @Test
+    public void testCachedUntilBoardChanges() {
+        Game game = createGame();
+        TerrainLosCache cache = new TerrainLosCache();
+        Coords from = new Coords(2, 4);
+        Coords to = new Coords(2, 12);
+
+        LosEffects first = cache.calculateLos(game, line(from, to));
+        assertTrue(first.canSee());
+        assertEquals(1, cache.size());
+        LosEffects second = cache.calculateLos(game, line(from, to));
+        assertTrue(second.canSee());
+        assertNotSame(first, second);
+        assertEquals(1, cache.size());
+
+        // heavy woods and smoke in between block the line
+        game.getBoard().setHex(new Coords(2, 7), new Hex(0, "woods:2;foliage_elev:2", ""));
+        game.getBoard().setHex(new Coords(2, 9), new Hex(0, "smoke:2", ""));
+        assertEquals(0, cache.size());
+        LosEffects blocked = cache.calculateLos(game, line(from, to));
+        assertFalse(blocked.canSee());
+        assertEquals(LosEffects.calculateLos(game, line(from, to)).getHeavyWoods(), blocked.getHeavyWoods());
+        assertEquals(1, blocked.getHeavySmoke());
+    }
+
+    @Test
+    public void testNotCachedWithGroundedDropShip() {
+        Game game = createGame();
+        game.addPlayer(0, new Player(0, "Player"));
+        TerrainLosCache cache = new TerrainLosCache();
+        Coords from = new Coords(2, 4);
+        Coords to = new Coords(2, 12);
+
+        Dropship dropShip = new Dropship();
+        dropShip.setOwner(game.getPlayer(0));
+        dropShip.setPosition(new Coords(10, 10));
+        dropShip.land();
+        game.addEntity(dropShip, false);
+        cache.calculateLos(game, line(from, to));
+        assertEquals(0, cache.size());
+
+        // once the DropShip has left the game, the lines are cached again
+        game.removeEntity(dropShip.getId(), IEntityRemovalConditions.REMOVE_SALVAGEABLE);
+        cache.calculateLos(game, line(from, to));
+        assertEquals(1, cache.size());
+    }
+}
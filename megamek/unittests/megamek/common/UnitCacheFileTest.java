@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.Set;
+import java.util.Vector;
+
+import static org.junit.Assert.*;
+
+public class UnitCacheFileTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private static MechSummary createSummary(String chassis, String model) {
+        MechSummary ms = new MechSummary();
+        ms.setName(chassis + " " + model);
+        ms.setChassis(chassis);
+        ms.setModel(model);
+        ms.setUnitType("Mek");
+        ms.setSourceFile(new File("data/mechfiles/mechs", chassis + " " + model + ".mtf"));
+        ms.setTons(55);
+        ms.setBV(1192);
+        ms.setCost(5_034_000);
+        ms.setCanon(true);
+        ms.setLevel("2");
+        ms.setSourceHash(0xCAFEBABEL);
+        ms.setAltTypes(new int[] { 1, 2, 3 });
+        ms.setArmorType(new int[] { 0, 0, 1 });
+        ms.setArmorTypes(new int[] { 0, 0, 1 });
+        ms.setEquipmentLists(new Vector<>(List.of("Medium Laser", "Heat Sink")), new Vector<>(List.of(2, 10)));
+        return ms;
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        File file = tmpFolder.newFile("units.cache");
+        UnitCacheFile.write(file, List.of(createSummary("Griffin", "GRF-1N"), createSummary("Shadow Hawk", "SHD-2H")));
+
+        MechSummary[] units = UnitCacheFile.read(file);
+        assertEquals(2, units.length);
+        assertEquals("Shadow Hawk SHD-2H", units[1].getName());
+        assertEquals("GRF-1N", units[0].getModel());
+        assertEquals(new File("data/mechfiles/mechs", "Griffin GRF-1N.mtf"), units[0].getSourceFile());
+        assertNull(units[0].getEntryName());
+        assertEquals(55, units[0].getTons(), 0);
+        assertEquals(1192, units[0].getBV());
+        assertEquals(5_034_000, units[0].getCost());
+        assertEquals(0xCAFEBABEL, units[0].getSourceHash());
+        assertTrue(units[0].isCanon());
+        assertArrayEquals(new int[] { 1, 2, 3 }, units[0].getAltTypes());
+        assertEquals(Set.of(0, 1), units[0].getArmorType());
+        assertNull(units[0].getArmorTechTypes());
+        assertEquals(List.of("Medium Laser", "Heat Sink"), units[1].getEquipmentNames());
+        assertEquals(List.of(2, 10), units[1].getEquipmentQuantities());
+        // the strings of the table are shared
+        assertSame(units[0].getEquipmentNames().get(0), units[1].getEquipmentNames().get(0));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOtherVersionRejected() throws IOException {
+        File file = tmpFolder.newFile("units.cache");
+        UnitCacheFile.write(file, List.of(createSummary("Griffin", "GRF-1N")));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(4);
+            raf.writeInt(UnitCacheFile.VERSION + 1);
+        }
+        UnitCacheFile.read(file);
+    }
+}
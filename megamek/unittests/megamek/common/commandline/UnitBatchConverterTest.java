@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common.commandline;
+
+import megamek.common.MechSummary;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class UnitBatchConverterTest {
+
+    private static MechSummary[] units(int count) {
+        final MechSummary[] units = new MechSummary[count];
+        for (int i = 0; i < count; i++) {
+            units[i] = new MechSummary();
+            units[i].setName("Unit " + i);
+            units[i].setSourceFile(new File("Unit " + i + ".mtf"));
+        }
+        return units;
+    }
+
+    /**
+     * @return the lines the converter writes for the given units, leaving out every unit whose
+     * index is a multiple of skip, or none if skip is 0
+     */
+    private static String expected(MechSummary[] units, int skip) {
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < units.length; i++) {
+            if ((skip == 0) || (i % skip != 0)) {
+                expected.append(units[i].getName()).append(System.lineSeparator());
+            }
+        }
+        return expected.toString();
+    }
+
+    @Test
+    public void testOutputInOrderOfUnits() throws Exception {
+        // more units than may be converted ahead, and the earlier units take longer
+        final MechSummary[] units = units(200);
+        final StringWriter out = new StringWriter();
+        final int failures = new UnitBatchConverter(4, "Converted").convert(units, (unit, bw) -> {
+            final int index = Integer.parseInt(unit.getName().substring(5));
+            if (index % 10 == 0) {
+                Thread.sleep(20 - index / 10);
+            }
+            bw.write(unit.getName());
+            bw.newLine();
+        }, out);
+        assertEquals(0, failures);
+        assertEquals(expected(units, 0), out.toString());
+    }
+
+    @Test
+    public void testSameOutputOnOneThread() throws Exception {
+        final MechSummary[] units = units(50);
+        final UnitBatchConverter.UnitConverter converter = (unit, bw) -> {
+            bw.write(unit.getName());
+            bw.newLine();
+        };
+        final StringWriter single = new StringWriter();
+        final StringWriter several = new StringWriter();
+        new UnitBatchConverter(1, "Converted").convert(units, converter, single);
+        new UnitBatchConverter(8, "Converted").convert(units, converter, several);
+        assertEquals(single.toString(), several.toString());
+    }
+
+    @Test
+    public void testFailedUnitsAreLeftOut() throws Exception {
+        final MechSummary[] units = units(40);
+        final StringWriter out = new StringWriter();
+        final int failures = new UnitBatchConverter(3, "Converted").convert(units, (unit, bw) -> {
+            final int index = Integer.parseInt(unit.getName().substring(5));
+            // a unit that fails after writing part of its output leaves none of it
+            bw.write(unit.getName());
+            if (index % 7 == 0) {
+                throw new IllegalStateException("Cannot convert " + unit.getName());
+            }
+            bw.newLine();
+        }, out);
+        assertEquals(6, failures);
+        assertEquals(expected(units, 7), out.toString());
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common.net.connections;
+
+import megamek.common.net.enums.PacketCommand;
+import megamek.common.net.events.DisconnectedEvent;
+import megamek.common.net.events.PacketReceivedEvent;
+import megamek.common.net.listeners.ConnectionListener;
+import megamek.common.net.marshalling.PacketMarshaller;
+import megamek.common.net.marshalling.PacketMarshallerFactory;
+import megamek.common.net.packets.Packet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@RunWith(value = JUnit4.class)
+public class NioConnectionTest {
+    private static final int TIMEOUT_SECONDS = 10;
+
+    private final PacketMarshaller marshaller = PacketMarshallerFactory.getInstance()
+            .getMarshaller(PacketMarshaller.COMPACT_BINARY_MARSHALING);
+    private NioSelectorPool selectorPool;
+    private ServerSocketChannel serverChannel;
+    private final List<Socket> clients = new ArrayList<>();
+    private final List<NioConnection> connections = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        selectorPool = new NioSelectorPool(1);
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (Socket client : clients) {
+            client.close();
+        }
+        for (NioConnection connection : connections) {
+            connection.close();
+        }
+        serverChannel.close();
+        selectorPool.shutdown();
+    }
+
+    /**
+     * Connects a blocking client socket and opens the server side connection for it.
+     */
+    private Socket connect(ConnectionListener listener) throws IOException {
+        final Socket client = new Socket(InetAddress.getLoopbackAddress(), serverChannel.socket().getLocalPort());
+        clients.add(client);
+        final NioConnection connection = new NioConnection(serverChannel.accept(), connections.size(), selectorPool);
+        connection.addConnectionListener(listener);
+        connections.add(connection);
+        assertTrue(connection.open());
+        return client;
+    }
+
+    private static class RecordingListener extends ConnectionListener {
+        final BlockingQueue<Packet> packets = new LinkedBlockingQueue<>();
+        final CountDownLatch disconnected = new CountDownLatch(1);
+
+        @Override
+        public void packetReceived(PacketReceivedEvent e) {
+            packets.add(e.getPacket());
+        }
+
+        @Override
+        public void disconnected(DisconnectedEvent e) {
+            disconnected.countDown();
+        }
+
+        Packet next() throws InterruptedException {
+            final Packet packet = packets.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull("No packet received", packet);
+            return packet;
+        }
+    }
+
+    /**
+     * @return The packet with its frame as a blocking connection writes it
+     */
+    private byte[] frame(Packet packet) throws IOException {
+        final byte[] data = marshaller.marshall(packet);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeBoolean(false);
+        out.writeInt(PacketMarshaller.COMPACT_BINARY_MARSHALING);
+        out.writeInt(data.length);
+        out.write(data);
+        return bytes.toByteArray();
+    }
+
+    private static Packet chat(String text) {
+        return new Packet(PacketCommand.CHAT, text);
+    }
+
+    @Test
+    public void testPacketsInOneWrite() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+        final Socket client = connect(listener);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < 3; i++) {
+            bytes.write(frame(chat("message " + i)));
+        }
+        client.getOutputStream().write(bytes.toByteArray());
+        client.getOutputStream().flush();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("message " + i, listener.next().getObject(0));
+        }
+    }
+
+    @Test
+    public void testPartialReads() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+        final Socket client = connect(listener);
+
+        // Split the frames inside the header, at the end of the header and inside the payload
+        final byte[] first = frame(chat("first"));
+        final byte[] second = frame(chat("second"));
+        final byte[] bytes = new byte[first.length + second.length];
+        System.arraycopy(first, 0, bytes, 0, first.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        final int[] splits = { 3, 9, 12, first.length + 5, bytes.length };
+        int position = 0;
+        for (int split : splits) {
+            client.getOutputStream().write(bytes, position, split - position);
+            client.getOutputStream().flush();
+            position = split;
+            Thread.sleep(50);
+        }
+
+        assertEquals("first", listener.next().getObject(0));
+        assertEquals("second", listener.next().getObject(0));
+    }
+
+    @Test
+    public void testLargeWrite() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+        final Socket client = connect(listener);
+
+        // Larger than the socket buffers, so the selector thread has to wait for write readiness
+        final StringBuilder text = new StringBuilder();
+        while (text.length() < 4_000_000) {
+            text.append("The quick brown fox jumps over the lazy dog. ");
+        }
+        final NioConnection connection = connections.get(0);
+        connection.setCompression(false);
+        connection.send(chat(text.toString()));
+        connection.send(chat("after"));
+
+        final DataInputStream in = new DataInputStream(client.getInputStream());
+        for (String expected : new String[] { text.toString(), "after" }) {
+            assertFalse(in.readBoolean());
+            final int marshallingType = in.readInt();
+            final byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            final Packet packet = PacketMarshallerFactory.getInstance().getMarshaller(marshallingType).unmarshall(data);
+            assertEquals(expected, packet.getObject(0));
+        }
+        assertFalse(connection.hasPending());
+    }
+
+    @Test
+    public void testSlowHandlerDoesNotBlockOtherConnections() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingListener slow = new RecordingListener() {
+            @Override
+            public void packetReceived(PacketReceivedEvent e) {
+                try {
+                    release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+                super.packetReceived(e);
+            }
+        };
+        final RecordingListener fast = new RecordingListener();
+        final Socket slowClient = connect(slow);
+        final Socket fastClient = connect(fast);
+
+        slowClient.getOutputStream().write(frame(chat("slow")));
+        slowClient.getOutputStream().write(frame(chat("slow again")));
+        fastClient.getOutputStream().write(frame(chat("fast")));
+
+        assertEquals("fast", fast.next().getObject(0));
+        assertTrue(slow.packets.isEmpty());
+        release.countDown();
+        assertEquals("slow", slow.next().getObject(0));
+        assertEquals("slow again", slow.next().getObject(0));
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+        final Socket client = connect(listener);
+
+        // The packet sent before closing is still processed, then the connection closes
+        client.getOutputStream().write(frame(chat("goodbye")));
+        client.close();
+
+        assertEquals("goodbye", listener.next().getObject(0));
+        assertTrue(listener.disconnected.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(connections.get(0).isClosed());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common.net.connections;
+
+import megamek.common.Coords;
+import megamek.common.net.enums.PacketCommand;
+import megamek.common.net.marshalling.PacketMarshaller;
+import megamek.common.net.marshalling.PacketMarshallerFactory;
+import megamek.common.net.packets.Packet;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayInputStream;
+import java.util.Vector;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+@RunWith(value = JUnit4.class)
+public class PreEncodedPacketTest {
+    private static final int MARSHALLING_TYPE = PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING;
+    private final PacketMarshaller marshaller = PacketMarshallerFactory.getInstance().getMarshaller(MARSHALLING_TYPE);
+
+    private Packet createPacket() {
+        final Vector<Coords> coords = new Vector<>();
+        for (int i = 0; i < 50; i++) {
+            coords.add(new Coords(i, i + 1));
+        }
+        return new Packet(PacketCommand.CHANGE_HEXES, 7, "broadcast", coords);
+    }
+
+    private Packet decode(SendPacket encoded) throws Exception {
+        final ByteArrayInputStream in = new ByteArrayInputStream(encoded.getData());
+        return encoded.isCompressed() ? marshaller.unmarshall(new GZIPInputStream(in))
+                : marshaller.unmarshall(in);
+    }
+
+    @Test
+    public void testEncodingIsShared() throws Exception {
+        final PreEncodedPacket packet = new PreEncodedPacket(createPacket());
+        PacketStatistics.getInstance().reset();
+
+        final SendPacket first = packet.getEncoded(marshaller, MARSHALLING_TYPE, true);
+        final SendPacket second = packet.getEncoded(marshaller, MARSHALLING_TYPE, true);
+        assertSame(first, second);
+        assertEquals(1, PacketStatistics.getInstance().getEncodes(PacketCommand.CHANGE_HEXES));
+        assertEquals(1, PacketStatistics.getInstance().getReuses(PacketCommand.CHANGE_HEXES));
+
+        // a connection without compression gets an encoding of its own
+        final SendPacket unzipped = packet.getEncoded(marshaller, MARSHALLING_TYPE, false);
+        assertNotSame(first, unzipped);
+        assertTrue(first.isCompressed());
+        assertFalse(unzipped.isCompressed());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final Packet original = createPacket();
+        final PreEncodedPacket packet = new PreEncodedPacket(original);
+        for (boolean zip : new boolean[] { false, true }) {
+            final SendPacket encoded = packet.getEncoded(marshaller, MARSHALLING_TYPE, zip);
+            assertEquals(MARSHALLING_TYPE, encoded.getMarshallingType());
+            assertEquals(PacketCommand.CHANGE_HEXES, encoded.getCommand());
+
+            final Packet decoded = decode(encoded);
+            assertEquals(original.getCommand(), decoded.getCommand());
+            assertEquals(7, decoded.getIntValue(0));
+            assertEquals("broadcast", decoded.getObject(1));
+            assertEquals(original.getObject(2), decoded.getObject(2));
+        }
+    }
+
+    @Test
+    public void testPacketWithoutDataIsNotCompressed() throws Exception {
+        final PreEncodedPacket packet = new PreEncodedPacket(new Packet(PacketCommand.CLOSE_CONNECTION, (Object[]) null));
+        final SendPacket encoded = packet.getEncoded(marshaller, MARSHALLING_TYPE, true);
+        assertFalse(encoded.isCompressed());
+        assertEquals(PacketCommand.CLOSE_CONNECTION, decode(encoded).getCommand());
+    }
+}
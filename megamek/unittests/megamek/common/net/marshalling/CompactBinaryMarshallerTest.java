@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.common.net.marshalling;
+
+import megamek.common.*;
+import megamek.common.MovePath.MoveStepType;
+import megamek.common.actions.TorsoTwistAction;
+import megamek.common.actions.WeaponAttackAction;
+import megamek.common.enums.AimingMode;
+import megamek.common.enums.GamePhase;
+import megamek.common.net.enums.PacketCommand;
+import megamek.common.net.packets.Packet;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(value = JUnit4.class)
+public class CompactBinaryMarshallerTest {
+    private final PacketMarshaller marshaller = PacketMarshallerFactory.getInstance()
+            .getMarshaller(PacketMarshaller.COMPACT_BINARY_MARSHALING);
+
+    private Packet roundTrip(Packet packet) {
+        final Packet result = marshaller.unmarshall(marshaller.marshall(packet));
+        assertNotNull(result);
+        assertEquals(packet.getCommand(), result.getCommand());
+        return result;
+    }
+
+    @Test
+    public void testPrimitiveValues() {
+        final Packet packet = roundTrip(new Packet(PacketCommand.TURN, 0, -1, Integer.MAX_VALUE,
+                Integer.MIN_VALUE, true, false, Long.MIN_VALUE, 2.5, "Täst", null,
+                new int[] { 3, -300000 }));
+        assertEquals(0, packet.getIntValue(0));
+        assertEquals(-1, packet.getIntValue(1));
+        assertEquals(Integer.MAX_VALUE, packet.getIntValue(2));
+        assertEquals(Integer.MIN_VALUE, packet.getIntValue(3));
+        assertTrue(packet.getBooleanValue(4));
+        assertFalse(packet.getBooleanValue(5));
+        assertEquals(Long.MIN_VALUE, packet.getObject(6));
+        assertEquals(2.5, packet.getObject(7));
+        assertEquals("Täst", packet.getObject(8));
+        assertNull(packet.getObject(9));
+        assertArrayEquals(new int[] { 3, -300000 }, (int[]) packet.getObject(10));
+    }
+
+    @Test
+    public void testGameTypes() {
+        final Vector<UnitLocation> path = new Vector<>();
+        path.add(new UnitLocation(4, new Coords(5, 6), 2, -1));
+        final Packet packet = roundTrip(new Packet(PacketCommand.ENTITY_UPDATE, GamePhase.FIRING, path));
+        assertEquals(GamePhase.FIRING, packet.getObject(0));
+        final UnitLocation location = ((Vector<UnitLocation>) packet.getObject(1)).get(0);
+        assertEquals(4, location.getId());
+        assertEquals(new Coords(5, 6), location.getCoords());
+        assertEquals(2, location.getFacing());
+        assertEquals(-1, location.getElevation());
+    }
+
+    @Test
+    public void testChangeHexes() {
+        final Set<Coords> coords = new HashSet<>();
+        coords.add(new Coords(3, 4));
+        final Set<Hex> hexes = new HashSet<>();
+        final Hex changed = new Hex(2, "woods:2;fire:1", "snow", new Coords(3, 4));
+        changed.setTheme("ice");
+        changed.setFireTurn(3);
+        hexes.add(changed);
+        final Packet packet = roundTrip(new Packet(PacketCommand.CHANGE_HEXES, coords, hexes));
+        assertEquals(coords, packet.getObject(0));
+        final Hex hex = ((Set<Hex>) packet.getObject(1)).iterator().next();
+        assertEquals(2, hex.getLevel());
+        assertEquals("ice", hex.getTheme());
+        assertEquals("snow", hex.getOriginalTheme());
+        assertEquals(3, hex.getFireTurn());
+        assertEquals(new Coords(3, 4), hex.getCoords());
+        assertEquals(2, hex.terrainLevel(Terrains.WOODS));
+        assertEquals(1, hex.terrainLevel(Terrains.FIRE));
+    }
+
+    @Test
+    public void testReports() {
+        final Report report = new Report(3100);
+        report.add(7, false);
+        report.add("hidden", true);
+        report.indent(2);
+        report.newlines = 0;
+        final Vector<Report> reports = new Vector<>();
+        reports.add(report);
+        final Report result = ((Vector<Report>) roundTrip(
+                new Packet(PacketCommand.SENDING_REPORTS, reports)).getObject(0)).get(0);
+        assertEquals(report.messageId, result.messageId);
+        assertEquals(report.newlines, result.newlines);
+        assertEquals(report.dataCount(), result.dataCount());
+        assertFalse(result.isValueObscured(0));
+        assertTrue(result.isValueObscured(1));
+        assertEquals(report.getText(), result.getText());
+    }
+
+    @Test
+    public void testLongStrings() {
+        // Longer than the 64 KB that DataOutput.writeUTF can write, with multibyte characters
+        final StringBuilder builder = new StringBuilder();
+        while (builder.length() < 100_000) {
+            builder.append("Kämpfer ");
+        }
+        final String text = builder.toString();
+        final Report report = new Report(3100);
+        report.add(text);
+        report.add("Player");
+        final Vector<Report> reports = new Vector<>();
+        reports.add(report);
+        final Hex hex = new Hex(0, "", text, new Coords(1, 2));
+
+        final Packet packet = roundTrip(new Packet(PacketCommand.SENDING_REPORTS, reports, text, hex));
+        final Report result = ((Vector<Report>) packet.getObject(0)).get(0);
+        assertEquals(report.getText(), result.getText());
+        assertEquals(text, packet.getObject(1));
+        assertEquals(text, ((Hex) packet.getObject(2)).getTheme());
+    }
+
+    @Test
+    public void testMovePath() {
+        final TreeMap<Integer, Vector<Integer>> launched = new TreeMap<>();
+        launched.put(1, new Vector<>(List.of(12, 13)));
+        final List<MoveStep> steps = List.of(
+                new MoveStep(MoveStepType.FORWARDS, Entity.NONE, Targetable.TYPE_ENTITY, null,
+                        -1, -1, Entity.LOC_NONE, null, ManeuverType.MAN_NONE, false, false, null),
+                new MoveStep(MoveStepType.CHARGE, 7, Targetable.TYPE_ENTITY, new Coords(2, 3),
+                        -1, -1, Entity.LOC_NONE, null, ManeuverType.MAN_NONE, false, false, null),
+                new MoveStep(MoveStepType.LAUNCH, Entity.NONE, Targetable.TYPE_ENTITY, null,
+                        -1, -1, Entity.LOC_NONE, launched, ManeuverType.MAN_NONE, false, false, null),
+                new MoveStep(MoveStepType.MANEUVER, Entity.NONE, Targetable.TYPE_ENTITY, null,
+                        5, 2, Entity.LOC_NONE, null, ManeuverType.MAN_LOOP, true, true, null));
+        final MovePath path = MovePath.ofUncompiledSteps(steps, false);
+
+        final Packet packet = roundTrip(new Packet(PacketCommand.ENTITY_MOVE, 4, path));
+        final MovePath result = (MovePath) packet.getObject(1);
+        assertFalse(result.isCareful());
+        assertEquals(steps.size(), result.length());
+        for (int i = 0; i < steps.size(); i++) {
+            final MoveStep expected = steps.get(i);
+            final MoveStep step = result.getStep(i);
+            assertEquals(expected.getType(), step.getType());
+            assertEquals(expected.getTargetId(), step.getTargetId());
+            assertEquals(expected.getTargetType(), step.getTargetType());
+            assertEquals(expected.getTargetPosition(), step.getTargetPosition());
+            assertEquals(expected.getRecoveryUnit(), step.getRecoveryUnit());
+            assertEquals(expected.getMineToLay(), step.getMineToLay());
+            assertEquals(expected.getManeuverType(), step.getManeuverType());
+            assertEquals(expected.hasNoCost(), step.hasNoCost());
+            assertEquals(expected.isManeuver(), step.isManeuver());
+            assertEquals(expected.getLaunched(), step.getLaunched());
+        }
+    }
+
+    @Test
+    public void testAttacks() {
+        final WeaponAttackAction attack = new WeaponAttackAction(3, Targetable.TYPE_HEX_CLEAR, 1205, 8);
+        attack.setAmmoId(9);
+        attack.setAimedLocation(Mech.LOC_HEAD);
+        attack.setAimingMode(AimingMode.TARGETING_COMPUTER);
+        attack.setOldTargetId(6);
+        attack.setSwarmMissiles(4);
+        attack.setBombPayload(new int[] { 0, 2 });
+        attack.setStrafing(true);
+        attack.setLaunchVelocity(30);
+        final Vector<Object> attacks = new Vector<>();
+        attacks.add(attack);
+        attacks.add(new TorsoTwistAction(3, 2));
+
+        final Vector<?> result = (Vector<?>) roundTrip(
+                new Packet(PacketCommand.ENTITY_ATTACK, 3, attacks)).getObject(1);
+        final WeaponAttackAction readAttack = (WeaponAttackAction) result.get(0);
+        assertEquals(3, readAttack.getEntityId());
+        assertEquals(Targetable.TYPE_HEX_CLEAR, readAttack.getTargetType());
+        assertEquals(1205, readAttack.getTargetId());
+        assertEquals(8, readAttack.getWeaponId());
+        assertEquals(9, readAttack.getAmmoId());
+        assertEquals(-1, readAttack.getAmmoCarrier());
+        assertEquals(Mech.LOC_HEAD, readAttack.getAimedLocation());
+        assertEquals(AimingMode.TARGETING_COMPUTER, readAttack.getAimingMode());
+        assertEquals(6, readAttack.getOldTargetId());
+        assertEquals(4, readAttack.getSwarmMissiles());
+        assertArrayEquals(new int[] { 0, 2 }, readAttack.getBombPayload());
+        assertTrue(readAttack.isStrafing());
+        assertFalse(readAttack.isPointblankShot());
+        assertEquals(30, readAttack.getLaunchVelocity());
+        final TorsoTwistAction twist = (TorsoTwistAction) result.get(1);
+        assertEquals(3, twist.getEntityId());
+        assertEquals(2, twist.getFacing());
+    }
+
+    @Test
+    public void testEntityDelta() {
+        final EntityDelta delta = new EntityDelta(5, 0x1234_5678_9ABCL, -42L,
+                EntityDelta.POSITION | EntityDelta.ARMOR | EntityDelta.DONE, new Coords(4, 9), 2, 3,
+                1, 0, 12, true, new int[] { 1, 0, 14 }, new int[0], new int[] { 0, 1 }, new int[0]);
+        final EntityDelta result = (EntityDelta) roundTrip(
+                new Packet(PacketCommand.ENTITY_DELTA_UPDATE, delta)).getObject(0);
+        assertEquals(delta.getEntityId(), result.getEntityId());
+        assertEquals(delta.getBaseDigest(), result.getBaseDigest());
+        assertEquals(delta.getDigest(), result.getDigest());
+        assertEquals(delta.getChangedFields(), result.getChangedFields());
+        assertEquals(delta.getPosition(), result.getPosition());
+        assertEquals(delta.getFacing(), result.getFacing());
+        assertEquals(delta.getSecondaryFacing(), result.getSecondaryFacing());
+        assertEquals(delta.getHeat(), result.getHeat());
+        assertTrue(result.isDone());
+        assertArrayEquals(delta.getArmor(), result.getArmor());
+        assertArrayEquals(delta.getCrewHits(), result.getCrewHits());
+        assertEquals(0, result.getAmmo().length);
+    }
+
+    @Test
+    public void testCorruptSizes() throws Exception {
+        // A vector claiming more elements than a packet may hold
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(header);
+        CompactBinaryMarshaller.writeVarInt(out, PacketCommand.SENDING_REPORTS.ordinal());
+        CompactBinaryMarshaller.writeVarInt(out, 1);
+        final byte[] vector = marshaller.marshall(new Packet(PacketCommand.SENDING_REPORTS, new Vector<>()));
+        out.writeByte(vector[header.size()]);
+        CompactBinaryMarshaller.writeVarInt(out, Integer.MAX_VALUE);
+        assertUnreadable(header.toByteArray());
+
+        // A string claiming more bytes than there are
+        final byte[] text = marshaller.marshall(new Packet(PacketCommand.SENDING_REPORTS, "text"));
+        text[text.length - 5] = 0x7E;
+        assertUnreadable(text);
+    }
+
+    private void assertUnreadable(byte[] data) throws Exception {
+        try {
+            marshaller.unmarshall(new ByteArrayInputStream(data));
+            fail("Corrupt packet was read");
+        } catch (IOException expected) {
+            // the corrupt size is rejected before anything is allocated for it
+        }
+    }
+
+    @Test
+    public void testSerializedFallback() {
+        final Vector<Object> mixed = new Vector<>();
+        mixed.add(new Coords(1, 1));
+        mixed.add(new StringBuffer("unsupported"));
+        final Packet packet = roundTrip(new Packet(PacketCommand.ENTITY_ATTACK, mixed, new Date(5)));
+        assertEquals(mixed.get(0), ((Vector<?>) packet.getObject(0)).get(0));
+        assertEquals("unsupported", ((Vector<?>) packet.getObject(0)).get(1).toString());
+        assertEquals(new Date(5), packet.getObject(1));
+    }
+
+    @Test
+    public void testNegotiation() {
+        final PacketMarshallerFactory factory = PacketMarshallerFactory.getInstance();
+        assertEquals(PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING, factory.negotiateMarshallingType((int[]) null));
+        assertEquals(PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING, factory.negotiateMarshallingType(42));
+        assertEquals(PacketMarshaller.COMPACT_BINARY_MARSHALING,
+                factory.negotiateMarshallingType(factory.getSupportedMarshallingTypes()));
+    }
+}
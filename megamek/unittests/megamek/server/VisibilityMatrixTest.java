@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.server;
+
+import megamek.common.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class VisibilityMatrixTest {
+    private Game game;
+    private VisibilityMatrix matrix;
+    private Entity spotter;
+    private Entity target;
+    private Entity other;
+
+    @Before
+    public void setUp() {
+        game = new Game();
+        game.setBoard(createBoard());
+        game.addPlayer(0, new Player(0, "Player"));
+        spotter = addMech(1, new Coords(2, 2));
+        target = addMech(2, new Coords(2, 10));
+        other = addMech(3, new Coords(12, 2));
+        matrix = new VisibilityMatrix(game);
+        matrix.validate();
+    }
+
+    private static Board createBoard() {
+        final Board board = new Board(16, 17);
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 17; y++) {
+                board.setHex(x, y, new Hex());
+            }
+        }
+        return board;
+    }
+
+    private Entity addMech(int id, Coords position) {
+        final Entity entity = new BipedMech();
+        entity.setId(id);
+        entity.setOwner(game.getPlayer(0));
+        entity.setPosition(position);
+        game.addEntity(entity, false);
+        return entity;
+    }
+
+    private void assertCounts(long hits, long misses) {
+        assertEquals(hits, matrix.getLosHits());
+        assertEquals(misses, matrix.getLosMisses());
+    }
+
+    @Test
+    public void testLosIsCached() {
+        final LosEffects los = matrix.getLos(spotter, target);
+        assertSame(los, matrix.getLos(spotter, target));
+        assertCounts(1, 1);
+
+        // The matrix is directional
+        matrix.getLos(target, spotter);
+        assertCounts(1, 2);
+    }
+
+    @Test
+    public void testMovedEntityIsRecomputed() {
+        matrix.getLos(spotter, target);
+        matrix.getLos(spotter, other);
+        assertCounts(0, 2);
+
+        target.setPosition(new Coords(3, 10));
+        matrix.getLos(spotter, target);
+        matrix.getLos(spotter, other);
+        assertCounts(1, 3);
+
+        other.setElevation(2);
+        matrix.getLos(spotter, other);
+        assertCounts(1, 4);
+    }
+
+    @Test
+    public void testChangedHexesEvictOnlyNearbyLines() {
+        matrix.getLos(spotter, target);
+        matrix.getLos(spotter, other);
+
+        // Woods between spotter and target block part of the line
+        final Coords between = new Coords(2, 6);
+        game.getBoard().setHex(between, new Hex(0, "woods:2", "", between));
+        matrix.getLos(spotter, target);
+        matrix.getLos(spotter, other);
+        assertCounts(1, 3);
+        assertEquals(LosEffects.calculateLOS(game, spotter, target).getHeavyWoods(),
+                matrix.getLos(spotter, target).getHeavyWoods());
+        assertTrue(matrix.getLos(spotter, target).getHeavyWoods() > 0);
+
+        // A hex far from both lines evicts nothing
+        matrix.hexesChanged(Collections.singleton(new Coords(14, 15)));
+        matrix.getLos(spotter, target);
+        matrix.getLos(spotter, other);
+        assertCounts(5, 3);
+    }
+
+    @Test
+    public void testNewBoardClears() {
+        matrix.getLos(spotter, target);
+        game.setBoard(createBoard());
+        matrix.validate();
+        matrix.getLos(spotter, target);
+        assertCounts(0, 2);
+    }
+}